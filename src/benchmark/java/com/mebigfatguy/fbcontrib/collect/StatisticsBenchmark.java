@@ -0,0 +1,134 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.collect;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.mebigfatguy.fbcontrib.utils.FQMethod;
+
+/**
+ * compares the cost of MethodInfo lookups through Statistics against probing the same map with a freshly allocated FQMethod, as was done before. Run with
+ * the gc profiler (the default in the benchmark profile) to see the normalized allocation rate of each. In this small loop C2 scalar-replaces the FQMethod,
+ * so both paths allocate nothing. The detectors call the lookup from large methods that aren't fully inlined, where the key escapes, which the NoEscape
+ * variants reproduce by running with escape analysis turned off.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsBenchmark {
+
+    private static final int NUM_CLASSES = 1000;
+    private static final String[] SIGNATURES = { "()V", "(I)I", "()Ljava/lang/String;", "(Ljava/lang/String;)V", "(Ljava/lang/Object;)Z",
+            "(ILjava/lang/Object;)Ljava/lang/Object;", "()Ljava/util/List;", "(Ljava/util/Map;Ljava/lang/String;)Ljava/lang/Object;", "(JJ)J",
+            "([BII)I" };
+    private static final int NUM_METHODS = SIGNATURES.length;
+
+    private final ConcurrentMap<FQMethod, MethodInfo> fqMethodMap = new ConcurrentHashMap<>();
+    private String[] classNames;
+    private String[] methodNames;
+    private String[] signatures;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Statistics statistics = Statistics.getStatistics();
+        statistics.clear();
+
+        classNames = new String[NUM_CLASSES * NUM_METHODS];
+        methodNames = new String[classNames.length];
+        signatures = new String[classNames.length];
+        int idx = 0;
+        for (int c = 0; c < NUM_CLASSES; c++) {
+            String clsName = "com/acme/pkg" + (c % 17) + "/Class" + c;
+            for (int m = 0; m < NUM_METHODS; m++) {
+                String methodName = "method" + m;
+                String signature = SIGNATURES[m];
+                MethodInfo mi = statistics.addMethodStatistics(clsName, methodName, signature, 1, 10 + m, m);
+                fqMethodMap.put(new FQMethod(clsName, methodName, signature), mi);
+
+                // copy the strings, as the constant pool of the caller would not share instances with the collected keys
+                classNames[idx] = new String(clsName);
+                methodNames[idx] = new String(methodName);
+                signatures[idx] = new String(signature);
+                idx++;
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Statistics.getStatistics().clear();
+    }
+
+    @Benchmark
+    public void allocatingKeyLookup(Blackhole bh) {
+        int i = nextIndex();
+        bh.consume(fqMethodMap.get(new FQMethod(classNames[i], methodNames[i], signatures[i])));
+    }
+
+    @Benchmark
+    public void statisticsLookup(Blackhole bh) {
+        int i = nextIndex();
+        bh.consume(Statistics.getStatistics().getMethodStatistics(classNames[i], methodNames[i], signatures[i]));
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-XX:-DoEscapeAnalysis")
+    public void allocatingKeyLookupNoEscape(Blackhole bh) {
+        allocatingKeyLookup(bh);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-XX:-DoEscapeAnalysis")
+    public void statisticsLookupNoEscape(Blackhole bh) {
+        statisticsLookup(bh);
+    }
+
+    @Benchmark
+    public void statisticsMissedLookup(Blackhole bh) {
+        int i = nextIndex();
+        bh.consume(Statistics.getStatistics().getMethodStatistics(classNames[i], signatures[i], methodNames[i]));
+    }
+
+    private int nextIndex() {
+        int i = next++;
+        if (next == classNames.length) {
+            next = 0;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.detect;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.umd.cs.findbugs.Detector;
+import edu.umd.cs.findbugs.ba.ClassContext;
+
+/**
+ * measures the throughput of single detectors over the samples, and over a generated synthetic corpus. Each benchmark operation is one detector visiting
+ * one class, cycling through the corpus, so the score is in classes per second, and the normalized allocation rate of the gc profiler (the default in the
+ * benchmark profile) is the bytes allocated per class. The analysis is set up once per trial by {@link AnalysisHarness}, with the first pass collectors
+ * already run, so that only the detector itself is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DetectorBenchmark {
+
+    private static final File SAMPLES_DIR = new File("target/test-classes/ex");
+    private static final File CORPUS_BASE_DIR = new File("target/benchmark-corpus");
+
+    @Param({ "SillynessPotPourri", "BloatedAssignmentScope", "NonProductiveMethodCall", "OverlyConcreteParameter", "CyclomaticComplexity" })
+    public String detector;
+
+    @Param({ "samples", "synthetic" })
+    public String corpus;
+
+    private AnalysisHarness harness;
+    private Detector detectorInstance;
+    private ClassContext[] classContexts;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        File corpusDir = "samples".equals(corpus) ? SAMPLES_DIR : SyntheticCorpus.getCorpus(CORPUS_BASE_DIR);
+        harness = AnalysisHarness.open(corpusDir);
+        classContexts = harness.getClassContexts();
+        detectorInstance = harness.createDetector(DetectorBenchmark.class.getPackage().getName() + '.' + detector);
+    }
+
+    @TearDown
+    public void tearDown() {
+        detectorInstance.report();
+        harness.close();
+    }
+
+    @Benchmark
+    public void visitClass() {
+        detectorInstance.visitClassContext(classContexts[next]);
+        next++;
+        if (next == classContexts.length) {
+            next = 0;
+        }
+    }
+}
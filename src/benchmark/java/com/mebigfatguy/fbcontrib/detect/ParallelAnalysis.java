@@ -0,0 +1,107 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.detect;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+
+import edu.umd.cs.findbugs.Detector;
+import edu.umd.cs.findbugs.ba.ClassContext;
+
+/**
+ * runs every detector marked {@link ParallelSafe} over a corpus, once on one thread and once on a fork join pool, and prints the bugs found and the time taken
+ * by each, failing if a detector finds a different number of bugs in parallel. Run it from the project directory after
+ * <code>mvn -Pbenchmark test-compile</code>, with the test class path, passing <code>samples</code> or <code>synthetic</code> and optionally the number of
+ * threads.
+ */
+public final class ParallelAnalysis {
+
+    private static final File SAMPLES_DIR = new File("target/test-classes/ex");
+    private static final File CORPUS_BASE_DIR = new File("target/benchmark-corpus");
+    private static final String DETECT_PACKAGE = ParallelAnalysis.class.getPackage().getName() + '.';
+    private static final Pattern DETECTOR = Pattern.compile("<Detector class=\"" + Pattern.quote(DETECT_PACKAGE) + "(\\w+)\"");
+
+    private ParallelAnalysis() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String corpus = (args.length > 0) ? args[0] : "samples";
+        int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        File corpusDir = "samples".equals(corpus) ? SAMPLES_DIR : SyntheticCorpus.getCorpus(CORPUS_BASE_DIR);
+
+        String findbugsXml = new String(Files.readAllBytes(Paths.get("etc/findbugs.xml")), StandardCharsets.UTF_8);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        int mismatches = 0;
+        long serialTotal = 0;
+        long parallelTotal = 0;
+        try (AnalysisHarness harness = AnalysisHarness.open(corpusDir)) {
+            ClassContext[] classContexts = harness.getClassContexts();
+            System.out.printf("%d classes, %d threads%n", classContexts.length, threads);
+
+            Matcher m = DETECTOR.matcher(findbugsXml);
+            while (m.find()) {
+                String detectorClassName = DETECT_PACKAGE + m.group(1);
+                if (!Class.forName(detectorClassName).isAnnotationPresent(ParallelSafe.class)) {
+                    continue;
+                }
+
+                int bugsBefore = harness.getBugCount();
+                long start = System.nanoTime();
+                Detector detector = harness.createDetector(detectorClassName);
+                for (ClassContext classContext : classContexts) {
+                    AnalysisHarness.visitClass(detector, classContext);
+                }
+                detector.report();
+                long serialTime = System.nanoTime() - start;
+                int serialBugs = harness.getBugCount() - bugsBefore;
+
+                bugsBefore = harness.getBugCount();
+                start = System.nanoTime();
+                harness.runInParallel(detectorClassName, pool);
+                long parallelTime = System.nanoTime() - start;
+                int parallelBugs = harness.getBugCount() - bugsBefore;
+
+                boolean same = serialBugs == parallelBugs;
+                if (!same) {
+                    mismatches++;
+                }
+                serialTotal += serialTime;
+                parallelTotal += parallelTime;
+                System.out.printf("%-40s %6d %6d %8d ms %8d ms%s%n", m.group(1), serialBugs, parallelBugs, TimeUnit.NANOSECONDS.toMillis(serialTime),
+                        TimeUnit.NANOSECONDS.toMillis(parallelTime), same ? "" : "  MISMATCH");
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        System.out.printf("total %d ms serial, %d ms parallel%n", TimeUnit.NANOSECONDS.toMillis(serialTotal), TimeUnit.NANOSECONDS.toMillis(parallelTotal));
+        if (mismatches > 0) {
+            System.err.println(mismatches + " detectors found different bugs in parallel");
+            System.exit(1);
+        }
+    }
+}
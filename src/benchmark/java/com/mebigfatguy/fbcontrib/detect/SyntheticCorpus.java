@@ -0,0 +1,210 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.detect;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * generates and compiles a large corpus of ordinary looking classes, to benchmark detectors over more code than the samples provide. The corpus is fully
+ * determined by {@link #NUM_CLASSES} and the method templates, where $ is replaced by the method number and # by a small constant, so that results are
+ * comparable across commits. Bump {@link #CORPUS_VERSION} whenever either changes, so that an already generated corpus is replaced.
+ */
+final class SyntheticCorpus {
+
+    private static final int CORPUS_VERSION = 1;
+    private static final int NUM_CLASSES = 400;
+    private static final int METHODS_PER_CLASS = 6;
+    private static final String PACKAGE_NAME = "synthetic";
+
+    // @formatter:off
+    private static final String[] METHOD_TEMPLATES = {
+        "    public java.util.List<String> build$(int count) {\n"
+      + "        java.util.List<String> values = new java.util.ArrayList<>();\n"
+      + "        for (int i = 0; i < count; i++) {\n"
+      + "            values.add(String.valueOf(i * #));\n"
+      + "        }\n"
+      + "        return values;\n"
+      + "    }\n",
+
+        "    public int sum$(java.util.Map<String, Integer> map) {\n"
+      + "        int sum = 0;\n"
+      + "        for (java.util.Map.Entry<String, Integer> entry : map.entrySet()) {\n"
+      + "            if (entry.getKey().startsWith(\"k#\")) {\n"
+      + "                sum += entry.getValue().intValue();\n"
+      + "            }\n"
+      + "        }\n"
+      + "        return sum;\n"
+      + "    }\n",
+
+        "    public String join$(String[] parts) {\n"
+      + "        StringBuilder sb = new StringBuilder();\n"
+      + "        for (String part : parts) {\n"
+      + "            if (sb.length() > 0) {\n"
+      + "                sb.append(',');\n"
+      + "            }\n"
+      + "            sb.append(part.trim().toLowerCase());\n"
+      + "        }\n"
+      + "        return sb.toString();\n"
+      + "    }\n",
+
+        "    public int parse$(String s) {\n"
+      + "        try {\n"
+      + "            return Integer.parseInt(s) + #;\n"
+      + "        } catch (NumberFormatException e) {\n"
+      + "            return -1;\n"
+      + "        }\n"
+      + "    }\n",
+
+        "    public String describe$(int kind) {\n"
+      + "        switch (kind) {\n"
+      + "            case 0:\n"
+      + "                return \"none\";\n"
+      + "            case 1:\n"
+      + "                return \"one\" + name;\n"
+      + "            case #:\n"
+      + "                return name == null ? \"unnamed\" : name.substring(1);\n"
+      + "            default:\n"
+      + "                return String.valueOf(kind);\n"
+      + "        }\n"
+      + "    }\n",
+
+        "    public void record$(Object value) {\n"
+      + "        synchronized (lock) {\n"
+      + "            if (value != null && !history.contains(value.toString())) {\n"
+      + "                history.add(value.toString());\n"
+      + "                count += #;\n"
+      + "            }\n"
+      + "        }\n"
+      + "    }\n",
+
+        "    public java.util.Set<String> filter$(java.util.Collection<String> input) {\n"
+      + "        java.util.Set<String> result = new java.util.HashSet<>();\n"
+      + "        java.util.Iterator<String> it = input.iterator();\n"
+      + "        while (it.hasNext()) {\n"
+      + "            String s = it.next();\n"
+      + "            if (s.length() > # && s.equals(name)) {\n"
+      + "                result.add(s);\n"
+      + "            }\n"
+      + "        }\n"
+      + "        return result;\n"
+      + "    }\n",
+
+        "    public long compute$(long[] values, java.io.InputStream in) throws java.io.IOException {\n"
+      + "        long total = 0;\n"
+      + "        for (int i = 0; i < values.length; i++) {\n"
+      + "            total += values[i] * #L;\n"
+      + "        }\n"
+      + "        int b;\n"
+      + "        while ((b = in.read()) >= 0) {\n"
+      + "            total ^= b;\n"
+      + "        }\n"
+      + "        return total;\n"
+      + "    }\n"
+    };
+    // @formatter:on
+
+    private SyntheticCorpus() {
+    }
+
+    /**
+     * returns the directory holding the compiled corpus, generating and compiling it first if it doesn't exist yet
+     *
+     * @param baseDir
+     *            the directory under which the corpus is kept
+     * @return the root directory of the compiled classes
+     *
+     * @throws IOException
+     *             if the corpus can't be written or doesn't compile
+     */
+    static File getCorpus(File baseDir) throws IOException {
+        File corpusDir = new File(baseDir, "synthetic-v" + CORPUS_VERSION);
+        File classesDir = new File(corpusDir, "classes");
+        if (classesDir.isDirectory()) {
+            return classesDir;
+        }
+
+        Path sourceDir = new File(corpusDir, "src/" + PACKAGE_NAME).toPath();
+        Files.createDirectories(sourceDir);
+        List<File> sources = new ArrayList<>(NUM_CLASSES);
+        for (int c = 0; c < NUM_CLASSES; c++) {
+            Path source = sourceDir.resolve(className(c) + ".java");
+            Files.write(source, generateClass(c).getBytes(StandardCharsets.UTF_8));
+            sources.add(source.toFile());
+        }
+
+        File tmpClassesDir = new File(corpusDir, "classes.tmp");
+        Files.createDirectories(tmpClassesDir.toPath());
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IOException("The synthetic corpus must be compiled, so the benchmarks need to be run on a JDK");
+        }
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            List<String> options = Arrays.asList("-g", "-nowarn", "-source", "1.8", "-target", "1.8", "-d", tmpClassesDir.getPath());
+            if (!compiler.getTask(null, fileManager, null, options, null, fileManager.getJavaFileObjectsFromFiles(sources)).call().booleanValue()) {
+                throw new IOException("Unable to compile the synthetic corpus in " + corpusDir);
+            }
+        }
+        Files.move(tmpClassesDir.toPath(), classesDir.toPath());
+        return classesDir;
+    }
+
+    private static String className(int c) {
+        return "Synthetic" + c;
+    }
+
+    private static String generateClass(int c) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(PACKAGE_NAME).append(";\n\n");
+        sb.append("public class ").append(className(c));
+        // build shallow hierarchies, so that hierarchy walking detectors have something to do
+        if ((c % 5) != 0) {
+            sb.append(" extends ").append(className(c - 1));
+        }
+        sb.append(" {\n");
+        sb.append("    private final Object lock = new Object();\n");
+        sb.append("    private final java.util.List<String> history = new java.util.ArrayList<>();\n");
+        sb.append("    private String name = \"name").append(c).append("\";\n");
+        sb.append("    private int count;\n\n");
+
+        for (int m = 0; m < METHODS_PER_CLASS; m++) {
+            int template = ((c * 7) + (m * 3)) % METHOD_TEMPLATES.length;
+            sb.append(METHOD_TEMPLATES[template].replace("$", "M" + m).replace("#", String.valueOf(((c + m) % 13) + 2)));
+            sb.append('\n');
+        }
+
+        if (c > 0) {
+            sb.append("    public int delegate(").append(className(c - 1)).append(" other) {\n");
+            sb.append("        return other.hashCode() + count;\n");
+            sb.append("    }\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.bcel.classfile.JavaClass;
+import org.apache.bcel.classfile.Method;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.mebigfatguy.fbcontrib.detect.AnalysisHarness;
+
+import edu.umd.cs.findbugs.ba.ClassContext;
+
+/**
+ * measures computing the {@link OpcodeStackSnapshots} of the methods of one class, cycling through the samples, which the analysis cache does once per
+ * method for all the detectors that use a {@link SharedOpcodeStack}. The detectors that do are created first, so that the snapshots record what they ask for.
+ * Run with the gc profiler (the default in the benchmark profile) to see the bytes allocated per class, most of which the analysis cache holds on to along
+ * with the class.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpcodeStackSnapshotsBenchmark {
+
+    private static final File SAMPLES_DIR = new File("target/test-classes/ex");
+
+    private static final String[] SHARED_STACK_DETECTORS = { "BloatedSynchronizedBlock", "CharsetIssues", "ConfusingArrayAsList",
+            "ContraVariantArrayAssignment", "DubiousListCollection", "DubiousSetOfCollections", "SpuriousThreadStates", "StaticMethodInstanceInvocation",
+            "SuspiciousWaitOnConcurrentObject", "TailRecursion", "TristateBooleanPattern" };
+
+    private AnalysisHarness harness;
+    private ClassContext[] classContexts;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        harness = AnalysisHarness.open(SAMPLES_DIR);
+        classContexts = harness.getClassContexts();
+        for (String detector : SHARED_STACK_DETECTORS) {
+            harness.createDetector(AnalysisHarness.class.getPackage().getName() + '.' + detector);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Benchmark
+    public void computeClass(Blackhole bh) {
+        JavaClass cls = classContexts[next].getJavaClass();
+        for (Method method : cls.getMethods()) {
+            bh.consume(OpcodeStackSnapshots.compute(cls, method));
+        }
+        next++;
+        if (next == classContexts.length) {
+            next = 0;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * compares the cached signature parsing of SignatureUtils against parsing each signature again, as was done before, for a mix of signatures as seen at
+ * invoke instructions. Run with the gc profiler (the default in the benchmark profile) to see the normalized allocation rate of each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignatureUtilsBenchmark {
+
+    private static final String[] SIGNATURES = { "()V", "(I)I", "()Ljava/lang/String;", "(Ljava/lang/String;)V", "(Ljava/lang/Object;)Z",
+            "(ILjava/lang/Object;)Ljava/lang/Object;", "()Ljava/util/List;", "(Ljava/util/Map;Ljava/lang/String;)Ljava/lang/Object;", "(JJ)J",
+            "([BII)I", "(Ljava/lang/String;[Ljava/lang/Object;)Ljava/lang/String;", "(Ljava/lang/CharSequence;II)Ljava/lang/StringBuilder;" };
+
+    private String[] signatures;
+    private int next;
+
+    @Setup
+    public void setup() {
+        // copy the strings, as each class's constant pool has its own instances
+        signatures = new String[SIGNATURES.length * 100];
+        for (int i = 0; i < signatures.length; i++) {
+            signatures[i] = new String(SIGNATURES[i % SIGNATURES.length]);
+        }
+    }
+
+    @Benchmark
+    public void cachedNumParameters(Blackhole bh) {
+        bh.consume(SignatureUtils.getNumParameters(nextSignature()));
+    }
+
+    @Benchmark
+    public void reparsedNumParameters(Blackhole bh) {
+        bh.consume(reparseNumParameters(nextSignature()));
+    }
+
+    @Benchmark
+    public void cachedParameterSignatures(Blackhole bh) {
+        bh.consume(SignatureUtils.getParameterSignatures(nextSignature()));
+    }
+
+    @Benchmark
+    public void reparsedParameterSignatures(Blackhole bh) {
+        bh.consume(reparseParameterSignatures(nextSignature()));
+    }
+
+    @Benchmark
+    public void cachedReturnSignature(Blackhole bh) {
+        bh.consume(SignatureUtils.getReturnSignature(nextSignature()));
+    }
+
+    @Benchmark
+    public void reparsedReturnSignature(Blackhole bh) {
+        String sig = nextSignature();
+        bh.consume(sig.substring(sig.indexOf(')') + 1));
+    }
+
+    private String nextSignature() {
+        String sig = signatures[next++];
+        if (next == signatures.length) {
+            next = 0;
+        }
+        return sig;
+    }
+
+    /**
+     * the parameter counting of SignatureUtils before signatures were cached, less the eclipse signature handling
+     */
+    private static int reparseNumParameters(String methodSignature) {
+        int start = methodSignature.indexOf('(') + 1;
+        int limit = methodSignature.lastIndexOf(')');
+
+        int numParms = 0;
+        for (int i = start; i < limit; i++) {
+            if (!methodSignature.startsWith(Values.SIG_ARRAY_PREFIX, i)) {
+                if (methodSignature.startsWith(Values.SIG_QUALIFIED_CLASS_PREFIX, i)) {
+                    i = methodSignature.indexOf(Values.SIG_QUALIFIED_CLASS_SUFFIX_CHAR, i + 1);
+                }
+                numParms++;
+            }
+        }
+
+        return numParms;
+    }
+
+    /**
+     * the parameter parsing of SignatureUtils before signatures were cached, less the eclipse signature handling
+     */
+    private static List<String> reparseParameterSignatures(String methodSignature) {
+        int start = methodSignature.indexOf('(') + 1;
+        int limit = methodSignature.lastIndexOf(')');
+
+        List<String> parmSignatures = new ArrayList<>();
+        int sigStart = start;
+        for (int i = start; i < limit; i++) {
+            if (!methodSignature.startsWith(Values.SIG_ARRAY_PREFIX, i)) {
+                if (methodSignature.startsWith(Values.SIG_QUALIFIED_CLASS_PREFIX, i)) {
+                    int semiPos = methodSignature.indexOf(Values.SIG_QUALIFIED_CLASS_SUFFIX_CHAR, i + 1);
+                    parmSignatures.add(methodSignature.substring(sigStart, semiPos + 1));
+                    i = semiPos;
+                } else {
+                    parmSignatures.add(methodSignature.substring(sigStart, i + 1));
+                }
+                sigStart = i + 1;
+            }
+        }
+
+        return parmSignatures;
+    }
+}
@@ -80,6 +80,11 @@ public class CollectMethodsReturningImmutableCollections extends BytecodeScannin
     @Override
     public void visitClassContext(ClassContext context) {
         try {
+            StatisticsCache cache = StatisticsCache.getCache();
+            if ((cache != null) && cache.restore(context)) {
+                return;
+            }
+
             stack = new OpcodeStack();
             clsName = context.getJavaClass().getClassName();
             super.visitClassContext(context);
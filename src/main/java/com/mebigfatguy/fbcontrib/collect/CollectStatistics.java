@@ -18,6 +18,7 @@
  */
 package com.mebigfatguy.fbcontrib.collect;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -58,6 +59,7 @@ public class CollectStatistics extends BytecodeScanningDetector implements NonRe
             //@formatter:on
     );
 
+    private BugReporter bugReporter;
     private int numMethodCalls;
     private boolean modifiesState;
     private boolean classHasAnnotation;
@@ -66,15 +68,20 @@ public class CollectStatistics extends BytecodeScanningDetector implements NonRe
     private QMethod curMethod;
 
     /**
-     * constructs a CollectStatistics detector which clears the singleton that holds the statistics for all classes parsed in the first pass.
+     * constructs a CollectStatistics detector which clears the singleton that holds the statistics for all classes parsed in the first pass, and loads the
+     * statistics cache if one is configured.
      *
      * @param bugReporter
-     *            unused, but required by reflection contract
+     *            the sync of errors reading or writing the statistics cache
      */
-    // required for reflection
-    @SuppressWarnings("PMD.UnusedFormalParameter")
     public CollectStatistics(BugReporter bugReporter) {
+        this.bugReporter = bugReporter;
         Statistics.getStatistics().clear();
+        try {
+            StatisticsCache.initialize();
+        } catch (IOException e) {
+            bugReporter.logError("Failed reading fb-contrib statistics cache, ignoring it", e);
+        }
     }
 
     /**
@@ -86,6 +93,11 @@ public class CollectStatistics extends BytecodeScanningDetector implements NonRe
     @Override
     public void visitClassContext(ClassContext classContext) {
         try {
+            StatisticsCache cache = StatisticsCache.getCache();
+            if ((cache != null) && cache.restore(classContext)) {
+                return;
+            }
+
             JavaClass cls = classContext.getJavaClass();
             AnnotationEntry[] annotations = cls.getAnnotationEntries();
             classHasAnnotation = !CollectionUtils.isEmpty(annotations);
@@ -102,6 +114,21 @@ public class CollectStatistics extends BytecodeScanningDetector implements NonRe
         }
     }
 
+    /**
+     * implements the visitor to save the collected statistics to the statistics cache, if one is configured, once all classes have been visited
+     */
+    @Override
+    public void report() {
+        StatisticsCache cache = StatisticsCache.getCache();
+        if (cache != null) {
+            try {
+                cache.save();
+            } catch (IOException e) {
+                bugReporter.logError("Failed writing fb-contrib statistics cache", e);
+            }
+        }
+    }
+
     @Override
     public void visitCode(Code obj) {
 
@@ -119,6 +146,7 @@ public class CollectStatistics extends BytecodeScanningDetector implements NonRe
         Method method = getMethod();
         int accessFlags = method.getAccessFlags();
         MethodInfo mi = Statistics.getStatistics().addMethodStatistics(clsName, getMethodName(), getMethodSig(), accessFlags, obj.getLength(), numMethodCalls);
+        mi.setNumCodeBytes(code.length);
         if (clsName.contains("$") || ((accessFlags & (ACC_ABSTRACT | ACC_INTERFACE | ACC_ANNOTATION)) != 0)) {
             mi.addCallingAccess(Constants.ACC_PUBLIC);
         } else if ((accessFlags & Constants.ACC_PRIVATE) == 0) {
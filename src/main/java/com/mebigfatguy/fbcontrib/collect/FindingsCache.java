@@ -0,0 +1,408 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.collect;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.bcel.Repository;
+import org.apache.bcel.classfile.Constant;
+import org.apache.bcel.classfile.ConstantClass;
+import org.apache.bcel.classfile.ConstantMethodType;
+import org.apache.bcel.classfile.ConstantNameAndType;
+import org.apache.bcel.classfile.ConstantPool;
+import org.apache.bcel.classfile.ConstantUtf8;
+import org.apache.bcel.classfile.Field;
+import org.apache.bcel.classfile.JavaClass;
+import org.apache.bcel.classfile.Method;
+
+import com.mebigfatguy.fbcontrib.utils.BugOutputStream;
+import com.mebigfatguy.fbcontrib.utils.ToString;
+import com.mebigfatguy.fbcontrib.utils.Values;
+
+import edu.umd.cs.findbugs.BugInstance;
+import edu.umd.cs.findbugs.ba.ClassContext;
+import edu.umd.cs.findbugs.classfile.DescriptorFactory;
+
+/**
+ * persists the bugs found in each class by each incrementally run detector between runs, so that they can be replayed rather than found again when neither
+ * the class, nor any class it depends on, has changed. A class depends on the classes named in its constant pool, which covers those whose methods it calls
+ * and whose fields it uses, and thus whose first pass statistics the detectors may consult, on the classes named in the descriptors of its fields and methods
+ * and of those it uses, and on all the superclasses and interfaces of these and of itself. Classes are compared by a digest of their class files, for the
+ * application and library classes alike. What a detector learns from classes beyond these, such as the subclasses or implementors of a type, isn't covered,
+ * which is why only detectors marked {@link com.mebigfatguy.fbcontrib.utils.IncrementalSafe} are replayed.
+ */
+final class FindingsCache {
+
+    private static final int MAGIC = 0xFBC0F1D5;
+    /** bump whenever the format changes, so that old cache files are ignored */
+    private static final int FORMAT_VERSION = 3;
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+    private static final byte[] MISSING_CLASS = new byte[0];
+
+    private final Path cacheFile;
+    private final String configuration;
+    private final Map<String, CachedClass> cachedClasses = new HashMap<>();
+    private final Map<String, CachedClass> currentClasses = new LinkedHashMap<>();
+    private final Map<String, byte[]> classDigests = new HashMap<>();
+
+    /**
+     * creates an empty cache for a new analysis
+     *
+     * @param cacheFile
+     *            the file the findings are kept in
+     * @param configuration
+     *            a description of the plugin and its settings, the findings of a run with a different configuration are ignored
+     */
+    FindingsCache(Path cacheFile, String configuration) {
+        this.cacheFile = cacheFile;
+        this.configuration = configuration;
+    }
+
+    /**
+     * returns the bugs a detector found in a class the last time it was analyzed, if neither the class nor its dependencies have changed since
+     *
+     * @param classContext
+     *            the context of the class about to be analyzed
+     * @param detector
+     *            the short name of the detector
+     * @return the bugs to replay, or null if the detector must analyze the class
+     */
+    List<BugInstance> getFindings(ClassContext classContext, String detector) {
+        CachedClass currentClass = getCurrentClass(classContext.getJavaClass());
+        if (currentClass == null) {
+            return null;
+        }
+        byte[] findings = currentClass.findings.get(detector);
+        if (findings == null) {
+            return null;
+        }
+
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(findings))) {
+            int numBugs = ois.readInt();
+            List<BugInstance> bugs = new ArrayList<>(numBugs);
+            for (int i = 0; i < numBugs; i++) {
+                bugs.add((BugInstance) ois.readObject());
+            }
+            return bugs;
+        } catch (IOException | ClassNotFoundException e) {
+            currentClass.findings.remove(detector);
+            return null;
+        }
+    }
+
+    /**
+     * records the bugs a detector found in a class that it just analyzed, after {@link #getFindings} said it had to
+     *
+     * @param classContext
+     *            the context of the class that was analyzed
+     * @param detector
+     *            the short name of the detector
+     * @param bugs
+     *            the bugs the detector found in it
+     *
+     * @throws IOException
+     *             if the bugs can't be serialized
+     */
+    void putFindings(ClassContext classContext, String detector, List<BugInstance> bugs) throws IOException {
+        CachedClass currentClass = getCurrentClass(classContext.getJavaClass());
+        if (currentClass == null) {
+            return;
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new BugOutputStream(baos)) {
+            oos.writeInt(bugs.size());
+            for (BugInstance bug : bugs) {
+                oos.writeObject(bug);
+            }
+        }
+        currentClass.findings.put(detector, baos.toByteArray());
+    }
+
+    /**
+     * returns the entry of a class for this analysis, digesting it and its dependencies the first time it is asked for. The entry starts out with the
+     * findings of the last run if the digests are the same, and empty otherwise.
+     *
+     * @param cls
+     *            the class being analyzed
+     * @return the entry, or null if the class or its hierarchy can't be loaded
+     */
+    private CachedClass getCurrentClass(JavaClass cls) {
+        String clsName = cls.getClassName().replace('.', '/');
+        CachedClass currentClass = currentClasses.get(clsName);
+        if (currentClass != null) {
+            return currentClass;
+        }
+
+        byte[] digest = getClassDigest(clsName);
+        byte[] dependencyDigest = digestDependencies(cls, clsName);
+        if ((digest == MISSING_CLASS) || (dependencyDigest == null)) {
+            return null;
+        }
+
+        currentClass = new CachedClass(digest, dependencyDigest);
+        CachedClass cachedClass = cachedClasses.get(clsName);
+        if ((cachedClass != null) && Arrays.equals(digest, cachedClass.digest) && Arrays.equals(dependencyDigest, cachedClass.dependencyDigest)) {
+            currentClass.findings.putAll(cachedClass.findings);
+        }
+        currentClasses.put(clsName, currentClass);
+        return currentClass;
+    }
+
+    /**
+     * writes the findings of all classes seen in this analysis to the cache file. Classes that were in the cache but not seen this time are dropped, while
+     * the findings of detectors that didn't run this time are kept for the classes that haven't changed.
+     *
+     * @throws IOException
+     *             if the cache file can't be written
+     */
+    void save() throws IOException {
+        Path parent = cacheFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmpFile = Paths.get(cacheFile.toString() + ".tmp");
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmpFile))))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(FORMAT_VERSION);
+            dos.writeUTF(configuration);
+            dos.writeInt(currentClasses.size());
+            for (Map.Entry<String, CachedClass> entry : currentClasses.entrySet()) {
+                CachedClass cachedClass = entry.getValue();
+                dos.writeUTF(entry.getKey());
+                writeBytes(dos, cachedClass.digest);
+                writeBytes(dos, cachedClass.dependencyDigest);
+                dos.writeInt(cachedClass.findings.size());
+                for (Map.Entry<String, byte[]> findings : cachedClass.findings.entrySet()) {
+                    dos.writeUTF(findings.getKey());
+                    dos.writeInt(findings.getValue().length);
+                    dos.write(findings.getValue());
+                }
+            }
+        }
+
+        Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * loads the findings of the last run, if the cache file exists, and was written by the same configuration
+     *
+     * @throws IOException
+     *             if the cache file exists but can't be read, in which case the cache is left empty
+     */
+    void load() throws IOException {
+        if (!Files.exists(cacheFile)) {
+            return;
+        }
+
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(cacheFile))))) {
+            if ((dis.readInt() != MAGIC) || (dis.readInt() != FORMAT_VERSION) || !configuration.equals(dis.readUTF())) {
+                return;
+            }
+
+            int numClasses = dis.readInt();
+            for (int c = 0; c < numClasses; c++) {
+                String clsName = dis.readUTF();
+                CachedClass cachedClass = new CachedClass(readBytes(dis), readBytes(dis));
+                int numDetectors = dis.readInt();
+                for (int d = 0; d < numDetectors; d++) {
+                    String detector = dis.readUTF();
+                    byte[] findings = new byte[dis.readInt()];
+                    dis.readFully(findings);
+                    cachedClass.findings.put(detector, findings);
+                }
+                cachedClasses.put(clsName, cachedClass);
+            }
+        } catch (IOException e) {
+            cachedClasses.clear();
+            throw e;
+        }
+    }
+
+    /**
+     * computes one digest over the names and class file digests of all the classes a class depends on, being those its constant pool and descriptors name,
+     * and their supertypes
+     *
+     * @param cls
+     *            the class whose dependencies are digested
+     * @param clsName
+     *            the slashed name of the class
+     * @return the digest, or null if the hierarchy of the class can't be loaded
+     */
+    private byte[] digestDependencies(JavaClass cls, String clsName) {
+        Set<String> dependencies = new TreeSet<>();
+        ConstantPool pool = cls.getConstantPool();
+        for (Constant c : pool.getConstantPool()) {
+            if (c instanceof ConstantClass) {
+                String name = ((ConstantClass) c).getBytes(pool);
+                if (name.startsWith(Values.SIG_ARRAY_PREFIX)) {
+                    addDescriptorTypes(name, dependencies);
+                } else {
+                    dependencies.add(name);
+                }
+            } else if (c instanceof ConstantNameAndType) {
+                addDescriptorTypes(((ConstantNameAndType) c).getSignature(pool), dependencies);
+            } else if (c instanceof ConstantMethodType) {
+                addDescriptorTypes(((ConstantUtf8) pool.getConstant(((ConstantMethodType) c).getDescriptorIndex())).getBytes(), dependencies);
+            }
+        }
+        for (Field f : cls.getFields()) {
+            addDescriptorTypes(f.getSignature(), dependencies);
+        }
+        for (Method m : cls.getMethods()) {
+            addDescriptorTypes(m.getSignature(), dependencies);
+        }
+
+        for (String dependency : new ArrayList<>(dependencies)) {
+            try {
+                JavaClass dependencyCls = Repository.lookupClass(dependency.replace('/', '.'));
+                for (JavaClass superCls : dependencyCls.getSuperClasses()) {
+                    dependencies.add(superCls.getClassName().replace('.', '/'));
+                }
+                for (JavaClass inf : dependencyCls.getAllInterfaces()) {
+                    dependencies.add(inf.getClassName().replace('.', '/'));
+                }
+            } catch (ClassNotFoundException e) {
+                // the missing class is digested as such, and so is whatever part of its hierarchy was found
+            }
+        }
+
+        try {
+            for (JavaClass superCls : cls.getSuperClasses()) {
+                dependencies.add(superCls.getClassName().replace('.', '/'));
+            }
+            for (JavaClass inf : cls.getAllInterfaces()) {
+                dependencies.add(inf.getClassName().replace('.', '/'));
+            }
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        dependencies.remove(clsName);
+
+        try {
+            MessageDigest md = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            for (String dependency : dependencies) {
+                md.update(dependency.getBytes(StandardCharsets.UTF_8));
+                md.update(getClassDigest(dependency));
+            }
+            return md.digest();
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    /**
+     * adds the classes named by a field or method descriptor, or an array class name, to a set of dependencies
+     *
+     * @param descriptor
+     *            the descriptor to parse
+     * @param dependencies
+     *            the slashed class names found so far
+     */
+    private static void addDescriptorTypes(String descriptor, Set<String> dependencies) {
+        int start = descriptor.indexOf('L');
+        while (start >= 0) {
+            int end = descriptor.indexOf(';', start);
+            if (end < 0) {
+                return;
+            }
+            dependencies.add(descriptor.substring(start + 1, end));
+            start = descriptor.indexOf('L', end);
+        }
+    }
+
+    /**
+     * returns the digest of a class file, computing it once per analysis
+     *
+     * @param clsName
+     *            the slashed name of the class
+     * @return the digest, or {@link #MISSING_CLASS} if the class can't be found
+     */
+    private byte[] getClassDigest(String clsName) {
+        byte[] digest = classDigests.get(clsName);
+        if (digest == null) {
+            digest = StatisticsCache.digestClass(DescriptorFactory.createClassDescriptor(clsName));
+            if (digest == null) {
+                digest = MISSING_CLASS;
+            }
+            classDigests.put(clsName, digest);
+        }
+        return digest;
+    }
+
+    private static void writeBytes(DataOutputStream dos, byte[] bytes) throws IOException {
+        dos.writeShort(bytes.length);
+        dos.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream dis) throws IOException {
+        byte[] bytes = new byte[dis.readUnsignedShort()];
+        dis.readFully(bytes);
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.build(this);
+    }
+
+    /**
+     * the digests of a class, and the serialized bugs of each detector that analyzed it, as read from, or to be written to, the cache file
+     */
+    static class CachedClass {
+        byte[] digest;
+        byte[] dependencyDigest;
+        Map<String, byte[]> findings = new HashMap<>();
+
+        CachedClass(byte[] digest, byte[] dependencyDigest) {
+            this.digest = digest;
+            this.dependencyDigest = dependencyDigest;
+        }
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
+        }
+    }
+}
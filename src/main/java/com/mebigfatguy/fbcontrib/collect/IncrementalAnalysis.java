@@ -0,0 +1,251 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.collect;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import com.mebigfatguy.fbcontrib.debug.DetectorProfiler;
+import com.mebigfatguy.fbcontrib.utils.BugSpool;
+import com.mebigfatguy.fbcontrib.utils.FBContribEngineRegistrar;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.JDKSignatureIndex;
+import com.mebigfatguy.fbcontrib.utils.PluginDetectors;
+import com.mebigfatguy.fbcontrib.utils.ToString;
+
+import edu.umd.cs.findbugs.BugInstance;
+import edu.umd.cs.findbugs.BugReporter;
+import edu.umd.cs.findbugs.Detector2;
+import edu.umd.cs.findbugs.DetectorFactory;
+import edu.umd.cs.findbugs.Plugin;
+import edu.umd.cs.findbugs.ba.AnalysisContext;
+import edu.umd.cs.findbugs.ba.ClassContext;
+import edu.umd.cs.findbugs.classfile.CheckedAnalysisException;
+import edu.umd.cs.findbugs.classfile.ClassDescriptor;
+import edu.umd.cs.findbugs.classfile.Global;
+
+/**
+ * runs the reporting fb-contrib detectors incrementally. When the system property <code>fb-contrib.incremental.cachefile</code> names a file, the detectors
+ * marked {@link IncrementalSafe}, whose findings in a class only depend on the class and the classes it uses, are gated as FindBugs creates them: each one
+ * only visits the classes that changed, or whose dependencies changed, since the last run, and the bugs it found last time are replayed for the rest. The
+ * other detectors, which report on what they learn across classes, are left to run over every class. The bugs found are kept in the cache file for the next
+ * run, which ignores them if the plugin version or the fb-contrib system properties that affect the findings differ.
+ * <p>
+ * The gating is installed by {@link FBContribEngineRegistrar}, as FindBugs registers the analysis engines before it creates any detector, so the detectors
+ * that run are those FindBugs enabled, as it always does. Setting <code>fbcontrib.CS.cachefile</code> as well lets the first pass skip unchanged classes too.
+ */
+public final class IncrementalAnalysis implements PluginDetectors.DetectorInterceptor {
+
+    private static final String INCREMENTAL_CACHE_FILE = "fb-contrib.incremental.cachefile";
+
+    private static final String CACHE_FILE_NAME = System.getProperty(INCREMENTAL_CACHE_FILE);
+
+    private static final String FB_CONTRIB_PROPERTY_PREFIX = "fb-contrib.";
+    private static final String FBCONTRIB_PROPERTY_PREFIX = "fbcontrib.";
+
+    /** the properties that only say where or how fb-contrib keeps its data, and so don't change what the detectors find */
+    private static final Set<String> STORAGE_PROPERTIES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(INCREMENTAL_CACHE_FILE,
+            StatisticsCache.CS_CACHE_FILE, DetectorProfiler.PROFILE_OUTPUT_FILE, JDKSignatureIndex.SJVU_INDEX_DIR, BugSpool.MAX_IN_MEMORY_PROPERTY)));
+
+    private FindingsCache cache;
+    private AnalysisContext cachedContext;
+    private int unfinishedDetectors;
+
+    /**
+     * private to only be created by install
+     */
+    private IncrementalAnalysis() {
+    }
+
+    /**
+     * intercepts the creation of the plugin's incremental safe detectors to gate them on the findings cache, if a cache file is given
+     */
+    public static void install() {
+        if (CACHE_FILE_NAME != null) {
+            PluginDetectors.interceptDetectors(new IncrementalAnalysis());
+        }
+    }
+
+    /**
+     * implements the interceptor to gate an incremental safe detector on the findings cache, and to create any other detector as FindBugs would
+     *
+     * @param factory
+     *            the factory of the detector
+     * @param bugReporter
+     *            the reporter FindBugs hands to the detector
+     * @return the detector to run
+     */
+    @Override
+    public Detector2 create(DetectorFactory factory, BugReporter bugReporter) {
+        try {
+            if (!Class.forName(factory.getFullName(), false, factory.getPlugin().getClassLoader()).isAnnotationPresent(IncrementalSafe.class)) {
+                return factory.createDetector2(bugReporter);
+            }
+        } catch (ClassNotFoundException e) {
+            return factory.createDetector2(bugReporter);
+        }
+
+        FindingsCache findingsCache;
+        synchronized (this) {
+            AnalysisContext context = AnalysisContext.currentAnalysisContext();
+            if ((cache == null) || (context != cachedContext)) {
+                cachedContext = context;
+                cache = createCache(bugReporter);
+                unfinishedDetectors = 0;
+            }
+            findingsCache = cache;
+            unfinishedDetectors++;
+        }
+
+        return new GatedDetector(factory, findingsCache, bugReporter);
+    }
+
+    private static FindingsCache createCache(BugReporter bugReporter) {
+        StringBuilder configuration = new StringBuilder();
+        Plugin plugin = PluginDetectors.getPlugin();
+        if (plugin != null) {
+            configuration.append(plugin.getVersion());
+        }
+
+        for (String property : new TreeSet<>(System.getProperties().stringPropertyNames())) {
+            if ((property.startsWith(FB_CONTRIB_PROPERTY_PREFIX) || property.startsWith(FBCONTRIB_PROPERTY_PREFIX)) && !STORAGE_PROPERTIES.contains(property)) {
+                configuration.append(',').append(property).append('=').append(System.getProperty(property));
+            }
+        }
+
+        FindingsCache findingsCache = new FindingsCache(Paths.get(CACHE_FILE_NAME), configuration.toString());
+        try {
+            findingsCache.load();
+        } catch (IOException e) {
+            bugReporter.logError("Failed reading fb-contrib findings cache, ignoring it", e);
+        }
+        return findingsCache;
+    }
+
+    /**
+     * records that a gated detector has finished its pass, and saves the findings if it was the last gated detector created so far
+     */
+    private void passFinished(FindingsCache findingsCache, BugReporter bugReporter) {
+        synchronized (this) {
+            if ((findingsCache != cache) || (--unfinishedDetectors > 0)) {
+                return;
+            }
+        }
+
+        try {
+            findingsCache.save();
+        } catch (IOException e) {
+            bugReporter.logError("Unable to write the fb-contrib findings to " + CACHE_FILE_NAME, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString.build(this);
+    }
+
+    /**
+     * an incremental safe detector created by FindBugs, that only visits the classes whose findings aren't cached, and replays the cached findings of the
+     * others
+     */
+    class GatedDetector implements Detector2 {
+        private final String detectorName;
+        private final FindingsCache findingsCache;
+        private final BugReporter bugReporter;
+        private final Detector2 detector;
+        private List<BugInstance> classBugs;
+
+        GatedDetector(DetectorFactory factory, FindingsCache findingsCache, BugReporter bugReporter) {
+            detectorName = factory.getShortName();
+            this.findingsCache = findingsCache;
+            this.bugReporter = bugReporter;
+            detector = factory.createDetector2(createRecordingReporter());
+        }
+
+        @Override
+        public void visitClass(ClassDescriptor classDescriptor) throws CheckedAnalysisException {
+            ClassContext classContext = Global.getAnalysisCache().getClassAnalysis(ClassContext.class, classDescriptor);
+            List<BugInstance> cachedBugs;
+            synchronized (findingsCache) {
+                cachedBugs = findingsCache.getFindings(classContext, detectorName);
+            }
+            if (cachedBugs != null) {
+                for (BugInstance bug : cachedBugs) {
+                    bugReporter.reportBug(bug);
+                }
+                return;
+            }
+
+            classBugs = new ArrayList<>();
+            try {
+                detector.visitClass(classDescriptor);
+                synchronized (findingsCache) {
+                    findingsCache.putFindings(classContext, detectorName, classBugs);
+                }
+            } catch (IOException e) {
+                bugReporter.logError("Unable to cache the findings of " + detectorName + " in " + classDescriptor.getDottedClassName(), e);
+            } finally {
+                classBugs = null;
+            }
+        }
+
+        @Override
+        public void finishPass() {
+            try {
+                detector.finishPass();
+            } finally {
+                passFinished(findingsCache, bugReporter);
+            }
+        }
+
+        @Override
+        public String getDetectorClassName() {
+            return detector.getDetectorClassName();
+        }
+
+        /**
+         * creates a bug reporter that records the bugs the detector reports while it visits a class, as well as passing them, and everything else, to the
+         * real reporter
+         */
+        private BugReporter createRecordingReporter() {
+            return PluginDetectors.createForwardingReporter(bugReporter, new Predicate<BugInstance>() {
+                @Override
+                public boolean test(BugInstance bug) {
+                    if (classBugs != null) {
+                        classBugs.add(bug);
+                    }
+                    return true;
+                }
+            });
+        }
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
+        }
+    }
+}
@@ -18,12 +18,17 @@
  */
 package com.mebigfatguy.fbcontrib.collect;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import org.apache.bcel.Constants;
 
 import com.mebigfatguy.fbcontrib.utils.ToString;
 
 /**
- * represents statistics including attributes, mutability and sizes of a method
+ * represents statistics including attributes, mutability and sizes of a method. Each field is written by the detector visiting the declaring class, except
+ * for the calling access bits which may be accumulated from any class, and so are updated under the instance lock.
  */
 public class MethodInfo {
 
@@ -33,6 +38,7 @@ public class MethodInfo {
     public static final int PACKAGE_USE = 8;
 
     private short numMethodBytes;
+    private short numCodeBytes;
     private byte numMethodCalls;
     private byte immutabilityOrdinal;
     private byte declaredAccess;
@@ -47,6 +53,20 @@ public class MethodInfo {
         numMethodBytes = (short) numBytes;
     }
 
+    /**
+     * returns the length of the method's bytecode alone, as the jit measures it for inlining, where {@link #getNumBytes()} is the length of the whole code
+     * attribute, including its exception table, line numbers and local variables
+     *
+     * @return the number of bytecode bytes, or 0 if the method wasn't seen in the first pass
+     */
+    public int getNumCodeBytes() {
+        return 0x0000FFFF & numCodeBytes;
+    }
+
+    public void setNumCodeBytes(int numBytes) {
+        numCodeBytes = (short) numBytes;
+    }
+
     public int getNumMethodCalls() {
         return 0x000000FF & numMethodCalls;
     }
@@ -63,7 +83,7 @@ public class MethodInfo {
         return declaredAccess;
     }
 
-    public void addCallingAccess(int access) {
+    public synchronized void addCallingAccess(int access) {
         if ((access & Constants.ACC_PUBLIC) != 0) {
             isCalledType |= PUBLIC_USE;
         } else if ((access & Constants.ACC_PROTECTED) != 0) {
@@ -75,23 +95,23 @@ public class MethodInfo {
         }
     }
 
-    public boolean wasCalled() {
+    public synchronized boolean wasCalled() {
         return (isCalledType & (PUBLIC_USE | PROTECTED_USE | PACKAGE_USE | PRIVATE_USE)) != 0;
     }
 
-    public boolean wasCalledPublicly() {
+    public synchronized boolean wasCalledPublicly() {
         return (isCalledType & PUBLIC_USE) != 0;
     }
 
-    public boolean wasCalledProtectedly() {
+    public synchronized boolean wasCalledProtectedly() {
         return (isCalledType & PROTECTED_USE) != 0;
     }
 
-    public boolean wasCalledPackagely() {
+    public synchronized boolean wasCalledPackagely() {
         return (isCalledType & PACKAGE_USE) != 0;
     }
 
-    public boolean wasCalledPrivately() {
+    public synchronized boolean wasCalledPrivately() {
         return (isCalledType & PRIVATE_USE) != 0;
     }
 
@@ -111,6 +131,42 @@ public class MethodInfo {
         this.modifiesState = modifiesState;
     }
 
+    /**
+     * writes the statistics in the compact form used by the statistics cache
+     *
+     * @param out
+     *            the stream to write to
+     * @throws IOException
+     *             if the stream can't be written
+     */
+    synchronized void writeTo(DataOutput out) throws IOException {
+        out.writeShort(numMethodBytes);
+        out.writeShort(numCodeBytes);
+        out.writeByte(numMethodCalls);
+        out.writeByte(immutabilityOrdinal);
+        out.writeByte(declaredAccess);
+        out.writeByte(isCalledType);
+        out.writeBoolean(modifiesState);
+    }
+
+    /**
+     * reads the statistics as written by {@link #writeTo(DataOutput)}, replacing the current values
+     *
+     * @param in
+     *            the stream to read from
+     * @throws IOException
+     *             if the stream can't be read
+     */
+    synchronized void readFrom(DataInput in) throws IOException {
+        numMethodBytes = in.readShort();
+        numCodeBytes = in.readShort();
+        numMethodCalls = in.readByte();
+        immutabilityOrdinal = in.readByte();
+        declaredAccess = in.readByte();
+        isCalledType = in.readByte();
+        modifiesState = in.readBoolean();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof MethodInfo)) {
@@ -119,13 +175,14 @@ public class MethodInfo {
 
         MethodInfo mi = (MethodInfo) o;
 
-        return (numMethodBytes == mi.numMethodBytes) && (numMethodCalls == mi.numMethodCalls) && (immutabilityOrdinal == mi.immutabilityOrdinal)
-                && (declaredAccess == mi.declaredAccess) && (isCalledType == mi.isCalledType) && (modifiesState == mi.modifiesState);
+        return (numMethodBytes == mi.numMethodBytes) && (numCodeBytes == mi.numCodeBytes)
+                && (numMethodCalls == mi.numMethodCalls) && (immutabilityOrdinal == mi.immutabilityOrdinal) && (declaredAccess == mi.declaredAccess)
+                && (isCalledType == mi.isCalledType) && (modifiesState == mi.modifiesState);
     }
 
     @Override
     public int hashCode() {
-        return numMethodBytes ^ numMethodCalls ^ immutabilityOrdinal ^ declaredAccess ^ isCalledType ^ (modifiesState ? 1 : -1);
+        return numMethodBytes ^ numCodeBytes ^ numMethodCalls ^ immutabilityOrdinal ^ declaredAccess ^ isCalledType ^ (modifiesState ? 1 : -1);
     }
 
     @Override
@@ -18,22 +18,25 @@
  */
 package com.mebigfatguy.fbcontrib.collect;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 
 /**
- * holds statistics about classes and methods collected in the first pass.
+ * holds statistics about classes and methods collected in the first pass. The store is safe for concurrent use, so that classes may be visited on multiple
+ * analysis threads in either pass.
  */
 public final class Statistics implements Iterable<Map.Entry<FQMethod, MethodInfo>> {
 
-    private static Statistics statistics = new Statistics();
+    private static final Statistics statistics = new Statistics();
     private static final MethodInfo NOT_FOUND_METHOD_INFO = new MethodInfo();
+    private static final ThreadLocal<MethodProbe> PROBE = ThreadLocal.withInitial(MethodProbe::new);
 
-    private final Map<FQMethod, MethodInfo> methodStatistics = new HashMap<>();
+    private final ConcurrentMap<FQMethod, MethodInfo> methodStatistics = new ConcurrentHashMap<>();
 
     private Statistics() {
     }
@@ -47,12 +50,7 @@ public final class Statistics implements Iterable<Map.Entry<FQMethod, MethodInfo
     }
 
     public MethodInfo addMethodStatistics(String className, String methodName, String signature, int access, int numBytes, int numMethodCalls) {
-        FQMethod key = new FQMethod(className, methodName, signature);
-        MethodInfo mi = methodStatistics.get(key);
-        if (mi == null) {
-            mi = new MethodInfo();
-            methodStatistics.put(key, mi);
-        }
+        MethodInfo mi = getOrCreateMethodInfo(new FQMethod(className, methodName, signature));
 
         mi.setNumBytes(numBytes);
         mi.setNumMethodCalls(numMethodCalls);
@@ -60,32 +58,113 @@ public final class Statistics implements Iterable<Map.Entry<FQMethod, MethodInfo
         return mi;
     }
 
+    /**
+     * returns the statistics for the specified method, or an empty MethodInfo if the method wasn't seen in the first pass. This is called for most invoke
+     * opcodes of many detectors, and so probes the map with a per thread reusable key rather than allocating an FQMethod.
+     *
+     * @param className
+     *            the slashed class name of the method
+     * @param methodName
+     *            the name of the method
+     * @param signature
+     *            the signature of the method
+     * @return the statistics for the method
+     */
     public MethodInfo getMethodStatistics(String className, String methodName, String signature) {
-        MethodInfo mi = methodStatistics.get(new FQMethod(className, methodName, signature));
+        MethodProbe probe = PROBE.get();
+        MethodInfo mi;
+        try {
+            probe.set(className, methodName, signature);
+            mi = methodStatistics.get(probe);
+        } finally {
+            probe.set(null, null, null);
+        }
+
         if (mi == null) {
             return NOT_FOUND_METHOD_INFO;
         }
         return mi;
     }
 
+    /**
+     * returns the shared statistics handed out for methods that weren't seen in the first pass. Note that the first pass may update these, as it doesn't
+     * always find the statistics of the calling method when closing over state modifications.
+     *
+     * @return the statistics of unknown methods
+     */
+    MethodInfo getNotFoundMethodInfo() {
+        return NOT_FOUND_METHOD_INFO;
+    }
+
     @Override
     public Iterator<Map.Entry<FQMethod, MethodInfo>> iterator() {
         return methodStatistics.entrySet().iterator();
     }
 
     public void addImmutabilityStatus(String className, String methodName, String signature, ImmutabilityType imType) {
-        FQMethod key = new FQMethod(className, methodName, signature);
+        MethodInfo mi = getOrCreateMethodInfo(new FQMethod(className, methodName, signature));
+        mi.setImmutabilityType(imType);
+    }
+
+    /**
+     * returns the MethodInfo for the specified method, atomically creating and registering one if it doesn't exist yet, so that concurrent first pass
+     * collectors always share the same instance.
+     *
+     * @param key
+     *            the fully qualified method to look up
+     * @return the existing or newly registered MethodInfo
+     */
+    MethodInfo getOrCreateMethodInfo(FQMethod key) {
         MethodInfo mi = methodStatistics.get(key);
         if (mi == null) {
             mi = new MethodInfo();
-            methodStatistics.put(key, mi);
+            MethodInfo existingMI = methodStatistics.putIfAbsent(key, mi);
+            if (existingMI != null) {
+                mi = existingMI;
+            }
         }
-
-        mi.setImmutabilityType(imType);
+        return mi;
     }
 
     @Override
     public String toString() {
         return ToString.build(this);
     }
+
+    /**
+     * a mutable lookup key that hashes and compares equal to the FQMethod with the same class, method and signature. It is only ever passed to the map's get,
+     * which compares the probe against the stored keys, and so is never stored itself.
+     */
+    private static final class MethodProbe {
+        private String className;
+        private String methodName;
+        private String signature;
+
+        void set(String clsName, String mName, String sig) {
+            className = clsName;
+            methodName = mName;
+            signature = sig;
+        }
+
+        @Override
+        public int hashCode() {
+            return className.hashCode() ^ methodName.hashCode() ^ signature.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FQMethod)) {
+                return false;
+            }
+
+            FQMethod that = (FQMethod) o;
+
+            return className.equals(that.getClassName()) && methodName.equals(that.getMethodName()) && signature.equals(that.getSignature());
+        }
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
+        }
+    }
 }
@@ -0,0 +1,296 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.collect;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.ToString;
+
+import edu.umd.cs.findbugs.ba.ClassContext;
+import edu.umd.cs.findbugs.classfile.CheckedAnalysisException;
+import edu.umd.cs.findbugs.classfile.ClassDescriptor;
+import edu.umd.cs.findbugs.classfile.Global;
+import edu.umd.cs.findbugs.classfile.analysis.ClassData;
+
+/**
+ * persists the first pass statistics of each class to a file between runs, keyed by a digest of the class file, so that classes that haven't changed since
+ * the last run, such as those of third party jars, don't need to be visited again by the first pass collectors. The cache is only used when the
+ * {@link #CS_CACHE_FILE} system property names the file to use.
+ */
+final class StatisticsCache {
+
+    public static final String CS_CACHE_FILE = "fbcontrib.CS.cachefile";
+
+    private static final int MAGIC = 0xFBC05747;
+    /** bump whenever the format, or what the first pass collects, changes, so that old cache files are ignored */
+    private static final int FORMAT_VERSION = 4;
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+
+    private static volatile StatisticsCache cache;
+
+    private final Path cacheFile;
+    private final Map<String, CachedClass> cachedClasses = new HashMap<>();
+    private final ConcurrentMap<String, Boolean> restoredClasses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, byte[]> classDigests = new ConcurrentHashMap<>();
+
+    private StatisticsCache(Path cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * sets up the cache for a new analysis from the file specified by the {@link #CS_CACHE_FILE} system property, if any.
+     *
+     * @throws IOException
+     *             if the cache file exists but can't be read
+     */
+    static void initialize() throws IOException {
+        cache = null;
+        String fileName = System.getProperty(CS_CACHE_FILE);
+        if (fileName == null) {
+            return;
+        }
+
+        StatisticsCache newCache = new StatisticsCache(Paths.get(fileName));
+        cache = newCache;
+        newCache.load();
+    }
+
+    /**
+     * returns the cache for the current analysis
+     *
+     * @return the cache, or null if caching isn't enabled
+     */
+    static StatisticsCache getCache() {
+        return cache;
+    }
+
+    /**
+     * restores the statistics of the class from the cache if the class file hasn't changed since they were saved. This is done once per class, regardless of
+     * which first pass collector asks first, and the collectors should skip visiting the class when it has been restored.
+     *
+     * @param classContext
+     *            the context of the class about to be visited
+     * @return whether the statistics for this class were restored
+     */
+    boolean restore(ClassContext classContext) {
+        String clsName = classContext.getJavaClass().getClassName().replace('.', '/');
+        Boolean restored = restoredClasses.get(clsName);
+        if (restored == null) {
+            restored = Boolean.valueOf(restoreClass(clsName, classContext));
+            Boolean existing = restoredClasses.putIfAbsent(clsName, restored);
+            if (existing != null) {
+                restored = existing;
+            }
+        }
+        return restored.booleanValue();
+    }
+
+    /**
+     * writes the statistics of all classes seen in this analysis to the cache file. Classes that were in the cache but not seen this time are dropped.
+     *
+     * @throws IOException
+     *             if the cache file can't be written
+     */
+    void save() throws IOException {
+        Map<String, List<Map.Entry<FQMethod, MethodInfo>>> methodsByClass = new HashMap<>(classDigests.size());
+        for (Map.Entry<FQMethod, MethodInfo> entry : Statistics.getStatistics()) {
+            String clsName = entry.getKey().getClassName().replace('.', '/');
+            if (classDigests.containsKey(clsName)) {
+                List<Map.Entry<FQMethod, MethodInfo>> methods = methodsByClass.get(clsName);
+                if (methods == null) {
+                    methods = new ArrayList<>();
+                    methodsByClass.put(clsName, methods);
+                }
+                methods.add(entry);
+            }
+        }
+
+        Path parent = cacheFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmpFile = Paths.get(cacheFile.toString() + ".tmp");
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmpFile))))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(FORMAT_VERSION);
+            // the first pass may mark the unknown method statistics as modifying state, which restored classes would not redo
+            dos.writeBoolean(Statistics.getStatistics().getNotFoundMethodInfo().getModifiesState());
+            dos.writeInt(classDigests.size());
+            for (Map.Entry<String, byte[]> classEntry : classDigests.entrySet()) {
+                String clsName = classEntry.getKey();
+                byte[] digest = classEntry.getValue();
+                dos.writeUTF(clsName);
+                dos.writeShort(digest.length);
+                dos.write(digest);
+
+                List<Map.Entry<FQMethod, MethodInfo>> methods = methodsByClass.get(clsName);
+                if (methods == null) {
+                    dos.writeInt(0);
+                } else {
+                    dos.writeInt(methods.size());
+                    for (Map.Entry<FQMethod, MethodInfo> entry : methods) {
+                        FQMethod fqm = entry.getKey();
+                        dos.writeBoolean(fqm.getClassName().indexOf('.') >= 0);
+                        dos.writeUTF(fqm.getMethodName());
+                        dos.writeUTF(fqm.getSignature());
+                        entry.getValue().writeTo(dos);
+                    }
+                }
+            }
+        }
+
+        Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(cacheFile)) {
+            return;
+        }
+
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(cacheFile))))) {
+            if ((dis.readInt() != MAGIC) || (dis.readInt() != FORMAT_VERSION)) {
+                return;
+            }
+
+            boolean unknownModifiesState = dis.readBoolean();
+            int numClasses = dis.readInt();
+            for (int c = 0; c < numClasses; c++) {
+                String clsName = dis.readUTF();
+                byte[] digest = new byte[dis.readUnsignedShort()];
+                dis.readFully(digest);
+
+                int numMethods = dis.readInt();
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                try (DataOutputStream methodData = new DataOutputStream(baos)) {
+                    for (int m = 0; m < numMethods; m++) {
+                        methodData.writeBoolean(dis.readBoolean());
+                        methodData.writeUTF(dis.readUTF());
+                        methodData.writeUTF(dis.readUTF());
+                        MethodInfo mi = new MethodInfo();
+                        mi.readFrom(dis);
+                        mi.writeTo(methodData);
+                    }
+                }
+
+                cachedClasses.put(clsName, new CachedClass(digest, numMethods, baos.toByteArray()));
+            }
+
+            if (unknownModifiesState) {
+                Statistics.getStatistics().getNotFoundMethodInfo().setModifiesState(true);
+            }
+        } catch (IOException e) {
+            cachedClasses.clear();
+            throw e;
+        }
+    }
+
+    private boolean restoreClass(String clsName, ClassContext classContext) {
+        byte[] digest = digestClass(classContext.getClassDescriptor());
+        if (digest == null) {
+            return false;
+        }
+
+        classDigests.put(clsName, digest);
+        CachedClass cachedClass = cachedClasses.get(clsName);
+        if ((cachedClass == null) || !Arrays.equals(digest, cachedClass.digest)) {
+            return false;
+        }
+
+        String dottedClsName = clsName.replace('/', '.');
+        Statistics statistics = Statistics.getStatistics();
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(cachedClass.methodData))) {
+            for (int m = 0; m < cachedClass.numMethods; m++) {
+                boolean dotted = dis.readBoolean();
+                String methodName = dis.readUTF();
+                String signature = dis.readUTF();
+                MethodInfo mi = statistics.getOrCreateMethodInfo(new FQMethod(dotted ? dottedClsName : clsName, methodName, signature));
+                mi.readFrom(dis);
+            }
+        } catch (IOException e) {
+            // can't happen on an in memory stream that was validated on load
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * computes the digest of the bytes of a class file, as found on the class path of the analysis
+     *
+     * @param classDescriptor
+     *            the class to digest
+     * @return the digest, or null if the class can't be found
+     */
+    static byte[] digestClass(ClassDescriptor classDescriptor) {
+        try {
+            ClassData classData = Global.getAnalysisCache().getClassAnalysis(ClassData.class, classDescriptor);
+            MessageDigest md = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            return md.digest(classData.getData());
+        } catch (CheckedAnalysisException | NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString.build(this);
+    }
+
+    /**
+     * the digest and serialized method statistics of a class as read from the cache file
+     */
+    static class CachedClass {
+        byte[] digest;
+        int numMethods;
+        byte[] methodData;
+
+        CachedClass(byte[] digest, int numMethods, byte[] methodData) {
+            this.digest = digest;
+            this.numMethods = numMethods;
+            this.methodData = methodData;
+        }
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
+        }
+    }
+}
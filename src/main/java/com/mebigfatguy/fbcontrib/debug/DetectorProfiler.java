@@ -0,0 +1,419 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.debug;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.bcel.Constants;
+import org.apache.bcel.classfile.AnnotationEntry;
+import org.apache.bcel.classfile.ClassParser;
+import org.apache.bcel.generic.AnnotationEntryGen;
+import org.apache.bcel.generic.ClassGen;
+import org.apache.bcel.generic.ConstantPoolGen;
+import org.apache.bcel.generic.FieldGen;
+import org.apache.bcel.generic.InstructionConstants;
+import org.apache.bcel.generic.InstructionFactory;
+import org.apache.bcel.generic.InstructionList;
+import org.apache.bcel.generic.MethodGen;
+import org.apache.bcel.generic.ObjectType;
+import org.apache.bcel.generic.Type;
+
+import com.mebigfatguy.fbcontrib.utils.FBContribEngineRegistrar;
+import com.mebigfatguy.fbcontrib.utils.PluginDetectors;
+import com.mebigfatguy.fbcontrib.utils.ToString;
+import com.mebigfatguy.fbcontrib.utils.Values;
+
+import edu.umd.cs.findbugs.BugReporter;
+import edu.umd.cs.findbugs.Detector;
+import edu.umd.cs.findbugs.Detector2;
+import edu.umd.cs.findbugs.DetectorFactory;
+import edu.umd.cs.findbugs.DetectorToDetector2Adapter;
+import edu.umd.cs.findbugs.ba.AnalysisContext;
+import edu.umd.cs.findbugs.classfile.CheckedAnalysisException;
+import edu.umd.cs.findbugs.classfile.ClassDescriptor;
+import edu.umd.cs.findbugs.visitclass.DismantleBytecode;
+
+/**
+ * profiles the cost of each reporting fb-contrib detector. When the system property <code>fb-contrib.profile.output</code> names a file, the detectors that
+ * FindBugs creates from the plugin's factories are wrapped as they are created, and the wall time, cpu time and allocated bytes of each detector's
+ * visitClass and finishPass are recorded, along with the number of opcodes its sawOpcode is handed. The totals are written as csv if the file name ends
+ * with .csv, and as json otherwise, each time the last of the detectors created so far has finished its pass, so that the file is complete at the end of
+ * the analysis.
+ * <p>
+ * The interception is installed by {@link FBContribEngineRegistrar}, as FindBugs registers the analysis engines before it creates any detector. To count
+ * the opcodes, a bytecode scanning detector is created as a generated subclass, carrying the annotations of the detector, whose sawOpcode counts the call
+ * before passing it on. The times include the analyses, such as data flows, that a detector is the first to ask the analysis cache for.
+ */
+public final class DetectorProfiler implements PluginDetectors.DetectorInterceptor {
+
+    public static final String PROFILE_OUTPUT_FILE = "fb-contrib.profile.output";
+
+    private static final String OUTPUT_FILE_NAME = System.getProperty(PROFILE_OUTPUT_FILE);
+
+    private static final String COUNTING_SUFFIX = "$OpcodeCounting";
+    private static final String COUNT_FIELD = "opcodeCount";
+    /** the class file version of the generated classes, the first one whose annotations the JVM reads */
+    private static final int COUNTING_CLASS_VERSION = 49;
+
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final Map<Class<?>, Constructor<?>> countingConstructors = new HashMap<>();
+    private final Map<String, DetectorStats> profile = new LinkedHashMap<>();
+    private AnalysisContext profiledContext;
+    private int unreportedDetectors;
+
+    /**
+     * private to only be created by install
+     */
+    private DetectorProfiler() {
+    }
+
+    /**
+     * intercepts the creation of the plugin's reporting detectors to profile them, if a profile output file is given
+     */
+    public static void install() {
+        if (OUTPUT_FILE_NAME != null) {
+            PluginDetectors.interceptDetectors(new DetectorProfiler());
+        }
+    }
+
+    /**
+     * implements the interceptor to create the detector, counting its opcodes if it is a bytecode scanning detector, wrapped to profile it
+     *
+     * @param factory
+     *            the factory of the detector
+     * @param bugReporter
+     *            the reporter FindBugs hands to the detector
+     * @return the profiled detector
+     */
+    @Override
+    public Detector2 create(DetectorFactory factory, BugReporter bugReporter) {
+        DetectorStats stats;
+        synchronized (this) {
+            AnalysisContext context = AnalysisContext.currentAnalysisContext();
+            if (context != profiledContext) {
+                profiledContext = context;
+                profile.clear();
+                unreportedDetectors = 0;
+            }
+
+            stats = profile.get(factory.getShortName());
+            if (stats == null) {
+                stats = new DetectorStats(factory.getShortName());
+                profile.put(factory.getShortName(), stats);
+            }
+            unreportedDetectors++;
+        }
+
+        Detector counting = createCounting(factory, bugReporter);
+        if (counting == null) {
+            return new ProfiledDetector(factory.createDetector2(bugReporter), null, stats);
+        }
+        return new ProfiledDetector(new DetectorToDetector2Adapter(counting), (OpcodeCounter) counting, stats);
+    }
+
+    /**
+     * creates the detector as an instance of its opcode counting subclass, generating that class the first time
+     *
+     * @return the detector, or null if it isn't a bytecode scanning detector, or the subclass can't be generated
+     */
+    private Detector createCounting(DetectorFactory factory, BugReporter bugReporter) {
+        try {
+            Class<?> detectorClass = Class.forName(factory.getFullName(), false, factory.getPlugin().getClassLoader());
+            if (!DismantleBytecode.class.isAssignableFrom(detectorClass)) {
+                return null;
+            }
+
+            Constructor<?> constructor;
+            synchronized (countingConstructors) {
+                if (!countingConstructors.containsKey(detectorClass)) {
+                    countingConstructors.put(detectorClass, generateCountingClass(detectorClass));
+                }
+                constructor = countingConstructors.get(detectorClass);
+            }
+            if (constructor != null) {
+                return (Detector) constructor.newInstance(bugReporter);
+            }
+        } catch (ReflectiveOperationException e) {
+            bugReporter.logError("Unable to count the opcodes of detector " + factory.getFullName(), e);
+        }
+        return null;
+    }
+
+    /**
+     * generates the opcode counting subclass of a detector class
+     *
+     * @return the constructor of the subclass, or null if it can't be generated
+     */
+    private static Constructor<?> generateCountingClass(Class<?> detectorClass) {
+        String superName = detectorClass.getName();
+        String className = superName + COUNTING_SUFFIX;
+        try (InputStream is = detectorClass.getClassLoader().getResourceAsStream(superName.replace('.', '/') + ".class")) {
+            if (is == null) {
+                return null;
+            }
+
+            ClassGen cg = new ClassGen(className, superName, "<generated>", Constants.ACC_PUBLIC | Constants.ACC_SUPER,
+                    new String[] { OpcodeCounter.class.getName() });
+            cg.setMajor(COUNTING_CLASS_VERSION);
+            cg.setMinor(0);
+            ConstantPoolGen cp = cg.getConstantPool();
+            for (AnnotationEntry annotation : new ClassParser(is, superName).parse().getAnnotationEntries()) {
+                cg.addAnnotationEntry(new AnnotationEntryGen(annotation, cp, true));
+            }
+            cg.addField(new FieldGen(Constants.ACC_PRIVATE, Type.LONG, COUNT_FIELD, cp).getField());
+
+            InstructionFactory factory = new InstructionFactory(cg, cp);
+            ObjectType reporterType = new ObjectType(BugReporter.class.getName());
+
+            InstructionList il = new InstructionList();
+            il.append(InstructionConstants.ALOAD_0);
+            il.append(InstructionFactory.createLoad(reporterType, 1));
+            il.append(factory.createInvoke(superName, Values.CONSTRUCTOR, Type.VOID, new Type[] { reporterType }, Constants.INVOKESPECIAL));
+            il.append(InstructionConstants.RETURN);
+            addMethod(cg, new MethodGen(Constants.ACC_PUBLIC, Type.VOID, new Type[] { reporterType }, new String[] { "bugReporter" }, Values.CONSTRUCTOR,
+                    className, il, cp));
+
+            il = new InstructionList();
+            il.append(InstructionConstants.ALOAD_0);
+            il.append(InstructionConstants.DUP);
+            il.append(factory.createGetField(className, COUNT_FIELD, Type.LONG));
+            il.append(InstructionConstants.LCONST_1);
+            il.append(InstructionConstants.LADD);
+            il.append(factory.createPutField(className, COUNT_FIELD, Type.LONG));
+            il.append(InstructionConstants.ALOAD_0);
+            il.append(InstructionFactory.createLoad(Type.INT, 1));
+            il.append(factory.createInvoke(superName, "sawOpcode", Type.VOID, new Type[] { Type.INT }, Constants.INVOKESPECIAL));
+            il.append(InstructionConstants.RETURN);
+            addMethod(cg, new MethodGen(Constants.ACC_PUBLIC, Type.VOID, new Type[] { Type.INT }, new String[] { "seen" }, "sawOpcode", className, il, cp));
+
+            il = new InstructionList();
+            il.append(InstructionConstants.ALOAD_0);
+            il.append(factory.createGetField(className, COUNT_FIELD, Type.LONG));
+            il.append(InstructionConstants.LRETURN);
+            addMethod(cg, new MethodGen(Constants.ACC_PUBLIC, Type.LONG, Type.NO_ARGS, new String[0], "getOpcodeCount", className, il, cp));
+
+            byte[] bytes = cg.getJavaClass().getBytes();
+            Class<?> countingClass = new CountingClassLoader(detectorClass.getClassLoader()).define(className, bytes);
+            return countingClass.getConstructor(BugReporter.class);
+        } catch (IOException | ReflectiveOperationException | LinkageError e) {
+            // a final detector, or one with a final sawOpcode, is profiled without counting its opcodes
+            return null;
+        }
+    }
+
+    private static void addMethod(ClassGen cg, MethodGen mg) {
+        mg.setMaxStack();
+        mg.setMaxLocals();
+        cg.addMethod(mg.getMethod());
+    }
+
+    /**
+     * records that a detector has finished its pass, and writes out the profile if it was the last detector created so far
+     */
+    private void passFinished() {
+        List<DetectorStats> allStats;
+        synchronized (this) {
+            if (--unreportedDetectors > 0) {
+                return;
+            }
+            allStats = new ArrayList<>(profile.values());
+        }
+
+        Collections.sort(allStats, new Comparator<DetectorStats>() {
+            @Override
+            public int compare(DetectorStats s1, DetectorStats s2) {
+                return Long.compare(s2.wallNanos, s1.wallNanos);
+            }
+        });
+
+        try (PrintWriter pw = new PrintWriter(OUTPUT_FILE_NAME, StandardCharsets.UTF_8.name())) {
+            if (OUTPUT_FILE_NAME.toLowerCase(Locale.ENGLISH).endsWith(".csv")) {
+                writeCSV(pw, allStats);
+            } else {
+                writeJSON(pw, allStats);
+            }
+        } catch (IOException e) {
+            AnalysisContext.logError("Unable to write detector profile to " + OUTPUT_FILE_NAME, e);
+        }
+    }
+
+    private long getCpuTime() {
+        return threadBean.isCurrentThreadCpuTimeSupported() ? threadBean.getCurrentThreadCpuTime() : 0L;
+    }
+
+    private long getAllocatedBytes() {
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0L;
+    }
+
+    private static void writeCSV(PrintWriter pw, List<DetectorStats> allStats) {
+        pw.println("detector,classes,opcodes,wallNanos,cpuNanos,allocatedBytes");
+        for (DetectorStats stats : allStats) {
+            pw.println(
+                    stats.detectorName + ',' + stats.classes + ',' + stats.opcodes + ',' + stats.wallNanos + ',' + stats.cpuNanos + ',' + stats.allocatedBytes);
+        }
+    }
+
+    private static void writeJSON(PrintWriter pw, List<DetectorStats> allStats) {
+        pw.println('[');
+        for (int i = 0; i < allStats.size(); i++) {
+            DetectorStats stats = allStats.get(i);
+            pw.print("  { \"detector\": \"" + stats.detectorName + "\", \"classes\": " + stats.classes + ", \"opcodes\": " + stats.opcodes + ", \"wallNanos\": "
+                    + stats.wallNanos + ", \"cpuNanos\": " + stats.cpuNanos + ", \"allocatedBytes\": " + stats.allocatedBytes + " }");
+            pw.println((i < (allStats.size() - 1)) ? "," : "");
+        }
+        pw.println(']');
+    }
+
+    @Override
+    public String toString() {
+        return ToString.build(this);
+    }
+
+    /**
+     * the count of the opcodes handed to the sawOpcode of a detector, implemented by the generated subclasses of the bytecode scanning detectors
+     */
+    public interface OpcodeCounter {
+
+        /**
+         * returns the number of calls to sawOpcode so far
+         *
+         * @return the opcode count
+         */
+        long getOpcodeCount();
+    }
+
+    /**
+     * a detector created by FindBugs, that records what each of its calls costs
+     */
+    class ProfiledDetector implements Detector2 {
+        private final Detector2 detector;
+        private final OpcodeCounter opcodeCounter;
+        private final DetectorStats stats;
+
+        ProfiledDetector(Detector2 detector, OpcodeCounter opcodeCounter, DetectorStats stats) {
+            this.detector = detector;
+            this.opcodeCounter = opcodeCounter;
+            this.stats = stats;
+        }
+
+        @Override
+        public void visitClass(ClassDescriptor classDescriptor) throws CheckedAnalysisException {
+            long startCpu = getCpuTime();
+            long startAllocated = getAllocatedBytes();
+            long startWall = System.nanoTime();
+            try {
+                detector.visitClass(classDescriptor);
+            } finally {
+                synchronized (DetectorProfiler.this) {
+                    stats.wallNanos += System.nanoTime() - startWall;
+                    stats.cpuNanos += getCpuTime() - startCpu;
+                    stats.allocatedBytes += getAllocatedBytes() - startAllocated;
+                    stats.classes++;
+                }
+            }
+        }
+
+        @Override
+        public void finishPass() {
+            long startCpu = getCpuTime();
+            long startAllocated = getAllocatedBytes();
+            long startWall = System.nanoTime();
+            try {
+                detector.finishPass();
+            } finally {
+                synchronized (DetectorProfiler.this) {
+                    stats.wallNanos += System.nanoTime() - startWall;
+                    stats.cpuNanos += getCpuTime() - startCpu;
+                    stats.allocatedBytes += getAllocatedBytes() - startAllocated;
+                    if (opcodeCounter != null) {
+                        stats.opcodes += opcodeCounter.getOpcodeCount();
+                    }
+                }
+                passFinished();
+            }
+        }
+
+        @Override
+        public String getDetectorClassName() {
+            return detector.getDetectorClassName();
+        }
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
+        }
+    }
+
+    /**
+     * the class loader of the opcode counting subclass of a detector, whose parent loaded the detector
+     */
+    static class CountingClassLoader extends ClassLoader {
+
+        CountingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
+        }
+    }
+
+    /**
+     * the accumulated cost of one profiled detector
+     */
+    static class DetectorStats {
+        String detectorName;
+        long classes;
+        long opcodes;
+        long wallNanos;
+        long cpuNanos;
+        long allocatedBytes;
+
+        DetectorStats(String detectorName) {
+            this.detectorName = detectorName;
+        }
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
+        }
+    }
+}
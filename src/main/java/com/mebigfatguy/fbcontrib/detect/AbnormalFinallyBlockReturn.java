@@ -30,7 +30,9 @@ import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.CollectionUtils;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.StopOpcodeParsingException;
 import com.mebigfatguy.fbcontrib.utils.ToString;
@@ -43,6 +45,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
 /**
  * find methods that return or throw exception from a finally block. Doing so short-circuits the return or exception thrown from the try block, and masks it.
  */
+@ParallelSafe
+@IncrementalSafe
 public class AbnormalFinallyBlockReturn extends BytecodeScanningDetector {
     private final BugReporter bugReporter;
     private List<FinallyBlockInfo> fbInfo;
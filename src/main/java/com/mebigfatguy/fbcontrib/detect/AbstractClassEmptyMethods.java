@@ -28,6 +28,9 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.QMethod;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -40,6 +43,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * finds methods of abstract classes that do nothing, or just throw exceptions. Since this is an abstract class, it may be more correct to just leave the method
  * abstract.
  */
+@ParallelSafe
+@IncrementalSafe
 public class AbstractClassEmptyMethods extends BytecodeScanningDetector {
     enum State {
         SAW_NOTHING, SAW_NEW, SAW_DUP, SAW_LDC, SAW_INVOKESPECIAL, SAW_DONE
@@ -135,7 +140,7 @@ public class AbstractClassEmptyMethods extends BytecodeScanningDetector {
                     } else if (seen == NEW) {
                         String newClass = getClassConstantOperand();
                         JavaClass exCls = Repository.lookupClass(newClass);
-                        if ((exceptionClass != null) && exCls.instanceOf(exceptionClass)) {
+                        if ((exceptionClass != null) && ClassHierarchyCache.instanceOf(exCls, exceptionClass)) {
                             state = State.SAW_NEW;
                         } else {
                             state = State.SAW_DONE;
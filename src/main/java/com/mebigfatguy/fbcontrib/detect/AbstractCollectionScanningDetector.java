@@ -22,6 +22,8 @@ import org.apache.bcel.Repository;
 import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.JavaClass;
 
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+
 import edu.umd.cs.findbugs.BugReporter;
 import edu.umd.cs.findbugs.BytecodeScanningDetector;
 import edu.umd.cs.findbugs.OpcodeStack;
@@ -101,7 +103,7 @@ public class AbstractCollectionScanningDetector extends BytecodeScanningDetector
         }
 
         JavaClass cls = item.getJavaClass();
-        if ((cls != null) && cls.implementationOf(collectionClass)) {
+        if ((cls != null) && ClassHierarchyCache.implementationOf(cls, collectionClass)) {
             return reg;
         }
 
@@ -23,6 +23,8 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 
 import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
@@ -34,6 +36,8 @@ import edu.umd.cs.findbugs.visitclass.PreorderVisitor;
  * finds methods that are declared abstract but override concrete methods in a
  * superclass.
  */
+@ParallelSafe
+@IncrementalSafe
 public class AbstractOverriddenMethod extends PreorderVisitor implements Detector {
     private BugReporter bugReporter;
     private ClassContext clsContext;
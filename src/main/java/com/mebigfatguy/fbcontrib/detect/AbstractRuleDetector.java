@@ -0,0 +1,114 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.detect;
+
+import java.util.BitSet;
+
+import org.apache.bcel.classfile.Code;
+
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
+import com.mebigfatguy.fbcontrib.utils.SharedOpcodeStack;
+
+import edu.umd.cs.findbugs.BytecodeScanningDetector;
+import edu.umd.cs.findbugs.ba.ClassContext;
+
+/**
+ * a base detector that walks the bytecode for one {@link OpcodeRule}, which holds the detector's logic, so that the rule can also be run, with others, by
+ * {@link PerformanceSuite}. Classes that don't match the {@link Prescreen} triggers of the detector aren't shown to the rule.
+ */
+public abstract class AbstractRuleDetector extends BytecodeScanningDetector {
+
+    private final OpcodeRule rule;
+    private final SharedOpcodeStack stack;
+
+    /**
+     * constructs a detector that walks the bytecode for a rule
+     *
+     * @param rule
+     *            the logic of the detector
+     */
+    protected AbstractRuleDetector(OpcodeRule rule) {
+        this.rule = rule;
+        BitSet itemOpcodes = rule.getStackItemOpcodes();
+        stack = (itemOpcodes == null) ? null : new SharedOpcodeStack(itemOpcodes);
+        rule.bind(this, stack);
+    }
+
+    /**
+     * returns the logic of the detector
+     *
+     * @return the rule
+     */
+    OpcodeRule getRule() {
+        return rule;
+    }
+
+    /**
+     * implements the visitor to have the rule look at the class, if the class matches the prescreen triggers
+     *
+     * @param classContext
+     *            the context object of the currently parsed class
+     */
+    @Override
+    public void visitClassContext(ClassContext classContext) {
+        if (PrescreenIndex.shouldVisit(this, classContext) && rule.startClass(classContext)) {
+            super.visitClassContext(classContext);
+            rule.endClass(classContext);
+        }
+    }
+
+    /**
+     * implements the visitor to walk the method for the rule, if it looks at it
+     *
+     * @param obj
+     *            the context object of the currently parsed code block
+     */
+    @Override
+    public void visitCode(Code obj) {
+        if (rule.startCode(obj)) {
+            if (stack != null) {
+                stack.resetForMethodEntry(this);
+            }
+            super.visitCode(obj);
+            rule.endCode(obj);
+        }
+    }
+
+    /**
+     * implements the visitor to show the instruction to the rule
+     *
+     * @param seen
+     *            the opcode of the currently parsed instruction
+     */
+    @Override
+    public void sawOpcode(int seen) {
+        if (stack == null) {
+            rule.sawOpcode(seen);
+            return;
+        }
+
+        try {
+            stack.precomputation(this);
+            rule.sawOpcode(seen);
+        } finally {
+            stack.sawOpcode(this, seen);
+        }
+    }
+}
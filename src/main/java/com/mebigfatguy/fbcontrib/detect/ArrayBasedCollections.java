@@ -24,6 +24,8 @@ import java.util.List;
 import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -38,6 +40,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for methods that use arrays for items in the keyset of a map, or as an element of a set, or in a list when using the contains method. Since arrays do
  * not, and cannot define an equals method, reference equality is used for these collections, which is probably not desired.
  */
+@ParallelSafe
+@IncrementalSafe
 public class ArrayBasedCollections extends BytecodeScanningDetector {
     private BugReporter bugReporter;
     private OpcodeStack stack;
@@ -30,6 +30,8 @@ import org.apache.bcel.classfile.Method;
 import org.apache.bcel.generic.Type;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 
@@ -46,6 +48,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * occur at runtime.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class ArrayIndexOutOfBounds extends BytecodeScanningDetector {
 
     private BugReporter bugReporter;
@@ -28,6 +28,10 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
@@ -46,10 +50,14 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * that holds all the relevant information retrieved from the called method.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(opcodes = { Constants.NEWARRAY, Constants.ANEWARRAY })
 public class ArrayWrappedCallByReference extends BytecodeScanningDetector {
 
     private final BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private Map<Integer, WrapperInfo> wrappers;
 
     /**
@@ -70,6 +78,10 @@ public class ArrayWrappedCallByReference extends BytecodeScanningDetector {
      */
     @Override
     public void visitClassContext(ClassContext classContext) {
+        if (!PrescreenIndex.shouldVisit(this, classContext)) {
+            return;
+        }
+
         try {
             stack = new OpcodeStack();
             wrappers = new HashMap<>(10);
@@ -233,9 +245,9 @@ public class ArrayWrappedCallByReference extends BytecodeScanningDetector {
                 break;
             }
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if ((userValue != null) && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item itm = stack.getStackItem(0);
                 itm.setUserValue(userValue);
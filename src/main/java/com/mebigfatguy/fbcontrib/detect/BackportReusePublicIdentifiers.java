@@ -26,6 +26,8 @@ import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.detect.BackportReusePublicIdentifiers.Backports.Library;
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableList;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -44,6 +46,8 @@ import edu.umd.cs.findbugs.bcel.OpcodeStackDetector;
  * if you are targeting JDK 1.7 and lower
  * </ul>
  */
+@ParallelSafe
+@IncrementalSafe
 public class BackportReusePublicIdentifiers extends OpcodeStackDetector {
 
     private static final List<Backports> BACKPORTS = UnmodifiableList.create(
@@ -19,8 +19,8 @@
 package com.mebigfatguy.fbcontrib.detect;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -38,8 +38,12 @@ import org.apache.bcel.classfile.Method;
 import com.mebigfatguy.fbcontrib.collect.MethodInfo;
 import com.mebigfatguy.fbcontrib.collect.Statistics;
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ConstantPoolSymbols;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.FQMethodId;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
@@ -61,6 +65,8 @@ import edu.umd.cs.findbugs.ba.XField;
  * performance impact of that assignment.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class BloatedAssignmentScope extends BytecodeScanningDetector {
     private static final Set<String> dangerousAssignmentClassSources = UnmodifiableSet.create(
         //@formatter:off
@@ -101,12 +107,16 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
 
     BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private BitSet ignoreRegs;
     private ScopeBlock rootScopeBlock;
     private BitSet tryBlocks;
     private BitSet catchHandlers;
     private BitSet switchTargets;
     private List<Integer> monitorSyncPCs;
+    private ConstantPoolSymbols symbols;
+    private final Set<FQMethodId> dangerousAssignmentMethodIds = new HashSet<>();
+    private final Map<FQMethodId, Boolean> patternMethods = new HashMap<>();
     private boolean dontReport;
     private boolean sawDup;
     private boolean sawNull;
@@ -119,6 +129,10 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
      */
     public BloatedAssignmentScope(BugReporter bugReporter) {
         this.bugReporter = bugReporter;
+        // symbol ids only last for the analysis, so the ids of the dangerous methods are taken for each detector, which is created for one analysis
+        for (FQMethod method : dangerousAssignmentMethodSources) {
+            dangerousAssignmentMethodIds.add(new FQMethodId(method.getClassName(), method.getMethodName(), method.getSignature()));
+        }
     }
 
     /**
@@ -136,6 +150,7 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
             switchTargets = new BitSet();
             monitorSyncPCs = new ArrayList<>(5);
             stack = new OpcodeStack();
+            symbols = new ConstantPoolSymbols(classContext.getJavaClass().getConstantPool());
             super.visitClassContext(classContext);
         } finally {
             ignoreRegs = null;
@@ -144,6 +159,7 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
             switchTargets = null;
             monitorSyncPCs = null;
             stack = null;
+            symbols = null;
         }
     }
 
@@ -187,7 +203,7 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
             super.visitCode(obj);
 
             if (!dontReport) {
-                rootScopeBlock.findBugs(new HashSet<Integer>());
+                rootScopeBlock.findBugs(new BitSet());
             }
 
         } finally {
@@ -241,9 +257,9 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
             sawDup = seen == DUP;
             sawNull = seen == ACONST_NULL;
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if ((uo != null) && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item item = stack.getStackItem(0);
                 item.setUserValue(uo);
@@ -446,26 +462,29 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
      */
     private void sawSwitch(int pc) {
         int[] offsets = getSwitchOffsets();
-        List<Integer> targets = new ArrayList<>(offsets.length);
+        int[] targets = new int[offsets.length + 1];
+        int numTargets = 0;
+        int defTarget = getDefaultSwitchOffset() + pc;
+        boolean sawDefTarget = false;
         for (int offset : offsets) {
-            targets.add(Integer.valueOf(offset + pc));
+            targets[numTargets++] = offset + pc;
+            sawDefTarget |= (offset + pc) == defTarget;
         }
-        Integer defOffset = Integer.valueOf(getDefaultSwitchOffset() + pc);
-        if (!targets.contains(defOffset)) {
-            targets.add(defOffset);
+        if (!sawDefTarget) {
+            targets[numTargets++] = defTarget;
         }
-        Collections.sort(targets);
+        Arrays.sort(targets, 0, numTargets);
 
-        Integer lastTarget = targets.get(0);
-        for (int i = 1; i < targets.size(); i++) {
-            Integer nextTarget = targets.get(i);
-            ScopeBlock sb = new ScopeBlock(lastTarget.intValue(), nextTarget.intValue());
+        int lastTarget = targets[0];
+        for (int i = 1; i < numTargets; i++) {
+            int nextTarget = targets[i];
+            ScopeBlock sb = new ScopeBlock(lastTarget, nextTarget);
             sb.setCase();
             rootScopeBlock.addChild(sb);
             lastTarget = nextTarget;
         }
-        for (Integer target : targets) {
-            switchTargets.set(target.intValue());
+        for (int i = 0; i < numTargets; i++) {
+            switchTargets.set(targets[i]);
         }
     }
 
@@ -758,8 +777,8 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
         private boolean isSync;
         private boolean isTry;
         private boolean isCase;
-        private Map<Integer, Integer> loads;
-        private Map<Integer, Integer> stores;
+        private BitSet loads;
+        private StoreLocations stores;
         private Map<UserObject, Integer> assocs;
         private List<ScopeBlock> children;
 
@@ -948,10 +967,10 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
          */
         public void addStore(int reg, int pc, UserObject assocObject) {
             if (stores == null) {
-                stores = new HashMap<>(6);
+                stores = new StoreLocations();
             }
 
-            stores.put(Integer.valueOf(reg), Integer.valueOf(pc));
+            stores.put(reg, pc);
 
             if (assocObject != null) {
                 if (assocs == null) {
@@ -972,10 +991,10 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
                 Integer reg = assocs.remove(assocObject);
                 if (reg != null) {
                     if (loads != null) {
-                        loads.remove(reg);
+                        loads.clear(reg.intValue());
                     }
                     if (stores != null) {
-                        stores.remove(reg);
+                        stores.remove(reg.intValue());
                     }
                 }
             }
@@ -991,10 +1010,10 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
          */
         public void addLoad(int reg, int pc) {
             if (loads == null) {
-                loads = new HashMap<>(10);
+                loads = new BitSet();
             }
 
-            loads.put(Integer.valueOf(reg), Integer.valueOf(pc));
+            loads.set(reg);
         }
 
         /**
@@ -1050,7 +1069,7 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
                     if ((uo.registerSource == sourceReg) || ((uo.caller instanceof Integer) && (((Integer) uo.caller).intValue() == sourceReg))) {
                         Integer preWrittenFromField = entry.getValue();
                         if ((preWrittenFromField != null) && (stores != null)) {
-                            stores.remove(preWrittenFromField);
+                            stores.remove(preWrittenFromField.intValue());
                         }
                     }
                 }
@@ -1063,33 +1082,31 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
          * @param parentUsedRegs
          *            the set of registers that where used by the parent scope block
          */
-        public void findBugs(Set<Integer> parentUsedRegs) {
+        public void findBugs(BitSet parentUsedRegs) {
             if (isLoop) {
                 return;
             }
 
-            Set<Integer> usedRegs = new HashSet<>(parentUsedRegs);
+            BitSet usedRegs = (BitSet) parentUsedRegs.clone();
             if (stores != null) {
-                usedRegs.addAll(stores.keySet());
+                usedRegs.or(stores.getRegisters());
             }
             if (loads != null) {
-                usedRegs.addAll(loads.keySet());
+                usedRegs.or(loads);
             }
 
             if (stores != null) {
+                BitSet storedRegs = stores.getRegisters();
                 if (loads != null) {
-                    stores.keySet().removeAll(loads.keySet());
-                }
-                stores.keySet().removeAll(parentUsedRegs);
-                for (int r = ignoreRegs.nextSetBit(0); r >= 0; r = ignoreRegs.nextSetBit(r + 1)) {
-                    stores.remove(Integer.valueOf(r));
+                    storedRegs.andNot(loads);
                 }
+                storedRegs.andNot(parentUsedRegs);
+                storedRegs.andNot(ignoreRegs);
 
-                if ((children != null) && !stores.isEmpty()) {
-                    for (Map.Entry<Integer, Integer> entry : stores.entrySet()) {
+                if (children != null) {
+                    for (int reg = storedRegs.nextSetBit(0); reg >= 0; reg = storedRegs.nextSetBit(reg + 1)) {
                         int childUseCount = 0;
                         boolean inIgnoreSB = false;
-                        Integer reg = entry.getKey();
                         for (ScopeBlock child : children) {
                             if (child.usesReg(reg)) {
                                 if (child.isLoop || child.isSync() || child.isTry()) {
@@ -1103,7 +1120,7 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
                             if (appearsToBeUserRegister(reg)) {
                                 bugReporter.reportBug(new BugInstance(BloatedAssignmentScope.this, BugType.BAS_BLOATED_ASSIGNMENT_SCOPE.name(), NORMAL_PRIORITY)
                                         .addClass(BloatedAssignmentScope.this).addMethod(BloatedAssignmentScope.this)
-                                        .addSourceLine(BloatedAssignmentScope.this, entry.getValue().intValue()));
+                                        .addSourceLine(BloatedAssignmentScope.this, stores.getPC(reg)));
                             }
                         }
                     }
@@ -1144,11 +1161,11 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
          *
          * @return whether the block uses the register
          */
-        public boolean usesReg(Integer reg) {
-            if ((loads != null) && loads.containsKey(reg)) {
+        public boolean usesReg(int reg) {
+            if ((loads != null) && loads.get(reg)) {
                 return true;
             }
-            if ((stores != null) && stores.containsKey(reg)) {
+            if ((stores != null) && stores.contains(reg)) {
                 return true;
             }
 
@@ -1170,7 +1187,7 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
             if (parent != null) {
                 if (loads != null) {
                     if (parent.loads != null) {
-                        parent.loads.putAll(loads);
+                        parent.loads.or(loads);
                     } else {
                         parent.loads = loads;
                     }
@@ -1188,6 +1205,76 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
         }
     }
 
+    /**
+     * holds the pc of the last store to each register stored in a scope block, indexed by the register, so that neither is boxed
+     */
+    private static class StoreLocations {
+        private final BitSet registers = new BitSet();
+        private int[] pcs = new int[8];
+
+        /**
+         * records a store to a register, replacing any earlier one
+         *
+         * @param reg
+         *            the register that was stored
+         * @param pc
+         *            the instruction that did the store
+         */
+        public void put(int reg, int pc) {
+            if (reg >= pcs.length) {
+                pcs = Arrays.copyOf(pcs, Math.max(reg + 1, pcs.length * 2));
+            }
+            pcs[reg] = pc;
+            registers.set(reg);
+        }
+
+        /**
+         * records the stores of another block in this one, replacing the stores this block has to the same registers
+         *
+         * @param other
+         *            the block stores to add
+         */
+        public void putAll(StoreLocations other) {
+            BitSet otherRegisters = other.registers;
+            for (int reg = otherRegisters.nextSetBit(0); reg >= 0; reg = otherRegisters.nextSetBit(reg + 1)) {
+                put(reg, other.pcs[reg]);
+            }
+        }
+
+        public void remove(int reg) {
+            registers.clear(reg);
+        }
+
+        public boolean contains(int reg) {
+            return registers.get(reg);
+        }
+
+        /**
+         * returns the pc of the store to a register, which is only meaningful if the register is {@link #contains contained}
+         *
+         * @param reg
+         *            the register that was stored
+         * @return the pc of the store
+         */
+        public int getPC(int reg) {
+            return pcs[reg];
+        }
+
+        /**
+         * returns the stored registers, which are removed from this block when removed from the set
+         *
+         * @return the set of registers stored
+         */
+        public BitSet getRegisters() {
+            return registers;
+        }
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
+        }
+    }
+
     public boolean isRiskyMethodCall() {
 
         String clsName = getClassConstantOperand();
@@ -1196,12 +1283,27 @@ public class BloatedAssignmentScope extends BytecodeScanningDetector {
             return true;
         }
 
-        FQMethod key = new FQMethod(clsName, getNameConstantOperand(), getSigConstantOperand());
-        if (dangerousAssignmentMethodSources.contains(key)) {
+        FQMethodId key = symbols.getMethod(ConstantPoolSymbols.getOperandIndex(this));
+        if (dangerousAssignmentMethodIds.contains(key)) {
             return true;
         }
 
-        String sig = key.toFQMethodSignature();
+        Boolean matches = patternMethods.get(key);
+        if (matches == null) {
+            matches = Boolean.valueOf(matchesDangerousPattern(key.toString()));
+            patternMethods.put(key, matches);
+        }
+        return matches.booleanValue();
+    }
+
+    /**
+     * returns whether a method's fully qualified signature matches one of the dangerous method patterns
+     *
+     * @param sig
+     *            the fully qualified method signature
+     * @return whether a pattern matches
+     */
+    private static boolean matchesDangerousPattern(String sig) {
         for (Pattern p : dangerousAssignmentMethodPatterns) {
             Matcher m = p.matcher(sig);
             if (m.matches()) {
@@ -29,8 +29,13 @@ import org.apache.bcel.classfile.Method;
 import com.mebigfatguy.fbcontrib.collect.MethodInfo;
 import com.mebigfatguy.fbcontrib.collect.Statistics;
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
+import com.mebigfatguy.fbcontrib.utils.SharedOpcodeStack;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -44,11 +49,17 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for methods that are implemented using synchronized blocks, but are overly synchronized because the beginning of the block only accesses local
  * variables, and not member variables, or this.
  */
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(opcodes = Constants.MONITORENTER)
 public class BloatedSynchronizedBlock extends BytecodeScanningDetector {
     private static final String BSB_MIN_SAFE_CODE_SIZE = "fb-contrib.bsb.minsize";
 
+    /** the opcodes before which the detector looks at the items on the stack */
+    private static final BitSet STACK_ITEM_OPCODES = SharedOpcodeStack.subscribe(INVOKEVIRTUAL, INVOKESPECIAL, INVOKEINTERFACE, INVOKEDYNAMIC, MONITORENTER);
+
     private final BugReporter bugReporter;
-    private OpcodeStack stack;
+    private SharedOpcodeStack stack;
     private BitSet unsafeAliases;
     private Map<Integer, Integer> branchInfo;
     private int syncPC;
@@ -69,8 +80,12 @@ public class BloatedSynchronizedBlock extends BytecodeScanningDetector {
 
     @Override
     public void visitClassContext(ClassContext classContext) {
+        if (!PrescreenIndex.shouldVisit(this, classContext)) {
+            return;
+        }
+
         try {
-            stack = new OpcodeStack();
+            stack = new SharedOpcodeStack(STACK_ITEM_OPCODES);
             unsafeAliases = new BitSet();
             branchInfo = new HashMap<>();
             super.visitClassContext(classContext);
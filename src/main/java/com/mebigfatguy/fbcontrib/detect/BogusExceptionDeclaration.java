@@ -28,7 +28,10 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.StopOpcodeParsingException;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
@@ -45,6 +48,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * of these methods to do extra work to handle an exception that will never be thrown. also looks for throws clauses where two exceptions declared to be thrown
  * are related through inheritance.
  */
+@ParallelSafe
+@IncrementalSafe
 public class BogusExceptionDeclaration extends BytecodeScanningDetector {
 
     private static final Set<String> safeClasses = UnmodifiableSet.create(
@@ -133,7 +138,7 @@ public class BogusExceptionDeclaration extends BytecodeScanningDetector {
                 for (String exName : exNames) {
                     try {
                         JavaClass exCls = Repository.lookupClass(exName);
-                        if (!exCls.instanceOf(runtimeExceptionClass)) {
+                        if (!ClassHierarchyCache.instanceOf(exCls, runtimeExceptionClass)) {
                             declaredCheckedExceptions.add(exName);
                         }
                     } catch (ClassNotFoundException cnfe) {
@@ -165,10 +170,10 @@ public class BogusExceptionDeclaration extends BytecodeScanningDetector {
                         JavaClass exCls2 = Repository.lookupClass(exNames[j]);
                         JavaClass childEx;
                         JavaClass parentEx;
-                        if (exCls1.instanceOf(exCls2)) {
+                        if (ClassHierarchyCache.instanceOf(exCls1, exCls2)) {
                             childEx = exCls1;
                             parentEx = exCls2;
-                        } else if (exCls2.instanceOf(exCls1)) {
+                        } else if (ClassHierarchyCache.instanceOf(exCls2, exCls1)) {
                             childEx = exCls2;
                             parentEx = exCls1;
                         } else {
@@ -30,7 +30,9 @@ import org.apache.bcel.generic.Type;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.CollectionUtils;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.StopOpcodeParsingException;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 
@@ -45,6 +47,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * This places the bulk of the logic to the right indentation-wise, making it more difficult to read than needed. It would be better to invert the logic of the
  * if block, and immediately return, allowing the bulk of the logic to be move to the left, for easier reading.
  */
+@ParallelSafe
+@IncrementalSafe
 public class BuryingLogic extends BytecodeScanningDetector {
 
     private static final String BURY_LOGIC_LOW_RATIO_PROPERTY = "fb-contrib.bl.low_ratio";
@@ -19,6 +19,7 @@
 package com.mebigfatguy.fbcontrib.detect;
 
 import java.nio.charset.Charset;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -31,7 +32,10 @@ import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.PublicAPI;
+import com.mebigfatguy.fbcontrib.utils.SharedOpcodeStack;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
@@ -46,6 +50,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
 /**
  * looks for issues related to manually specified charsets by using string literals.
  */
+@ParallelSafe
+@IncrementalSafe
 public class CharsetIssues extends BytecodeScanningDetector {
 
     private static final String CHARSET_SIG = SignatureUtils.classToSignature("java/nio/charset/Charset");
@@ -151,8 +157,11 @@ public class CharsetIssues extends BytecodeScanningDetector {
         UNREPLACEABLE_ENCODING_METHODS = Collections.unmodifiableMap(unreplaceable);
     }
 
+    /** the opcodes before which the detector looks at the items on the stack */
+    private static final BitSet STACK_ITEM_OPCODES = SharedOpcodeStack.subscribe(INVOKESPECIAL, INVOKESTATIC, INVOKEINTERFACE, INVOKEVIRTUAL);
+
     private final BugReporter bugReporter;
-    private OpcodeStack stack;
+    private SharedOpcodeStack stack;
     private int classVersion;
 
     /**
@@ -176,7 +185,7 @@ public class CharsetIssues extends BytecodeScanningDetector {
         try {
             classVersion = classContext.getJavaClass().getMajor();
             if (classVersion >= Constants.MAJOR_1_4) {
-                stack = new OpcodeStack();
+                stack = new SharedOpcodeStack(STACK_ITEM_OPCODES);
                 super.visitClassContext(classContext);
             }
         } finally {
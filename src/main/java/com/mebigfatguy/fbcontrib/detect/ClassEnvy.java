@@ -32,8 +32,12 @@ import org.apache.bcel.classfile.LineNumberTable;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ConstantPoolSymbols;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
+import com.mebigfatguy.fbcontrib.utils.SymbolTable;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -46,6 +50,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
 /**
  * finds methods that excessively use methods from another class. This probably means these methods should be defined in that other class.
  */
+@ParallelSafe
+@IncrementalSafe
 public class ClassEnvy extends BytecodeScanningDetector {
     private static final String ENVY_PERCENT_PROPERTY = "fb-contrib.ce.percent";
     private static final Set<String> ignorableInterfaces = UnmodifiableSet.create(
@@ -56,9 +62,9 @@ public class ClassEnvy extends BytecodeScanningDetector {
             //@formatter:on
     );
 
-    private static final Comparator<Map.Entry<String, Set<Integer>>> ACCESS_COUNT_COMPARATOR = new Comparator<Map.Entry<String, Set<Integer>>>() {
+    private static final Comparator<Map.Entry<Integer, Set<Integer>>> ACCESS_COUNT_COMPARATOR = new Comparator<Map.Entry<Integer, Set<Integer>>>() {
         @Override
-        public int compare(final Map.Entry<String, Set<Integer>> entry1, final Map.Entry<String, Set<Integer>> entry2) {
+        public int compare(final Map.Entry<Integer, Set<Integer>> entry1, final Map.Entry<Integer, Set<Integer>> entry2) {
             return entry2.getValue().size() - entry1.getValue().size();
         }
     };
@@ -67,7 +73,9 @@ public class ClassEnvy extends BytecodeScanningDetector {
     private OpcodeStack stack;
     private String packageName;
     private String clsName;
-    private Map<String, BitSet> clsAccessCount;
+    private int clsId;
+    private ConstantPoolSymbols symbols;
+    private Map<Integer, BitSet> clsAccessCount;
     private int thisClsAccessCount;
     private String methodName;
     private boolean methodIsStatic;
@@ -108,10 +116,13 @@ public class ClassEnvy extends BytecodeScanningDetector {
             JavaClass cls = classContext.getJavaClass();
             packageName = cls.getPackageName();
             clsName = cls.getClassName();
+            clsId = SymbolTable.classIdOf(clsName);
+            symbols = new ConstantPoolSymbols(cls.getConstantPool());
             stack = new OpcodeStack();
             super.visitClassContext(classContext);
         } finally {
             stack = null;
+            symbols = null;
             clsAccessCount = null;
         }
     }
@@ -149,10 +160,10 @@ public class ClassEnvy extends BytecodeScanningDetector {
         if (clsAccessCount.isEmpty()) {
             return;
         }
-        Map.Entry<String, Set<Integer>>[] envies = clsAccessCount.entrySet().toArray(new Map.Entry[clsAccessCount.size()]);
+        Map.Entry<Integer, Set<Integer>>[] envies = clsAccessCount.entrySet().toArray(new Map.Entry[clsAccessCount.size()]);
         Arrays.sort(envies, ACCESS_COUNT_COMPARATOR);
 
-        Map.Entry<String, Set<Integer>> bestEnvyEntry = envies[0];
+        Map.Entry<Integer, Set<Integer>> bestEnvyEntry = envies[0];
         int bestEnvyCount = bestEnvyEntry.getValue().size();
         if (bestEnvyCount < envyMin) {
             return;
@@ -161,7 +172,7 @@ public class ClassEnvy extends BytecodeScanningDetector {
         double bestPercent = ((double) bestEnvyCount) / ((double) (bestEnvyCount + thisClsAccessCount));
 
         if (bestPercent > envyPercent) {
-            String bestEnvy = bestEnvyEntry.getKey();
+            String bestEnvy = SymbolTable.symbolOf(bestEnvyEntry.getKey().intValue());
             if (implementsCommonInterface(bestEnvy)) {
                 return;
             }
@@ -183,22 +194,22 @@ public class ClassEnvy extends BytecodeScanningDetector {
             stack.precomputation(this);
 
             if (OpcodeUtils.isStandardInvoke(seen)) {
-                String calledClass = getClassConstantOperand().replace('/', '.');
+                int calledClass = symbols.getClassId(ConstantPoolSymbols.getOperandIndex(this));
 
                 if (seen == INVOKEINTERFACE) {
                     int parmCount = SignatureUtils.getNumParameters(this.getSigConstantOperand());
                     if (!countClassAccess(parmCount)) {
-                        countClassAccess(calledClass);
+                        countClassIdAccess(calledClass);
                     }
                 } else {
-                    countClassAccess(calledClass);
+                    countClassIdAccess(calledClass);
                 }
             } else if (seen == PUTFIELD) {
                 countClassAccess(1);
             } else if (seen == GETFIELD) {
                 countClassAccess(0);
             } else if ((seen == ALOAD_0) && (!methodIsStatic)) {
-                countClassAccess(clsName);
+                countClassIdAccess(clsId);
             }
         } finally {
             stack.sawOpcode(this, seen);
@@ -252,7 +263,7 @@ public class ClassEnvy extends BytecodeScanningDetector {
                 JavaClass cls = itm.getJavaClass();
                 if (cls != null) {
                     calledClass = cls.getClassName();
-                    countClassAccess(calledClass);
+                    countClassIdAccess(SymbolTable.classIdOf(calledClass));
                     return true;
                 }
             }
@@ -266,20 +277,22 @@ public class ClassEnvy extends BytecodeScanningDetector {
     /**
      * increment the count of class access of the specified class if it is in a similar package to the caller, and is not general purpose
      *
-     * @param calledClass
-     *            the class to check
+     * @param calledClassId
+     *            the symbol id of the class to check
      */
-    private void countClassAccess(final String calledClass) {
-        if (calledClass.equals(clsName)) {
+    private void countClassIdAccess(final int calledClassId) {
+        if (calledClassId == clsId) {
             thisClsAccessCount++;
         } else {
+            String calledClass = SymbolTable.symbolOf(calledClassId);
             String calledPackage = SignatureUtils.getPackageName(calledClass);
             if (SignatureUtils.similarPackages(calledPackage, packageName, 2) && !generalPurpose(calledClass)) {
-                BitSet lineNumbers = clsAccessCount.get(calledClass);
+                Integer calledClassKey = Integer.valueOf(calledClassId);
+                BitSet lineNumbers = clsAccessCount.get(calledClassKey);
                 if (lineNumbers == null) {
                     lineNumbers = new BitSet();
                     addLineNumber(lineNumbers);
-                    clsAccessCount.put(calledClass, lineNumbers);
+                    clsAccessCount.put(calledClassKey, lineNumbers);
                 } else {
                     addLineNumber(lineNumbers);
                 }
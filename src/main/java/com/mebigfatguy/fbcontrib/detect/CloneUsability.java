@@ -28,6 +28,9 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -41,6 +44,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * finds classes that implement clone() that do not specialize the return value, and do not swallow CloneNotFoundException. Not doing so makes the clone method
  * not as simple to use, and should be harmless to do.
  */
+@ParallelSafe
+@IncrementalSafe
 public class CloneUsability extends BytecodeScanningDetector {
 
     private BugReporter bugReporter;
@@ -81,7 +86,7 @@ public class CloneUsability extends BytecodeScanningDetector {
 
         try {
             cls = classContext.getJavaClass();
-            if (cls.implementationOf(cloneClass)) {
+            if (ClassHierarchyCache.implementationOf(cls, cloneClass)) {
                 clsName = cls.getClassName();
                 stack = new OpcodeStack();
                 super.visitClassContext(classContext);
@@ -115,7 +120,7 @@ public class CloneUsability extends BytecodeScanningDetector {
                                 new BugInstance(this, BugType.CU_CLONE_USABILITY_OBJECT_RETURN.name(), NORMAL_PRIORITY).addClass(this).addMethod(this));
                     } else {
                         JavaClass clonedClass = Repository.lookupClass(returnClsName);
-                        if (!cls.instanceOf(clonedClass)) {
+                        if (!ClassHierarchyCache.instanceOf(cls, clonedClass)) {
                             bugReporter.reportBug(
                                     new BugInstance(this, BugType.CU_CLONE_USABILITY_MISMATCHED_RETURN.name(), HIGH_PRIORITY).addClass(this).addMethod(this));
                         }
@@ -28,6 +28,9 @@ import org.apache.bcel.classfile.LocalVariableTable;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -40,6 +43,8 @@ import edu.umd.cs.findbugs.visitclass.PreorderVisitor;
 /**
  * looks for fields and local variables that have Map, Set, List in their names but the variable is a collection of a different basic type.
  */
+@ParallelSafe
+@IncrementalSafe
 public class CollectionNamingConfusion extends PreorderVisitor implements Detector {
 
     private JavaClass mapInterface;
@@ -140,9 +145,10 @@ public class CollectionNamingConfusion extends PreorderVisitor implements Detect
                     && signature.startsWith("Ljava/util/")) {
                 String clsName = SignatureUtils.stripSignature(signature);
                 JavaClass cls = Repository.lookupClass(clsName);
-                if ((cls.implementationOf(mapInterface) && !name.endsWith("map")) || (cls.implementationOf(setInterface) && !name.endsWith("set"))
-                        || (cls.implementationOf(listInterface) && !name.endsWith("list"))
-                        || (cls.implementationOf(queueInterface) && !name.endsWith("queue"))) {
+                if ((ClassHierarchyCache.implementationOf(cls, mapInterface) && !name.endsWith("map"))
+                        || (ClassHierarchyCache.implementationOf(cls, setInterface) && !name.endsWith("set"))
+                        || (ClassHierarchyCache.implementationOf(cls, listInterface) && !name.endsWith("list"))
+                        || (ClassHierarchyCache.implementationOf(cls, queueInterface) && !name.endsWith("queue"))) {
                     return true;
                 }
             }
@@ -23,6 +23,8 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.LocalVariableTable;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 
 import edu.umd.cs.findbugs.BugInstance;
@@ -37,6 +39,8 @@ import edu.umd.cs.findbugs.OpcodeStack;
  * new EqualsBuilder().append(this.name, other.name).equals(other);
  * </pre>
  */
+@ParallelSafe
+@IncrementalSafe
 public class CommonsEqualsBuilderToEquals extends BytecodeScanningDetector {
 
     private static final String LANG_EQUALS_BUILDER = "Lorg/apache/commons/lang/builder/EqualsBuilder;";
@@ -22,6 +22,8 @@ package com.mebigfatguy.fbcontrib.detect;
 import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.LocalVariableTable;
 
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 
 import edu.umd.cs.findbugs.BugInstance;
@@ -37,6 +39,8 @@ import edu.umd.cs.findbugs.OpcodeStack;
  * new HashCodeBuilder().append(this.name).hashCode();
  * </pre>
  */
+@ParallelSafe
+@IncrementalSafe
 public class CommonsHashcodeBuilderToHashcode extends BytecodeScanningDetector {
 
     private static final String LANG_HASH_CODE_BUILDER = "Lorg/apache/commons/lang/builder/HashCodeBuilder;";
@@ -28,6 +28,8 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.LocalVariable;
 import org.apache.bcel.classfile.LocalVariableTable;
 
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.ToString;
@@ -48,6 +50,8 @@ import edu.umd.cs.findbugs.bcel.OpcodeStackDetector;
  * new ToStringBuilder(this).toString();
  * </pre>
  */
+@ParallelSafe
+@IncrementalSafe
 public class CommonsStringBuilderToString extends OpcodeStackDetector {
 
     private static final Set<String> TOSTRINGBUILDER_CTOR_SIGS = UnmodifiableSet.create(
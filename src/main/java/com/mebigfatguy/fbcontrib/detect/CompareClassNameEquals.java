@@ -23,6 +23,8 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.LocalVariableTable;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -43,6 +45,8 @@ import edu.umd.cs.findbugs.bcel.OpcodeStackDetector;
  *
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class CompareClassNameEquals extends OpcodeStackDetector {
     private boolean flag = false;
     private final BugReporter bugReporter;
@@ -27,6 +27,9 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
 import edu.umd.cs.findbugs.BugInstance;
@@ -43,6 +46,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * </ul>
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class ConcurrentCollectionIssues extends BytecodeScanningDetector {
 
     private final BugReporter bugReporter;
@@ -140,7 +145,8 @@ public class ConcurrentCollectionIssues extends BytecodeScanningDetector {
                         if (mapItem.getUserValue() == CCIUserValue.CONCURRENT_HASHMAP) {
                             OpcodeStack.Item valueItem = stack.getStackItem(0);
                             JavaClass valueClass = valueItem.getJavaClass();
-                            if ((valueClass != null) && (valueClass.instanceOf(collectionClass) || valueClass.instanceOf(mapClass))) {
+                            if ((valueClass != null)
+                                    && (ClassHierarchyCache.instanceOf(valueClass, collectionClass) || ClassHierarchyCache.instanceOf(valueClass, mapClass))) {
 
                                 bugReporter.reportBug(new BugInstance(this, BugType.CCI_CONCURRENT_COLLECTION_ISSUES_USE_PUT_IS_RACY.name(), NORMAL_PRIORITY)
                                         .addClass(this).addMethod(this).addSourceLine(this));
@@ -21,6 +21,8 @@ package com.mebigfatguy.fbcontrib.detect;
 import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -36,6 +38,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for methods that conflate the use of resources and files. Converting URLs retrieved from potentially non file resources, into files objects.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class ConflatingResourcesAndFiles extends BytecodeScanningDetector {
 
     private BugReporter bugReporter;
@@ -26,6 +26,8 @@ import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -42,6 +44,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * nanosecond value.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class ConflictingTimeUnits extends BytecodeScanningDetector {
 
     private enum Units {
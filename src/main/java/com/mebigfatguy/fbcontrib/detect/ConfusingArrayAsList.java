@@ -18,11 +18,15 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
+import java.util.BitSet;
 import java.util.Set;
 
 import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.SharedOpcodeStack;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -38,6 +42,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * one item, the array itself.
  *
  */
+@ParallelSafe
+@IncrementalSafe
 public class ConfusingArrayAsList extends BytecodeScanningDetector {
 
     private static final Set<String> PRIMITIVE_ARRAYS = UnmodifiableSet.create(Values.SIG_ARRAY_OF_ARRAYS_PREFIX + Values.SIG_PRIMITIVE_BYTE,
@@ -46,8 +52,11 @@ public class ConfusingArrayAsList extends BytecodeScanningDetector {
             Values.SIG_ARRAY_OF_ARRAYS_PREFIX + Values.SIG_PRIMITIVE_FLOAT, Values.SIG_ARRAY_OF_ARRAYS_PREFIX + Values.SIG_PRIMITIVE_DOUBLE,
             Values.SIG_ARRAY_OF_ARRAYS_PREFIX + Values.SIG_PRIMITIVE_BOOLEAN);
 
+    /** the opcodes before which the detector looks at the items on the stack */
+    private static final BitSet STACK_ITEM_OPCODES = SharedOpcodeStack.subscribe(INVOKESTATIC);
+
     private BugReporter bugReporter;
-    private OpcodeStack stack;
+    private SharedOpcodeStack stack;
 
     /**
      * constructs a CAAL detector given the reporter to report bugs on
@@ -68,7 +77,7 @@ public class ConfusingArrayAsList extends BytecodeScanningDetector {
     @Override
     public void visitClassContext(ClassContext classContext) {
         try {
-            stack = new OpcodeStack();
+            stack = new SharedOpcodeStack(STACK_ITEM_OPCODES);
             super.visitClassContext(classContext);
         } finally {
             stack = null;
@@ -28,6 +28,8 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -54,6 +56,8 @@ import edu.umd.cs.findbugs.visitclass.PreorderVisitor;
  *
  * but instead maps to one that takes an int, long, float or double.
  */
+@ParallelSafe
+@IncrementalSafe
 public class ConfusingAutoboxedOverloading extends PreorderVisitor implements Detector {
     private static final int JDK15_MAJOR = 49;
 
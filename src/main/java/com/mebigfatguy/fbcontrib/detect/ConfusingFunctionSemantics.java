@@ -31,7 +31,10 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.StopOpcodeParsingException;
@@ -49,6 +52,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * as it isn't obvious that the 'original' object is modified. If the point of this method is to modify the parameter, it is probably better just to have the
  * method be a void method, to avoid confusion.
  */
+@ParallelSafe
+@IncrementalSafe
 public class ConfusingFunctionSemantics extends BytecodeScanningDetector {
     private static final Set<String> knownImmutables;
 
@@ -127,7 +132,7 @@ public class ConfusingFunctionSemantics extends BytecodeScanningDetector {
 
                         if (parmRegs != null) {
                             JavaClass parmClass = Repository.lookupClass(SignatureUtils.stripSignature(parmSignature));
-                            if (parmClass.instanceOf(returnClass)) {
+                            if (ClassHierarchyCache.instanceOf(parmClass, returnClass)) {
                                 possibleParmRegs.put(Integer.valueOf(parmRegs[p]), new ParmUsage());
                             }
                         }
@@ -30,7 +30,10 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -45,6 +48,8 @@ import edu.umd.cs.findbugs.ba.XMethod;
  * looks for methods that access arrays or classes that implement java.util.List using a constant integer for the index. This is often a typo intented to be a
  * loop variable, but if specific indices mean certain things, perhaps a first class object would be a better choice for a container.
  */
+@ParallelSafe
+@IncrementalSafe
 public class ConstantListIndex extends BytecodeScanningDetector {
     enum State {
         SAW_NOTHING, SAW_CONSTANT_0, SAW_CONSTANT
@@ -113,7 +118,7 @@ public class ConstantListIndex extends BytecodeScanningDetector {
     @Override
     public void visitClassContext(ClassContext classContext) {
         try {
-            if ((invocationHandlerClass != null) && classContext.getJavaClass().implementationOf(invocationHandlerClass)) {
+            if ((invocationHandlerClass != null) && ClassHierarchyCache.implementationOf(classContext.getJavaClass(), invocationHandlerClass)) {
                 return;
             }
             iConst0Looped = new BitSet();
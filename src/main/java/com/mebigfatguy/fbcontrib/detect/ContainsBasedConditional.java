@@ -27,7 +27,9 @@ import org.apache.bcel.classfile.ConstantClass;
 import org.apache.bcel.classfile.ConstantString;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -42,6 +44,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * pattern is much more easy to read if you put those values in a static set, and just use one contains(value) call. The set name adds self-documentation as
  * well.
  */
+@ParallelSafe
+@IncrementalSafe
 public class ContainsBasedConditional extends BytecodeScanningDetector {
 
     private static final int LOW_CONDITIONAL_COUNT = 3;
@@ -18,6 +18,8 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
+import java.util.BitSet;
+
 import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.LocalVariable;
 import org.apache.bcel.classfile.LocalVariableTable;
@@ -26,7 +28,10 @@ import org.apache.bcel.generic.ObjectType;
 import org.apache.bcel.generic.Type;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
+import com.mebigfatguy.fbcontrib.utils.SharedOpcodeStack;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
 import edu.umd.cs.findbugs.BugInstance;
@@ -54,9 +59,14 @@ import edu.umd.cs.findbugs.OpcodeStack;
  * reported with high priority.
  *
  */
+@ParallelSafe
+@IncrementalSafe
 public class ContraVariantArrayAssignment extends BytecodeScanningDetector {
+    /** the opcodes before which the detector looks at the items on the stack */
+    private static final BitSet STACK_ITEM_OPCODES = SharedOpcodeStack.subscribe(ASTORE, ASTORE_0, ASTORE_1, ASTORE_2, ASTORE_3, PUTFIELD, PUTSTATIC);
+
     private final BugReporter bugReporter;
-    private final OpcodeStack stack;
+    private final SharedOpcodeStack stack;
 
     /**
      * constructs a CVAA detector given the reporter to report bugs on.
@@ -66,7 +76,7 @@ public class ContraVariantArrayAssignment extends BytecodeScanningDetector {
      */
     public ContraVariantArrayAssignment(final BugReporter bugReporter) {
         this.bugReporter = bugReporter;
-        stack = new OpcodeStack();
+        stack = new SharedOpcodeStack(STACK_ITEM_OPCODES);
     }
 
     /**
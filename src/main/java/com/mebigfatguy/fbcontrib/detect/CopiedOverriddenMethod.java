@@ -18,12 +18,18 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.bcel.Constants;
 import org.apache.bcel.classfile.Code;
+import org.apache.bcel.classfile.Constant;
 import org.apache.bcel.classfile.ConstantClass;
+import org.apache.bcel.classfile.ConstantFloat;
+import org.apache.bcel.classfile.ConstantInteger;
+import org.apache.bcel.classfile.ConstantPool;
+import org.apache.bcel.classfile.ConstantString;
 import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 import org.apache.bcel.generic.ConstantPoolGen;
@@ -36,7 +42,15 @@ import org.apache.bcel.generic.LDC;
 import org.apache.bcel.generic.ReferenceType;
 import org.apache.bcel.generic.Type;
 
+import com.mebigfatguy.fbcontrib.utils.AnalysisScopedMap;
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.CodeByteUtils;
+import com.mebigfatguy.fbcontrib.utils.ConstantPoolSymbols;
+import com.mebigfatguy.fbcontrib.utils.FQFieldId;
+import com.mebigfatguy.fbcontrib.utils.FQMethodId;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.QMethodId;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.StopOpcodeParsingException;
 import com.mebigfatguy.fbcontrib.utils.ToString;
@@ -51,11 +65,24 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * Looks for methods that are direct copies of the implementation in the super class. This detector doesn't handle multi-level inheritance, ie child to
  * grandparent. Could be done.
  */
+@ParallelSafe
+@IncrementalSafe
 public class CopiedOverriddenMethod extends BytecodeScanningDetector {
+
+    private static final int MAX_CACHED_CLASSES = 10000;
+
+    /**
+     * the overridable methods of each superclass seen, with the fingerprints of their code, shared by all instances, as many classes often derive from the same
+     * base class
+     */
+    private static final AnalysisScopedMap<String, Map<QMethodId, CodeInfo>> SUPERCLASS_METHODS = new AnalysisScopedMap<>(MAX_CACHED_CLASSES);
+
     private final BugReporter bugReporter;
-    private Map<String, CodeInfo> superclassCode;
+    private Map<QMethodId, CodeInfo> superclassCode;
     private ClassContext classContext;
-    private String curMethodInfo;
+    private JavaClass superClass;
+    private ConstantPoolSymbols childSymbols;
+    private QMethodId curMethodInfo;
     private ConstantPoolGen childPoolGen, parentPoolGen;
     private Type[] parmTypes;
     private int nextParmIndex;
@@ -85,32 +112,54 @@ public class CopiedOverriddenMethod extends BytecodeScanningDetector {
             JavaClass cls = clsContext.getJavaClass();
             String superName = cls.getSuperclassName();
             if (!Values.DOTTED_JAVA_LANG_OBJECT.equals(superName)) {
-                this.classContext = clsContext;
-                superclassCode = new HashMap<>();
-                JavaClass superCls = cls.getSuperClass();
-                childPoolGen = new ConstantPoolGen(cls.getConstantPool());
-                parentPoolGen = new ConstantPoolGen(superCls.getConstantPool());
-                Method[] methods = superCls.getMethods();
-                for (Method m : methods) {
-                    String methodName = m.getName();
-                    if ((m.isPublic() || m.isProtected()) && !m.isAbstract() && !m.isSynthetic() && !Values.CONSTRUCTOR.equals(methodName)
-                            && !Values.STATIC_INITIALIZER.equals(methodName)) {
-                        String methodInfo = methodName + ':' + m.getSignature();
-                        superclassCode.put(methodInfo, new CodeInfo(m.getCode(), m.getAccessFlags()));
-                    }
+                superClass = cls.getSuperClass();
+                superclassCode = getSuperclassMethods(superClass);
+                if (!superclassCode.isEmpty()) {
+                    this.classContext = clsContext;
+                    childSymbols = new ConstantPoolSymbols(cls.getConstantPool());
+                    cls.accept(this);
                 }
-                cls.accept(this);
             }
         } catch (ClassNotFoundException cnfe) {
             bugReporter.reportMissingClass(cnfe);
         } finally {
             superclassCode = null;
             this.classContext = null;
+            superClass = null;
+            childSymbols = null;
             childPoolGen = null;
             parentPoolGen = null;
         }
     }
 
+    /**
+     * returns the public and protected methods of a class that can be copied, with the fingerprints of their code, building them once per class
+     *
+     * @param superCls
+     *            the class whose methods are wanted
+     * @return the methods by name and signature
+     */
+    private static Map<QMethodId, CodeInfo> getSuperclassMethods(JavaClass superCls) {
+        Map<QMethodId, CodeInfo> methods = SUPERCLASS_METHODS.get(superCls.getClassName());
+        if (methods == null) {
+            methods = new HashMap<>();
+            ConstantPool pool = superCls.getConstantPool();
+            ConstantPoolSymbols symbols = new ConstantPoolSymbols(pool);
+            for (Method m : superCls.getMethods()) {
+                String methodName = m.getName();
+                if ((m.isPublic() || m.isProtected()) && !m.isAbstract() && !m.isSynthetic() && !Values.CONSTRUCTOR.equals(methodName)
+                        && !Values.STATIC_INITIALIZER.equals(methodName)) {
+                    Code code = m.getCode();
+                    long fingerprint = (code == null) ? 0 : fingerprint(code.getCode(), pool, symbols);
+                    methods.put(new QMethodId(methodName, m.getSignature()), new CodeInfo(code, m.getAccessFlags(), fingerprint));
+                }
+            }
+            methods = Collections.unmodifiableMap(methods);
+            SUPERCLASS_METHODS.put(superCls.getClassName(), methods);
+        }
+        return methods;
+    }
+
     /**
      * overrides the visitor to get the methodInfo
      *
@@ -119,7 +168,7 @@ public class CopiedOverriddenMethod extends BytecodeScanningDetector {
      */
     @Override
     public void visitMethod(Method obj) {
-        curMethodInfo = obj.getName() + ':' + obj.getSignature();
+        curMethodInfo = new QMethodId(obj.getName(), obj.getSignature());
     }
 
     /**
@@ -136,9 +185,11 @@ public class CopiedOverriddenMethod extends BytecodeScanningDetector {
                 return;
             }
 
-            CodeInfo superCode = superclassCode.remove(curMethodInfo);
+            CodeInfo superCode = superclassCode.get(curMethodInfo);
             if (superCode != null) {
-                if (sameAccess(getMethod().getAccessFlags(), superCode.getAccess()) && codeEquals(obj, superCode.getCode())) {
+                if (sameAccess(getMethod().getAccessFlags(), superCode.getAccess())
+                        && (fingerprint(obj.getCode(), getConstantPool(), childSymbols) == superCode.getFingerprint())
+                        && codeEquals(obj, superCode.getCode())) {
                     bugReporter.reportBug(new BugInstance(this, BugType.COM_COPIED_OVERRIDDEN_METHOD.name(), NORMAL_PRIORITY).addClass(this).addMethod(this)
                             .addSourceLine(classContext, this, getPC()));
                     return;
@@ -279,6 +330,11 @@ public class CopiedOverriddenMethod extends BytecodeScanningDetector {
             return false;
         }
 
+        if (childPoolGen == null) {
+            childPoolGen = new ConstantPoolGen(getConstantPool());
+            parentPoolGen = new ConstantPoolGen(superClass.getConstantPool());
+        }
+
         InstructionHandle[] childihs = new InstructionList(childBytes).getInstructionHandles();
         InstructionHandle[] parentihs = new InstructionList(parentBytes).getInstructionHandles();
 
@@ -362,16 +418,142 @@ public class CopiedOverriddenMethod extends BytecodeScanningDetector {
     }
 
     /**
-     * represents of code bytes and access flag for a method
+     * computes a hash of the code of a method that doesn't depend on where its constants are in the constant pool, so that code that codeEquals would find
+     * equal always has the same fingerprint, and only methods with the same fingerprint need to be compared. Field and method references and ldc constants
+     * are hashed by what they refer to, as codeEquals compares them, the other operands that codeEquals compares are hashed as is, and those it ignores, such
+     * as branch offsets, are left out.
+     *
+     * @param bytes
+     *            the code bytes of the method
+     * @param pool
+     *            the constant pool of the method's class
+     * @param symbols
+     *            the symbols of that constant pool
+     * @return the fingerprint
+     */
+    private static long fingerprint(byte[] bytes, ConstantPool pool, ConstantPoolSymbols symbols) {
+        long hash = bytes.length;
+        int pc = 0;
+        while (pc < bytes.length) {
+            int opcode = CodeByteUtils.getbyte(bytes, pc);
+            long operand = 0;
+            switch (opcode) {
+                case Constants.GETFIELD:
+                case Constants.PUTFIELD:
+                case Constants.GETSTATIC:
+                case Constants.PUTSTATIC: {
+                    FQFieldId field = symbols.getField(getIndex(bytes, pc));
+                    operand = (field.getFieldNameId() * 31L) + field.getSignatureId();
+                }
+                break;
+
+                case Constants.INVOKEVIRTUAL:
+                case Constants.INVOKESPECIAL:
+                case Constants.INVOKESTATIC:
+                case Constants.INVOKEINTERFACE: {
+                    // the class is left out, as codeEquals sees all array classes as java.lang.Object
+                    FQMethodId method = symbols.getMethod(getIndex(bytes, pc));
+                    operand = (method.getMethodNameId() * 31L) + method.getSignatureId();
+                }
+                break;
+
+                case Constants.LDC:
+                    operand = hashConstant(pool, CodeByteUtils.getbyte(bytes, pc + 1));
+                break;
+
+                case Constants.LDC_W:
+                    operand = hashConstant(pool, getIndex(bytes, pc));
+                break;
+
+                case Constants.BIPUSH:
+                case Constants.ILOAD:
+                case Constants.LLOAD:
+                case Constants.FLOAD:
+                case Constants.DLOAD:
+                case Constants.ALOAD:
+                case Constants.ISTORE:
+                case Constants.LSTORE:
+                case Constants.FSTORE:
+                case Constants.DSTORE:
+                case Constants.ASTORE:
+                case Constants.IINC:
+                case Constants.RET:
+                case Constants.NEWARRAY:
+                    operand = CodeByteUtils.getbyte(bytes, pc + 1);
+                break;
+
+                case Constants.SIPUSH:
+                case Constants.NEW:
+                case Constants.CHECKCAST:
+                case Constants.INSTANCEOF:
+                case Constants.ANEWARRAY:
+                case Constants.MULTIANEWARRAY:
+                case Constants.LDC2_W:
+                    operand = getIndex(bytes, pc);
+                break;
+
+                case Constants.WIDE:
+                    // bcel folds wide into the instruction it widens
+                    opcode = CodeByteUtils.getbyte(bytes, pc + 1);
+                    operand = CodeByteUtils.getshort(bytes, pc + 2) & 0xFFFF;
+                break;
+
+                case Constants.TABLESWITCH: {
+                    int base = (pc + 4) & ~3;
+                    operand = (CodeByteUtils.getint(bytes, base + 8) - CodeByteUtils.getint(bytes, base + 4)) + 1;
+                }
+                break;
+
+                case Constants.LOOKUPSWITCH:
+                    operand = CodeByteUtils.getint(bytes, ((pc + 4) & ~3) + 4);
+                break;
+
+                default:
+                break;
+            }
+            hash = (((hash * 31) + opcode) * 31) + operand;
+            pc += CodeByteUtils.getInstructionLength(bytes, pc);
+        }
+        return hash;
+    }
+
+    private static int getIndex(byte[] bytes, int pc) {
+        return CodeByteUtils.getshort(bytes, pc + 1) & 0xFFFF;
+    }
+
+    /**
+     * hashes the value of a string, number or class constant
+     */
+    private static long hashConstant(ConstantPool pool, int index) {
+        Constant c = pool.getConstant(index);
+        if (c instanceof ConstantString) {
+            return ((ConstantString) c).getBytes(pool).hashCode();
+        }
+        if (c instanceof ConstantClass) {
+            return ((ConstantClass) c).getBytes(pool).hashCode();
+        }
+        if (c instanceof ConstantInteger) {
+            return ((ConstantInteger) c).getBytes();
+        }
+        if (c instanceof ConstantFloat) {
+            return Float.floatToIntBits(((ConstantFloat) c).getBytes());
+        }
+        return c.getTag();
+    }
+
+    /**
+     * represents of code bytes, access flag and code fingerprint for a method
      *
      */
     static class CodeInfo {
-        private Code code;
-        private int access;
+        private final Code code;
+        private final int access;
+        private final long fingerprint;
 
-        public CodeInfo(Code c, int acc) {
+        public CodeInfo(Code c, int acc, long fp) {
             code = c;
             access = acc;
+            fingerprint = fp;
         }
 
         public Code getCode() {
@@ -382,6 +564,10 @@ public class CopiedOverriddenMethod extends BytecodeScanningDetector {
             return access;
         }
 
+        public long getFingerprint() {
+            return fingerprint;
+        }
+
         @Override
         public String toString() {
             return ToString.build(this);
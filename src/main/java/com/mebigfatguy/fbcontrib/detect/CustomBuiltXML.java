@@ -24,6 +24,8 @@ import java.util.regex.Pattern;
 
 import org.apache.bcel.classfile.Code;
 
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.ToString;
@@ -40,6 +42,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for methods that build xml based strings by concatenation strings and custom values together. Doing so makes brittle code, that is difficult to modify,
  * validate and understand. It is cleaner to create external xml files that are transformed at runtime, using parameters set through Transformer.setParameter.
  */
+@ParallelSafe
+@IncrementalSafe
 public class CustomBuiltXML extends BytecodeScanningDetector {
     private static final List<XMLPattern> xmlPatterns = UnmodifiableList.create(
         // @formatter:off
@@ -18,29 +18,26 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
-import java.util.BitSet;
-import java.util.Iterator;
-
 import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.Method;
 
+import com.mebigfatguy.fbcontrib.utils.BranchCounter;
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 
 import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
 import edu.umd.cs.findbugs.Detector;
-import edu.umd.cs.findbugs.ba.BasicBlock;
-import edu.umd.cs.findbugs.ba.CFG;
-import edu.umd.cs.findbugs.ba.CFGBuilderException;
 import edu.umd.cs.findbugs.ba.ClassContext;
-import edu.umd.cs.findbugs.ba.Edge;
-import edu.umd.cs.findbugs.ba.EdgeTypes;
 import edu.umd.cs.findbugs.visitclass.PreorderVisitor;
 
 /**
  * Calculates the McCabe Cyclomatic Complexity measure and reports methods that have an excessive value. This report value can be set with system property
  * 'fb-contrib.cc.limit'.
  */
+@ParallelSafe
+@IncrementalSafe
 public class CyclomaticComplexity extends PreorderVisitor implements Detector {
     public static final String LIMIT_PROPERTY = "fb-contrib.cc.limit";
     private BugReporter bugReporter;
@@ -86,75 +83,40 @@ public class CyclomaticComplexity extends PreorderVisitor implements Detector {
     }
 
     /**
-     * overrides the visitor to navigate the basic block list to count branches
+     * overrides the visitor to count the branches of the method, by scanning its code bytes, which is only done for methods long enough to possibly exceed
+     * the limit
      *
      * @param obj
      *            the method of the currently parsed method
      */
     @Override
     public void visitMethod(final Method obj) {
-        try {
-
-            if (obj.isSynthetic()) {
-                return;
-            }
-
-            Code code = obj.getCode();
-            if (code == null) {
-                return;
-            }
+        if (obj.isSynthetic()) {
+            return;
+        }
 
-            // There really is no valid relationship between reportLimit and
-            // code
-            // length, but it is good enough. If the method is small, don't
-            // bother
-            if (code.getCode().length < (2 * reportLimit)) {
-                return;
-            }
+        Code code = obj.getCode();
+        if (code == null) {
+            return;
+        }
 
-            BitSet exceptionNodeTargets = new BitSet();
+        // There really is no valid relationship between reportLimit and
+        // code
+        // length, but it is good enough. If the method is small, don't
+        // bother
+        if (code.getCode().length < (2 * reportLimit)) {
+            return;
+        }
 
-            CFG cfg = classContext.getCFG(obj);
-            int branches = 0;
-            Iterator<BasicBlock> bbi = cfg.blockIterator();
-            while (bbi.hasNext()) {
-                BasicBlock bb = bbi.next();
-                Iterator<Edge> iei = cfg.outgoingEdgeIterator(bb);
-                int lastSwitchTargetBlockLabel = Integer.MIN_VALUE;
-                while (iei.hasNext()) {
-                    Edge e = iei.next();
-                    int edgeType = e.getType();
-                    if ((edgeType != EdgeTypes.FALL_THROUGH_EDGE) && (edgeType != EdgeTypes.RETURN_EDGE) && (edgeType != EdgeTypes.UNKNOWN_EDGE)) {
-                        if ((edgeType == EdgeTypes.UNHANDLED_EXCEPTION_EDGE) || (edgeType == EdgeTypes.HANDLED_EXCEPTION_EDGE)) {
-                            int nodeTarget = e.getTarget().getLabel();
-                            if (!exceptionNodeTargets.get(nodeTarget)) {
-                                exceptionNodeTargets.set(nodeTarget);
-                                branches++;
-                            }
-                        } else if ((edgeType == EdgeTypes.SWITCH_EDGE) || (edgeType == EdgeTypes.SWITCH_DEFAULT_EDGE)) {
-                            int nodeTarget = e.getTarget().getLabel();
-                            if (nodeTarget != lastSwitchTargetBlockLabel) {
-                                branches++;
-                            }
-                            lastSwitchTargetBlockLabel = nodeTarget;
-                        } else {
-                            branches++;
-                        }
-                    }
-                }
-            }
+        int branches = BranchCounter.countBranches(obj);
 
-            if (branches > reportLimit) {
+        if (branches > reportLimit) {
 
-                int priority = (branches > (reportLimit * 2) ? HIGH_PRIORITY : NORMAL_PRIORITY);
-                BugInstance bug = new BugInstance(this, BugType.CC_CYCLOMATIC_COMPLEXITY.name(), priority).addClass(this).addMethod(this)
-                        .addSourceLine(classContext, this, 0).addInt(branches);
+            int priority = (branches > (reportLimit * 2) ? HIGH_PRIORITY : NORMAL_PRIORITY);
+            BugInstance bug = new BugInstance(this, BugType.CC_CYCLOMATIC_COMPLEXITY.name(), priority).addClass(this).addMethod(this)
+                    .addSourceLine(classContext, this, 0).addInt(branches);
 
-                bugReporter.reportBug(bug);
-            }
-        } catch (CFGBuilderException cbe) {
-            bugReporter.logError("Failure examining basic blocks for method " + classContext.getJavaClass().getClassName() + '.' + obj.getName()
-                    + " in Cyclomatic Complexity detector", cbe);
+            bugReporter.reportBug(bug);
         }
     }
 }
@@ -22,40 +22,28 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
-import org.apache.bcel.classfile.Method;
+import org.apache.bcel.classfile.Code;
 
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 
 import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
-import edu.umd.cs.findbugs.BytecodeScanningDetector;
 
 /**
  * Looks for inefficient comparison of Date objects using two comparisons when one would do.
  */
-public class DateComparison extends BytecodeScanningDetector {
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(classes = { "java/util/Date", "java/sql/Date", "java/sql/Timestamp" }, methods = { "equals", "after", "before" })
+public class DateComparison extends AbstractRuleDetector {
     enum State {
         SAW_NOTHING, SAW_LOAD1_1, SAW_LOAD1_2, SAW_CMP1, SAW_IFNE, SAW_LOAD2_1, SAW_LOAD2_2, SAW_CMP2
     }
 
-    private static final Set<String> dateClasses;
-
-    static {
-        Set<String> dc = new HashSet<String>();
-        dc.add("java.util.Date");
-        dc.add("java.sql.Date");
-        dc.add("java.sql.Timestamp");
-        dateClasses = Collections.unmodifiableSet(dc);
-    }
-
-    private final BugReporter bugReporter;
-    private State state;
-    private int register1_1;
-    private int register1_2;
-    private int register2_1;
-    private int register2_2;
-
     /**
      * constructs a DDC detector given the reporter to report bugs on
      *
@@ -63,125 +51,150 @@ public class DateComparison extends BytecodeScanningDetector {
      *            the sync of bug reports
      */
     public DateComparison(BugReporter bugReporter) {
-        this.bugReporter = bugReporter;
+        super(new Rule(bugReporter));
     }
 
     /**
-     * overrides the visitor to reset the registers
-     *
-     * @param obj
-     *            the method of the currently parsed method
+     * looks for two dates compared, and, if they differ, compared again the other way round
      */
-    @Override
-    public void visit(Method obj) {
-        state = State.SAW_NOTHING;
-        register1_1 = -1;
-        register1_2 = -1;
-        register2_1 = -1;
-        register2_2 = -1;
-        super.visit(obj);
-    }
+    static class Rule extends OpcodeRule {
+        private static final Set<String> dateClasses;
+
+        static {
+            Set<String> dc = new HashSet<String>();
+            dc.add("java.util.Date");
+            dc.add("java.sql.Date");
+            dc.add("java.sql.Timestamp");
+            dateClasses = Collections.unmodifiableSet(dc);
+        }
 
-    /**
-     * overrides the visitor to look for double date compares using the same registers
-     *
-     * @param seen
-     *            the current opcode parsed.
-     */
-    @Override
-    public void sawOpcode(int seen) {
-        switch (state) {
-            case SAW_NOTHING:
-                if (OpcodeUtils.isALoad(seen)) {
-                    register1_1 = RegisterUtils.getALoadReg(this, seen);
-                    state = State.SAW_LOAD1_1;
-                }
-            break;
-
-            case SAW_LOAD1_1:
-                if (OpcodeUtils.isALoad(seen)) {
-                    register1_2 = RegisterUtils.getALoadReg(this, seen);
-                }
-
-                if (register1_2 > -1) {
-                    state = State.SAW_LOAD1_2;
-                } else {
-                    state = State.SAW_NOTHING;
-                }
-            break;
-
-            case SAW_LOAD1_2:
-                if (seen == INVOKEVIRTUAL) {
-                    String cls = getDottedClassConstantOperand();
-                    if (dateClasses.contains(cls)) {
-                        String methodName = getNameConstantOperand();
-                        if ("equals".equals(methodName) || "after".equals(methodName) || "before".equals(methodName)) {
-                            state = State.SAW_CMP1;
-                        }
+        private State state;
+        private int register1_1;
+        private int register1_2;
+        private int register2_1;
+        private int register2_2;
+
+        Rule(BugReporter bugReporter) {
+            super(bugReporter);
+        }
+
+        /**
+         * overrides the rule to reset the registers
+         *
+         * @param obj
+         *            the code of the currently parsed method
+         * @return true, as all methods are looked at
+         */
+        @Override
+        protected boolean startCode(Code obj) {
+            state = State.SAW_NOTHING;
+            register1_1 = -1;
+            register1_2 = -1;
+            register2_1 = -1;
+            register2_2 = -1;
+            return true;
+        }
+
+        /**
+         * overrides the rule to look for double date compares using the same registers
+         *
+         * @param seen
+         *            the current opcode parsed.
+         */
+        @Override
+        protected void sawOpcode(int seen) {
+            switch (state) {
+                case SAW_NOTHING:
+                    if (OpcodeUtils.isALoad(seen)) {
+                        register1_1 = RegisterUtils.getALoadReg(scanner, seen);
+                        state = State.SAW_LOAD1_1;
                     }
-                }
-                if (state != State.SAW_CMP1) {
-                    state = State.SAW_NOTHING;
-                }
-            break;
+                break;
 
-            case SAW_CMP1:
-                if (seen == IFNE) {
-                    state = State.SAW_IFNE;
-                } else {
-                    state = State.SAW_NOTHING;
-                }
-            break;
+                case SAW_LOAD1_1:
+                    if (OpcodeUtils.isALoad(seen)) {
+                        register1_2 = RegisterUtils.getALoadReg(scanner, seen);
+                    }
 
-            case SAW_IFNE:
-                if (OpcodeUtils.isALoad(seen)) {
-                    register2_1 = RegisterUtils.getALoadReg(this, seen);
-                }
+                    if (register1_2 > -1) {
+                        state = State.SAW_LOAD1_2;
+                    } else {
+                        state = State.SAW_NOTHING;
+                    }
+                break;
 
-                if (register2_1 > -1) {
-                    state = State.SAW_LOAD2_1;
-                } else {
-                    state = State.SAW_NOTHING;
-                }
-            break;
-
-            case SAW_LOAD2_1:
-                if (OpcodeUtils.isALoad(seen)) {
-                    register2_2 = RegisterUtils.getALoadReg(this, seen);
-                }
-
-                if ((register2_2 > -1)
-                        && (((register1_1 == register2_1) && (register1_2 == register2_2)) || ((register1_1 == register2_2) && (register1_2 == register2_1)))) {
-                    state = State.SAW_LOAD2_2;
-                } else {
-                    state = State.SAW_NOTHING;
-                }
-            break;
-
-            case SAW_LOAD2_2:
-                if (seen == INVOKEVIRTUAL) {
-                    String cls = getDottedClassConstantOperand();
-                    if (dateClasses.contains(cls)) {
-                        String methodName = getNameConstantOperand();
-                        if ("equals".equals(methodName) || "after".equals(methodName) || "before".equals(methodName)) {
-                            state = State.SAW_CMP2;
-                        }
+                case SAW_LOAD1_2:
+                    if ((seen == INVOKEVIRTUAL) && isDateComparison()) {
+                        state = State.SAW_CMP1;
+                    } else {
+                        state = State.SAW_NOTHING;
+                    }
+                break;
+
+                case SAW_CMP1:
+                    if (seen == IFNE) {
+                        state = State.SAW_IFNE;
+                    } else {
+                        state = State.SAW_NOTHING;
+                    }
+                break;
+
+                case SAW_IFNE:
+                    if (OpcodeUtils.isALoad(seen)) {
+                        register2_1 = RegisterUtils.getALoadReg(scanner, seen);
+                    }
+
+                    if (register2_1 > -1) {
+                        state = State.SAW_LOAD2_1;
+                    } else {
+                        state = State.SAW_NOTHING;
+                    }
+                break;
+
+                case SAW_LOAD2_1:
+                    if (OpcodeUtils.isALoad(seen)) {
+                        register2_2 = RegisterUtils.getALoadReg(scanner, seen);
+                    }
+
+                    if ((register2_2 > -1) && (((register1_1 == register2_1) && (register1_2 == register2_2))
+                            || ((register1_1 == register2_2) && (register1_2 == register2_1)))) {
+                        state = State.SAW_LOAD2_2;
+                    } else {
+                        state = State.SAW_NOTHING;
+                    }
+                break;
+
+                case SAW_LOAD2_2:
+                    if ((seen == INVOKEVIRTUAL) && isDateComparison()) {
+                        state = State.SAW_CMP2;
+                    } else {
+                        state = State.SAW_NOTHING;
+                    }
+                break;
+
+                case SAW_CMP2:
+                    if (seen == IFEQ) {
+                        bugReporter.reportBug(new BugInstance("DDC_DOUBLE_DATE_COMPARISON", NORMAL_PRIORITY).addClassAndMethod(scanner).addSourceLine(scanner));
                     }
-                }
-                if (state != State.SAW_CMP2) {
                     state = State.SAW_NOTHING;
-                }
-            break;
-
-            case SAW_CMP2:
-                if (seen == IFEQ) {
-                    bugReporter.reportBug(new BugInstance("DDC_DOUBLE_DATE_COMPARISON", NORMAL_PRIORITY).addClassAndMethod(this).addSourceLine(this));
-                }
-                state = State.SAW_NOTHING;
-            break;
-
-            default:
-            break;
+                break;
+
+                default:
+                break;
+            }
+        }
+
+        /**
+         * returns whether the invoked method is equals, after or before of a date class
+         *
+         * @return whether the call compares dates
+         */
+        private boolean isDateComparison() {
+            if (!dateClasses.contains(scanner.getDottedClassConstantOperand())) {
+                return false;
+            }
+            String methodName = scanner.getNameConstantOperand();
+            return "equals".equals(methodName) || "after".equals(methodName) || "before".equals(methodName);
         }
     }
 }
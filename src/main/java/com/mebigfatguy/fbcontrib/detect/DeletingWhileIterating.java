@@ -36,8 +36,11 @@ import org.apache.bcel.classfile.LocalVariable;
 import org.apache.bcel.classfile.LocalVariableTable;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
 import com.mebigfatguy.fbcontrib.utils.CodeByteUtils;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.QMethod;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
@@ -61,9 +64,11 @@ import edu.umd.cs.findbugs.classfile.FieldDescriptor;
  * occurs the iterator will become invalid and throw a ConcurrentModificationException. Instead, the remove should be called on the iterator itself.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class DeletingWhileIterating extends AbstractCollectionScanningDetector {
     private static JavaClass iteratorClass;
-    private static Set<JavaClass> exceptionClasses;
+    private static final Set<JavaClass> exceptionClasses;
 
     static {
         try {
@@ -72,13 +77,14 @@ public class DeletingWhileIterating extends AbstractCollectionScanningDetector {
             iteratorClass = null;
         }
 
+        Set<JavaClass> ec = new HashSet<>(2);
         try {
-            exceptionClasses = new HashSet<>(2);
-            exceptionClasses.add(Repository.lookupClass("java/util/concurrent/CopyOnWriteArrayList"));
-            exceptionClasses.add(Repository.lookupClass("java/util/concurrent/CopyOnWriteArraySet"));
+            ec.add(Repository.lookupClass("java/util/concurrent/CopyOnWriteArrayList"));
+            ec.add(Repository.lookupClass("java/util/concurrent/CopyOnWriteArraySet"));
         } catch (ClassNotFoundException cnfe) {
             // don't have a bugReporter yet, so do nothing
         }
+        exceptionClasses = Collections.<JavaClass> unmodifiableSet(ec);
     }
 
     private static final Set<QMethod> collectionMethods = UnmodifiableSet.create(
@@ -105,6 +111,7 @@ public class DeletingWhileIterating extends AbstractCollectionScanningDetector {
     private static final QMethod REMOVE = new QMethod("remove", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN);
     private static final QMethod HASNEXT = new QMethod("hasNext", SignatureBuilder.SIG_VOID_TO_BOOLEAN);
 
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private List<GroupPair> collectionGroups;
     private Map<Integer, Integer> groupToIterator;
     private Map<Integer, Loop> loops;
@@ -261,7 +268,7 @@ public class DeletingWhileIterating extends AbstractCollectionScanningDetector {
 
                         try {
                             JavaClass cls = itm.getJavaClass();
-                            if ((cls != null) && cls.implementationOf(iteratorClass)) {
+                            if ((cls != null) && ClassHierarchyCache.implementationOf(cls, iteratorClass)) {
                                 Integer regIt = Integer.valueOf(reg);
                                 Iterator<Integer> curIt = groupToIterator.values().iterator();
                                 while (curIt.hasNext()) {
@@ -320,9 +327,9 @@ public class DeletingWhileIterating extends AbstractCollectionScanningDetector {
                 }
             }
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if ((groupId >= 0) && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item itm = stack.getStackItem(0);
                 itm.setUserValue(Integer.valueOf(groupId));
@@ -405,7 +412,7 @@ public class DeletingWhileIterating extends AbstractCollectionScanningDetector {
     private boolean isCollection(String className) {
         try {
             JavaClass cls = Repository.lookupClass(className);
-            return cls.implementationOf(collectionClass) && !exceptionClasses.contains(cls);
+            return ClassHierarchyCache.implementationOf(cls, collectionClass) && !exceptionClasses.contains(cls);
         } catch (ClassNotFoundException cnfe) {
             bugReporter.reportMissingClass(cnfe);
             return false;
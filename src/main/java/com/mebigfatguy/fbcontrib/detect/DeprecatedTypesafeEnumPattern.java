@@ -28,6 +28,8 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -40,6 +42,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for classes that appear to implement the old style type safe enum pattern that was used before java added Enum support to the language. Since this
  * class is compiled with java 1.5 or later, it would be simpler to just use java enums
  */
+@ParallelSafe
+@IncrementalSafe
 public class DeprecatedTypesafeEnumPattern extends BytecodeScanningDetector {
     enum State {
         SAW_NOTHING, SAW_INVOKESPECIAL, SAW_BUG
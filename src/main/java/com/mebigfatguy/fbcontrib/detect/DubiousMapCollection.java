@@ -28,7 +28,10 @@ import org.apache.bcel.classfile.Field;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.StopOpcodeParsingException;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
@@ -49,6 +52,8 @@ import edu.umd.cs.findbugs.ba.XField;
  * structure.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class DubiousMapCollection extends BytecodeScanningDetector {
 
     private static final Set<String> SPECIAL_METHODS = UnmodifiableSet.create(Values.CONSTRUCTOR, Values.STATIC_INITIALIZER);
@@ -257,7 +262,7 @@ public class DubiousMapCollection extends BytecodeScanningDetector {
 
             sig = SignatureUtils.trimSignature(sig);
             JavaClass fieldClass = Repository.lookupClass(sig);
-            return fieldClass.implementationOf(mapInterface) && !fieldClass.instanceOf(propertiesClass);
+            return ClassHierarchyCache.implementationOf(fieldClass, mapInterface) && !ClassHierarchyCache.instanceOf(fieldClass, propertiesClass);
         } catch (ClassNotFoundException e) {
             return false;
         }
@@ -43,7 +43,10 @@ import org.apache.bcel.classfile.Method;
 import org.apache.bcel.generic.Type;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.ToString;
@@ -60,6 +63,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * methods constrained by interface or super class contracts not to throw checked exceptions but appear owned by the same author. Next are methods constrained
  * by interface or super class contracts and throw other types of checked exceptions. Lastly are method not constrained by any interface or superclass contract.
  */
+@ParallelSafe
+@IncrementalSafe
 public class ExceptionSoftening extends BytecodeScanningDetector {
 
     private final BugReporter bugReporter;
@@ -194,13 +199,13 @@ public class ExceptionSoftening extends BytecodeScanningDetector {
                 if (stack.getStackDepth() > 0) {
                     OpcodeStack.Item itm = stack.getStackItem(0);
                     JavaClass exClass = itm.getJavaClass();
-                    if ((exClass != null) && exClass.instanceOf(runtimeClass)) {
+                    if ((exClass != null) && ClassHierarchyCache.instanceOf(exClass, runtimeClass)) {
                         Set<String> possibleCatchSignatures = findPossibleCatchSignatures(catchInfos, getPC());
                         if (!possibleCatchSignatures.contains(exClass.getClassName())) {
                             boolean anyRuntimes = false;
                             for (String possibleCatches : possibleCatchSignatures) {
                                 exClass = Repository.lookupClass(possibleCatches);
-                                if (exClass.instanceOf(runtimeClass)) {
+                                if (ClassHierarchyCache.instanceOf(exClass, runtimeClass)) {
                                     anyRuntimes = true;
                                     break;
                                 }
@@ -462,7 +467,7 @@ public class ExceptionSoftening extends BytecodeScanningDetector {
                     ConstantClass ccls = (ConstantClass) pool.getConstant(index);
                     String exName = ccls.getBytes(pool);
                     JavaClass exClass = Repository.lookupClass(exName);
-                    if (!exClass.instanceOf(runtimeClass)) {
+                    if (!ClassHierarchyCache.instanceOf(exClass, runtimeClass)) {
                         exs.add(ccls.getBytes(pool));
                     }
                 }
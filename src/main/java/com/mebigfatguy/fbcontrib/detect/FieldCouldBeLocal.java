@@ -47,6 +47,8 @@ import org.apache.bcel.generic.ObjectType;
 import org.apache.bcel.generic.ReferenceType;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -66,6 +68,8 @@ import edu.umd.cs.findbugs.ba.Edge;
 /**
  * finds fields that are used in a locals only fashion, specifically private fields that are accessed first in each method with a store vs. a load.
  */
+@ParallelSafe
+@IncrementalSafe
 public class FieldCouldBeLocal extends BytecodeScanningDetector {
     private final BugReporter bugReporter;
     private ClassContext clsContext;
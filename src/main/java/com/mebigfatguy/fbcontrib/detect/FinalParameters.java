@@ -18,11 +18,6 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
 
@@ -33,23 +28,23 @@ import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
+import com.mebigfatguy.fbcontrib.utils.SourceLineIndex;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
 import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
 import edu.umd.cs.findbugs.BytecodeScanningDetector;
 import edu.umd.cs.findbugs.SourceLineAnnotation;
-import edu.umd.cs.findbugs.ba.AnalysisContext;
 import edu.umd.cs.findbugs.ba.ClassContext;
-import edu.umd.cs.findbugs.ba.SourceFile;
-import edu.umd.cs.findbugs.ba.SourceFinder;
 
 /**
  * looks for methods that correctly do not write to a parameter. To help document this, and to perhaps help the jvm optimize the invocation of this method, you
  * should consider defining these parameters as final.
  */
+@ParallelSafe
 public class FinalParameters extends BytecodeScanningDetector {
     private final BugReporter bugReporter;
     private BitSet changedParms;
@@ -58,7 +53,7 @@ public class FinalParameters extends BytecodeScanningDetector {
     private boolean isAbstract;
     private boolean srcInited;
     private SourceLineAnnotation srcLineAnnotation;
-    private String[] sourceLines;
+    private SourceLineIndex sourceLines;
 
     /**
      * constructs a FP detector given the reporter to report bugs on
@@ -111,36 +106,25 @@ public class FinalParameters extends BytecodeScanningDetector {
     }
 
     /**
-     * reads the sourcefile based on the source line annotation for the method
+     * finds the shared line index of the sourcefile based on the source line annotation for the method
      *
      * @param obj
      *            the method object for the currently parsed method
      *
-     * @return an array of source lines for the method
+     * @return the line index of the source file of the method
      */
-    private String[] getSourceLines(Method obj) {
+    private SourceLineIndex getSourceLines(Method obj) {
 
         if (srcInited) {
             return sourceLines;
         }
 
-        try {
-            srcLineAnnotation = SourceLineAnnotation.forEntireMethod(getClassContext().getJavaClass(), obj);
-            if (srcLineAnnotation != null) {
-                SourceFinder sourceFinder = AnalysisContext.currentAnalysisContext().getSourceFinder();
-                SourceFile sourceFile = sourceFinder.findSourceFile(srcLineAnnotation.getPackageName(), srcLineAnnotation.getSourceFile());
-                try (BufferedReader sourceReader = new BufferedReader(new InputStreamReader(sourceFile.getInputStream(), StandardCharsets.UTF_8))) {
-
-                    List<String> lines = new ArrayList<>(100);
-                    String line;
-                    while ((line = sourceReader.readLine()) != null) {
-                        lines.add(line);
-                    }
-                    sourceLines = lines.toArray(new String[lines.size()]);
-                }
+        srcLineAnnotation = SourceLineAnnotation.forEntireMethod(getClassContext().getJavaClass(), obj);
+        if (srcLineAnnotation != null) {
+            SourceLineIndex index = SourceLineIndex.forSource(srcLineAnnotation.getPackageName(), srcLineAnnotation.getSourceFile());
+            if (index != null) {
+                sourceLines = index;
             }
-        } catch (IOException ioe) {
-            // noop
         }
 
         srcInited = true;
@@ -170,8 +154,11 @@ public class FinalParameters extends BytecodeScanningDetector {
         int methodStart = srcLineAnnotation.getStartLine() - 2;
         int methodLine = methodStart;
         String line;
-        while ((methodLine >= 0) && (methodLine < sourceLines.length)) {
-            line = sourceLines[methodLine];
+        while ((methodLine >= 0) && (methodLine < sourceLines.getNumLines())) {
+            line = sourceLines.getLine(methodLine);
+            if (line == null) {
+                return;
+            }
             if (line.indexOf(methodName) >= 0) {
                 break;
             }
@@ -183,11 +170,11 @@ public class FinalParameters extends BytecodeScanningDetector {
         }
 
         for (int i = methodLine; i <= methodStart; i++) {
-            if ((i < 0) || (i >= sourceLines.length)) {
+            if ((i < 0) || (i >= sourceLines.getNumLines())) {
                 return;
             }
-            line = sourceLines[i];
-            if (line.indexOf("final") >= 0) {
+            line = sourceLines.getLine(i);
+            if ((line == null) || (line.indexOf("final") >= 0)) {
                 return;
             }
         }
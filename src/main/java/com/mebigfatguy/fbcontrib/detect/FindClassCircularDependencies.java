@@ -18,10 +18,12 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -166,28 +168,13 @@ public class FindClassCircularDependencies extends BytecodeScanningDetector {
 
     @Override
     public void report() {
-        removeDependencyLeaves();
-
-        LoopFinder lf = new LoopFinder();
-
-        while (!dependencyGraph.isEmpty()) {
-            String className = dependencyGraph.keySet().iterator().next();
-            Set<String> loop = lf.findLoop(dependencyGraph, className);
-            boolean pruneLeaves;
-            if (loop != null) {
-                BugInstance bug = new BugInstance(this, BugType.FCCD_FIND_CLASS_CIRCULAR_DEPENDENCY.name(), NORMAL_PRIORITY);
-                for (String loopCls : loop) {
-                    bug.addClass(loopCls);
-                }
-                bugReporter.reportBug(bug);
-                pruneLeaves = removeLoopLinks(loop);
-            } else {
-                dependencyGraph.remove(className);
-                pruneLeaves = true;
-            }
-            if (pruneLeaves) {
-                removeDependencyLeaves();
+        ClassGraph graph = new ClassGraph(dependencyGraph);
+        for (List<String> loop : graph.findLoops()) {
+            BugInstance bug = new BugInstance(this, BugType.FCCD_FIND_CLASS_CIRCULAR_DEPENDENCY.name(), NORMAL_PRIORITY);
+            for (String loopCls : loop) {
+                bug.addClass(loopCls);
             }
+            bugReporter.reportBug(bug);
         }
 
         dependencyGraph.clear();
@@ -202,104 +189,200 @@ public class FindClassCircularDependencies extends BytecodeScanningDetector {
         return ((child.charAt(parentLength) == '.') && (child.indexOf('.', parentLength + 1) < 0));
     }
 
-    private void removeDependencyLeaves() {
-        boolean changed = true;
-        while (changed) {
-            changed = false;
-            Iterator<Set<String>> it = dependencyGraph.values().iterator();
-            while (it.hasNext()) {
-                Set<String> dependencies = it.next();
-
-                boolean foundClass = false;
-                Iterator<String> dit = dependencies.iterator();
-                while (dit.hasNext()) {
-                    foundClass = dependencyGraph.containsKey(dit.next());
-                    if (!foundClass) {
-                        dit.remove();
-                        changed = true;
-                    }
+    /**
+     * the class dependency graph, with classes numbered in the order of the dependency map, and the dependencies of each class held in one array of class
+     * numbers, so that loops can be found in time linear to the size of the graph. Inner classes are left out, as loops thru them are not reported.
+     */
+    static class ClassGraph {
+
+        private final String[] classNames;
+        private final int[] dependencyStarts;
+        private final int[] dependencies;
+
+        ClassGraph(Map<String, Set<String>> dependencyGraph) {
+            Map<String, Integer> classIds = new HashMap<>(dependencyGraph.size());
+            List<String> names = new ArrayList<>(dependencyGraph.size());
+            for (String className : dependencyGraph.keySet()) {
+                if (className.indexOf('$') < 0) {
+                    classIds.put(className, Integer.valueOf(names.size()));
+                    names.add(className);
                 }
-                if (dependencies.isEmpty()) {
-                    it.remove();
-                    changed = true;
+            }
+            classNames = names.toArray(new String[names.size()]);
+
+            int numClasses = classNames.length;
+            dependencyStarts = new int[numClasses + 1];
+            int[] deps = new int[Math.max(16, numClasses)];
+            int numDeps = 0;
+            for (int c = 0; c < numClasses; c++) {
+                dependencyStarts[c] = numDeps;
+                for (String dependency : dependencyGraph.get(classNames[c])) {
+                    Integer id = classIds.get(dependency);
+                    if (id != null) {
+                        if (numDeps == deps.length) {
+                            deps = Arrays.copyOf(deps, numDeps * 2);
+                        }
+                        deps[numDeps++] = id.intValue();
+                    }
                 }
             }
+            dependencyStarts[numClasses] = numDeps;
+            dependencies = Arrays.copyOf(deps, numDeps);
         }
-    }
 
-    private boolean removeLoopLinks(Set<String> loop) {
-        Set<String> dependencies = null;
-        for (String className : loop) {
-            if (dependencies != null) {
-                dependencies.remove(className);
+        /**
+         * finds the loops of each set of classes that all depend on each other, until every class of the set is in a reported loop. Each loop is the shortest
+         * one thru the first class of the set that isn't in a loop yet.
+         *
+         * @return the loops, each listed in dependency order
+         */
+        List<List<String>> findLoops() {
+            int numClasses = classNames.length;
+            int[] components = findStronglyConnectedComponents();
+
+            int[] componentSizes = new int[numClasses];
+            for (int c = 0; c < numClasses; c++) {
+                componentSizes[components[c]]++;
             }
-            dependencies = dependencyGraph.get(className);
-        }
-        if (dependencies != null) {
-            dependencies.remove(loop.iterator().next());
-        }
 
-        boolean removedClass = false;
-        Iterator<String> cIt = loop.iterator();
-        while (cIt.hasNext()) {
-            String className = cIt.next();
-            dependencies = dependencyGraph.get(className);
-            if (dependencies.isEmpty()) {
-                cIt.remove();
-                removedClass = true;
+            List<List<String>> loops = new ArrayList<>();
+            boolean[] inLoops = new boolean[numClasses];
+            int[] parents = new int[numClasses];
+            Arrays.fill(parents, -1);
+            int[] queue = new int[numClasses];
+            for (int c = 0; c < numClasses; c++) {
+                if (!inLoops[c] && ((componentSizes[components[c]] > 1) || dependsOn(c, c))) {
+                    loops.add(findLoop(c, components, parents, queue, inLoops));
+                }
             }
+            return loops;
         }
-        return removedClass;
-    }
 
-    /**
-     * finds class dependency loops in a directed graph
-     */
-    static class LoopFinder {
-
-        private Map<String, Set<String>> dGraph = null;
-        private String startClass = null;
-        private Set<String> visited = null;
-        private Set<String> loop = null;
-
-        public Set<String> findLoop(Map<String, Set<String>> dependencyGraph, String startCls) {
-            dGraph = dependencyGraph;
-            startClass = startCls;
-            visited = new HashSet<>();
-            loop = new LinkedHashSet<>();
-            if (findLoop(startClass)) {
-                return loop;
+        private boolean dependsOn(int c, int dependency) {
+            for (int d = dependencyStarts[c]; d < dependencyStarts[c + 1]; d++) {
+                if (dependencies[d] == dependency) {
+                    return true;
+                }
             }
-            return null;
+            return false;
         }
 
-        private boolean findLoop(String curClass) {
-            if (curClass.contains("$")) {
-                return false;
-            }
+        /**
+         * finds the strongly connected components of the graph with Tarjan's algorithm, using explicit stacks rather than recursion, so that long dependency
+         * chains can't overflow the thread's stack
+         *
+         * @return the component number of each class
+         */
+        private int[] findStronglyConnectedComponents() {
+            int numClasses = classNames.length;
+            int[] indices = new int[numClasses];
+            Arrays.fill(indices, -1);
+            int[] lowLinks = new int[numClasses];
+            int[] nextDependencies = new int[numClasses];
+            boolean[] onStack = new boolean[numClasses];
+            int[] componentStack = new int[numClasses];
+            int componentTop = 0;
+            int[] callStack = new int[numClasses];
+            int callTop = 0;
+            int[] components = new int[numClasses];
+            int numComponents = 0;
+            int nextIndex = 0;
+
+            for (int root = 0; root < numClasses; root++) {
+                if (indices[root] >= 0) {
+                    continue;
+                }
 
-            Set<String> dependencies = dGraph.get(curClass);
-            if (dependencies == null) {
-                return false;
+                indices[root] = lowLinks[root] = nextIndex++;
+                nextDependencies[root] = dependencyStarts[root];
+                componentStack[componentTop++] = root;
+                onStack[root] = true;
+                callStack[callTop++] = root;
+
+                while (callTop > 0) {
+                    int c = callStack[callTop - 1];
+                    if (nextDependencies[c] < dependencyStarts[c + 1]) {
+                        int dependency = dependencies[nextDependencies[c]++];
+                        if (indices[dependency] < 0) {
+                            indices[dependency] = lowLinks[dependency] = nextIndex++;
+                            nextDependencies[dependency] = dependencyStarts[dependency];
+                            componentStack[componentTop++] = dependency;
+                            onStack[dependency] = true;
+                            callStack[callTop++] = dependency;
+                        } else if (onStack[dependency]) {
+                            lowLinks[c] = Math.min(lowLinks[c], indices[dependency]);
+                        }
+                    } else {
+                        callTop--;
+                        if (callTop > 0) {
+                            int caller = callStack[callTop - 1];
+                            lowLinks[caller] = Math.min(lowLinks[caller], lowLinks[c]);
+                        }
+
+                        if (lowLinks[c] == indices[c]) {
+                            int member;
+                            do {
+                                member = componentStack[--componentTop];
+                                onStack[member] = false;
+                                components[member] = numComponents;
+                            } while (member != c);
+                            numComponents++;
+                        }
+                    }
+                }
             }
+            return components;
+        }
 
-            visited.add(curClass);
-            loop.add(curClass);
-            for (String depClass : dependencies) {
-                if (depClass.equals(startClass)) {
-                    return true;
+        /**
+         * finds the shortest loop from a class back to itself, thru classes of its component, with a breadth first search
+         *
+         * @param start
+         *            the class the loop starts and ends at
+         * @param components
+         *            the component number of each class
+         * @param parents
+         *            the class each class was reached from, all -1 for the classes of this component, and left so on return
+         * @param queue
+         *            the work queue of the search
+         * @param inLoops
+         *            whether each class is in a loop found so far, set for the classes of this loop on return
+         * @return the classes of the loop, in dependency order, starting at the start class
+         */
+        private List<String> findLoop(int start, int[] components, int[] parents, int[] queue, boolean[] inLoops) {
+            int component = components[start];
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            int last = -1;
+            while ((head < tail) && (last < 0)) {
+                int c = queue[head++];
+                for (int d = dependencyStarts[c]; d < dependencyStarts[c + 1]; d++) {
+                    int dependency = dependencies[d];
+                    if (dependency == start) {
+                        last = c;
+                        break;
+                    }
+                    if ((components[dependency] == component) && (parents[dependency] < 0)) {
+                        parents[dependency] = c;
+                        queue[tail++] = dependency;
+                    }
                 }
+            }
 
-                if (visited.contains(depClass)) {
-                    continue;
-                }
+            List<String> loop = new ArrayList<>();
+            for (int c = last; c != start; c = parents[c]) {
+                loop.add(classNames[c]);
+                inLoops[c] = true;
+            }
+            loop.add(classNames[start]);
+            inLoops[start] = true;
+            Collections.reverse(loop);
 
-                if (findLoop(depClass)) {
-                    return true;
-                }
+            for (int q = 0; q < tail; q++) {
+                parents[queue[q]] = -1;
             }
-            loop.remove(curClass);
-            return false;
+            return loop;
         }
 
         @Override
@@ -24,7 +24,9 @@ import java.util.Set;
 
 import org.apache.bcel.classfile.Code;
 
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -37,6 +39,8 @@ import edu.umd.cs.findbugs.BytecodeScanningDetector;
  * looks for methods that use floating point indexes for loops. Since floating point math is inprecise, rounding errors will occur each time through the loop
  * causing hard to find problems. It is usually better to use integer indexing, and calculating the correct floating point value from the index.
  */
+@ParallelSafe
+@IncrementalSafe
 public class FloatingPointLoops extends BytecodeScanningDetector {
     enum State {
         SAW_LOAD, SAW_CMPX, SAW_IFX, SAW_STORE
@@ -33,6 +33,8 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
@@ -53,6 +55,8 @@ import edu.umd.cs.findbugs.ba.XMethod;
 /**
  * looks for executors that are never shutdown, which will not allow the application to terminate
  */
+@ParallelSafe
+@IncrementalSafe
 public class HangingExecutors extends BytecodeScanningDetector {
 
     private static final Set<String> hangableSig = UnmodifiableSet.create("Ljava/util/concurrent/ExecutorService;",
@@ -22,6 +22,8 @@ package com.mebigfatguy.fbcontrib.detect;
 import java.util.Set;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 
 import edu.umd.cs.findbugs.BugInstance;
@@ -31,6 +33,8 @@ import edu.umd.cs.findbugs.BugReporter;
  * looks for problems surrounding use of HttpRequests from the Apache HttpComponents library which have have some little-known quirks about them. This is a set
  * of detectors that helps guard against resource starvation.
  */
+@ParallelSafe
+@IncrementalSafe
 public class HttpClientProblems extends MissingMethodsDetector {
 
     private static Set<String> httpRequestClasses = UnmodifiableSet.create("org.apache.http.client.methods.HttpGet", "org.apache.http.client.methods.HttpPut",
@@ -26,7 +26,10 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -42,6 +45,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for various issues around input/output/streaming library use
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class IOIssues extends BytecodeScanningDetector {
 
     enum IOIUserValue {
@@ -185,7 +190,7 @@ public class IOIssues extends BytecodeScanningDetector {
                 }
             } else if (readerClass != null) {
                 JavaClass cls = Repository.lookupClass(clsName);
-                if (cls.instanceOf(readerClass)) {
+                if (ClassHierarchyCache.instanceOf(cls, readerClass)) {
                     return IOIUserValue.READER;
                 }
             }
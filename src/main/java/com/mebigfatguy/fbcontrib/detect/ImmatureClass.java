@@ -14,6 +14,8 @@ import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.collect.Statistics;
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -27,6 +29,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for classes that aren't fully flushed out to be easily usable for various reasons. While the class will most likely work fine, it is more difficult to
  * use than necessary.
  */
+@ParallelSafe
+@IncrementalSafe
 public class ImmatureClass extends BytecodeScanningDetector {
 
     private static final Pattern ARG_PATTERN = Pattern.compile("(arg|parm|param)\\d");
@@ -21,6 +21,8 @@ package com.mebigfatguy.fbcontrib.detect;
 import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -38,6 +40,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * original Properties class designers to derive from Hashtable, rather than
  * using aggregation.
  */
+@ParallelSafe
+@IncrementalSafe
 public class ImproperPropertiesUse extends BytecodeScanningDetector {
 
     private final BugReporter bugReporter;
@@ -26,7 +26,9 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
@@ -48,6 +50,8 @@ import edu.umd.cs.findbugs.ba.XMethod;
  * relied on, depending on it's format is dangerous.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class InappropriateToStringUse extends BytecodeScanningDetector {
 
     private static final Set<String> validToStringClasses = UnmodifiableSet.create(
@@ -73,6 +77,7 @@ public class InappropriateToStringUse extends BytecodeScanningDetector {
 
     private final BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private Map<Integer, String> toStringRegisters;
     private String packageName;
 
@@ -152,9 +157,9 @@ public class InappropriateToStringUse extends BytecodeScanningDetector {
         } catch (ClassNotFoundException cnfe) {
             bugReporter.reportMissingClass(cnfe);
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if ((methodPackage != null) && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item item = stack.getStackItem(0);
                 item.setUserValue(methodPackage);
@@ -18,18 +18,18 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
-import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.bcel.classfile.Code;
 
+import com.mebigfatguy.fbcontrib.utils.BugSpool;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
-import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
 import edu.umd.cs.findbugs.BugInstance;
@@ -40,7 +40,9 @@ import edu.umd.cs.findbugs.SourceLineAnnotation;
 import edu.umd.cs.findbugs.ba.ClassContext;
 
 /**
- * looks for calls to HttpRequest.getParameter with parameters of the same name with different cases like 'id' and 'Id'.
+ * looks for calls to HttpRequest.getParameter with parameters of the same name with different cases like 'id' and 'Id'. As names can only be compared once
+ * all classes are seen, the places each name is used at are held as the annotations of a bug in a {@link BugSpool}, so that they spill to disk in large
+ * projects, and only the names themselves are kept in memory.
  */
 public class InconsistentKeyNameCasing extends BytecodeScanningDetector {
     private static final String HTTP_SESSION = "javax/servlet/http/HttpSession";
@@ -68,7 +70,8 @@ public class InconsistentKeyNameCasing extends BytecodeScanningDetector {
 
     BugReporter bugReporter;
     OpcodeStack stack;
-    Map<KeyType, Map<String, Map<String, List<SourceInfo>>>> parmInfo;
+    Map<KeyType, Map<String, Set<String>>> parmInfo;
+    BugSpool<String> parmSources;
 
     /**
      * constructs a IKNC detector given the reporter to report bugs on
@@ -79,8 +82,9 @@ public class InconsistentKeyNameCasing extends BytecodeScanningDetector {
     public InconsistentKeyNameCasing(BugReporter reporter) {
         bugReporter = reporter;
         parmInfo = new EnumMap<>(KeyType.class);
-        parmInfo.put(KeyType.ATTRIBUTE, new HashMap<String, Map<String, List<SourceInfo>>>());
-        parmInfo.put(KeyType.PARAMETER, new HashMap<String, Map<String, List<SourceInfo>>>());
+        parmInfo.put(KeyType.ATTRIBUTE, new HashMap<String, Set<String>>());
+        parmInfo.put(KeyType.PARAMETER, new HashMap<String, Set<String>>());
+        parmSources = new BugSpool<>();
     }
 
     /**
@@ -131,21 +135,24 @@ public class InconsistentKeyNameCasing extends BytecodeScanningDetector {
                         String parmName = (String) item.getConstant();
                         if (parmName != null) {
                             String upperParmName = parmName.toUpperCase(Locale.getDefault());
-                            Map<String, Map<String, List<SourceInfo>>> typeMap = parmInfo.get(KeyType.PARAMETER);
-                            Map<String, List<SourceInfo>> parmCaseInfo = typeMap.get(upperParmName);
-                            if (parmCaseInfo == null) {
-                                parmCaseInfo = new HashMap<>();
-                                typeMap.put(upperParmName, parmCaseInfo);
+                            Map<String, Set<String>> typeMap = parmInfo.get(KeyType.PARAMETER);
+                            Set<String> parmCases = typeMap.get(upperParmName);
+                            if (parmCases == null) {
+                                parmCases = new HashSet<>();
+                                typeMap.put(upperParmName, parmCases);
                             }
+                            parmCases.add(parmName);
 
-                            List<SourceInfo> annotations = parmCaseInfo.get(parmName);
-                            if (annotations == null) {
-                                annotations = new ArrayList<>();
-                                parmCaseInfo.put(parmName, annotations);
+                            String sourceKey = getSourceKey(KeyType.PARAMETER, parmName);
+                            BugInstance sources = parmSources.get(sourceKey);
+                            if (sources == null) {
+                                sources = new BugInstance(this, KeyType.PARAMETER.getDescription(), NORMAL_PRIORITY);
                             }
-
-                            annotations.add(new SourceInfo(getClassName(), getMethodName(), getMethodSig(), getMethod().isStatic(),
-                                    SourceLineAnnotation.fromVisitedInstruction(getClassContext(), this, getPC())));
+                            sources.addClass(getClassName());
+                            sources.addMethod(getClassName(), getMethodName(), getMethodSig(), getMethod().isStatic());
+                            sources.addSourceLine(SourceLineAnnotation.fromVisitedInstruction(getClassContext(), this, getPC()));
+                            sources.addString(parmName);
+                            parmSources.put(sourceKey, sources);
                         }
                     }
                 }
@@ -160,20 +167,18 @@ public class InconsistentKeyNameCasing extends BytecodeScanningDetector {
      */
     @Override
     public void report() {
-        for (Map.Entry<KeyType, Map<String, Map<String, List<SourceInfo>>>> entry : parmInfo.entrySet()) {
+        for (Map.Entry<KeyType, Map<String, Set<String>>> entry : parmInfo.entrySet()) {
             KeyType type = entry.getKey();
-            Map<String, Map<String, List<SourceInfo>>> typeMap = entry.getValue();
+            Map<String, Set<String>> typeMap = entry.getValue();
 
-            for (Map<String, List<SourceInfo>> parmCaseInfo : typeMap.values()) {
-                if (parmCaseInfo.size() > 1) {
+            for (Set<String> parmCases : typeMap.values()) {
+                if (parmCases.size() > 1) {
                     BugInstance bi = new BugInstance(this, type.getDescription(), NORMAL_PRIORITY);
 
-                    for (Map.Entry<String, List<SourceInfo>> sourceInfos : parmCaseInfo.entrySet()) {
-                        for (SourceInfo sourceInfo : sourceInfos.getValue()) {
-                            bi.addClass(sourceInfo.clsName);
-                            bi.addMethod(sourceInfo.clsName, sourceInfo.methodName, sourceInfo.signature, sourceInfo.isStatic);
-                            bi.addSourceLine(sourceInfo.srcLine);
-                            bi.addString(sourceInfos.getKey());
+                    for (String parmName : parmCases) {
+                        BugInstance sources = parmSources.get(getSourceKey(type, parmName));
+                        if (sources != null) {
+                            bi.addAnnotations(sources.getAnnotations());
                         }
                     }
 
@@ -182,6 +187,20 @@ public class InconsistentKeyNameCasing extends BytecodeScanningDetector {
             }
         }
         parmInfo.clear();
+        parmSources.clear();
+    }
+
+    /**
+     * returns the key of the bug holding the places a key name is used at
+     *
+     * @param type
+     *            the type of the key
+     * @param parmName
+     *            the key name as used
+     * @return the key into the spool of sources
+     */
+    private static String getSourceKey(KeyType type, String parmName) {
+        return type.name() + ':' + parmName;
     }
 
     /**
@@ -214,28 +233,4 @@ public class InconsistentKeyNameCasing extends BytecodeScanningDetector {
 
         return null;
     }
-
-    /**
-     * a holder for location information of a getParameter call
-     */
-    static class SourceInfo {
-        String clsName;
-        String methodName;
-        String signature;
-        boolean isStatic;
-        SourceLineAnnotation srcLine;
-
-        SourceInfo(String cls, String method, String sig, boolean mStatic, SourceLineAnnotation annotation) {
-            clsName = cls;
-            methodName = method;
-            signature = sig;
-            isStatic = mStatic;
-            srcLine = annotation;
-        }
-
-        @Override
-        public String toString() {
-            return ToString.build(this);
-        }
-    }
 }
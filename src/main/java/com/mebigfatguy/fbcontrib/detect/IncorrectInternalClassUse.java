@@ -26,6 +26,8 @@ import org.apache.bcel.classfile.ConstantPool;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 
@@ -37,6 +39,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
 /**
  * looks for classes that use objects from com.sun.xxx packages. As these are internal to sun and subject to change, this should not be done.
  */
+@ParallelSafe
+@IncrementalSafe
 public class IncorrectInternalClassUse implements Detector {
 
     private static final Set<String> internalPackages = UnmodifiableSet.create(
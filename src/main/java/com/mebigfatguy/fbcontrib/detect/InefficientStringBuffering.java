@@ -23,7 +23,9 @@ import org.apache.bcel.classfile.Constant;
 import org.apache.bcel.classfile.ConstantString;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
@@ -42,6 +44,8 @@ import edu.umd.cs.findbugs.ba.XMethod;
  * looks for appending strings inside of calls to StringBuffer or StringBuilder append.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class InefficientStringBuffering extends BytecodeScanningDetector {
 
     private enum AppendType {
@@ -50,6 +54,7 @@ public class InefficientStringBuffering extends BytecodeScanningDetector {
 
     private BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private boolean sawLDCEmpty;
 
     /**
@@ -135,9 +140,9 @@ public class InefficientStringBuffering extends BytecodeScanningDetector {
     }
 
     private void handleOpcode(final int seen) {
-        TernaryPatcher.pre(stack, seen);
+        ternaryPatcher.pre(stack, seen);
         stack.sawOpcode(this, seen);
-        TernaryPatcher.post(stack, seen);
+        ternaryPatcher.post(stack, seen);
     }
 
     private ISBUserValue sawInvokeVirtual() {
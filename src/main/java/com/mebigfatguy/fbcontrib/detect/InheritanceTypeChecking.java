@@ -24,7 +24,9 @@ import java.util.Set;
 
 import org.apache.bcel.classfile.Code;
 
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.ToString;
@@ -40,6 +42,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * inheritance, this often is better handled through calling a single overridden
  * method.
  */
+@ParallelSafe
+@IncrementalSafe
 public class InheritanceTypeChecking extends BytecodeScanningDetector {
     private BugReporter bugReporter;
     private Set<IfStatement> ifStatements;
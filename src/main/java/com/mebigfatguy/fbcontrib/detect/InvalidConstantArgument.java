@@ -35,6 +35,8 @@ import javax.swing.border.EtchedBorder;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableList;
@@ -49,6 +51,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * Looks for jdk method calls where a parameter expects a constant value, because the api was created before enums. Reports values that are not considered valid
  * values, and may cause problems with use.
  */
+@ParallelSafe
+@IncrementalSafe
 public class InvalidConstantArgument extends BytecodeScanningDetector {
 
     private static final List<InvalidPattern> PATTERNS = UnmodifiableList.create(
@@ -28,6 +28,8 @@ import org.apache.bcel.classfile.ParameterAnnotationEntry;
 import org.apache.bcel.generic.Type;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -41,6 +43,8 @@ import edu.umd.cs.findbugs.visitclass.PreorderVisitor;
 /**
  * looks for various issues around use of the JAX_RS standard
  */
+@ParallelSafe
+@IncrementalSafe
 public class JAXRSIssues extends PreorderVisitor implements Detector {
 
     private static final Set<String> METHOD_ANNOTATIONS = UnmodifiableSet.create(
@@ -26,7 +26,9 @@ import org.apache.bcel.classfile.Method;
 import org.apache.bcel.generic.Type;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
@@ -43,9 +45,12 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for uses of jdbc vendor specific classes and methods making the database access code non portable.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class JDBCVendorReliance extends BytecodeScanningDetector {
     private final BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private Map<Integer, Integer> jdbcLocals = new HashMap<>();
 
     /**
@@ -152,9 +157,9 @@ public class JDBCVendorReliance extends BytecodeScanningDetector {
                 }
             }
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if (tosIsJDBC && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item itm = stack.getStackItem(0);
                 itm.setUserValue(Boolean.TRUE);
@@ -37,7 +37,10 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -53,6 +56,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for various issues around the use of the Java Persistence API (JPA)
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class JPAIssues extends BytecodeScanningDetector {
 
     enum JPAUserValue {
@@ -372,7 +377,7 @@ public class JPAIssues extends BytecodeScanningDetector {
             for (JavaClass declEx : actualExceptions) {
                 boolean handled = false;
                 for (JavaClass annotEx : expectedExceptions) {
-                    if (declEx.instanceOf(annotEx) || (checkByDirectionally && annotEx.instanceOf(declEx))) {
+                    if (ClassHierarchyCache.instanceOf(declEx, annotEx) || (checkByDirectionally && ClassHierarchyCache.instanceOf(annotEx, declEx))) {
                         handled = true;
                         break;
                     }
@@ -415,7 +420,7 @@ public class JPAIssues extends BytecodeScanningDetector {
                         while (m.find()) {
                             String exName = m.group(1);
                             JavaClass exCls = Repository.lookupClass(SignatureUtils.trimSignature(exName));
-                            if (!exCls.instanceOf(runtimeExceptionClass)) {
+                            if (!ClassHierarchyCache.instanceOf(exCls, runtimeExceptionClass)) {
                                 rollbackExceptions.add(exCls);
                             }
                         }
@@ -448,7 +453,7 @@ public class JPAIssues extends BytecodeScanningDetector {
         Set<JavaClass> exceptions = new HashSet<>();
         for (String en : et.getExceptionNames()) {
             JavaClass exCls = Repository.lookupClass(en);
-            if (!exCls.instanceOf(runtimeExceptionClass)) {
+            if (!ClassHierarchyCache.instanceOf(exCls, runtimeExceptionClass)) {
                 exceptions.add(exCls);
             }
         }
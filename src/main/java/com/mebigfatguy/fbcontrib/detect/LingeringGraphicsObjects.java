@@ -28,6 +28,10 @@ import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
@@ -47,6 +51,9 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * dispose them as soon as possible
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(classes = { "java/awt/image/BufferedImage", "java/awt/Graphics" }, methods = { "getGraphics", "create" })
 public class LingeringGraphicsObjects extends BytecodeScanningDetector {
 
     private static final Set<FQMethod> GRAPHICS_PRODUCERS;
@@ -66,6 +73,7 @@ public class LingeringGraphicsObjects extends BytecodeScanningDetector {
 
     private final BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private Map<Integer, Integer> graphicsRegs; // reg->pc
 
     public LingeringGraphicsObjects(BugReporter bugReporter) {
@@ -79,6 +87,10 @@ public class LingeringGraphicsObjects extends BytecodeScanningDetector {
      */
     @Override
     public void visitClassContext(ClassContext classContext) {
+        if (!PrescreenIndex.shouldVisit(this, classContext)) {
+            return;
+        }
+
         try {
             stack = new OpcodeStack();
             graphicsRegs = new HashMap<Integer, Integer>(5);
@@ -166,9 +178,9 @@ public class LingeringGraphicsObjects extends BytecodeScanningDetector {
                 break;
             }
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if ((sawNewGraphicsAt != null) && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item item = stack.getStackItem(0);
                 item.setUserValue(sawNewGraphicsAt);
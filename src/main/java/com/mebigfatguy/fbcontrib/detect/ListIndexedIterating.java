@@ -27,7 +27,11 @@ import org.apache.bcel.Constants;
 import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.Method;
 
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -44,6 +48,9 @@ import edu.umd.cs.findbugs.ba.XMethod;
  * looks for for loops that iterate over a java.util.List using an integer index, and get, rather than using an Iterator. An iterator may perform better
  * depending List implementation, but more importantly will allow the code to be converted to other collections type.
  */
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(opcodes = Constants.IINC)
 public class ListIndexedIterating extends BytecodeScanningDetector {
     enum State {
         SAW_NOTHING, SAW_IINC
@@ -83,6 +90,10 @@ public class ListIndexedIterating extends BytecodeScanningDetector {
      */
     @Override
     public void visitClassContext(ClassContext classContext) {
+        if (!PrescreenIndex.shouldVisit(this, classContext)) {
+            return;
+        }
+
         try {
             stack = new OpcodeStack();
             possibleForLoops = new HashSet<>();
@@ -26,6 +26,10 @@ import org.apache.bcel.Constants;
 import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.Method;
 
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -47,6 +51,9 @@ import edu.umd.cs.findbugs.ba.XMethod;
  * String.equals(Constant) bytecodes, and thus, must be accounted for
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(opcodes = { Constants.LDC, Constants.LDC_W })
 public class LiteralStringComparison extends BytecodeScanningDetector {
     private BugReporter bugReporter;
     private OpcodeStack stack;
@@ -73,6 +80,10 @@ public class LiteralStringComparison extends BytecodeScanningDetector {
      */
     @Override
     public void visitClassContext(ClassContext classContext) {
+        if (!PrescreenIndex.shouldVisit(this, classContext)) {
+            return;
+        }
+
         try {
             stack = new OpcodeStack();
             lookupSwitches = new ArrayList<LookupDetails>();
@@ -18,12 +18,15 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -36,16 +39,20 @@ import edu.umd.cs.findbugs.OpcodeStack.CustomUserValue;
  * are by definition thread safe, using synchronized collections in this context makes no sense.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class LocalSynchronizedCollection extends LocalTypeDetector {
-    private static final Map<String, Integer> syncCtors = new HashMap<>();
+    private static final Map<String, Integer> syncCtors;
 
     static {
-        syncCtors.put("java/util/Vector", Values.JAVA_1_1);
-        syncCtors.put("java/util/Hashtable", Values.JAVA_1_1);
-        syncCtors.put(Values.SLASHED_JAVA_LANG_STRINGBUFFER, Values.JAVA_5);
+        Map<String, Integer> sc = new HashMap<>();
+        sc.put("java/util/Vector", Values.JAVA_1_1);
+        sc.put("java/util/Hashtable", Values.JAVA_1_1);
+        sc.put(Values.SLASHED_JAVA_LANG_STRINGBUFFER, Values.JAVA_5);
+        syncCtors = Collections.<String, Integer> unmodifiableMap(sc);
     }
 
-    private static final Map<String, Set<String>> synchClassMethods = new HashMap<>();
+    private static final Map<String, Set<String>> synchClassMethods;
 
     static {
         Set<String> syncMethods = new HashSet<>();
@@ -56,7 +63,7 @@ public class LocalSynchronizedCollection extends LocalTypeDetector {
         syncMethods.add("synchronizedSortedMap");
         syncMethods.add("synchronizedSortedSet");
 
-        synchClassMethods.put("java/util/Collections", syncMethods);
+        synchClassMethods = Collections.<String, Set<String>> singletonMap("java/util/Collections", Collections.<String> unmodifiableSet(syncMethods));
     }
 
     private static final Set<String> selfReturningMethods = UnmodifiableSet.create("java/lang/StringBuffer.append");
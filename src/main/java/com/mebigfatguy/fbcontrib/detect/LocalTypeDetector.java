@@ -46,6 +46,7 @@ import edu.umd.cs.findbugs.ba.ClassContext;
 abstract class LocalTypeDetector extends BytecodeScanningDetector {
 
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private Map<Integer, RegisterInfo> suspectLocals;
     private int classVersion;
 
@@ -203,9 +204,9 @@ abstract class LocalTypeDetector extends BytecodeScanningDetector {
 
             reportTroublesomeLocals();
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if ((tosIsSyncColReg != null) && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item item = stack.getStackItem(0);
                 item.setUserValue(tosIsSyncColReg);
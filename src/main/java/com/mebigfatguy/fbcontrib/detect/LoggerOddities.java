@@ -33,7 +33,10 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
@@ -54,6 +57,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * using concatenation with slf4j logging rather than using the parameterized interface.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class LoggerOddities extends BytecodeScanningDetector {
 
     private static final Set<String> LOGGER_METHODS = UnmodifiableSet.create("trace", "debug", "info", "warn", "error", "fatal");
@@ -92,6 +97,7 @@ public class LoggerOddities extends BytecodeScanningDetector {
     private final BugReporter bugReporter;
     private JavaClass throwableClass;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private String nameOfThisClass;
 
     /**
@@ -203,7 +209,7 @@ public class LoggerOddities extends BytecodeScanningDetector {
                 } else if ("getMessage".equals(mthName)) {
                     String callingClsName = getClassConstantOperand();
                     JavaClass cls = Repository.lookupClass(callingClsName);
-                    if (cls.instanceOf(throwableClass) && (stack.getStackDepth() > 0)) {
+                    if (ClassHierarchyCache.instanceOf(cls, throwableClass) && (stack.getStackDepth() > 0)) {
                         OpcodeStack.Item exItem = stack.getStackItem(0);
                         exMessageReg = exItem.getRegisterNumber();
                     }
@@ -253,9 +259,9 @@ public class LoggerOddities extends BytecodeScanningDetector {
         } catch (ClassNotFoundException cnfe) {
             bugReporter.reportMissingClass(cnfe);
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
 
             if (stack.getStackDepth() > 0) {
                 OpcodeStack.Item item = stack.getStackItem(0);
@@ -299,7 +305,7 @@ public class LoggerOddities extends BytecodeScanningDetector {
             } else if (SignatureBuilder.SIG_OBJECT_TO_VOID.equals(sig)) {
                 if (stack.getStackDepth() > 0) {
                     final JavaClass clazz = stack.getStackItem(0).getJavaClass();
-                    if ((clazz != null) && clazz.instanceOf(throwableClass)) {
+                    if ((clazz != null) && ClassHierarchyCache.instanceOf(clazz, throwableClass)) {
                         bugReporter.reportBug(new BugInstance(this, BugType.LO_LOGGER_LOST_EXCEPTION_STACK_TRACE.name(), NORMAL_PRIORITY).addClass(this)
                                 .addMethod(this).addSourceLine(this));
                     }
@@ -531,7 +537,7 @@ public class LoggerOddities extends BytecodeScanningDetector {
                 if (sig.startsWith(Values.SIG_QUALIFIED_CLASS_PREFIX)) {
                     String name = SignatureUtils.stripSignature(sig);
                     JavaClass cls = Repository.lookupClass(name);
-                    if (cls.instanceOf(throwableClass)) {
+                    if (ClassHierarchyCache.instanceOf(cls, throwableClass)) {
                         return true;
                     }
                 } else if (sig.startsWith(Values.SIG_ARRAY_PREFIX)) {
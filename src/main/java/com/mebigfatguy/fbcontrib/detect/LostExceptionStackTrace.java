@@ -37,8 +37,13 @@ import org.apache.bcel.classfile.LocalVariableTable;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
 import com.mebigfatguy.fbcontrib.utils.CollectionUtils;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
@@ -57,6 +62,9 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * history, and where the original problem occurred. This makes finding and fixing errors difficult.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(opcodes = Constants.ATHROW)
 public class LostExceptionStackTrace extends BytecodeScanningDetector {
     private static JavaClass throwableClass;
     private static JavaClass assertionClass;
@@ -73,6 +81,7 @@ public class LostExceptionStackTrace extends BytecodeScanningDetector {
 
     private final BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private CodeException[] exceptions;
     private Set<CatchInfo> catchInfos;
     private Map<Integer, Boolean> exReg;
@@ -96,6 +105,10 @@ public class LostExceptionStackTrace extends BytecodeScanningDetector {
      */
     @Override
     public void visitClassContext(ClassContext classContext) {
+        if (!PrescreenIndex.shouldVisit(this, classContext)) {
+            return;
+        }
+
         try {
             if ((throwableClass != null) && !isPre14Class(classContext.getJavaClass())) {
                 stack = new OpcodeStack();
@@ -211,13 +224,13 @@ public class LostExceptionStackTrace extends BytecodeScanningDetector {
                             if (Values.CONSTRUCTOR.equals(getNameConstantOperand())) {
                                 String className = getClassConstantOperand();
                                 JavaClass exClass = Repository.lookupClass(className);
-                                if (exClass.instanceOf(throwableClass)) {
+                                if (ClassHierarchyCache.instanceOf(exClass, throwableClass)) {
                                     String sig = getSigConstantOperand();
                                     if ((sig.indexOf("Exception") >= 0) || (sig.indexOf("Throwable") >= 0) || (sig.indexOf("Error") >= 0)) {
                                         markAsValid = true;
                                         break;
                                     }
-                                    if (exClass.instanceOf(assertionClass)) {
+                                    if (ClassHierarchyCache.instanceOf(exClass, assertionClass)) {
                                         // just ignore LEST for AssertionErrors
                                         markAsValid = true;
                                         break;
@@ -232,7 +245,7 @@ public class LostExceptionStackTrace extends BytecodeScanningDetector {
                                 if (stack.getStackDepth() > 1) {
                                     String className = getClassConstantOperand();
                                     JavaClass exClass = Repository.lookupClass(className);
-                                    if (exClass.instanceOf(throwableClass)) {
+                                    if (ClassHierarchyCache.instanceOf(exClass, throwableClass)) {
                                         OpcodeStack.Item itm = stack.getStackItem(1);
                                         int reg = itm.getRegisterNumber();
                                         if (reg >= 0) {
@@ -298,9 +311,9 @@ public class LostExceptionStackTrace extends BytecodeScanningDetector {
 
             lastWasExitPoint = (seen == GOTO) || (seen == GOTO_W) || (seen == ATHROW) || OpcodeUtils.isReturn(seen);
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if (markAsValid && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item itm = stack.getStackItem(0);
                 itm.setUserValue(Boolean.TRUE);
@@ -325,7 +338,7 @@ public class LostExceptionStackTrace extends BytecodeScanningDetector {
         if (returnSig.startsWith(Values.SIG_QUALIFIED_CLASS_PREFIX)) {
             returnSig = SignatureUtils.trimSignature(returnSig);
             JavaClass retCls = Repository.lookupClass(returnSig);
-            if (retCls.instanceOf(throwableClass)) {
+            if (ClassHierarchyCache.instanceOf(retCls, throwableClass)) {
                 int numParms = SignatureUtils.getNumParameters(sig);
                 if (stack.getStackDepth() >= numParms) {
                     for (int p = 0; p < numParms; p++) {
@@ -0,0 +1,263 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.detect;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.bcel.Constants;
+import org.apache.bcel.classfile.Code;
+
+import com.mebigfatguy.fbcontrib.collect.MethodInfo;
+import com.mebigfatguy.fbcontrib.collect.Statistics;
+import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.ToString;
+import com.mebigfatguy.fbcontrib.utils.Values;
+import com.mebigfatguy.fbcontrib.utils.XClassUtils;
+
+import edu.umd.cs.findbugs.BugInstance;
+import edu.umd.cs.findbugs.BugReporter;
+import edu.umd.cs.findbugs.ba.AnalysisContext;
+import edu.umd.cs.findbugs.ba.XClass;
+import edu.umd.cs.findbugs.ba.XMethod;
+
+/**
+ * looks for virtual and interface calls made in loops, on application types that have several concrete classes among the classes seen in the first pass.
+ * The jit profiles the classes of the receivers a call site sees, not the methods they dispatch to, and once a call site has seen more receiver classes than
+ * it profiles, it is megamorphic, and the jit stops inlining it, making each call a full virtual dispatch. Sites with as many receiver classes as are
+ * profiled are reported with low priority, as one more class will make them megamorphic. Sites where all receiver classes share one implementation aren't
+ * reported, as the jit then binds the call from the class hierarchy. Only classes of the application are counted, and the number of profiled classes
+ * defaults to the hotspot TypeProfileWidth of 2, and may be set with the fb-contrib.mcs.typeprofilewidth system property. As the counts span all the classes
+ * of the program, a call site may become megamorphic without its class, or the classes it uses, changing, so this detector isn't
+ * {@link com.mebigfatguy.fbcontrib.utils.IncrementalSafe}, and incremental analysis runs it over every class.
+ */
+@ParallelSafe
+@Prescreen(opcodes = { Constants.INVOKEINTERFACE, Constants.INVOKEVIRTUAL })
+public class MegamorphicCallSite extends AbstractRuleDetector {
+
+    /**
+     * constructs a MCS detector given the reporter to report bugs on
+     *
+     * @param bugReporter
+     *            the sync of bug reports
+     */
+    public MegamorphicCallSite(BugReporter bugReporter) {
+        super(new Rule(bugReporter));
+    }
+
+    /**
+     * collects the virtual and interface calls and the loops of a method, and reports the calls in loops whose receiver type has too many concrete classes
+     */
+    static class Rule extends OpcodeRule {
+
+        private static final String MCS_TYPE_PROFILE_WIDTH = "fb-contrib.mcs.typeprofilewidth";
+
+        private final int typeProfileWidth;
+        private final List<CallSite> callSites = new ArrayList<>();
+        private final List<LoopLocation> loops = new ArrayList<>();
+        private List<XClass> concreteClasses;
+        private Map<String, Integer> receiverCounts;
+
+        Rule(BugReporter bugReporter) {
+            super(bugReporter);
+            typeProfileWidth = Integer.getInteger(MCS_TYPE_PROFILE_WIDTH, 2).intValue();
+        }
+
+        /**
+         * implements the rule to skip the static initializer, and clear the call sites and loops
+         *
+         * @param obj
+         *            the context object for the currently parsed code block
+         * @return whether the method isn't the static initializer
+         */
+        @Override
+        protected boolean startCode(Code obj) {
+            if (Values.STATIC_INITIALIZER.equals(scanner.getMethodName())) {
+                return false;
+            }
+
+            callSites.clear();
+            loops.clear();
+            return true;
+        }
+
+        /**
+         * implements the rule to report the sites in loops that have too many implementations to be inlined
+         *
+         * @param obj
+         *            the context object for the parsed code block
+         */
+        @Override
+        protected void endCode(Code obj) {
+            for (CallSite site : callSites) {
+                for (LoopLocation loop : loops) {
+                    if (loop.isInLoop(site.pc)) {
+                        reportCallSite(site);
+                        break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * implements the rule to collect the virtual and interface calls on application types, and the extent of loops
+         *
+         * @param seen
+         *            the opcode of the currently parsed instruction
+         */
+        @Override
+        protected void sawOpcode(int seen) {
+            if ((seen == INVOKEINTERFACE) || (seen == INVOKEVIRTUAL)) {
+                String clsName = scanner.getClassConstantOperand();
+                if ((clsName.charAt(0) != '[') && AnalysisContext.currentAnalysisContext().isApplicationClass(clsName.replace('/', '.'))) {
+                    callSites.add(new CallSite(scanner.getPC(), clsName, scanner.getNameConstantOperand(), scanner.getSigConstantOperand()));
+                }
+            } else if (OpcodeUtils.isBranch(seen) && (seen != TABLESWITCH) && (seen != LOOKUPSWITCH)) {
+                int branchTarget = scanner.getBranchTarget();
+                int pc = scanner.getPC();
+                if (branchTarget < pc) {
+                    loops.add(new LoopLocation(branchTarget, pc));
+                }
+            }
+        }
+
+        private void reportCallSite(CallSite site) {
+            int receivers = getReceiverCount(site);
+            if (receivers < typeProfileWidth) {
+                return;
+            }
+
+            bugReporter.reportBug(new BugInstance(scanner, BugType.MCS_MEGAMORPHIC_CALL_SITE_IN_LOOP.name(),
+                    (receivers > typeProfileWidth) ? NORMAL_PRIORITY : LOW_PRIORITY).addClass(scanner).addMethod(scanner)
+                            .addCalledMethod(site.clsName.replace('/', '.'), site.methodName, site.signature, false).addSourceLine(scanner, site.pc)
+                            .addString("Receiver classes: " + receivers));
+        }
+
+        /**
+         * returns the number of concrete classes a call site may see as its receiver, being the non abstract application classes that are, extend or
+         * implement the receiver type. When all of them dispatch to the same implementation, the jit binds the call by class hierarchy analysis whatever the
+         * profile, and 0 is returned.
+         *
+         * @param site
+         *            the call site
+         * @return the number of receiver classes
+         */
+        private int getReceiverCount(CallSite site) {
+            if (receiverCounts == null) {
+                receiverCounts = new HashMap<>();
+            }
+
+            String key = site.clsName + '.' + site.methodName + site.signature;
+            Integer count = receiverCounts.get(key);
+            if (count == null) {
+                int receivers = 0;
+                Set<XMethod> implementations = new HashSet<>();
+                for (XClass cls : getConcreteClasses()) {
+                    try {
+                        if (ClassHierarchyCache.instanceOf(cls.getClassDescriptor().getClassName(), site.clsName)) {
+                            receivers++;
+                            implementations.add(XClassUtils.getXMethod(cls, site.methodName, site.signature));
+                        }
+                    } catch (ClassNotFoundException e) {
+                        bugReporter.reportMissingClass(e);
+                    }
+                }
+                count = Integer.valueOf((implementations.size() > 1) ? receivers : 0);
+                receiverCounts.put(key, count);
+            }
+            return count.intValue();
+        }
+
+        /**
+         * returns the non abstract application classes, as found in the first pass statistics. The list is built on first use, once the first pass is done.
+         *
+         * @return the concrete application classes
+         */
+        private List<XClass> getConcreteClasses() {
+            if (concreteClasses == null) {
+                concreteClasses = new ArrayList<>();
+                AnalysisContext context = AnalysisContext.currentAnalysisContext();
+                Set<String> seenClasses = new HashSet<>();
+                for (Map.Entry<FQMethod, MethodInfo> entry : Statistics.getStatistics()) {
+                    String clsName = entry.getKey().getClassName();
+                    if (seenClasses.add(clsName) && context.isApplicationClass(clsName.replace('/', '.'))) {
+                        XClass cls = XClassUtils.getXClass(clsName.replace('.', '/'));
+                        if (!cls.isAbstract() && !cls.isInterface()) {
+                            concreteClasses.add(cls);
+                        }
+                    }
+                }
+            }
+            return concreteClasses;
+        }
+    }
+
+    /**
+     * holds a virtual or interface call on an application type
+     */
+    private static class CallSite {
+        final int pc;
+        final String clsName;
+        final String methodName;
+        final String signature;
+
+        CallSite(int pc, String clsName, String methodName, String signature) {
+            this.pc = pc;
+            this.clsName = clsName;
+            this.methodName = methodName;
+            this.signature = signature;
+        }
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
+        }
+    }
+
+    /**
+     * holds the start and end position of a loop
+     */
+    private static class LoopLocation {
+        private final int startPC;
+        private final int endPC;
+
+        LoopLocation(int start, int end) {
+            startPC = start;
+            endPC = end;
+        }
+
+        boolean isInLoop(int pc) {
+            return (pc >= startPC) && (pc <= endPC);
+        }
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
+        }
+    }
+}
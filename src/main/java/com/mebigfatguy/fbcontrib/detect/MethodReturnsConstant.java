@@ -29,6 +29,8 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.StopOpcodeParsingException;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
@@ -46,9 +48,12 @@ import edu.umd.cs.findbugs.ba.XField;
  * looks for private methods that can only return one constant value. either the class should not return a value, or perhaps a branch was missed.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class MethodReturnsConstant extends BytecodeScanningDetector {
     private final BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private Integer returnRegister;
     private Map<Integer, Object> registerConstants;
     private Set<Method> overloadedMethods;
@@ -214,9 +219,9 @@ public class MethodReturnsConstant extends BytecodeScanningDetector {
             }
 
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if (sawSBToString && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item item = stack.getStackItem(0);
                 item.setUserValue(Boolean.TRUE);
@@ -25,6 +25,8 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 
 import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
@@ -37,6 +39,8 @@ import edu.umd.cs.findbugs.visitclass.PreorderVisitor;
  * looks for classes that define both static and instance methods with the same name. This 'overloading' is confusing as one method is instance based the other
  * class based, and points to a confusion in implementation.
  */
+@ParallelSafe
+@IncrementalSafe
 public class MisleadingOverloadModel extends PreorderVisitor implements Detector {
     enum MethodFoundType {
         Instance, Static, Both
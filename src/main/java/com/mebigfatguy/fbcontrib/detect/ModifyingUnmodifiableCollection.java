@@ -29,6 +29,7 @@ import com.mebigfatguy.fbcontrib.collect.MethodInfo;
 import com.mebigfatguy.fbcontrib.collect.Statistics;
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.CollectionUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.QMethod;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.StopOpcodeParsingException;
@@ -45,6 +46,7 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for code that attempts to modify a collection that is or may be defined as immutable. Doing so will cause exceptions at runtime.
  */
 @CustomUserValue
+@ParallelSafe
 public class ModifyingUnmodifiableCollection extends BytecodeScanningDetector {
 
     private static final Map<QMethod, Integer> MODIFYING_METHODS;
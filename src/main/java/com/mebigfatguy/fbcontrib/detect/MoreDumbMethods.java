@@ -19,6 +19,7 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -26,6 +27,8 @@ import java.util.Set;
 import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
@@ -39,8 +42,11 @@ import edu.umd.cs.findbugs.ba.ClassContext;
 /**
  * looks for method calls that are unsafe or might indicate bugs.
  */
+@ParallelSafe
+@IncrementalSafe
 public class MoreDumbMethods extends BytecodeScanningDetector {
-    private final static Map<FQMethod, ReportInfo> dumbMethods = new HashMap<>();
+    private static final Map<FQMethod, ReportInfo> dumbMethods;
+    private static final Map<FQMethod, ReportInfo> dumbMethodsUpTo15;
 
     private static final Set<ReportInfo> assertableReports = UnmodifiableSet.create(new ReportInfo("MDM_LOCK_ISLOCKED", LOW_PRIORITY));
 
@@ -49,34 +55,35 @@ public class MoreDumbMethods extends BytecodeScanningDetector {
             .toString();
 
     static {
-        dumbMethods.put(new FQMethod("java/lang/Runtime", "exit", SignatureBuilder.SIG_INT_TO_VOID), new ReportInfo("MDM_RUNTIME_EXIT_OR_HALT", LOW_PRIORITY));
-        dumbMethods.put(new FQMethod("java/lang/Runtime", "halt", SignatureBuilder.SIG_INT_TO_VOID), new ReportInfo("MDM_RUNTIME_EXIT_OR_HALT", HIGH_PRIORITY));
+        Map<FQMethod, ReportInfo> dm = new HashMap<>();
+        dm.put(new FQMethod("java/lang/Runtime", "exit", SignatureBuilder.SIG_INT_TO_VOID), new ReportInfo("MDM_RUNTIME_EXIT_OR_HALT", LOW_PRIORITY));
+        dm.put(new FQMethod("java/lang/Runtime", "halt", SignatureBuilder.SIG_INT_TO_VOID), new ReportInfo("MDM_RUNTIME_EXIT_OR_HALT", HIGH_PRIORITY));
 
-        dumbMethods.put(new FQMethod("java/lang/Runtime", "runFinalization", SignatureBuilder.SIG_VOID_TO_VOID),
+        dm.put(new FQMethod("java/lang/Runtime", "runFinalization", SignatureBuilder.SIG_VOID_TO_VOID),
                 new ReportInfo("MDM_RUNFINALIZATION", NORMAL_PRIORITY));
-        dumbMethods.put(new FQMethod("java/lang/System", "runFinalization", SignatureBuilder.SIG_VOID_TO_VOID),
+        dm.put(new FQMethod("java/lang/System", "runFinalization", SignatureBuilder.SIG_VOID_TO_VOID),
                 new ReportInfo("MDM_RUNFINALIZATION", NORMAL_PRIORITY));
 
-        dumbMethods.put(new FQMethod("java/math/BigDecimal", "equals", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN),
+        dm.put(new FQMethod("java/math/BigDecimal", "equals", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN),
                 new ReportInfo("MDM_BIGDECIMAL_EQUALS", NORMAL_PRIORITY));
 
         //
         // Network checks
         //
-        dumbMethods.put(new FQMethod("java/net/InetAddress", "getLocalHost", new SignatureBuilder().withReturnType("java/net/InetAddress").toString()),
+        dm.put(new FQMethod("java/net/InetAddress", "getLocalHost", new SignatureBuilder().withReturnType("java/net/InetAddress").toString()),
                 new ReportInfo("MDM_INETADDRESS_GETLOCALHOST", NORMAL_PRIORITY));
 
-        dumbMethods.put(new FQMethod("java/net/ServerSocket", Values.CONSTRUCTOR, SignatureBuilder.SIG_INT_TO_VOID),
+        dm.put(new FQMethod("java/net/ServerSocket", Values.CONSTRUCTOR, SignatureBuilder.SIG_INT_TO_VOID),
                 new ReportInfo("MDM_PROMISCUOUS_SERVERSOCKET", NORMAL_PRIORITY));
-        dumbMethods.put(
+        dm.put(
                 new FQMethod("java/net/ServerSocket", Values.CONSTRUCTOR,
                         new SignatureBuilder().withParamTypes(Values.SIG_PRIMITIVE_INT, Values.SIG_PRIMITIVE_INT).toString()),
                 new ReportInfo("MDM_PROMISCUOUS_SERVERSOCKET", NORMAL_PRIORITY));
-        dumbMethods.put(
+        dm.put(
                 new FQMethod("javax/net/ServerSocketFactory", "createServerSocket",
                         new SignatureBuilder().withParamTypes(Values.SIG_PRIMITIVE_INT).withReturnType("java/net/ServerSocket").toString()),
                 new ReportInfo("MDM_PROMISCUOUS_SERVERSOCKET", LOW_PRIORITY));
-        dumbMethods.put(
+        dm.put(
                 new FQMethod("javax/net/ServerSocketFactory", "createServerSocket", new SignatureBuilder()
                         .withParamTypes(Values.SIG_PRIMITIVE_INT, Values.SIG_PRIMITIVE_INT).withReturnType("java/net/ServerSocket").toString()),
                 new ReportInfo("MDM_PROMISCUOUS_SERVERSOCKET", LOW_PRIORITY));
@@ -84,63 +91,73 @@ public class MoreDumbMethods extends BytecodeScanningDetector {
         //
         // Random Number Generator checks
         //
-        dumbMethods.put(new FQMethod("java/util/Random", Values.CONSTRUCTOR, SignatureBuilder.SIG_VOID_TO_VOID),
+        dm.put(new FQMethod("java/util/Random", Values.CONSTRUCTOR, SignatureBuilder.SIG_VOID_TO_VOID),
                 new ReportInfo("MDM_RANDOM_SEED", LOW_PRIORITY));
 
         //
         // Thread checks
         //
-        dumbMethods.put(new FQMethod("java/lang/Thread", "getPriority", SignatureBuilder.SIG_VOID_TO_INT),
+        dm.put(new FQMethod("java/lang/Thread", "getPriority", SignatureBuilder.SIG_VOID_TO_INT),
                 new ReportInfo("MDM_THREAD_PRIORITIES", LOW_PRIORITY));
-        dumbMethods.put(new FQMethod("java/lang/Thread", "setPriority", SignatureBuilder.SIG_INT_TO_VOID),
+        dm.put(new FQMethod("java/lang/Thread", "setPriority", SignatureBuilder.SIG_INT_TO_VOID),
                 new ReportInfo("MDM_THREAD_PRIORITIES", LOW_PRIORITY));
 
-        dumbMethods.put(new FQMethod("java/lang/Thread", "sleep", SignatureBuilder.SIG_LONG_TO_VOID), new ReportInfo("MDM_THREAD_YIELD", LOW_PRIORITY));
-        dumbMethods.put(new FQMethod("java/lang/Thread", "sleep", SignatureBuilder.SIG_LONG_AND_INT_TO_VOID), new ReportInfo("MDM_THREAD_YIELD", LOW_PRIORITY));
-        dumbMethods.put(new FQMethod("java/lang/Thread", "yield", SignatureBuilder.SIG_VOID_TO_VOID), new ReportInfo("MDM_THREAD_YIELD", NORMAL_PRIORITY));
+        dm.put(new FQMethod("java/lang/Thread", "sleep", SignatureBuilder.SIG_LONG_TO_VOID), new ReportInfo("MDM_THREAD_YIELD", LOW_PRIORITY));
+        dm.put(new FQMethod("java/lang/Thread", "sleep", SignatureBuilder.SIG_LONG_AND_INT_TO_VOID), new ReportInfo("MDM_THREAD_YIELD", LOW_PRIORITY));
+        dm.put(new FQMethod("java/lang/Thread", "yield", SignatureBuilder.SIG_VOID_TO_VOID), new ReportInfo("MDM_THREAD_YIELD", NORMAL_PRIORITY));
 
-        dumbMethods.put(new FQMethod("java/lang/Thread", "join", SignatureBuilder.SIG_VOID_TO_VOID), new ReportInfo("MDM_WAIT_WITHOUT_TIMEOUT", LOW_PRIORITY));
-        dumbMethods.put(new FQMethod(Values.SLASHED_JAVA_LANG_OBJECT, "wait", SignatureBuilder.SIG_VOID_TO_VOID),
+        dm.put(new FQMethod("java/lang/Thread", "join", SignatureBuilder.SIG_VOID_TO_VOID), new ReportInfo("MDM_WAIT_WITHOUT_TIMEOUT", LOW_PRIORITY));
+        dm.put(new FQMethod(Values.SLASHED_JAVA_LANG_OBJECT, "wait", SignatureBuilder.SIG_VOID_TO_VOID),
                 new ReportInfo("MDM_WAIT_WITHOUT_TIMEOUT", LOW_PRIORITY));
-        dumbMethods.put(new FQMethod("java/util/concurrent/locks/Condition", "await", SignatureBuilder.SIG_VOID_TO_VOID),
+        dm.put(new FQMethod("java/util/concurrent/locks/Condition", "await", SignatureBuilder.SIG_VOID_TO_VOID),
                 new ReportInfo("MDM_WAIT_WITHOUT_TIMEOUT", LOW_PRIORITY));
-        dumbMethods.put(new FQMethod("java/util/concurrent/locks/Lock", "lock", SignatureBuilder.SIG_VOID_TO_VOID),
+        dm.put(new FQMethod("java/util/concurrent/locks/Lock", "lock", SignatureBuilder.SIG_VOID_TO_VOID),
                 new ReportInfo("MDM_WAIT_WITHOUT_TIMEOUT", LOW_PRIORITY));
-        dumbMethods.put(new FQMethod("java/util/concurrent/locks/Lock", "lockInterruptibly", SignatureBuilder.SIG_VOID_TO_VOID),
+        dm.put(new FQMethod("java/util/concurrent/locks/Lock", "lockInterruptibly", SignatureBuilder.SIG_VOID_TO_VOID),
                 new ReportInfo("MDM_WAIT_WITHOUT_TIMEOUT", LOW_PRIORITY));
-        dumbMethods.put(new FQMethod("java/util/concurrent/locks/ReentrantLock", "lock", SignatureBuilder.SIG_VOID_TO_VOID),
+        dm.put(new FQMethod("java/util/concurrent/locks/ReentrantLock", "lock", SignatureBuilder.SIG_VOID_TO_VOID),
                 new ReportInfo("MDM_WAIT_WITHOUT_TIMEOUT", LOW_PRIORITY));
-        dumbMethods.put(new FQMethod("java/util/concurrent/locks/ReentrantLock", "lockInterruptibly", SignatureBuilder.SIG_VOID_TO_VOID),
+        dm.put(new FQMethod("java/util/concurrent/locks/ReentrantLock", "lockInterruptibly", SignatureBuilder.SIG_VOID_TO_VOID),
                 new ReportInfo("MDM_WAIT_WITHOUT_TIMEOUT", LOW_PRIORITY));
 
-        dumbMethods.put(new FQMethod("java/util/concurrent/locks/Condition", "signal", SignatureBuilder.SIG_VOID_TO_VOID),
+        dm.put(new FQMethod("java/util/concurrent/locks/Condition", "signal", SignatureBuilder.SIG_VOID_TO_VOID),
                 new ReportInfo("MDM_SIGNAL_NOT_SIGNALALL", NORMAL_PRIORITY));
 
-        dumbMethods.put(new FQMethod("java/util/concurrent/locks/Lock", "tryLock", SignatureBuilder.SIG_VOID_TO_BOOLEAN),
+        dm.put(new FQMethod("java/util/concurrent/locks/Lock", "tryLock", SignatureBuilder.SIG_VOID_TO_BOOLEAN),
                 new ReportInfo("MDM_THREAD_FAIRNESS", LOW_PRIORITY));
-        dumbMethods.put(new FQMethod("java/util/concurrent/locks/ReentrantLock", "tryLock", SignatureBuilder.SIG_VOID_TO_BOOLEAN),
+        dm.put(new FQMethod("java/util/concurrent/locks/ReentrantLock", "tryLock", SignatureBuilder.SIG_VOID_TO_BOOLEAN),
                 new ReportInfo("MDM_THREAD_FAIRNESS", LOW_PRIORITY));
 
-        dumbMethods.put(new FQMethod("java/util/concurrent/locks/ReentrantLock", "isHeldByCurrentThread", SignatureBuilder.SIG_VOID_TO_BOOLEAN),
+        dm.put(new FQMethod("java/util/concurrent/locks/ReentrantLock", "isHeldByCurrentThread", SignatureBuilder.SIG_VOID_TO_BOOLEAN),
                 new ReportInfo("MDM_LOCK_ISLOCKED", LOW_PRIORITY));
-        dumbMethods.put(new FQMethod("java/util/concurrent/locks/ReentrantLock", "isLocked", SignatureBuilder.SIG_VOID_TO_BOOLEAN),
+        dm.put(new FQMethod("java/util/concurrent/locks/ReentrantLock", "isLocked", SignatureBuilder.SIG_VOID_TO_BOOLEAN),
                 new ReportInfo("MDM_LOCK_ISLOCKED", LOW_PRIORITY));
 
         //
         // String checks
         //
-        dumbMethods.put(
+        dm.put(
                 new FQMethod(Values.SLASHED_JAVA_LANG_STRING, Values.CONSTRUCTOR,
                         new SignatureBuilder().withParamTypes(SignatureBuilder.SIG_BYTE_ARRAY).toString()),
                 new ReportInfo("MDM_STRING_BYTES_ENCODING", NORMAL_PRIORITY));
-        dumbMethods.put(
+        dm.put(
                 new FQMethod(Values.SLASHED_JAVA_LANG_STRING, "getBytes", new SignatureBuilder().withReturnType(SignatureBuilder.SIG_BYTE_ARRAY).toString()),
                 new ReportInfo("MDM_STRING_BYTES_ENCODING", NORMAL_PRIORITY));
-        dumbMethods.put(new FQMethod("java/util/Locale", "setDefault", new SignatureBuilder().withParamTypes("java/util/Locale").toString()),
+        dm.put(new FQMethod("java/util/Locale", "setDefault", new SignatureBuilder().withParamTypes("java/util/Locale").toString()),
                 new ReportInfo("MDM_SETDEFAULTLOCALE", NORMAL_PRIORITY));
+        dumbMethods = Collections.<FQMethod, ReportInfo> unmodifiableMap(dm);
+
+        // SecureRandom was only weak before 1.6
+        Map<FQMethod, ReportInfo> dm15 = new HashMap<>(dm);
+        dm15.put(new FQMethod("java/security/SecureRandom", Values.CONSTRUCTOR, SignatureBuilder.SIG_VOID_TO_VOID),
+                new ReportInfo("MDM_SECURERANDOM", LOW_PRIORITY));
+        dm15.put(new FQMethod("java/security/SecureRandom", Values.CONSTRUCTOR, byteArrayToVoid), new ReportInfo("MDM_SECURERANDOM", LOW_PRIORITY));
+        dm15.put(new FQMethod("java/security/SecureRandom", "getSeed", intToByteArray), new ReportInfo("MDM_SECURERANDOM", LOW_PRIORITY));
+        dumbMethodsUpTo15 = Collections.<FQMethod, ReportInfo> unmodifiableMap(dm15);
     }
 
     private final BugReporter bugReporter;
+    private Map<FQMethod, ReportInfo> classDumbMethods;
 
     private boolean sawAssertionDisabled;
     private int assertionEnd;
@@ -157,17 +174,7 @@ public class MoreDumbMethods extends BytecodeScanningDetector {
 
     @Override
     public void visitClassContext(ClassContext classContext) {
-        if (classContext.getJavaClass().getMajor() <= MAJOR_1_5) {
-            dumbMethods.put(new FQMethod("java/security/SecureRandom", Values.CONSTRUCTOR, SignatureBuilder.SIG_VOID_TO_VOID),
-                    new ReportInfo("MDM_SECURERANDOM", LOW_PRIORITY));
-            dumbMethods.put(new FQMethod("java/security/SecureRandom", Values.CONSTRUCTOR, byteArrayToVoid), new ReportInfo("MDM_SECURERANDOM", LOW_PRIORITY));
-            dumbMethods.put(new FQMethod("java/security/SecureRandom", "getSeed", intToByteArray), new ReportInfo("MDM_SECURERANDOM", LOW_PRIORITY));
-        } else {
-            dumbMethods.remove(new FQMethod("java/security/SecureRandom", Values.CONSTRUCTOR, SignatureBuilder.SIG_VOID_TO_VOID));
-            dumbMethods.remove(new FQMethod("java/security/SecureRandom", Values.CONSTRUCTOR, byteArrayToVoid));
-            dumbMethods.remove(new FQMethod("java/security/SecureRandom", "getSeed", intToByteArray));
-        }
-
+        classDumbMethods = (classContext.getJavaClass().getMajor() <= MAJOR_1_5) ? dumbMethodsUpTo15 : dumbMethods;
         super.visitClassContext(classContext);
     }
 
@@ -182,7 +189,7 @@ public class MoreDumbMethods extends BytecodeScanningDetector {
     public void sawOpcode(int seen) {
 
         if ((seen == INVOKEVIRTUAL) || (seen == INVOKEINTERFACE) || (seen == INVOKESPECIAL) || (seen == INVOKESTATIC)) {
-            final ReportInfo info = dumbMethods.get(getFQMethod());
+            final ReportInfo info = classDumbMethods.get(getFQMethod());
             if ((info != null) && ((assertionEnd < getPC()) || !assertableReports.contains(info))) {
                 reportBug(info);
             }
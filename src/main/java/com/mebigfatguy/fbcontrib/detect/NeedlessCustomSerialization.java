@@ -23,6 +23,9 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 
 import edu.umd.cs.findbugs.BugInstance;
@@ -34,6 +37,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for classes that implement Serializable and implements readObject and writeObject by just calling the readDefaultObject or writeDefaultObject of the
  * stream parameter. As this is the standard behavior implementing these methods is not needed.
  */
+@ParallelSafe
+@IncrementalSafe
 public class NeedlessCustomSerialization extends BytecodeScanningDetector {
 
     public static final String SIG_WRITE_OBJECT = new SignatureBuilder().withMethodName("writeObject").withParamTypes("java/io/ObjectOutputStream").toString();
@@ -72,7 +77,7 @@ public class NeedlessCustomSerialization extends BytecodeScanningDetector {
     public void visitClassContext(ClassContext classContext) {
         try {
             JavaClass cls = classContext.getJavaClass();
-            if ((serializableClass != null) && cls.implementationOf(serializableClass)) {
+            if ((serializableClass != null) && ClassHierarchyCache.implementationOf(cls, serializableClass)) {
                 super.visitClassContext(classContext);
             }
         } catch (ClassNotFoundException cnfe) {
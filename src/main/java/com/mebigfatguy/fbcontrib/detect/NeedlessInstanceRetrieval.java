@@ -22,28 +22,25 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.LineNumberTable;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
 import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
-import edu.umd.cs.findbugs.BytecodeScanningDetector;
 
 /**
  * looks for methods that call a method to retrieve a reference to an object, to use to load a constant. It is simpler and more performant to access the static
  * variable directly from the class itself.
  */
-public class NeedlessInstanceRetrieval extends BytecodeScanningDetector {
+@ParallelSafe
+@IncrementalSafe
+public class NeedlessInstanceRetrieval extends AbstractRuleDetector {
     enum State {
         SEEN_NOTHING, SEEN_INVOKE, SEEN_POP
     }
 
-    private final BugReporter bugReporter;
-    private LineNumberTable lnTable;
-    private State state;
-    private int invokePC;
-    private String returnType;
-
     /**
      * constructs a NIR detector given the reporter to report bugs on
      *
@@ -51,83 +48,107 @@ public class NeedlessInstanceRetrieval extends BytecodeScanningDetector {
      *            the sync of bug reports
      */
     public NeedlessInstanceRetrieval(BugReporter bugReporter) {
-        this.bugReporter = bugReporter;
+        super(new Rule(bugReporter));
     }
 
     /**
-     * overrides the interface to collect the line number table, and reset state
-     *
-     * @param obj
-     *            the content object of the currently parsed code
+     * looks for the result of a call being popped, to load a static member of the returned type on the same line
      */
-    @Override
-    public void visitCode(Code obj) {
-        try {
+    static class Rule extends OpcodeRule {
+        private LineNumberTable lnTable;
+        private State state;
+        private int invokePC;
+        private String returnType;
+
+        Rule(BugReporter bugReporter) {
+            super(bugReporter);
+        }
+
+        /**
+         * overrides the rule to collect the line number table, and reset state
+         *
+         * @param obj
+         *            the content object of the currently parsed code
+         * @return whether the method has a line number table
+         */
+        @Override
+        protected boolean startCode(Code obj) {
             lnTable = obj.getLineNumberTable();
-            if (lnTable != null) {
-                state = State.SEEN_NOTHING;
-                invokePC = -1;
-                returnType = null;
-                super.visitCode(obj);
+            if (lnTable == null) {
+                return false;
             }
-        } finally {
+            state = State.SEEN_NOTHING;
+            invokePC = -1;
+            returnType = null;
+            return true;
+        }
+
+        /**
+         * overrides the rule to drop the line number table
+         *
+         * @param obj
+         *            the content object of the parsed code
+         */
+        @Override
+        protected void endCode(Code obj) {
             lnTable = null;
         }
-    }
 
-    /**
-     * overrides the interface to find accesses of static variables off of an instance immediately fetched from a method call.
-     *
-     * @param seen
-     *            the opcode of the currently visited instruction
-     */
-    @Override
-    public void sawOpcode(int seen) {
-        switch (state) {
-            case SEEN_NOTHING:
-                if ((seen == INVOKEINTERFACE) || (seen == INVOKEVIRTUAL)) {
-                    String sig = getSigConstantOperand();
-                    String returnSig = SignatureUtils.getReturnSignature(sig);
-                    if (returnSig.startsWith(Values.SIG_QUALIFIED_CLASS_PREFIX)) {
-                        String clsName = getClassConstantOperand();
-                        if (!Values.SLASHED_JAVA_LANG_OBJECT.equals(clsName) && !Values.SLASHED_JAVA_LANG_CLASS.equals(clsName)) {
-                            returnType = SignatureUtils.trimSignature(returnSig);
-                            invokePC = getPC();
-                            state = State.SEEN_INVOKE;
+        /**
+         * overrides the rule to find accesses of static variables off of an instance immediately fetched from a method call.
+         *
+         * @param seen
+         *            the opcode of the currently visited instruction
+         */
+        @Override
+        protected void sawOpcode(int seen) {
+            switch (state) {
+                case SEEN_NOTHING:
+                    if ((seen == INVOKEINTERFACE) || (seen == INVOKEVIRTUAL)) {
+                        String sig = scanner.getSigConstantOperand();
+                        String returnSig = SignatureUtils.getReturnSignature(sig);
+                        if (returnSig.startsWith(Values.SIG_QUALIFIED_CLASS_PREFIX)) {
+                            String clsName = scanner.getClassConstantOperand();
+                            if (!Values.SLASHED_JAVA_LANG_OBJECT.equals(clsName) && !Values.SLASHED_JAVA_LANG_CLASS.equals(clsName)) {
+                                returnType = SignatureUtils.trimSignature(returnSig);
+                                invokePC = scanner.getPC();
+                                state = State.SEEN_INVOKE;
+                            }
                         }
                     }
-                }
-            break;
+                break;
 
-            case SEEN_INVOKE:
-                if (seen == POP) {
-                    state = State.SEEN_POP;
-                } else {
-                    state = State.SEEN_NOTHING;
-                    returnType = null;
-                }
-            break;
+                case SEEN_INVOKE:
+                    if (seen == POP) {
+                        state = State.SEEN_POP;
+                    } else {
+                        state = State.SEEN_NOTHING;
+                        returnType = null;
+                    }
+                break;
 
-            case SEEN_POP:
-                if (((seen >= ACONST_NULL) && (seen <= DCONST_1)) || (seen == GETFIELD)) {
-                    state = State.SEEN_POP;
-                } else if ((seen == INVOKESTATIC) || (seen == GETSTATIC)) {
-                    if (getClassConstantOperand().equals(returnType) && (lnTable.getSourceLine(invokePC) == lnTable.getSourceLine(getPC()))) {
-                        bugReporter.reportBug(new BugInstance(this, BugType.NIR_NEEDLESS_INSTANCE_RETRIEVAL.name(), NORMAL_PRIORITY).addClass(this)
-                                .addMethod(this).addSourceLine(this));
+                case SEEN_POP:
+                    if (((seen >= ACONST_NULL) && (seen <= DCONST_1)) || (seen == GETFIELD)) {
+                        state = State.SEEN_POP;
+                    } else if ((seen == INVOKESTATIC) || (seen == GETSTATIC)) {
+                        if (scanner.getClassConstantOperand().equals(returnType)
+                                && (lnTable.getSourceLine(invokePC) == lnTable.getSourceLine(scanner.getPC()))) {
+                            bugReporter.reportBug(new BugInstance(scanner, BugType.NIR_NEEDLESS_INSTANCE_RETRIEVAL.name(), NORMAL_PRIORITY).addClass(scanner)
+                                    .addMethod(scanner).addSourceLine(scanner));
+                        }
+                        state = State.SEEN_NOTHING;
+                        returnType = null;
+                    } else {
+                        state = State.SEEN_NOTHING;
+                        returnType = null;
                     }
+                break;
+
+                default:
                     state = State.SEEN_NOTHING;
                     returnType = null;
-                } else {
-                    state = State.SEEN_NOTHING;
-                    returnType = null;
-                }
-            break;
-
-            default:
-                state = State.SEEN_NOTHING;
-                returnType = null;
-            break;
+                break;
+            }
         }
     }
 }
@@ -28,6 +28,9 @@ import org.apache.bcel.classfile.Field;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
@@ -48,6 +51,8 @@ import edu.umd.cs.findbugs.ba.XField;
  * as the constructor or static initializer are guaranteed to be thread safe.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class NeedlessMemberCollectionSynchronization extends BytecodeScanningDetector {
     private static JavaClass collectionClass;
 
@@ -83,6 +88,7 @@ public class NeedlessMemberCollectionSynchronization extends BytecodeScanningDet
     private Map<String, FieldInfo> collectionFields;
     private Map<Integer, String> aliases;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private State state;
     private String className;
 
@@ -139,7 +145,7 @@ public class NeedlessMemberCollectionSynchronization extends BytecodeScanningDet
             if (signature.startsWith(Values.SIG_QUALIFIED_CLASS_PREFIX)) {
                 try {
                     JavaClass cls = Repository.lookupClass(SignatureUtils.stripSignature(signature));
-                    if (cls.implementationOf(collectionClass) || cls.implementationOf(mapClass)) {
+                    if (ClassHierarchyCache.implementationOf(cls, collectionClass) || ClassHierarchyCache.implementationOf(cls, mapClass)) {
                         FieldAnnotation fa = FieldAnnotation.fromVisitedField(this);
                         collectionFields.put(fa.getFieldName(), new FieldInfo(fa));
                     }
@@ -319,9 +325,9 @@ public class NeedlessMemberCollectionSynchronization extends BytecodeScanningDet
                 break;
             }
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if (isSyncCollection && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item item = stack.getStackItem(0);
                 item.setUserValue(Boolean.TRUE);
@@ -22,6 +22,8 @@ import java.util.Set;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -33,6 +35,8 @@ import edu.umd.cs.findbugs.BytecodeScanningDetector;
 /**
  * looks for method calls to collection classes where the method is not defined by the Collections interface, and an equivalent method exists in the interface.
  */
+@ParallelSafe
+@IncrementalSafe
 public class NonCollectionMethodUse extends BytecodeScanningDetector {
     private static final Set<FQMethod> oldMethods = UnmodifiableSet.create(new FQMethod("java/util/Hashtable", "contains", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN),
             new FQMethod("java/util/Hashtable", "elements", new SignatureBuilder().withReturnType("java/util/Enumeration").toString()),
@@ -23,6 +23,9 @@ import org.apache.bcel.classfile.Field;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 
 import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
@@ -35,6 +38,8 @@ import edu.umd.cs.findbugs.visitclass.PreorderVisitor;
  * looks for fields in serializable classes that are defined as both final and transient. As a transient field is not initialized when streamed, and is not
  * initialized in a constructor, it will remain null because it is defined final.
  */
+@ParallelSafe
+@IncrementalSafe
 public class NonFunctionalField extends PreorderVisitor implements Detector {
 
     private BugReporter bugReporter;
@@ -66,7 +71,7 @@ public class NonFunctionalField extends PreorderVisitor implements Detector {
     public void visitClassContext(ClassContext classContext) {
         try {
             JavaClass cls = classContext.getJavaClass();
-            if ((serializableClass != null) && (cls.implementationOf(serializableClass))) {
+            if ((serializableClass != null) && (ClassHierarchyCache.implementationOf(cls, serializableClass))) {
                 Field[] fields = cls.getFields();
                 setupVisitorForClass(cls);
                 for (Field f : fields) {
@@ -27,6 +27,10 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
@@ -45,10 +49,14 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * by the current class and synchronization on 'this' should be avoided as well.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(opcodes = Constants.MONITORENTER)
 public class NonOwnedSynchronization extends BytecodeScanningDetector {
     private static final Integer OWNED = Integer.valueOf(Integer.MAX_VALUE);
     private final BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private Map<Integer, Integer> regPriorities;
 
     /**
@@ -66,6 +74,10 @@ public class NonOwnedSynchronization extends BytecodeScanningDetector {
      */
     @Override
     public void visitClassContext(ClassContext classContext) {
+        if (!PrescreenIndex.shouldVisit(this, classContext)) {
+            return;
+        }
+
         try {
             stack = new OpcodeStack();
             regPriorities = new HashMap<>();
@@ -212,9 +224,9 @@ public class NonOwnedSynchronization extends BytecodeScanningDetector {
                 break;
             }
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if ((tosIsPriority != null) && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item itm = stack.getStackItem(0);
                 itm.setUserValue(tosIsPriority);
@@ -19,12 +19,13 @@
 package com.mebigfatguy.fbcontrib.detect;
 
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -34,28 +35,41 @@ import edu.umd.cs.findbugs.BytecodeScanningDetector;
 import edu.umd.cs.findbugs.OpcodeStack;
 import edu.umd.cs.findbugs.OpcodeStack.CustomUserValue;
 import edu.umd.cs.findbugs.ba.ClassContext;
+import edu.umd.cs.findbugs.classfile.MethodDescriptor;
 
 /**
  * looks for common methods that are believed to be non mutating, where the value is discarded. Since the method makes no changes to the object, calling this
  * method is useless. The method call can be removed.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class NonProductiveMethodCall extends BytecodeScanningDetector {
 
-    private static final Set<Pattern> IMMUTABLE_METHODS = UnmodifiableSet.create(
+    /**
+     * the java/time classes whose plus, minus and with methods return a new instance, matching
+     * <code>java/time/(?:Instant|((?:Local|Zoned)(?:Date)?(?:Time)?))</code>
+     */
+    private static final Set<String> IMMUTABLE_TIME_CLASSES = UnmodifiableSet.create(
             // @formatter:off
-            Pattern.compile(".*@toString\\(\\)Ljava/lang/String;"),
-            Pattern.compile("java/lang/.+@.+Value\\(\\)[BCDFIJSZ]"),
-            Pattern.compile(".*@equals\\(Ljava/lang/Object;\\)Z"),
-            Pattern.compile(".*@hashCode\\(\\)I"),
-            Pattern.compile(".*@clone\\(\\).+"),
-            Pattern.compile("java/util/.+@toArray\\(\\)\\[.+"),
-            Pattern.compile("java/time/(?:Instant|((?:Local|Zoned)(?:Date)?(?:Time)?))@(?:plus|minus|with).*"),
-            Pattern.compile("java/nio/file/Path@.*\\)((?!Ljava/nio/file/WatchKey;).)*"),
-            Pattern.compile("java/lang/Enum@.*")
+            "java/time/Instant",
+            "java/time/Local",
+            "java/time/LocalDate",
+            "java/time/LocalTime",
+            "java/time/LocalDateTime",
+            "java/time/Zoned",
+            "java/time/ZonedDate",
+            "java/time/ZonedTime",
+            "java/time/ZonedDateTime"
             // @formatter:on
     );
 
+    private static final String JAVA_LANG_PREFIX = "java/lang/";
+    private static final String JAVA_UTIL_PREFIX = "java/util/";
+    private static final String VALUE_SUFFIX = "Value";
+    private static final String PRIMITIVE_RETURN_TYPES = "BCDFIJSZ";
+    private static final String SIG_WATCH_KEY = "Ljava/nio/file/WatchKey;";
+
     private BugReporter bugReporter;
     private OpcodeStack stack;
 
@@ -102,7 +116,7 @@ public class NonProductiveMethodCall extends BytecodeScanningDetector {
      */
     @Override
     public void sawOpcode(int seen) {
-        String methodInfo = null;
+        MethodDescriptor methodInfo = null;
         try {
             stack.precomputation(this);
 
@@ -111,8 +125,8 @@ public class NonProductiveMethodCall extends BytecodeScanningDetector {
                 case INVOKEINTERFACE:
                 case INVOKESTATIC:
                     String sig = getSigConstantOperand();
-                    if (!sig.endsWith(Values.SIG_VOID)) {
-                        methodInfo = getClassConstantOperand() + '@' + getNameConstantOperand() + getSigConstantOperand();
+                    if (!sig.endsWith(Values.SIG_VOID) && isImmutableMethod(getClassConstantOperand(), getNameConstantOperand(), sig)) {
+                        methodInfo = getMethodDescriptorOperand();
                     }
                 break;
 
@@ -120,17 +134,11 @@ public class NonProductiveMethodCall extends BytecodeScanningDetector {
                 case POP2:
                     if (stack.getStackDepth() > 0) {
                         OpcodeStack.Item item = stack.getStackItem(0);
-                        String mInfo = (String) item.getUserValue();
+                        MethodDescriptor mInfo = (MethodDescriptor) item.getUserValue();
                         if (mInfo != null) {
-                            for (Pattern p : IMMUTABLE_METHODS) {
-                                Matcher m = p.matcher(mInfo);
-
-                                if (m.matches()) {
-                                    bugReporter.reportBug(new BugInstance(this, BugType.NPMC_NON_PRODUCTIVE_METHOD_CALL.name(), NORMAL_PRIORITY).addClass(this)
-                                            .addMethod(this).addSourceLine(this).addString(mInfo));
-                                    break;
-                                }
-                            }
+                            bugReporter.reportBug(new BugInstance(this, BugType.NPMC_NON_PRODUCTIVE_METHOD_CALL.name(), NORMAL_PRIORITY).addClass(this)
+                                    .addMethod(this).addSourceLine(this)
+                                    .addString(mInfo.getSlashedClassName() + '@' + mInfo.getName() + mInfo.getSignature()));
                         }
                     }
                 break;
@@ -144,4 +152,70 @@ public class NonProductiveMethodCall extends BytecodeScanningDetector {
             }
         }
     }
+
+    /**
+     * determines whether a method is believed to not mutate its object, so that discarding its return value makes the call useless. The rules are checked by
+     * method name first, so most calls are rejected after a single switch, without building the <code>class@name+sig</code> string that is reported.
+     *
+     * @param clsName
+     *            the slashed name of the class of the called method
+     * @param methodName
+     *            the name of the called method
+     * @param signature
+     *            the signature of the called method
+     * @return whether the method is considered non mutating
+     */
+    private static boolean isImmutableMethod(String clsName, String methodName, String signature) {
+        switch (methodName) {
+            case "toString":
+                if (SignatureBuilder.SIG_VOID_TO_STRING.equals(signature)) {
+                    return true;
+                }
+            break;
+
+            case "equals":
+                if (SignatureBuilder.SIG_OBJECT_TO_BOOLEAN.equals(signature)) {
+                    return true;
+                }
+            break;
+
+            case "hashCode":
+                if (SignatureBuilder.SIG_VOID_TO_INT.equals(signature)) {
+                    return true;
+                }
+            break;
+
+            case "clone":
+                if ((signature.length() > 2) && signature.startsWith("()")) {
+                    return true;
+                }
+            break;
+
+            case "toArray":
+                if ((clsName.length() > JAVA_UTIL_PREFIX.length()) && clsName.startsWith(JAVA_UTIL_PREFIX) && (signature.length() > 3)
+                        && signature.startsWith("()[")) {
+                    return true;
+                }
+            break;
+
+            default:
+            break;
+        }
+
+        if ((clsName.length() > JAVA_LANG_PREFIX.length()) && clsName.startsWith(JAVA_LANG_PREFIX) && (methodName.length() > VALUE_SUFFIX.length())
+                && methodName.endsWith(VALUE_SUFFIX) && (signature.length() == 3) && signature.startsWith("()")
+                && (PRIMITIVE_RETURN_TYPES.indexOf(signature.charAt(2)) >= 0)) {
+            return true;
+        }
+
+        if (IMMUTABLE_TIME_CLASSES.contains(clsName)) {
+            return methodName.startsWith("plus") || methodName.startsWith("minus") || methodName.startsWith("with");
+        }
+
+        if ("java/nio/file/Path".equals(clsName)) {
+            return signature.indexOf(SIG_WATCH_KEY, signature.lastIndexOf(')')) < 0;
+        }
+
+        return "java/lang/Enum".equals(clsName);
+    }
 }
@@ -20,7 +20,9 @@ package com.mebigfatguy.fbcontrib.detect;
 
 import java.util.BitSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.bcel.Constants;
 import org.apache.bcel.Repository;
@@ -28,7 +30,11 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
+import com.mebigfatguy.fbcontrib.utils.BugSpool;
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 
 import edu.umd.cs.findbugs.BugInstance;
@@ -42,11 +48,13 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * equals to compare different types, at the very least you should make sure that each class knows about each other and is able to compare themselves with each
  * other.
  */
+@Prescreen(opcodes = Constants.CHECKCAST)
 public class NonSymmetricEquals extends BytecodeScanningDetector {
 
     private BugReporter bugReporter;
     private OpcodeStack stack;
-    private Map<String, Map<String, BugInstance>> possibleBugs = new HashMap<String, Map<String, BugInstance>>();
+    private Map<String, Set<String>> equalsClasses = new HashMap<String, Set<String>>();
+    private BugSpool<String> possibleBugs = new BugSpool<String>();
 
     /**
      * constructs a NSE detector given the reporter to report bugs on
@@ -66,6 +74,10 @@ public class NonSymmetricEquals extends BytecodeScanningDetector {
      */
     @Override
     public void visitClassContext(ClassContext classContext) {
+        if (!PrescreenIndex.shouldVisit(this, classContext)) {
+            return;
+        }
+
         try {
             stack = new OpcodeStack();
             super.visitClassContext(classContext);
@@ -123,16 +135,18 @@ public class NonSymmetricEquals extends BytecodeScanningDetector {
                     if (!thisCls.equals(equalsCls)) {
                         JavaClass thisJavaClass = getClassContext().getJavaClass();
                         JavaClass equalsJavaClass = Repository.lookupClass(equalsCls);
-                        boolean inheritance = thisJavaClass.instanceOf(equalsJavaClass) || equalsJavaClass.instanceOf(thisJavaClass);
+                        boolean inheritance = ClassHierarchyCache.instanceOf(thisJavaClass, equalsJavaClass)
+                                || ClassHierarchyCache.instanceOf(equalsJavaClass, thisJavaClass);
 
                         BugInstance bug = new BugInstance(this, BugType.NSE_NON_SYMMETRIC_EQUALS.name(), inheritance ? LOW_PRIORITY : NORMAL_PRIORITY)
                                 .addClass(this).addMethod(this).addSourceLine(this).addString(equalsCls);
-                        Map<String, BugInstance> bugs = possibleBugs.get(thisCls);
-                        if (bugs == null) {
-                            bugs = new HashMap<String, BugInstance>();
-                            possibleBugs.put(thisCls, bugs);
+                        Set<String> classes = equalsClasses.get(thisCls);
+                        if (classes == null) {
+                            classes = new HashSet<String>();
+                            equalsClasses.put(thisCls, classes);
                         }
-                        bugs.put(equalsCls, bug);
+                        classes.add(equalsCls);
+                        possibleBugs.put(bugKey(thisCls, equalsCls), bug);
                     }
                 }
             }
@@ -148,24 +162,37 @@ public class NonSymmetricEquals extends BytecodeScanningDetector {
      */
     @Override
     public void report() {
-        for (Map.Entry<String, Map<String, BugInstance>> thisEntry : possibleBugs.entrySet()) {
-
-            Map<String, BugInstance> equalsClassesMap = thisEntry.getValue();
-            for (Map.Entry<String, BugInstance> equalsEntry : equalsClassesMap.entrySet()) {
-                String equalsCls = equalsEntry.getKey();
-
-                Map<String, BugInstance> reverseEqualsClassMap = possibleBugs.get(equalsCls);
-                if (reverseEqualsClassMap == null) {
-                    bugReporter.reportBug(equalsClassesMap.values().iterator().next());
-                    break;
-                }
-
-                if (!reverseEqualsClassMap.containsKey(thisEntry.getKey())) {
-                    bugReporter.reportBug(equalsClassesMap.values().iterator().next());
-                    break;
+        try {
+            for (Map.Entry<String, Set<String>> thisEntry : equalsClasses.entrySet()) {
+                String thisCls = thisEntry.getKey();
+                Set<String> classes = thisEntry.getValue();
+                for (String equalsCls : classes) {
+                    Set<String> reverseClasses = equalsClasses.get(equalsCls);
+                    if ((reverseClasses == null) || !reverseClasses.contains(thisCls)) {
+                        BugInstance bug = possibleBugs.get(bugKey(thisCls, classes.iterator().next()));
+                        if (bug != null) {
+                            bugReporter.reportBug(bug);
+                        }
+                        break;
+                    }
                 }
             }
+        } finally {
+            equalsClasses.clear();
+            possibleBugs.clear();
         }
-        possibleBugs.clear();
+    }
+
+    /**
+     * builds the key of the possible bug of a class casting the parameter of its equals method to another class
+     *
+     * @param thisCls
+     *            the class whose equals method does the cast
+     * @param equalsCls
+     *            the class cast to
+     * @return the key of the bug in the spool
+     */
+    private static String bugKey(String thisCls, String equalsCls) {
+        return thisCls + ' ' + equalsCls;
     }
 }
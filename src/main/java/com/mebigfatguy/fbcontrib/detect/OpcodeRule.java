@@ -0,0 +1,134 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.detect;
+
+import java.util.BitSet;
+
+import org.apache.bcel.Constants;
+import org.apache.bcel.classfile.Code;
+
+import com.mebigfatguy.fbcontrib.utils.SharedOpcodeStack;
+import com.mebigfatguy.fbcontrib.utils.ToString;
+
+import edu.umd.cs.findbugs.BugReporter;
+import edu.umd.cs.findbugs.BytecodeScanningDetector;
+import edu.umd.cs.findbugs.Priorities;
+import edu.umd.cs.findbugs.ba.ClassContext;
+
+/**
+ * the logic of a detector that looks at the instructions of a method one after the other, and keeps no state in OpcodeStack user values, apart from the walk
+ * over the bytecode. A rule is walked by its own detector, an {@link AbstractRuleDetector}, or along with other rules by {@link PerformanceSuite}, which walks
+ * each method once for all of them. The rule reads the instruction, method and class being parsed from the detector doing the walk, the scanner, and reports
+ * its bugs against it. Rules that look at the stack read it from a {@link SharedOpcodeStack}, which the scanner moves along, as a stack that no rule writes
+ * to can be shared by all of them.
+ */
+public abstract class OpcodeRule implements Constants, Priorities {
+
+    protected final BugReporter bugReporter;
+    protected BytecodeScanningDetector scanner;
+    protected SharedOpcodeStack stack;
+
+    /**
+     * constructs a rule given the reporter to report bugs on
+     *
+     * @param bugReporter
+     *            the sync of bug reports
+     */
+    protected OpcodeRule(BugReporter bugReporter) {
+        this.bugReporter = bugReporter;
+    }
+
+    /**
+     * attaches the rule to the detector that walks the bytecode for it
+     *
+     * @param bytecodeScanner
+     *            the detector walking the bytecode
+     * @param opcodeStack
+     *            the stack the detector moves along, or null if the rule doesn't look at the stack
+     */
+    void bind(BytecodeScanningDetector bytecodeScanner, SharedOpcodeStack opcodeStack) {
+        scanner = bytecodeScanner;
+        stack = opcodeStack;
+    }
+
+    /**
+     * returns the opcodes before which the rule looks at the items on the stack, as returned by {@link SharedOpcodeStack#subscribe(int...)}
+     *
+     * @return the opcodes, or null if the rule doesn't look at the stack
+     */
+    protected BitSet getStackItemOpcodes() {
+        return null;
+    }
+
+    /**
+     * prepares the rule for a class, whose methods are walked if it returns true. A rule resets the state it keeps for a class here, as the walk of the
+     * previous class may have ended with an exception.
+     *
+     * @param classContext
+     *            the context object of the class about to be parsed
+     * @return whether the rule looks at the class
+     */
+    protected boolean startClass(ClassContext classContext) {
+        return true;
+    }
+
+    /**
+     * prepares the rule for a method, whose instructions are shown to it if it returns true
+     *
+     * @param obj
+     *            the code of the method about to be parsed
+     * @return whether the rule looks at the instructions of the method
+     */
+    protected boolean startCode(Code obj) {
+        return true;
+    }
+
+    /**
+     * shows the rule an instruction of the method, whose operands are read from the scanner
+     *
+     * @param seen
+     *            the opcode of the currently parsed instruction
+     */
+    protected abstract void sawOpcode(int seen);
+
+    /**
+     * ends the method, after all its instructions were shown to the rule
+     *
+     * @param obj
+     *            the code of the parsed method
+     */
+    protected void endCode(Code obj) {
+        // most rules report as they see the instructions
+    }
+
+    /**
+     * ends the class, after all its methods were parsed
+     *
+     * @param classContext
+     *            the context object of the parsed class
+     */
+    protected void endClass(ClassContext classContext) {
+        // most rules report as they see the instructions
+    }
+
+    @Override
+    public String toString() {
+        return ToString.build(this);
+    }
+}
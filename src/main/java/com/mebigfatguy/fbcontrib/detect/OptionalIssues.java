@@ -34,6 +34,8 @@ import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 
@@ -48,6 +50,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for various issues around use of java.util.Optional
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class OptionalIssues extends BytecodeScanningDetector {
 
     private static Set<String> BOXED_OPTIONAL_TYPES = UnmodifiableSet.create("Ljava/lang/Integer;", "Ljava/lang/Long;", "Ljava/lang/Double;");
@@ -20,8 +20,10 @@ package com.mebigfatguy.fbcontrib.detect;
 
 import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -39,9 +41,13 @@ import org.apache.bcel.classfile.Method;
 import org.apache.bcel.classfile.ParameterAnnotationEntry;
 import org.apache.bcel.generic.Type;
 
+import com.mebigfatguy.fbcontrib.utils.AnalysisScopedMap;
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
 import com.mebigfatguy.fbcontrib.utils.CollectionUtils;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
@@ -60,6 +66,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for parameters that are defined by classes, but only use methods defined by an implemented interface or super class. Relying on concrete classes in
  * public signatures causes cohesion, and makes low impact changes more difficult.
  */
+@ParallelSafe
+@IncrementalSafe
 public class OverlyConcreteParameter extends BytecodeScanningDetector {
 
     private static final Set<String> CONVERSION_ANNOTATIONS = UnmodifiableSet.create("Ljavax/persistence/Converter;", "Ljavax/ws/rs/Consumes;");
@@ -67,6 +75,18 @@ public class OverlyConcreteParameter extends BytecodeScanningDetector {
     private static final Set<String> CONVERSION_SUPER_CLASSES = UnmodifiableSet.create("com.fasterxml.jackson.databind.JsonSerializer",
             "com.fasterxml.jackson.databind.JsonDeserializer");
 
+    private static final int MAX_CACHED_CLASSES = 10000;
+
+    /**
+     * the public and protected methods of each interface seen, shared by all instances, as common parameter types such as List are looked at over and over
+     */
+    private static final AnalysisScopedMap<String, List<MethodInfo>> INTERFACE_METHODS = new AnalysisScopedMap<>(MAX_CACHED_CLASSES);
+
+    /**
+     * the interfaces of each parameter class seen, with their methods, in the order the class implements them
+     */
+    private static final AnalysisScopedMap<String, Map<JavaClass, List<MethodInfo>>> CLASS_DEFINERS = new AnalysisScopedMap<>(MAX_CACHED_CLASSES);
+
     private final BugReporter bugReporter;
     private JavaClass[] constrainingClasses;
     private Map<Integer, Map<JavaClass, List<MethodInfo>>> parameterDefiners;
@@ -427,12 +447,12 @@ public class OverlyConcreteParameter extends BytecodeScanningDetector {
             for (int j = i + 1; j < infs.size(); j++) {
                 JavaClass inf1 = infs.get(i);
                 JavaClass inf2 = infs.get(j);
-                if (inf1.implementationOf(inf2)) {
+                if (ClassHierarchyCache.implementationOf(inf1, inf2)) {
                     infs.remove(i);
                     definers.remove(inf1);
                     i--;
                     j = infs.size();
-                } else if (inf2.implementationOf(inf1)) {
+                } else if (ClassHierarchyCache.implementationOf(inf2, inf1)) {
                     infs.remove(j);
                     definers.remove(inf2);
                     j--;
@@ -511,7 +531,8 @@ public class OverlyConcreteParameter extends BytecodeScanningDetector {
     }
 
     /**
-     * returns a map of method information for each public method for each interface this class implements
+     * returns a map of method information for each public method for each interface this class implements. The map is the caller's to modify, but the method
+     * lists are shared, and must not be.
      *
      * @param cls
      *            the class whose interfaces to record
@@ -521,16 +542,26 @@ public class OverlyConcreteParameter extends BytecodeScanningDetector {
      *             if unable to load the class
      */
     private static Map<JavaClass, List<MethodInfo>> getClassDefiners(final JavaClass cls) throws ClassNotFoundException {
-        Map<JavaClass, List<MethodInfo>> definers = new HashMap<>();
-
-        for (JavaClass ci : cls.getAllInterfaces()) {
-            if ("java.lang.Comparable".equals(ci.getClassName())) {
-                continue;
-            }
-            List<MethodInfo> methodInfos = getPublicMethodInfos(ci);
-            if (!methodInfos.isEmpty()) {
-                definers.put(ci, methodInfos);
+        Map<JavaClass, List<MethodInfo>> cachedDefiners = CLASS_DEFINERS.get(cls.getClassName());
+        if (cachedDefiners == null) {
+            cachedDefiners = new LinkedHashMap<>();
+            for (JavaClass ci : cls.getAllInterfaces()) {
+                if ("java.lang.Comparable".equals(ci.getClassName())) {
+                    continue;
+                }
+                List<MethodInfo> methodInfos = getPublicMethodInfos(ci);
+                if (!methodInfos.isEmpty()) {
+                    cachedDefiners.put(ci, methodInfos);
+                }
             }
+            cachedDefiners = Collections.unmodifiableMap(cachedDefiners);
+            CLASS_DEFINERS.put(cls.getClassName(), cachedDefiners);
+        }
+
+        // filled in interface order, so that the map iterates the same as when it was built from the interfaces directly
+        Map<JavaClass, List<MethodInfo>> definers = new HashMap<>();
+        for (Map.Entry<JavaClass, List<MethodInfo>> entry : cachedDefiners.entrySet()) {
+            definers.put(entry.getKey(), entry.getValue());
         }
         return definers;
     }
@@ -540,10 +571,15 @@ public class OverlyConcreteParameter extends BytecodeScanningDetector {
      *
      * @param cls
      *            the class to look for methods
-     * @return a map of (method name)(method signature)
+     * @return an unmodifiable list of (method name)(method signature)
      */
     private static List<MethodInfo> getPublicMethodInfos(final JavaClass cls) {
-        List<MethodInfo> methodInfos = new ArrayList<>();
+        List<MethodInfo> methodInfos = INTERFACE_METHODS.get(cls.getClassName());
+        if (methodInfos != null) {
+            return methodInfos;
+        }
+
+        methodInfos = new ArrayList<>();
         Method[] methods = cls.getMethods();
         for (Method m : methods) {
             if ((m.getAccessFlags() & (Constants.ACC_PUBLIC | Constants.ACC_PROTECTED)) != 0) {
@@ -551,6 +587,8 @@ public class OverlyConcreteParameter extends BytecodeScanningDetector {
                 methodInfos.add(new MethodInfo(m.getName(), m.getSignature(), et == null ? null : et.getExceptionNames()));
             }
         }
+        methodInfos = Collections.unmodifiableList(methodInfos);
+        INTERFACE_METHODS.put(cls.getClassName(), methodInfos);
         return methodInfos;
     }
 
@@ -617,7 +655,7 @@ public class OverlyConcreteParameter extends BytecodeScanningDetector {
                 String[] throwClauseExNames = et.getExceptionNames();
                 for (String throwClauseExName : throwClauseExNames) {
                     JavaClass throwClauseEx = Repository.lookupClass(throwClauseExName);
-                    if (thrownEx.instanceOf(throwClauseEx)) {
+                    if (ClassHierarchyCache.instanceOf(thrownEx, throwClauseEx)) {
                         return true;
                     }
                 }
@@ -632,7 +670,7 @@ public class OverlyConcreteParameter extends BytecodeScanningDetector {
                         if (type != 0) {
                             String catchExName = getConstantPool().getConstantString(type, Constants.CONSTANT_Class);
                             JavaClass catchException = Repository.lookupClass(catchExName);
-                            if (thrownEx.instanceOf(catchException)) {
+                            if (ClassHierarchyCache.instanceOf(thrownEx, catchException)) {
                                 return true;
                             }
                         }
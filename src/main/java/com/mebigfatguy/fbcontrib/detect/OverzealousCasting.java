@@ -27,6 +27,10 @@ import org.apache.bcel.classfile.LocalVariableTable;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -35,12 +39,16 @@ import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
 import edu.umd.cs.findbugs.BytecodeScanningDetector;
 import edu.umd.cs.findbugs.FieldAnnotation;
+import edu.umd.cs.findbugs.ba.ClassContext;
 
 /**
  * looks for manual casts of objects that are more specific then needed as the
  * value is assigned to a class or interface higher up in the inheritance chain.
  * You only need to cast to that class or interface.
  */
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(opcodes = Constants.CHECKCAST)
 public class OverzealousCasting extends BytecodeScanningDetector {
     enum State {
         SAW_NOTHING, SAW_NEXT, SAW_CHECKCAST
@@ -61,6 +69,19 @@ public class OverzealousCasting extends BytecodeScanningDetector {
         this.bugReporter = bugReporter;
     }
 
+    /**
+     * implements the visitor to skip classes whose methods don't cast
+     *
+     * @param classContext
+     *            the context object of the currently parsed class
+     */
+    @Override
+    public void visitClassContext(ClassContext classContext) {
+        if (PrescreenIndex.shouldVisit(this, classContext)) {
+            super.visitClassContext(classContext);
+        }
+    }
+
     /**
      * implements the visitor to set the state on entry of the code block to
      * SAW_NOTHING, and to see if there is a local variable table
@@ -27,6 +27,8 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.Field;
 import org.apache.bcel.classfile.JavaClass;
 
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -42,6 +44,8 @@ import edu.umd.cs.findbugs.ba.XField;
  * looks for classes that maintain two or more lists or arrays associated one-for-one through the same index to hold two or more pieces of related information.
  * It would be better to create a new class that holds all of these pieces of information, and place instances of this class in one list.
  */
+@ParallelSafe
+@IncrementalSafe
 public class ParallelLists extends BytecodeScanningDetector {
     private BugReporter bugReporter;
     private OpcodeStack stack;
@@ -30,6 +30,8 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.StopOpcodeParsingException;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -45,6 +47,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for constructors of non final classes that make method calls to non final methods. As these methods could be overridden, the overridden method will be
  * accessing an object that is only partially constructed, perhaps causing problems.
  */
+@ParallelSafe
+@IncrementalSafe
 public class PartiallyConstructedObjectAccess extends BytecodeScanningDetector {
     private final BugReporter bugReporter;
     private OpcodeStack stack;
@@ -0,0 +1,177 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.detect;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.bcel.classfile.Code;
+
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
+import com.mebigfatguy.fbcontrib.utils.SharedOpcodeStack;
+
+import edu.umd.cs.findbugs.BugReporter;
+import edu.umd.cs.findbugs.BytecodeScanningDetector;
+import edu.umd.cs.findbugs.ba.ClassContext;
+
+/**
+ * runs the rules of the performance detectors that keep no state in OpcodeStack user values, in one walk over the bytecode of each method, rather than one
+ * walk per detector. These are DubiousListCollection, DubiousSetOfCollections, DateComparison, ManualArrayCopy, MegamorphicCallSite,
+ * NeedlessInstanceRetrieval, SQLInLoop, StaticArrayCreatedInMethod, TailRecursion and Unjitable, whose logic is held in an {@link OpcodeRule}, so that each
+ * is run the same way by its own detector and by this one. Each rule still only sees the classes matching its detector's prescreen triggers, and the methods
+ * it asks for. The rules that look at the stack share one stack, read from the stack snapshots of the method.
+ * <p>
+ * The other performance detectors stay separate. Most of them track values through the method in OpcodeStack user values, so each needs a stack of its own.
+ * NeedlessAutoboxing reads only the stack depth, but relies on OpcodeStackDetector skipping unreachable code, which the snapshots don't record. SluggishGui
+ * walks the methods of listeners a second time, and BloatedSynchronizedBlock never starts the walk of its methods.
+ * <p>
+ * Rules are switched off by listing the simple names of their detectors in the fb-contrib.performance.disabled system property. The suite is disabled by
+ * default, and is meant to be run in place of the fused detectors, as otherwise their bugs are reported twice.
+ */
+@ParallelSafe
+public class PerformanceSuite extends BytecodeScanningDetector {
+
+    private static final String DISABLED_RULES = "fb-contrib.performance.disabled";
+
+    private final List<AbstractRuleDetector> detectors = new ArrayList<>();
+    private final SharedOpcodeStack stack;
+    private final List<OpcodeRule> classRules = new ArrayList<>();
+    private final List<OpcodeRule> codeRules = new ArrayList<>();
+    private boolean codeUsesStack;
+
+    /**
+     * constructs a suite of the rules of the performance detectors, given the reporter to report bugs on
+     *
+     * @param bugReporter
+     *            the sync of bug reports
+     */
+    public PerformanceSuite(BugReporter bugReporter) {
+        Set<String> disabled = new HashSet<>();
+        for (String name : System.getProperty(DISABLED_RULES, "").split(",")) {
+            disabled.add(name.trim());
+        }
+
+        AbstractRuleDetector[] suite = { new DubiousListCollection(bugReporter), new DubiousSetOfCollections(bugReporter), new DateComparison(bugReporter),
+                new ManualArrayCopy(bugReporter), new MegamorphicCallSite(bugReporter), new NeedlessInstanceRetrieval(bugReporter), new SQLInLoop(bugReporter),
+                new StaticArrayCreatedInMethod(bugReporter), new TailRecursion(bugReporter), new Unjitable(bugReporter) };
+        BitSet itemOpcodes = new BitSet();
+        for (AbstractRuleDetector detector : suite) {
+            if (!disabled.contains(detector.getClass().getSimpleName())) {
+                detectors.add(detector);
+                BitSet ruleOpcodes = detector.getRule().getStackItemOpcodes();
+                if (ruleOpcodes != null) {
+                    itemOpcodes.or(ruleOpcodes);
+                }
+            }
+        }
+
+        stack = itemOpcodes.isEmpty() ? null : new SharedOpcodeStack(itemOpcodes);
+        for (AbstractRuleDetector detector : detectors) {
+            OpcodeRule rule = detector.getRule();
+            rule.bind(this, (rule.getStackItemOpcodes() == null) ? null : stack);
+        }
+    }
+
+    /**
+     * implements the visitor to collect the rules that look at the class, and parse it if there are any, letting them end the class after
+     *
+     * @param classContext
+     *            the context object of the currently parsed class
+     */
+    @Override
+    public void visitClassContext(ClassContext classContext) {
+        try {
+            for (AbstractRuleDetector detector : detectors) {
+                OpcodeRule rule = detector.getRule();
+                if (PrescreenIndex.shouldVisit(detector, classContext) && rule.startClass(classContext)) {
+                    classRules.add(rule);
+                }
+            }
+
+            if (!classRules.isEmpty()) {
+                super.visitClassContext(classContext);
+                for (OpcodeRule rule : classRules) {
+                    rule.endClass(classContext);
+                }
+            }
+        } finally {
+            classRules.clear();
+        }
+    }
+
+    /**
+     * implements the visitor to collect the rules that look at the method, and walk it once for all of them, letting them end the method after
+     *
+     * @param obj
+     *            the context object of the currently parsed code block
+     */
+    @Override
+    public void visitCode(Code obj) {
+        try {
+            codeUsesStack = false;
+            for (OpcodeRule rule : classRules) {
+                if (rule.startCode(obj)) {
+                    codeRules.add(rule);
+                    codeUsesStack |= rule.getStackItemOpcodes() != null;
+                }
+            }
+
+            if (!codeRules.isEmpty()) {
+                if (codeUsesStack) {
+                    stack.resetForMethodEntry(this);
+                }
+                super.visitCode(obj);
+                for (OpcodeRule rule : codeRules) {
+                    rule.endCode(obj);
+                }
+            }
+        } finally {
+            codeRules.clear();
+        }
+    }
+
+    /**
+     * implements the visitor to show the instruction to the rules looking at the method
+     *
+     * @param seen
+     *            the opcode of the currently parsed instruction
+     */
+    @Override
+    public void sawOpcode(int seen) {
+        if (!codeUsesStack) {
+            for (OpcodeRule rule : codeRules) {
+                rule.sawOpcode(seen);
+            }
+            return;
+        }
+
+        try {
+            stack.precomputation(this);
+            for (OpcodeRule rule : codeRules) {
+                rule.sawOpcode(seen);
+            }
+        } finally {
+            stack.sawOpcode(this, seen);
+        }
+    }
+}
@@ -29,6 +29,8 @@ import org.apache.bcel.classfile.Field;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.StopOpcodeParsingException;
 
 import edu.umd.cs.findbugs.BugInstance;
@@ -42,6 +44,8 @@ import edu.umd.cs.findbugs.ba.XFactory;
 /**
  * looks for simple fields that only store one of several constant values. This usually is an indication that this field should really be an enum type.
  */
+@ParallelSafe
+@IncrementalSafe
 public class PoorMansEnum extends BytecodeScanningDetector {
 
     private BugReporter bugReporter;
@@ -29,7 +29,11 @@ import org.apache.bcel.classfile.LocalVariableTable;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -37,11 +41,15 @@ import com.mebigfatguy.fbcontrib.utils.Values;
 import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
 import edu.umd.cs.findbugs.BytecodeScanningDetector;
+import edu.umd.cs.findbugs.ba.ClassContext;
 
 /**
  * looks for non derivable method that declare parameters and then cast those parameters to more specific types in the method. This is misleading and dangerous
  * as you are not documenting through parameter types what is necessary for these parameters to function correctly.
  */
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(opcodes = Constants.CHECKCAST)
 public class PoorlyDefinedParameter extends BytecodeScanningDetector {
     enum State {
         SAW_NOTHING, SAW_LOAD, SAW_CHECKCAST
@@ -66,6 +74,19 @@ public class PoorlyDefinedParameter extends BytecodeScanningDetector {
         this.bugReporter = bugReporter;
     }
 
+    /**
+     * implements the visitor to skip classes whose methods don't cast
+     *
+     * @param classContext
+     *            the context object of the currently parsed class
+     */
+    @Override
+    public void visitClassContext(ClassContext classContext) {
+        if (PrescreenIndex.shouldVisit(this, classContext)) {
+            super.visitClassContext(classContext);
+        }
+    }
+
     /**
      * implements the visitor to see if the method has parameters
      *
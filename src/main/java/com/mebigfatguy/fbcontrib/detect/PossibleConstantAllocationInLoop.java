@@ -29,6 +29,8 @@ import org.apache.bcel.classfile.LocalVariable;
 import org.apache.bcel.classfile.LocalVariableTable;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
@@ -49,6 +51,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * loop. It is possible that this allocation can be done outside the loop to avoid excessive garbage.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class PossibleConstantAllocationInLoop extends BytecodeScanningDetector {
 
     private static final Set<String> SYNTHETIC_ALLOCATION_CLASSES = UnmodifiableSet.create(Values.SLASHED_JAVA_LANG_STRINGBUFFER,
@@ -56,6 +60,7 @@ public class PossibleConstantAllocationInLoop extends BytecodeScanningDetector {
 
     private final BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     /** allocation number, info where allocated */
     private Map<Integer, AllocationInfo> allocations;
     /** reg, allocation number */
@@ -270,9 +275,9 @@ public class PossibleConstantAllocationInLoop extends BytecodeScanningDetector {
                 break;
             }
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if (sawAllocation) {
                 if (stack.getStackDepth() > 0) {
                     OpcodeStack.Item item = stack.getStackItem(0);
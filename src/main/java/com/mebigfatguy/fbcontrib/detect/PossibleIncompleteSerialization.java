@@ -23,6 +23,8 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 
@@ -35,6 +37,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for classes that don't handle serialization of parent class member fields when the class in question is serializable but is derived from non
  * serializable classes.
  */
+@ParallelSafe
+@IncrementalSafe
 public class PossibleIncompleteSerialization implements Detector {
 
     public static final String SIG_OBJECT_OUTPUT_STREAM_TO_VOID = new SignatureBuilder().withParamTypes("java/io/ObjectOutputStream").toString();
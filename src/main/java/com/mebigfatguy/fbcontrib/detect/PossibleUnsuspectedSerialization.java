@@ -23,6 +23,8 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -37,6 +39,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * enclosing class, it may unintentially bring in more to the serialization than
  * is wanted
  */
+@ParallelSafe
+@IncrementalSafe
 public class PossibleUnsuspectedSerialization extends BytecodeScanningDetector {
 
     private final BugReporter bugReporter;
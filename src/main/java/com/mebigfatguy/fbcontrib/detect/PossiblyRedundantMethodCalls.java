@@ -20,6 +20,7 @@ package com.mebigfatguy.fbcontrib.detect;
 
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -35,6 +36,8 @@ import com.mebigfatguy.fbcontrib.collect.MethodInfo;
 import com.mebigfatguy.fbcontrib.collect.Statistics;
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.ToString;
@@ -56,6 +59,8 @@ import edu.umd.cs.findbugs.ba.XMethod;
  * combined.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class PossiblyRedundantMethodCalls extends BytecodeScanningDetector {
     public static final String PRMC_RISKY_FIELD_USER_KEY = "fbcontrib.PRMC.riskynames";
     public static final String PRMC_RISKY_CLASS_USER_KEY = "fbcontrib.PRMC.riskyclasses";
@@ -72,45 +77,46 @@ public class PossiblyRedundantMethodCalls extends BytecodeScanningDetector {
      * <li>a fully qualified method name that exactly matches a method, like "java/lang/String.valueOf"</li>
      * </ul>
      */
-    private static Set<String> riskyMethodNameContents = new HashSet<>();
+    private static final Set<String> riskyMethodNameContents;
     private static int highByteCountLimit = 200;
     private static int highMethodCallLimit = 10;
     private static int normalByteCountLimit = 50;
     private static int normalMethodCallLimit = 4;
 
     static {
-        riskyMethodNameContents.add("next");
-        riskyMethodNameContents.add("add");
-        riskyMethodNameContents.add("create");
-        riskyMethodNameContents.add("append");
-        riskyMethodNameContents.add("find");
-        riskyMethodNameContents.add("put");
-        riskyMethodNameContents.add("remove");
-        riskyMethodNameContents.add("read");
-        riskyMethodNameContents.add("write");
-        riskyMethodNameContents.add("push");
-        riskyMethodNameContents.add("pop");
-        riskyMethodNameContents.add("scan");
-        riskyMethodNameContents.add("skip");
-        riskyMethodNameContents.add("clone");
-        riskyMethodNameContents.add("close");
-        riskyMethodNameContents.add("copy");
-        riskyMethodNameContents.add("currentTimeMillis");
-        riskyMethodNameContents.add("nanoTime");
-        riskyMethodNameContents.add("newInstance");
-        riskyMethodNameContents.add("noneOf");
-        riskyMethodNameContents.add("allOf");
-        riskyMethodNameContents.add("random");
-        riskyMethodNameContents.add("beep");
-        riskyMethodNameContents.add("emptyList");
-        riskyMethodNameContents.add("emptySet");
-        riskyMethodNameContents.add("emptyMap");
+        Set<String> rmnc = new HashSet<>();
+        rmnc.add("next");
+        rmnc.add("add");
+        rmnc.add("create");
+        rmnc.add("append");
+        rmnc.add("find");
+        rmnc.add("put");
+        rmnc.add("remove");
+        rmnc.add("read");
+        rmnc.add("write");
+        rmnc.add("push");
+        rmnc.add("pop");
+        rmnc.add("scan");
+        rmnc.add("skip");
+        rmnc.add("clone");
+        rmnc.add("close");
+        rmnc.add("copy");
+        rmnc.add("currentTimeMillis");
+        rmnc.add("nanoTime");
+        rmnc.add("newInstance");
+        rmnc.add("noneOf");
+        rmnc.add("allOf");
+        rmnc.add("random");
+        rmnc.add("beep");
+        rmnc.add("emptyList");
+        rmnc.add("emptySet");
+        rmnc.add("emptyMap");
 
         String userNameProp = System.getProperty(PRMC_RISKY_FIELD_USER_KEY);
         if (userNameProp != null) {
             String[] userNames = userNameProp.split("\\s*,\\s*");
             for (String name : userNames) {
-                riskyMethodNameContents.add(name);
+                rmnc.add(name);
             }
         }
         Integer prop = Integer.getInteger(PRMC_HIGH_BYTECOUNT);
@@ -129,28 +135,31 @@ public class PossiblyRedundantMethodCalls extends BytecodeScanningDetector {
         if (prop != null) {
             normalMethodCallLimit = prop.intValue();
         }
+        riskyMethodNameContents = Collections.<String> unmodifiableSet(rmnc);
     }
 
-    private static Set<String> riskyClassNames = new HashSet<>();
+    private static final Set<String> riskyClassNames;
 
     static {
-        riskyClassNames.add("java/nio/ByteBuffer");
-        riskyClassNames.add("java/io/DataInputStream");
-        riskyClassNames.add("java/io/ObjectInputStream");
-        riskyClassNames.add("java/util/Calendar");
-        riskyClassNames.add("java/util/stream/Collectors");
-        riskyClassNames.add("com/google/common/collect/Lists");
-        riskyClassNames.add("com/google/common/collect/Sets");
-        riskyClassNames.add("com/google/common/collect/Maps");
-        riskyClassNames.add("com/google/common/collect/Queues");
+        Set<String> rcn = new HashSet<>();
+        rcn.add("java/nio/ByteBuffer");
+        rcn.add("java/io/DataInputStream");
+        rcn.add("java/io/ObjectInputStream");
+        rcn.add("java/util/Calendar");
+        rcn.add("java/util/stream/Collectors");
+        rcn.add("com/google/common/collect/Lists");
+        rcn.add("com/google/common/collect/Sets");
+        rcn.add("com/google/common/collect/Maps");
+        rcn.add("com/google/common/collect/Queues");
 
         String userNameProp = System.getProperty(PRMC_RISKY_CLASS_USER_KEY);
         if (userNameProp != null) {
             String[] userNames = userNameProp.split("\\s*,\\s*");
             for (String name : userNames) {
-                riskyClassNames.add(name);
+                rcn.add(name);
             }
         }
+        riskyClassNames = Collections.<String> unmodifiableSet(rcn);
     }
 
     private static final Set<FQMethod> commonMethods = UnmodifiableSet.create(
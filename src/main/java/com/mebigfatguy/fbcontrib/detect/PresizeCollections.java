@@ -28,6 +28,8 @@ import java.util.Set;
 import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.ToString;
@@ -46,6 +48,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * enough. This just causes unneeded reallocations putting strain on the garbage collector.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class PresizeCollections extends BytecodeScanningDetector {
 
     private static final Set<String> PRESIZEABLE_COLLECTIONS = UnmodifiableSet.create("java/util/ArrayBlockingQueue", "java/util/ArrayDeque",
@@ -22,7 +22,10 @@ import org.apache.bcel.Repository;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.QMethod;
 
 import edu.umd.cs.findbugs.BugInstance;
@@ -30,6 +33,8 @@ import edu.umd.cs.findbugs.BugReporter;
 import edu.umd.cs.findbugs.BytecodeScanningDetector;
 import edu.umd.cs.findbugs.ba.ClassContext;
 
+@ParallelSafe
+@IncrementalSafe
 public class ReflectionIssues extends BytecodeScanningDetector {
 
     private static final QMethod SETACCESSIBLE = new QMethod("setAccessible", "(Z)V");
@@ -69,7 +74,7 @@ public class ReflectionIssues extends BytecodeScanningDetector {
                 if (SETACCESSIBLE.equals(m)) {
 
                     JavaClass clz = Repository.lookupClass(getClassConstantOperand());
-                    if (clz.instanceOf(ACCESSIBLE_OBJECT_CLASS)) {
+                    if (ClassHierarchyCache.instanceOf(clz, ACCESSIBLE_OBJECT_CLASS)) {
                         bugReporter.reportBug(
                                 new BugInstance(this, BugType.RFI_SET_ACCESSIBLE.name(), NORMAL_PRIORITY).addClass(this).addMethod(this).addSourceLine(this));
                     }
@@ -27,6 +27,8 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
@@ -45,6 +47,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for method calls through reflection on methods found in java.lang.Object. As these methods are always available, there's no reason to do this.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class ReflectionOnObjectMethods extends BytecodeScanningDetector {
 
     public static final String SIG_STRING_AND_CLASS_ARRAY_TO_METHOD = new SignatureBuilder().withParamTypes(Values.SLASHED_JAVA_LANG_STRING, SignatureUtils.toArraySignature(Values.SLASHED_JAVA_LANG_CLASS))
@@ -56,6 +60,7 @@ public class ReflectionOnObjectMethods extends BytecodeScanningDetector {
 
     private final BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private Map<Integer, String[]> localClassTypes;
     private Map<String, String[]> fieldClassTypes;
     /** This object is not thread-safe, but can be reused, provided that all necessary fields are overwritten. */
@@ -242,9 +247,9 @@ public class ReflectionOnObjectMethods extends BytecodeScanningDetector {
                 break;
             }
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
 
             if (stack.getStackDepth() >= 1) {
                 if (arraySize != null) {
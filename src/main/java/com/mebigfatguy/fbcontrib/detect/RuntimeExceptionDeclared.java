@@ -27,6 +27,9 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
 import edu.umd.cs.findbugs.BugInstance;
@@ -41,6 +44,8 @@ import edu.umd.cs.findbugs.visitclass.PreorderVisitor;
  * exception in question. If a RuntimeException is declared, it implies that this exception type is expected to happen, which if true, should be handled in
  * code, and not propagated.
  */
+@ParallelSafe
+@IncrementalSafe
 public class RuntimeExceptionDeclared extends PreorderVisitor implements Detector {
     private static JavaClass runtimeExceptionClass;
 
@@ -103,7 +108,7 @@ public class RuntimeExceptionDeclared extends PreorderVisitor implements Detecto
                 } else {
                     try {
                         JavaClass exClass = Repository.lookupClass(ex);
-                        if (exClass.instanceOf(runtimeExceptionClass)) {
+                        if (ClassHierarchyCache.instanceOf(exClass, runtimeExceptionClass)) {
                             runtimeExceptions.add(ex);
                             if (ex.startsWith("java.lang.")) {
                                 priority = NORMAL_PRIORITY;
@@ -25,13 +25,14 @@ import java.util.Set;
 import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 
 import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
-import edu.umd.cs.findbugs.BytecodeScanningDetector;
-import edu.umd.cs.findbugs.ba.ClassContext;
 
 /**
  * looks for the execution of sql queries inside a loop. This pattern tends to
@@ -39,19 +40,10 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * needed for the query and issuing just one query using an in clause with all
  * the keys for all the queries previously needed in the loop.
  */
-public class SQLInLoop extends BytecodeScanningDetector {
-    private static final Set<String> queryClasses = UnmodifiableSet.create(
-        "java/sql/Statement",
-        "java/sql/PreparedStatement",
-        "java/sql/CallableStatement"
-    );
-    
-
-    private static final Set<String> queryMethods = UnmodifiableSet.create("execute", "executeQuery");
-
-    private final BugReporter bugReporter;
-    List<Integer> queryLocations;
-    List<LoopLocation> loops;
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(classes = { "java/sql/Statement", "java/sql/PreparedStatement", "java/sql/CallableStatement" }, methods = { "execute", "executeQuery" })
+public class SQLInLoop extends AbstractRuleDetector {
 
     /**
      * constructs a SIL detector given the reporter to report bugs on
@@ -60,70 +52,84 @@ public class SQLInLoop extends BytecodeScanningDetector {
      *            the sync of bug reports
      */
     public SQLInLoop(BugReporter bugReporter) {
-        this.bugReporter = bugReporter;
+        super(new Rule(bugReporter));
     }
 
     /**
-     * implements the visitor to create and clear the query locations and loops
-     * collections
-     * 
-     * @param classContext
-     *            the context object for the currently parsed java class
+     * collects the queries and the loops of a method, and reports the queries that are inside a loop
      */
-    @Override
-    public void visitClassContext(ClassContext classContext) {
-        try {
-            queryLocations = new ArrayList<Integer>();
-            loops = new ArrayList<LoopLocation>();
-            super.visitClassContext(classContext);
-        } finally {
-            queryLocations = null;
-            loops = null;
+    static class Rule extends OpcodeRule {
+        private static final Set<String> queryClasses = UnmodifiableSet.create(
+            "java/sql/Statement",
+            "java/sql/PreparedStatement",
+            "java/sql/CallableStatement"
+        );
+        
+
+        private static final Set<String> queryMethods = UnmodifiableSet.create("execute", "executeQuery");
+
+        private final List<Integer> queryLocations = new ArrayList<Integer>();
+        private final List<LoopLocation> loops = new ArrayList<LoopLocation>();
+
+        Rule(BugReporter bugReporter) {
+            super(bugReporter);
         }
-    }
 
-    /**
-     * implements the visitor to clear the collections, and report the query
-     * locations that are in loops
-     * 
-     * @param obj
-     *            the context object for the currently parsed code block
-     */
-    @Override
-    public void visitCode(Code obj) {
-        queryLocations.clear();
-        loops.clear();
-        super.visitCode(obj);
-        for (Integer qLoc : queryLocations) {
-            for (LoopLocation lLoc : loops) {
-                if (lLoc.isInLoop(qLoc.intValue())) {
-                    bugReporter.reportBug(new BugInstance(this, BugType.SIL_SQL_IN_LOOP.name(), NORMAL_PRIORITY).addClass(this).addMethod(this)
-                            .addSourceLine(this, qLoc.intValue()));
-                    break;
+        /**
+         * implements the rule to clear the query locations and loops
+         * collections
+         * 
+         * @param obj
+         *            the context object for the currently parsed code block
+         * @return true, as all methods are looked at
+         */
+        @Override
+        protected boolean startCode(Code obj) {
+            queryLocations.clear();
+            loops.clear();
+            return true;
+        }
+
+        /**
+         * implements the rule to report the query locations that are in
+         * loops
+         * 
+         * @param obj
+         *            the context object for the parsed code block
+         */
+        @Override
+        protected void endCode(Code obj) {
+            for (Integer qLoc : queryLocations) {
+                for (LoopLocation lLoc : loops) {
+                    if (lLoc.isInLoop(qLoc.intValue())) {
+                        bugReporter.reportBug(new BugInstance(scanner, BugType.SIL_SQL_IN_LOOP.name(), NORMAL_PRIORITY).addClass(scanner).addMethod(scanner)
+                                .addSourceLine(scanner, qLoc.intValue()));
+                        break;
+                    }
                 }
             }
         }
-    }
 
-    /**
-     * implements the visitor to collect positions of queries and loops
-     * 
-     * @param seen
-     *            the opcode of the currently parsed instruction
-     */
-    @Override
-    public void sawOpcode(int seen) {
-        if (seen == INVOKEINTERFACE) {
-            String clsName = getClassConstantOperand();
-            String methodName = getNameConstantOperand();
-
-            if (queryClasses.contains(clsName) && queryMethods.contains(methodName))
-                queryLocations.add(Integer.valueOf(getPC()));
-        } else if ((seen == GOTO) || (seen == GOTO_W)) {
-            int branchTarget = getBranchTarget();
-            int pc = getPC();
-            if (branchTarget < pc) {
-                loops.add(new LoopLocation(branchTarget, pc));
+        /**
+         * implements the rule to collect positions of queries and loops
+         * 
+         * @param seen
+         *            the opcode of the currently parsed instruction
+         */
+        @Override
+        protected void sawOpcode(int seen) {
+            if (seen == INVOKEINTERFACE) {
+                String clsName = scanner.getClassConstantOperand();
+                String methodName = scanner.getNameConstantOperand();
+
+                if (queryClasses.contains(clsName) && queryMethods.contains(methodName))
+                    queryLocations.add(Integer.valueOf(scanner.getPC()));
+            } else if ((seen == GOTO) || (seen == GOTO_W)) {
+                int branchTarget = scanner.getBranchTarget();
+                int pc = scanner.getPC();
+                if (branchTarget < pc) {
+                    loops.add(new LoopLocation(branchTarget, pc));
+                }
             }
         }
     }
@@ -18,6 +18,7 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -29,7 +30,10 @@ import org.apache.bcel.classfile.Field;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
@@ -51,6 +55,8 @@ import edu.umd.cs.findbugs.ba.XField;
  * looks for interfaces that ignore 508 compliance, including not using JLabel.setLabelFor, Using null layouts,
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class Section508Compliance extends BytecodeScanningDetector {
 
     private enum S508UserValue {
@@ -90,55 +96,58 @@ public class Section508Compliance extends BytecodeScanningDetector {
         }
     }
 
-    private static final Map<FQMethod, Integer> displayTextMethods = new HashMap<>();
+    private static final Map<FQMethod, Integer> displayTextMethods;
 
     static {
+        Map<FQMethod, Integer> dtm = new HashMap<>();
         String awtDialog = "java/awt/Dialog";
         String awtFrame = "java/awt/Frame";
         String awtGraphics = "java/awt/GraphicsConfiguration";
         String swingIcon = "javax/swing/Icon";
-        displayTextMethods.put(new FQMethod("javax/swing/JLabel", Values.CONSTRUCTOR, SignatureBuilder.SIG_STRING_TO_VOID), Values.ZERO);
-        displayTextMethods.put(new FQMethod("javax/swing/JLabel", Values.CONSTRUCTOR,
+        dtm.put(new FQMethod("javax/swing/JLabel", Values.CONSTRUCTOR, SignatureBuilder.SIG_STRING_TO_VOID), Values.ZERO);
+        dtm.put(new FQMethod("javax/swing/JLabel", Values.CONSTRUCTOR,
                 new SignatureBuilder().withParamTypes(Values.SLASHED_JAVA_LANG_STRING, swingIcon, Values.SIG_PRIMITIVE_INT).toString()), Values.ONE);
-        displayTextMethods.put(new FQMethod("javax/swing/JLabel", Values.CONSTRUCTOR,
+        dtm.put(new FQMethod("javax/swing/JLabel", Values.CONSTRUCTOR,
                 new SignatureBuilder().withParamTypes(Values.SLASHED_JAVA_LANG_STRING, Values.SIG_PRIMITIVE_INT).toString()), Values.TWO);
-        displayTextMethods.put(new FQMethod("javax/swing/JButton", Values.CONSTRUCTOR, SignatureBuilder.SIG_STRING_TO_VOID), Values.ZERO);
-        displayTextMethods.put(new FQMethod("javax/swing/JButton", Values.CONSTRUCTOR,
+        dtm.put(new FQMethod("javax/swing/JButton", Values.CONSTRUCTOR, SignatureBuilder.SIG_STRING_TO_VOID), Values.ZERO);
+        dtm.put(new FQMethod("javax/swing/JButton", Values.CONSTRUCTOR,
                 new SignatureBuilder().withParamTypes(Values.SLASHED_JAVA_LANG_STRING, swingIcon).toString()), Values.ONE);
-        displayTextMethods.put(new FQMethod("javax/swing/JFrame", Values.CONSTRUCTOR, SignatureBuilder.SIG_STRING_TO_VOID), Values.ZERO);
-        displayTextMethods.put(new FQMethod("javax/swing/JFrame", Values.CONSTRUCTOR,
+        dtm.put(new FQMethod("javax/swing/JFrame", Values.CONSTRUCTOR, SignatureBuilder.SIG_STRING_TO_VOID), Values.ZERO);
+        dtm.put(new FQMethod("javax/swing/JFrame", Values.CONSTRUCTOR,
                 new SignatureBuilder().withParamTypes(Values.SLASHED_JAVA_LANG_STRING, awtGraphics).toString()), Values.ONE);
-        displayTextMethods.put(new FQMethod("javax/swing/JDialog", Values.CONSTRUCTOR,
+        dtm.put(new FQMethod("javax/swing/JDialog", Values.CONSTRUCTOR,
                 new SignatureBuilder().withParamTypes(awtDialog, Values.SLASHED_JAVA_LANG_STRING).toString()), Values.ZERO);
-        displayTextMethods.put(
+        dtm.put(
                 new FQMethod("javax/swing/JDialog", Values.CONSTRUCTOR,
                         new SignatureBuilder().withParamTypes(awtDialog, Values.SLASHED_JAVA_LANG_STRING, Values.SIG_PRIMITIVE_BOOLEAN).toString()),
                 Values.ONE);
-        displayTextMethods.put(new FQMethod("javax/swing/JDialog", Values.CONSTRUCTOR,
+        dtm.put(new FQMethod("javax/swing/JDialog", Values.CONSTRUCTOR,
                 new SignatureBuilder().withParamTypes(awtDialog, Values.SLASHED_JAVA_LANG_STRING, Values.SIG_PRIMITIVE_BOOLEAN, awtGraphics).toString()),
                 Values.TWO);
-        displayTextMethods.put(new FQMethod("javax/swing/JDialog", Values.CONSTRUCTOR,
+        dtm.put(new FQMethod("javax/swing/JDialog", Values.CONSTRUCTOR,
                 new SignatureBuilder().withParamTypes(awtFrame, Values.SLASHED_JAVA_LANG_STRING).toString()), Values.ZERO);
-        displayTextMethods.put(new FQMethod("javax/swing/JDialog", Values.CONSTRUCTOR,
+        dtm.put(new FQMethod("javax/swing/JDialog", Values.CONSTRUCTOR,
                 new SignatureBuilder().withParamTypes(awtFrame, Values.SLASHED_JAVA_LANG_STRING, Values.SIG_PRIMITIVE_BOOLEAN).toString()), Values.ONE);
-        displayTextMethods.put(
+        dtm.put(
                 new FQMethod("javax/swing/JDialog", Values.CONSTRUCTOR,
                         new SignatureBuilder().withParamTypes(awtFrame, Values.SLASHED_JAVA_LANG_STRING, Values.SIG_PRIMITIVE_BOOLEAN, awtGraphics).toString()),
                 Values.TWO);
-        displayTextMethods.put(new FQMethod(awtDialog, "setTitle", SignatureBuilder.SIG_STRING_TO_VOID), Values.ZERO);
-        displayTextMethods.put(new FQMethod(awtFrame, "setTitle", SignatureBuilder.SIG_STRING_TO_VOID), Values.ZERO);
-        displayTextMethods.put(new FQMethod("javax/swing/JMenu", Values.CONSTRUCTOR, SignatureBuilder.SIG_STRING_TO_VOID), Values.ZERO);
-        displayTextMethods.put(new FQMethod("javax/swing/JMenu", Values.CONSTRUCTOR,
+        dtm.put(new FQMethod(awtDialog, "setTitle", SignatureBuilder.SIG_STRING_TO_VOID), Values.ZERO);
+        dtm.put(new FQMethod(awtFrame, "setTitle", SignatureBuilder.SIG_STRING_TO_VOID), Values.ZERO);
+        dtm.put(new FQMethod("javax/swing/JMenu", Values.CONSTRUCTOR, SignatureBuilder.SIG_STRING_TO_VOID), Values.ZERO);
+        dtm.put(new FQMethod("javax/swing/JMenu", Values.CONSTRUCTOR,
                 new SignatureBuilder().withParamTypes(Values.SLASHED_JAVA_LANG_STRING, Values.SIG_PRIMITIVE_BOOLEAN).toString()), Values.ONE);
-        displayTextMethods.put(new FQMethod("javax/swing/JMenuItem", Values.CONSTRUCTOR, SignatureBuilder.SIG_STRING_TO_VOID), Values.ZERO);
-        displayTextMethods.put(new FQMethod("javax/swing/JMenuItem", Values.CONSTRUCTOR,
+        dtm.put(new FQMethod("javax/swing/JMenuItem", Values.CONSTRUCTOR, SignatureBuilder.SIG_STRING_TO_VOID), Values.ZERO);
+        dtm.put(new FQMethod("javax/swing/JMenuItem", Values.CONSTRUCTOR,
                 new SignatureBuilder().withParamTypes(Values.SLASHED_JAVA_LANG_STRING, swingIcon).toString()), Values.ONE);
-        displayTextMethods.put(new FQMethod("javax/swing/JMenuItem", Values.CONSTRUCTOR,
+        dtm.put(new FQMethod("javax/swing/JMenuItem", Values.CONSTRUCTOR,
                 new SignatureBuilder().withParamTypes(Values.SLASHED_JAVA_LANG_STRING, Values.SIG_PRIMITIVE_INT).toString()), Values.ONE);
+        displayTextMethods = Collections.<FQMethod, Integer> unmodifiableMap(dtm);
     }
 
     private final BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private Set<XField> fieldLabels;
     private Map<Integer, SourceLineAnnotation> localLabels;
 
@@ -166,7 +175,7 @@ public class Section508Compliance extends BytecodeScanningDetector {
         try {
             if ((jcomponentClass != null) && (accessibleClass != null)) {
                 JavaClass cls = classContext.getJavaClass();
-                if (cls.instanceOf(jcomponentClass) && !cls.implementationOf(accessibleClass)) {
+                if (ClassHierarchyCache.instanceOf(cls, jcomponentClass) && !ClassHierarchyCache.implementationOf(cls, accessibleClass)) {
                     bugReporter.reportBug(new BugInstance(this, BugType.S508C_NON_ACCESSIBLE_JCOMPONENT.name(), NORMAL_PRIORITY).addClass(cls));
                 }
             }
@@ -314,9 +323,9 @@ public class Section508Compliance extends BytecodeScanningDetector {
         } catch (ClassNotFoundException cnfe) {
             bugReporter.reportMissingClass(cnfe);
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if (sawTextLabel) {
                 if (stack.getStackDepth() > 0) {
                     OpcodeStack.Item item = stack.getStackItem(0);
@@ -385,7 +394,8 @@ public class Section508Compliance extends BytecodeScanningDetector {
                 if (S508UserValue.FROM_UIMANAGER != item.getUserValue()) {
                     item = stack.getStackItem(argCount);
                     JavaClass cls = item.getJavaClass();
-                    if (((jcomponentClass != null) && cls.instanceOf(jcomponentClass)) || ((componentClass != null) && cls.instanceOf(componentClass))) {
+                    if (((jcomponentClass != null) && ClassHierarchyCache.instanceOf(cls, jcomponentClass))
+                            || ((componentClass != null) && ClassHierarchyCache.instanceOf(cls, componentClass))) {
                         bugReporter.reportBug(
                                 new BugInstance(this, BugType.S508C_SET_COMP_COLOR.name(), NORMAL_PRIORITY).addClass(this).addMethod(this).addSourceLine(this));
                     }
@@ -409,7 +419,7 @@ public class Section508Compliance extends BytecodeScanningDetector {
             if ((windowClass != null) && (stack.getStackDepth() > argCount)) {
                 OpcodeStack.Item item = stack.getStackItem(argCount);
                 JavaClass cls = item.getJavaClass();
-                if ((cls != null) && cls.instanceOf(windowClass)) {
+                if ((cls != null) && ClassHierarchyCache.instanceOf(cls, windowClass)) {
                     bugReporter.reportBug(
                             new BugInstance(this, BugType.S508C_NO_SETSIZE.name(), NORMAL_PRIORITY).addClass(this).addMethod(this).addSourceLine(this));
                 }
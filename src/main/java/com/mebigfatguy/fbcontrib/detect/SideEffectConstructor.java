@@ -21,6 +21,8 @@ package com.mebigfatguy.fbcontrib.detect;
 import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -36,6 +38,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for constructors that operate through side effects, specifically constructors that aren't assigned to any variable or field.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class SideEffectConstructor extends BytecodeScanningDetector {
 
     private enum State {
@@ -44,6 +48,7 @@ public class SideEffectConstructor extends BytecodeScanningDetector {
 
     private final BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private State state;
 
     /**
@@ -112,9 +117,9 @@ public class SideEffectConstructor extends BytecodeScanningDetector {
                 break;
             }
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if ((pc != 0) && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item item = stack.getStackItem(0);
                 item.setUserValue(Integer.valueOf(pc));
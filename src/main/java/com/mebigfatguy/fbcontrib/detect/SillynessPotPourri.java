@@ -20,6 +20,7 @@ package com.mebigfatguy.fbcontrib.detect;
 
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -44,6 +45,7 @@ import org.apache.bcel.classfile.LocalVariableTable;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
 import com.mebigfatguy.fbcontrib.utils.CodeByteUtils;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
 import com.mebigfatguy.fbcontrib.utils.QMethod;
@@ -100,21 +102,24 @@ public class SillynessPotPourri extends BytecodeScanningDetector {
         }
     }
 
-    private static Map<QMethod, Integer> methodsThatAreSillyOnStringLiterals = new HashMap<>();
+    private static final Map<QMethod, Integer> methodsThatAreSillyOnStringLiterals;
 
     static {
+        Map<QMethod, Integer> sm = new HashMap<>();
         String localeToString = new SignatureBuilder().withParamTypes("java/util/Locale").withReturnType(Values.SLASHED_JAVA_LANG_STRING).toString();
-        methodsThatAreSillyOnStringLiterals.put(new QMethod("toLowerCase", SignatureBuilder.SIG_VOID_TO_STRING), Values.ZERO);
-        methodsThatAreSillyOnStringLiterals.put(new QMethod("toUpperCase", SignatureBuilder.SIG_VOID_TO_STRING), Values.ZERO);
-        methodsThatAreSillyOnStringLiterals.put(new QMethod("toLowerCase", localeToString), Values.ONE);
-        methodsThatAreSillyOnStringLiterals.put(new QMethod("toUpperCase", localeToString), Values.ONE);
-        methodsThatAreSillyOnStringLiterals.put(new QMethod("trim", SignatureBuilder.SIG_VOID_TO_STRING), Values.ZERO);
-        methodsThatAreSillyOnStringLiterals.put(new QMethod("isEmpty", SignatureBuilder.SIG_VOID_TO_BOOLEAN), Values.ZERO);
+        sm.put(new QMethod("toLowerCase", SignatureBuilder.SIG_VOID_TO_STRING), Values.ZERO);
+        sm.put(new QMethod("toUpperCase", SignatureBuilder.SIG_VOID_TO_STRING), Values.ZERO);
+        sm.put(new QMethod("toLowerCase", localeToString), Values.ONE);
+        sm.put(new QMethod("toUpperCase", localeToString), Values.ONE);
+        sm.put(new QMethod("trim", SignatureBuilder.SIG_VOID_TO_STRING), Values.ZERO);
+        sm.put(new QMethod("isEmpty", SignatureBuilder.SIG_VOID_TO_BOOLEAN), Values.ZERO);
+        methodsThatAreSillyOnStringLiterals = Collections.<QMethod, Integer> unmodifiableMap(sm);
     }
 
     private final BugReporter bugReporter;
     private final Set<String> toStringClasses;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private int lastPCs[];
     private int lastOpcode;
     private int lastReg;
@@ -284,7 +289,7 @@ public class SillynessPotPourri extends BytecodeScanningDetector {
                             if (mapSets.contains(method.getName())) {
 
                                 cls = Repository.lookupClass(method.getClassName());
-                                if (cls.implementationOf(mapClass)) {
+                                if (ClassHierarchyCache.implementationOf(cls, mapClass)) {
                                     bugReporter.reportBug(new BugInstance(this, BugType.SPP_NULL_CHECK_ON_MAP_SUBSET_ACCESSOR.name(), NORMAL_PRIORITY)
                                             .addClass(this).addMethod(this).addSourceLine(this));
                                 }
@@ -307,9 +312,9 @@ public class SillynessPotPourri extends BytecodeScanningDetector {
         } catch (ClassNotFoundException cnfe) {
             bugReporter.reportMissingClass(cnfe);
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if ((stack.getStackDepth() > 0)) {
                 OpcodeStack.Item item = stack.getStackItem(0);
                 if (userValue != null) {
@@ -868,7 +873,7 @@ public class SillynessPotPourri extends BytecodeScanningDetector {
             if (!Values.SIG_JAVA_LANG_OBJECT.equals(itemSig) && !"Ljava/util/Calendar;".equals(itemSig) && !"Ljava/util/GregorianCalendar;".equals(itemSig)) {
                 try {
                     JavaClass cls = Repository.lookupClass(SignatureUtils.stripSignature(itemSig));
-                    if (!cls.instanceOf(calendarClass)) {
+                    if (!ClassHierarchyCache.instanceOf(cls, calendarClass)) {
                         bugReporter.reportBug(new BugInstance(this, BugType.SPP_INVALID_CALENDAR_COMPARE.name(), NORMAL_PRIORITY).addClass(this).addMethod(this)
                                 .addSourceLine(this));
                     }
@@ -30,6 +30,8 @@ import org.apache.bcel.classfile.Method;
 import org.apache.bcel.generic.Type;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -43,6 +45,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * XXX.class, and doing so protects the integrity of this code from such transformations as obfuscation. Use of Class.forName should only be used when the class
  * in question isn't already statically bound to this context.
  */
+@ParallelSafe
+@IncrementalSafe
 public class SloppyClassReflection extends BytecodeScanningDetector {
     enum State {
         COLLECT, SEEN_NOTHING, SEEN_LDC
@@ -28,6 +28,8 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.StopOpcodeParsingException;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 
@@ -41,6 +43,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * interface to appear sluggish and non-responsive to the user. It is better to use a separate thread to do the time consuming work so that the user has a
  * better experience.
  */
+@ParallelSafe
+@IncrementalSafe
 public class SluggishGui extends BytecodeScanningDetector {
 
     private static final Set<String> expensiveCalls = UnmodifiableSet.create("java/io/BufferedOutputStream:<init>", "java/io/DataOutputStream:<init>",
@@ -27,6 +27,9 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.QMethod;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
@@ -42,6 +45,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for classes that implement interfaces by relying on methods being implemented in super classes, even though the superclass knows nothing about the
  * interface being implemented by the child.
  */
+@ParallelSafe
+@IncrementalSafe
 public class SpoiledChildInterfaceImplementor implements Detector {
 
     private static final Set<QMethod> OBJECT_METHODS = UnmodifiableSet.create(
@@ -99,7 +104,7 @@ public class SpoiledChildInterfaceImplementor implements Detector {
                         if (!infMethods.isEmpty()) {
                             JavaClass superCls = cls.getSuperClass();
                             filterSuperInterfaceMethods(inf, infMethods, superCls);
-                            if (!infMethods.isEmpty() && !superCls.implementationOf(inf)) {
+                            if (!infMethods.isEmpty() && !ClassHierarchyCache.implementationOf(superCls, inf)) {
                                 int priority = AnalysisContext.currentAnalysisContext().isApplicationClass(superCls) ? NORMAL_PRIORITY : LOW_PRIORITY;
                                 BugInstance bi = new BugInstance(this, BugType.SCII_SPOILED_CHILD_INTERFACE_IMPLEMENTOR.name(), priority).addClass(cls)
                                         .addString("Implementing interface: " + inf.getClassName()).addString("Methods:");
@@ -186,7 +191,7 @@ public class SpoiledChildInterfaceImplementor implements Detector {
 
             JavaClass[] superInfs = inf.getInterfaces();
             for (JavaClass superInf : superInfs) {
-                if (cls.implementationOf(superInf)) {
+                if (ClassHierarchyCache.implementationOf(cls, superInf)) {
                     Set<QMethod> superInfMethods = buildMethodSet(superInf);
                     infMethods.removeAll(superInfMethods);
                     if (infMethods.isEmpty()) {
@@ -18,9 +18,14 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
+import java.util.BitSet;
+
 import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.SharedOpcodeStack;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -35,9 +40,14 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * the thread itself, introducing client calls will confuse the thread state of the object in question, and will cause spurious thread state changes, either
  * waking threads up when not intended, or removing the the thread from the runnable state.
  */
+@ParallelSafe
+@IncrementalSafe
 public class SpuriousThreadStates extends BytecodeScanningDetector {
+    /** the opcodes before which the detector looks at the items on the stack */
+    private static final BitSet STACK_ITEM_OPCODES = SharedOpcodeStack.subscribe(INVOKEVIRTUAL);
+
     private BugReporter bugReporter;
-    private OpcodeStack stack;
+    private SharedOpcodeStack stack;
 
     /**
      * constructs a STS detector given the reporter to report bugs on
@@ -52,7 +62,7 @@ public class SpuriousThreadStates extends BytecodeScanningDetector {
     @Override
     public void visitClassContext(ClassContext classContext) {
         try {
-            stack = new OpcodeStack();
+            stack = new SharedOpcodeStack(STACK_ITEM_OPCODES);
             super.visitClassContext(classContext);
         } finally {
             stack = null;
@@ -17,7 +17,10 @@ import org.apache.bcel.classfile.ConstantPool;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -36,6 +39,8 @@ import edu.umd.cs.findbugs.ba.XMethod;
  */
 
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class StackedTryBlocks extends BytecodeScanningDetector {
 
     private static JavaClass THROWABLE_CLASS;
@@ -234,7 +239,7 @@ public class StackedTryBlocks extends BytecodeScanningDetector {
                 } else if ((seen == INVOKESPECIAL) && Values.CONSTRUCTOR.equals(getNameConstantOperand())) {
                     String cls = getClassConstantOperand();
                     JavaClass exCls = Repository.lookupClass(cls);
-                    if (exCls.instanceOf(THROWABLE_CLASS)) {
+                    if (ClassHierarchyCache.instanceOf(exCls, THROWABLE_CLASS)) {
                         String signature = getSigConstantOperand();
                         List<String> types = SignatureUtils.getParameterSignatures(signature);
                         if (!types.isEmpty()) {
@@ -21,11 +21,12 @@ package com.mebigfatguy.fbcontrib.detect;
 import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
 import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
-import edu.umd.cs.findbugs.BytecodeScanningDetector;
 
 /**
  * looks for creation of arrays where the contents are constants, or static
@@ -33,113 +34,125 @@ import edu.umd.cs.findbugs.BytecodeScanningDetector;
  * defined as static fields so the method doesn't constantly recreate the array
  * each time it is called.
  */
-public class StaticArrayCreatedInMethod extends BytecodeScanningDetector {
+@ParallelSafe
+@IncrementalSafe
+public class StaticArrayCreatedInMethod extends AbstractRuleDetector {
     enum State {
         SEEN_NOTHING, SEEN_ARRAY_SIZE, SEEN_NEWARRAY, SEEN_DUP, SEEN_INDEX, SEEN_LDC, SEEN_INDEX_STORE
     }
 
-    private BugReporter bugReporter;
-    private int arraySize;
-    private int storeCount;
-    private State state;
-
     public StaticArrayCreatedInMethod(BugReporter bugReporter) {
-        this.bugReporter = bugReporter;
+        super(new Rule(bugReporter));
     }
 
     /**
-     * implements the visitor by forwarding calls for methods that are the
-     * static initializer
-     * 
-     * @param obj
-     *            the context object of the currently parsed code block
+     * looks for a new array, filled in index order with constants, that is then stored in a local
      */
-    @Override
-    public void visitCode(Code obj) {
-        if (!Values.STATIC_INITIALIZER.equals(getMethodName())) {
-            state = State.SEEN_NOTHING;
-            super.visitCode(obj);
+    static class Rule extends OpcodeRule {
+        private int arraySize;
+        private int storeCount;
+        private State state;
+
+        Rule(BugReporter bugReporter) {
+            super(bugReporter);
         }
-    }
 
-    /**
-     * implements the visitor to look for creation of local arrays using
-     * constant values
-     * 
-     * @param seen
-     *            the opcode of the currently parsed instruction
-     */
-    @Override
-    public void sawOpcode(int seen) {
-        int index;
-
-        switch (state) {
-        case SEEN_NOTHING:
-            if (seen == BIPUSH) {
-                arraySize = getIntConstant();
-                if (arraySize > 0)
-                    state = State.SEEN_ARRAY_SIZE;
-            } else if ((seen >= ICONST_M1) && (seen <= ICONST_5)) {
-                arraySize = seen - ICONST_M1 - 1;
-                if (arraySize > 0)
-                    state = State.SEEN_ARRAY_SIZE;
+        /**
+         * implements the rule by looking at methods that are not the
+         * static initializer
+         * 
+         * @param obj
+         *            the context object of the currently parsed code block
+         * @return whether the method isn't the static initializer
+         */
+        @Override
+        protected boolean startCode(Code obj) {
+            if (Values.STATIC_INITIALIZER.equals(scanner.getMethodName())) {
+                return false;
             }
-            break;
+            state = State.SEEN_NOTHING;
+            return true;
+        }
 
-        case SEEN_ARRAY_SIZE:
-            if ((seen == ANEWARRAY) || (seen == NEWARRAY)) {
-                state = State.SEEN_NEWARRAY;
-                storeCount = 0;
-            } else
-                state = State.SEEN_NOTHING;
-            break;
+        /**
+         * implements the rule to look for creation of local arrays using
+         * constant values
+         * 
+         * @param seen
+         *            the opcode of the currently parsed instruction
+         */
+        @Override
+        protected void sawOpcode(int seen) {
+            int index;
 
-        case SEEN_NEWARRAY:
-            if (seen == DUP)
-                state = State.SEEN_DUP;
-            else
-                state = State.SEEN_NOTHING;
-            break;
-
-        case SEEN_DUP:
-            if (seen == BIPUSH)
-                index = getIntConstant();
-            else if ((seen >= ICONST_M1) && (seen <= ICONST_5))
-                index = seen - ICONST_M1 - 1;
-            else {
-                state = State.SEEN_NOTHING;
-                return;
-            }
-            if (index != storeCount)
-                state = State.SEEN_NOTHING;
-            else
-                state = State.SEEN_INDEX;
-            break;
-
-        case SEEN_INDEX:
-            if ((seen == LDC) || (seen == LDC_W))
-                state = State.SEEN_LDC;
-            else
-                state = State.SEEN_NOTHING;
-            break;
+            switch (state) {
+            case SEEN_NOTHING:
+                if (seen == BIPUSH) {
+                    arraySize = scanner.getIntConstant();
+                    if (arraySize > 0)
+                        state = State.SEEN_ARRAY_SIZE;
+                } else if ((seen >= ICONST_M1) && (seen <= ICONST_5)) {
+                    arraySize = seen - ICONST_M1 - 1;
+                    if (arraySize > 0)
+                        state = State.SEEN_ARRAY_SIZE;
+                }
+                break;
 
-        case SEEN_LDC:
-            if ((seen >= IASTORE) && (seen <= SASTORE)) {
-                if ((++storeCount) == arraySize)
-                    state = State.SEEN_INDEX_STORE;
-                else
+            case SEEN_ARRAY_SIZE:
+                if ((seen == ANEWARRAY) || (seen == NEWARRAY)) {
                     state = State.SEEN_NEWARRAY;
-            }
-            break;
+                    storeCount = 0;
+                } else
+                    state = State.SEEN_NOTHING;
+                break;
+
+            case SEEN_NEWARRAY:
+                if (seen == DUP)
+                    state = State.SEEN_DUP;
+                else
+                    state = State.SEEN_NOTHING;
+                break;
+
+            case SEEN_DUP:
+                if (seen == BIPUSH)
+                    index = scanner.getIntConstant();
+                else if ((seen >= ICONST_M1) && (seen <= ICONST_5))
+                    index = seen - ICONST_M1 - 1;
+                else {
+                    state = State.SEEN_NOTHING;
+                    return;
+                }
+                if (index != storeCount)
+                    state = State.SEEN_NOTHING;
+                else
+                    state = State.SEEN_INDEX;
+                break;
+
+            case SEEN_INDEX:
+                if ((seen == LDC) || (seen == LDC_W))
+                    state = State.SEEN_LDC;
+                else
+                    state = State.SEEN_NOTHING;
+                break;
 
-        case SEEN_INDEX_STORE:
-            if ((seen == ASTORE) || ((seen >= ASTORE_0) && (seen <= ASTORE_3))) {
-                bugReporter.reportBug(new BugInstance(this, BugType.SACM_STATIC_ARRAY_CREATED_IN_METHOD.name(),
-                        (arraySize < 3) ? LOW_PRIORITY : ((arraySize < 10) ? NORMAL_PRIORITY : HIGH_PRIORITY)).addClass(this).addMethod(this)
-                                .addSourceLine(this, getPC()));
+            case SEEN_LDC:
+                if ((seen >= IASTORE) && (seen <= SASTORE)) {
+                    if ((++storeCount) == arraySize)
+                        state = State.SEEN_INDEX_STORE;
+                    else
+                        state = State.SEEN_NEWARRAY;
+                }
+                break;
+
+            case SEEN_INDEX_STORE:
+                if ((seen == ASTORE) || ((seen >= ASTORE_0) && (seen <= ASTORE_3))) {
+                    bugReporter.reportBug(new BugInstance(scanner, BugType.SACM_STATIC_ARRAY_CREATED_IN_METHOD.name(),
+                            (arraySize < 3) ? LOW_PRIORITY : ((arraySize < 10) ? NORMAL_PRIORITY : HIGH_PRIORITY)).addClass(scanner).addMethod(scanner)
+                                    .addSourceLine(scanner, scanner.getPC()));
+                }
+                state = State.SEEN_NOTHING;
+                break;
             }
-            state = State.SEEN_NOTHING;
-            break;
         }
     }
 }
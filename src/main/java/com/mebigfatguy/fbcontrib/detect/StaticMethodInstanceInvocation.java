@@ -30,6 +30,11 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
+import com.mebigfatguy.fbcontrib.utils.SharedOpcodeStack;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -44,9 +49,15 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for methods that make static method calls using an instance reference. For documentation purposes, it is better to call the method using the class
  * name. This may represent a change in definition that should be noticed.
  */
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(opcodes = Constants.INVOKESTATIC)
 public class StaticMethodInstanceInvocation extends BytecodeScanningDetector {
+    /** the opcodes before which the detector looks at the items on the stack */
+    private static final BitSet STACK_ITEM_OPCODES = SharedOpcodeStack.subscribe(POP);
+
     private final BugReporter bugReporter;
-    private OpcodeStack stack;
+    private SharedOpcodeStack stack;
     private List<PopInfo> popStack;
 
     /**
@@ -61,8 +72,12 @@ public class StaticMethodInstanceInvocation extends BytecodeScanningDetector {
 
     @Override
     public void visitClassContext(ClassContext classContext) {
+        if (!PrescreenIndex.shouldVisit(this, classContext)) {
+            return;
+        }
+
         try {
-            stack = new OpcodeStack();
+            stack = new SharedOpcodeStack(STACK_ITEM_OPCODES);
             popStack = new ArrayList<>();
             super.visitClassContext(classContext);
         } finally {
@@ -19,6 +19,7 @@
 package com.mebigfatguy.fbcontrib.detect;
 
 import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -26,6 +27,8 @@ import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
@@ -43,49 +46,55 @@ import edu.umd.cs.findbugs.ba.XMethod;
  * looks for string fields that appear to be built with parsing or calling toString() on another object, or from objects that are fields.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class StringifiedTypes extends BytecodeScanningDetector {
 
-    private static Map<FQMethod, int[]> COLLECTION_PARMS = new HashMap<>();
+    private static final Map<FQMethod, int[]> COLLECTION_PARMS;
 
     static {
+        Map<FQMethod, int[]> cp = new HashMap<>();
         int[] parm0 = new int[] { 0 };
         int[] parm0N1 = new int[] { -1, 0 };
         int[] parm01N1 = new int[] { -1, 0, 1 };
 
         String objectToInt = new SignatureBuilder().withParamTypes(Values.SLASHED_JAVA_LANG_OBJECT).withReturnType(Values.SIG_PRIMITIVE_INT).toString();
 
-        COLLECTION_PARMS.put(new FQMethod(Values.SLASHED_JAVA_UTIL_LIST, "contains", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
-        COLLECTION_PARMS.put(new FQMethod(Values.SLASHED_JAVA_UTIL_LIST, "add", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
-        COLLECTION_PARMS.put(new FQMethod(Values.SLASHED_JAVA_UTIL_LIST, "remove", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
-        COLLECTION_PARMS.put(
+        cp.put(new FQMethod(Values.SLASHED_JAVA_UTIL_LIST, "contains", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
+        cp.put(new FQMethod(Values.SLASHED_JAVA_UTIL_LIST, "add", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
+        cp.put(new FQMethod(Values.SLASHED_JAVA_UTIL_LIST, "remove", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
+        cp.put(
                 new FQMethod(Values.SLASHED_JAVA_UTIL_LIST, "set", new SignatureBuilder()
                         .withParamTypes(Values.SIG_PRIMITIVE_INT, Values.SLASHED_JAVA_LANG_OBJECT).withReturnType(Values.SLASHED_JAVA_LANG_OBJECT).toString()),
                 parm0N1);
-        COLLECTION_PARMS.put(new FQMethod(Values.SLASHED_JAVA_UTIL_LIST, "add",
+        cp.put(new FQMethod(Values.SLASHED_JAVA_UTIL_LIST, "add",
                 new SignatureBuilder().withParamTypes(Values.SIG_PRIMITIVE_INT, Values.SLASHED_JAVA_LANG_OBJECT).toString()), parm0);
-        COLLECTION_PARMS.put(new FQMethod(Values.SLASHED_JAVA_UTIL_LIST, "indexOf", objectToInt), parm0);
-        COLLECTION_PARMS.put(new FQMethod(Values.SLASHED_JAVA_UTIL_LIST, "lastIndexOf", objectToInt), parm0);
+        cp.put(new FQMethod(Values.SLASHED_JAVA_UTIL_LIST, "indexOf", objectToInt), parm0);
+        cp.put(new FQMethod(Values.SLASHED_JAVA_UTIL_LIST, "lastIndexOf", objectToInt), parm0);
 
-        COLLECTION_PARMS.put(new FQMethod(Values.SLASHED_JAVA_UTIL_SET, "contains", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
-        COLLECTION_PARMS.put(new FQMethod(Values.SLASHED_JAVA_UTIL_SET, "add", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
-        COLLECTION_PARMS.put(new FQMethod(Values.SLASHED_JAVA_UTIL_SET, "remove", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
+        cp.put(new FQMethod(Values.SLASHED_JAVA_UTIL_SET, "contains", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
+        cp.put(new FQMethod(Values.SLASHED_JAVA_UTIL_SET, "add", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
+        cp.put(new FQMethod(Values.SLASHED_JAVA_UTIL_SET, "remove", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
 
-        COLLECTION_PARMS.put(new FQMethod(Values.SLASHED_JAVA_UTIL_MAP, "containsKey", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
-        COLLECTION_PARMS.put(new FQMethod(Values.SLASHED_JAVA_UTIL_MAP, "containsValue", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
-        COLLECTION_PARMS.put(new FQMethod(Values.SLASHED_JAVA_UTIL_MAP, "get", SignatureBuilder.SIG_OBJECT_TO_OBJECT), parm0N1);
-        COLLECTION_PARMS.put(new FQMethod(Values.SLASHED_JAVA_UTIL_MAP, "put", SignatureBuilder.SIG_TWO_OBJECTS_TO_OBJECT), parm01N1);
-        COLLECTION_PARMS.put(new FQMethod(Values.SLASHED_JAVA_UTIL_MAP, "remove", SignatureBuilder.SIG_OBJECT_TO_OBJECT), parm0N1);
+        cp.put(new FQMethod(Values.SLASHED_JAVA_UTIL_MAP, "containsKey", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
+        cp.put(new FQMethod(Values.SLASHED_JAVA_UTIL_MAP, "containsValue", SignatureBuilder.SIG_OBJECT_TO_BOOLEAN), parm0);
+        cp.put(new FQMethod(Values.SLASHED_JAVA_UTIL_MAP, "get", SignatureBuilder.SIG_OBJECT_TO_OBJECT), parm0N1);
+        cp.put(new FQMethod(Values.SLASHED_JAVA_UTIL_MAP, "put", SignatureBuilder.SIG_TWO_OBJECTS_TO_OBJECT), parm01N1);
+        cp.put(new FQMethod(Values.SLASHED_JAVA_UTIL_MAP, "remove", SignatureBuilder.SIG_OBJECT_TO_OBJECT), parm0N1);
+        COLLECTION_PARMS = Collections.<FQMethod, int[]> unmodifiableMap(cp);
     }
 
-    private static final Map<String, Integer> STRING_PARSE_METHODS = new HashMap<>();
+    private static final Map<String, Integer> STRING_PARSE_METHODS;
 
     static {
-        STRING_PARSE_METHODS.put("indexOf", Values.NORMAL_BUG_PRIORITY);
-        STRING_PARSE_METHODS.put("lastIndexOf", Values.NORMAL_BUG_PRIORITY);
-        STRING_PARSE_METHODS.put("substring", Values.NORMAL_BUG_PRIORITY);
-        STRING_PARSE_METHODS.put("split", Values.NORMAL_BUG_PRIORITY);
-        STRING_PARSE_METHODS.put("startsWith", Values.LOW_BUG_PRIORITY);
-        STRING_PARSE_METHODS.put("endsWith", Values.LOW_BUG_PRIORITY);
+        Map<String, Integer> spm = new HashMap<>();
+        spm.put("indexOf", Values.NORMAL_BUG_PRIORITY);
+        spm.put("lastIndexOf", Values.NORMAL_BUG_PRIORITY);
+        spm.put("substring", Values.NORMAL_BUG_PRIORITY);
+        spm.put("split", Values.NORMAL_BUG_PRIORITY);
+        spm.put("startsWith", Values.LOW_BUG_PRIORITY);
+        spm.put("endsWith", Values.LOW_BUG_PRIORITY);
+        STRING_PARSE_METHODS = Collections.<String, Integer> unmodifiableMap(spm);
     }
     private static final String FROM_FIELD = "FROM_FIELD";
 
@@ -23,6 +23,8 @@ import org.apache.bcel.classfile.Code;
 import com.mebigfatguy.fbcontrib.collect.MethodInfo;
 import com.mebigfatguy.fbcontrib.collect.Statistics;
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -39,6 +41,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * that are desired. At present it only looks for simple sequences of 'and' based conditions.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class SuboptimalExpressionOrder extends BytecodeScanningDetector {
 
     private static final int NORMAL_WEIGHT_LIMIT = 50;
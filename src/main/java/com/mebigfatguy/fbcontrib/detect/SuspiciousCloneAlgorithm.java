@@ -18,6 +18,7 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,6 +28,9 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
@@ -43,31 +47,35 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for implementation of clone() where a store is made to a member of the source object.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class SuspiciousCloneAlgorithm extends BytecodeScanningDetector {
 
     public static final String SIG_VOID_TO_OBJECT = new SignatureBuilder().withReturnType(Values.SLASHED_JAVA_LANG_OBJECT).toString();
 
     private static JavaClass cloneableClass;
-    private static Map<String, Integer> changingMethods;
+    private static final Map<String, Integer> changingMethods;
 
     static {
         try {
             cloneableClass = Repository.lookupClass("java/lang/Cloneable");
-            changingMethods = new HashMap<>();
-            changingMethods.put("add", Values.NORMAL_BUG_PRIORITY);
-            changingMethods.put("addAll", Values.NORMAL_BUG_PRIORITY);
-            changingMethods.put("put", Values.NORMAL_BUG_PRIORITY);
-            changingMethods.put("putAll", Values.NORMAL_BUG_PRIORITY);
-            changingMethods.put("insert", Values.LOW_BUG_PRIORITY);
-            changingMethods.put("set", Values.LOW_BUG_PRIORITY);
-
         } catch (ClassNotFoundException cnfe) {
             cloneableClass = null;
         }
+
+        Map<String, Integer> cm = new HashMap<>();
+        cm.put("add", Values.NORMAL_BUG_PRIORITY);
+        cm.put("addAll", Values.NORMAL_BUG_PRIORITY);
+        cm.put("put", Values.NORMAL_BUG_PRIORITY);
+        cm.put("putAll", Values.NORMAL_BUG_PRIORITY);
+        cm.put("insert", Values.LOW_BUG_PRIORITY);
+        cm.put("set", Values.LOW_BUG_PRIORITY);
+        changingMethods = Collections.<String, Integer> unmodifiableMap(cm);
     }
 
     private BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
 
     /**
      * constructs a SCA detector given the reporter to report bugs on
@@ -93,7 +101,7 @@ public class SuspiciousCloneAlgorithm extends BytecodeScanningDetector {
 
         try {
             JavaClass cls = classContext.getJavaClass();
-            if (cls.implementationOf(cloneableClass)) {
+            if (ClassHierarchyCache.implementationOf(cls, cloneableClass)) {
                 stack = new OpcodeStack();
                 super.visitClassContext(classContext);
             }
@@ -185,9 +193,9 @@ public class SuspiciousCloneAlgorithm extends BytecodeScanningDetector {
                 break;
             }
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if (srcField && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item item = stack.getStackItem(0);
                 item.setUserValue(Boolean.TRUE);
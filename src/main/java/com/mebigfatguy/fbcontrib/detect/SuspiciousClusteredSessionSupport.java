@@ -26,6 +26,8 @@ import java.util.regex.Pattern;
 import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
@@ -42,12 +44,15 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * so that cluster replication can happen.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class SuspiciousClusteredSessionSupport extends BytecodeScanningDetector {
 
     private static final Pattern modifyingNames = Pattern.compile("(add|insert|put|remove|clear|set).*");
 
     private BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private Map<String, Integer> changedAttributes;
     private Map<Integer, String> savedAttributes;
 
@@ -162,9 +167,9 @@ public class SuspiciousClusteredSessionSupport extends BytecodeScanningDetector
                 }
             }
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if (sawGetAttribute && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item item = stack.getStackItem(0);
                 item.setUserValue(attributeName);
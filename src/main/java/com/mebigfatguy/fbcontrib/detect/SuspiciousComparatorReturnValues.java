@@ -25,6 +25,9 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.StopOpcodeParsingException;
 import com.mebigfatguy.fbcontrib.utils.ToString;
@@ -44,6 +47,8 @@ import edu.umd.cs.findbugs.internalAnnotations.SlashedClassName;
  * three possible choice (a negative number, 0, and a positive number).
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class SuspiciousComparatorReturnValues extends BytecodeScanningDetector {
     private static List<CompareSpec> compareClasses;
 
@@ -91,7 +96,7 @@ public class SuspiciousComparatorReturnValues extends BytecodeScanningDetector {
         try {
             JavaClass cls = classContext.getJavaClass();
             for (CompareSpec entry : compareClasses) {
-                if (cls.implementationOf(entry.getCompareClass())) {
+                if (ClassHierarchyCache.implementationOf(cls, entry.getCompareClass())) {
                     methodInfo = entry.getMethodInfo();
                     stack = new OpcodeStack();
                     super.visitClassContext(classContext);
@@ -21,6 +21,8 @@ package com.mebigfatguy.fbcontrib.detect;
 import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -32,6 +34,8 @@ import edu.umd.cs.findbugs.BytecodeScanningDetector;
  * looks for methods that set a setter with the value obtained from the same
  * bean's complimentary getter. This is usually a typo.
  */
+@ParallelSafe
+@IncrementalSafe
 public class SuspiciousGetterSetterUse extends BytecodeScanningDetector {
 
     private static enum State {
@@ -18,30 +18,27 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 import org.apache.bcel.Constants;
 import org.apache.bcel.Repository;
-import org.apache.bcel.classfile.ClassParser;
 import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.JDKSignatureIndex;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -54,31 +51,36 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for calls to classes and methods that do not exist in the JDK for which this class is compiled. This can happen if you specify the -source and -target
  * options of the javac compiler, and specify a target that is less than the jdk version of the javac compiler.
  */
+@ParallelSafe
 public class SuspiciousJDKVersionUse extends BytecodeScanningDetector {
-    private static final Map<Integer, String> VER_REG_EX = new HashMap<>();
+    private static final Map<Integer, String> VER_REG_EX;
 
     static {
-        VER_REG_EX.put(Integer.valueOf(Constants.MAJOR_1_1), "(jdk|j2?re)1.1");
-        VER_REG_EX.put(Integer.valueOf(Constants.MAJOR_1_2), "(jdk|j2?re)1.2");
-        VER_REG_EX.put(Integer.valueOf(Constants.MAJOR_1_3), "(jdk|j2?re)1.3");
-        VER_REG_EX.put(Integer.valueOf(Constants.MAJOR_1_4), "(jdk|j2?re)1.4");
-        VER_REG_EX.put(Values.JAVA_5, "((jdk|j2?re)1.5)|(java-5)");
-        VER_REG_EX.put(Integer.valueOf(Constants.MAJOR_1_6), "((jdk|j2?re)1.6)|(java-6)");
-        VER_REG_EX.put(Integer.valueOf(Constants.MAJOR_1_7), "((jdk|j2?re)1.7)|(java-7)");
-        VER_REG_EX.put(Integer.valueOf(Constants.MAJOR_1_8), "((jdk|j2?re)1.8)|(java-8)");
+        Map<Integer, String> vre = new HashMap<>();
+        vre.put(Integer.valueOf(Constants.MAJOR_1_1), "(jdk|j2?re)1.1");
+        vre.put(Integer.valueOf(Constants.MAJOR_1_2), "(jdk|j2?re)1.2");
+        vre.put(Integer.valueOf(Constants.MAJOR_1_3), "(jdk|j2?re)1.3");
+        vre.put(Integer.valueOf(Constants.MAJOR_1_4), "(jdk|j2?re)1.4");
+        vre.put(Values.JAVA_5, "((jdk|j2?re)1.5)|(java-5)");
+        vre.put(Integer.valueOf(Constants.MAJOR_1_6), "((jdk|j2?re)1.6)|(java-6)");
+        vre.put(Integer.valueOf(Constants.MAJOR_1_7), "((jdk|j2?re)1.7)|(java-7)");
+        vre.put(Integer.valueOf(Constants.MAJOR_1_8), "((jdk|j2?re)1.8)|(java-8)");
+        VER_REG_EX = Collections.<Integer, String> unmodifiableMap(vre);
     }
 
-    private static final Map<Integer, Integer> HUMAN_VERSIONS = new HashMap<>();
+    private static final Map<Integer, Integer> HUMAN_VERSIONS;
 
     static {
-        HUMAN_VERSIONS.put(Integer.valueOf(Constants.MAJOR_1_1), Values.ONE);
-        HUMAN_VERSIONS.put(Integer.valueOf(Constants.MAJOR_1_2), Values.TWO);
-        HUMAN_VERSIONS.put(Integer.valueOf(Constants.MAJOR_1_3), Values.THREE);
-        HUMAN_VERSIONS.put(Integer.valueOf(Constants.MAJOR_1_4), Values.FOUR);
-        HUMAN_VERSIONS.put(Values.JAVA_5, Values.FIVE);
-        HUMAN_VERSIONS.put(Integer.valueOf(Constants.MAJOR_1_6), Values.SIX);
-        HUMAN_VERSIONS.put(Integer.valueOf(Constants.MAJOR_1_7), Values.SEVEN);
-        HUMAN_VERSIONS.put(Integer.valueOf(Constants.MAJOR_1_8), Values.EIGHT);
+        Map<Integer, Integer> hv = new HashMap<>();
+        hv.put(Integer.valueOf(Constants.MAJOR_1_1), Values.ONE);
+        hv.put(Integer.valueOf(Constants.MAJOR_1_2), Values.TWO);
+        hv.put(Integer.valueOf(Constants.MAJOR_1_3), Values.THREE);
+        hv.put(Integer.valueOf(Constants.MAJOR_1_4), Values.FOUR);
+        hv.put(Values.JAVA_5, Values.FIVE);
+        hv.put(Integer.valueOf(Constants.MAJOR_1_6), Values.SIX);
+        hv.put(Integer.valueOf(Constants.MAJOR_1_7), Values.SEVEN);
+        hv.put(Integer.valueOf(Constants.MAJOR_1_8), Values.EIGHT);
+        HUMAN_VERSIONS = Collections.<Integer, Integer> unmodifiableMap(hv);
     }
 
     private static Set<String> knownJDKJavaxPackageRoots = UnmodifiableSet.create(
@@ -109,6 +111,8 @@ public class SuspiciousJDKVersionUse extends BytecodeScanningDetector {
 
     private static final Pattern jarPattern;
     private static final String SJVU_JDKHOME = "fb-contrib.sjvu.jdkhome";
+    /** the difference between the class file major version and the human version of JDKs starting with 9 */
+    private static final int MODULAR_VERSION_OFFSET = 44;
 
     static {
         String os = System.getProperty("os.name");
@@ -121,39 +125,35 @@ public class SuspiciousJDKVersionUse extends BytecodeScanningDetector {
     }
 
     private final Map<String, File> versionPaths;
-    private final Map<Integer, Map<String, Set<String>>> validMethodsByVersion;
-    private final Map<String, String> superNames;
-    private final Map<Integer, ZipFile> jdkZips;
+    private final Map<Integer, JDKSignatureIndex> jdkIndices;
     private File jdksRoot = null;
     private Integer clsMajorVersion;
-    private ZipFile jdkZip;
+    private JDKSignatureIndex jdkIndex;
     private final BugReporter bugReporter;
 
     public SuspiciousJDKVersionUse(BugReporter bugReporter) {
         this.bugReporter = bugReporter;
         versionPaths = new HashMap<>();
-        jdkZips = new HashMap<>();
-        validMethodsByVersion = new HashMap<>();
-        superNames = new HashMap<>();
+        jdkIndices = new HashMap<>();
     }
 
     @Override
     public void visitClassContext(ClassContext classContext) {
         try {
             clsMajorVersion = Integer.valueOf(classContext.getJavaClass().getMajor());
-            jdkZip = jdkZips.get(clsMajorVersion);
-            if (jdkZip == null) {
+            jdkIndex = jdkIndices.get(clsMajorVersion);
+            if (jdkIndex == null) {
                 File rtJar = getRTJarFile();
                 if (rtJar == null) {
                     rtJar = getRTJarFromProperty(clsMajorVersion);
                 }
                 if (rtJar != null) {
-                    jdkZip = new ZipFile(rtJar);
-                    jdkZips.put(clsMajorVersion, jdkZip);
+                    jdkIndex = JDKSignatureIndex.getIndex(rtJar);
+                    jdkIndices.put(clsMajorVersion, jdkIndex);
                 }
             }
 
-            if (jdkZip == null) {
+            if (jdkIndex == null) {
                 return;
             }
 
@@ -162,7 +162,7 @@ public class SuspiciousJDKVersionUse extends BytecodeScanningDetector {
             // Hmm What to do
         } finally {
             clsMajorVersion = null;
-            jdkZip = null;
+            jdkIndex = null;
         }
     }
 
@@ -181,13 +181,7 @@ public class SuspiciousJDKVersionUse extends BytecodeScanningDetector {
                         return;
                     }
 
-                    Map<String, Set<String>> validMethods = validMethodsByVersion.get(clsMajorVersion);
-                    if (validMethods == null) {
-                        validMethods = new HashMap<>();
-                        validMethodsByVersion.put(clsMajorVersion, validMethods);
-                    }
-
-                    if (!isValid(validMethods, clsName)) {
+                    if (!isValid(clsName)) {
                         bugReporter.reportBug(new BugInstance(this, BugType.SJVU_SUSPICIOUS_JDK_VERSION_USE.name(), HIGH_PRIORITY).addClass(this)
                                 .addMethod(this).addSourceLine(this).addCalledMethod(this));
                     }
@@ -195,8 +189,6 @@ public class SuspiciousJDKVersionUse extends BytecodeScanningDetector {
             }
         } catch (ClassNotFoundException cnfe) {
             bugReporter.reportMissingClass(cnfe);
-        } catch (IOException ioe) {
-            // Hmm what do do.
         }
     }
 
@@ -219,49 +211,35 @@ public class SuspiciousJDKVersionUse extends BytecodeScanningDetector {
         }
     }
 
-    private boolean isValid(Map<String, Set<String>> validMethods, String clsName) throws IOException, ClassNotFoundException {
-
-        Set<String> methodInfos = validMethods.get(clsName);
-        if (methodInfos == null) {
-
-            ZipEntry ze = jdkZip.getEntry(clsName + ".class");
-            if (ze == null) {
-                if (isJavaXExternal(clsName)) {
-                    return true;
-                }
-
-                bugReporter.reportBug(new BugInstance(this, BugType.SJVU_SUSPICIOUS_JDK_VERSION_USE.name(), HIGH_PRIORITY).addClass(this).addMethod(this)
-                        .addSourceLine(this).addClass(clsName));
-            } else if (clsName.startsWith("java/")) {
-                JavaClass calledClass = null;
-                try (InputStream is = new BufferedInputStream(jdkZip.getInputStream(ze))) {
-                    ClassParser parser = new ClassParser(is, clsName);
-                    calledClass = parser.parse();
-                }
-
-                superNames.put(clsName, calledClass.getSuperclassName().replace('.', '/'));
-                Method[] methods = calledClass.getMethods();
+    private boolean isValid(String clsName) throws ClassNotFoundException {
 
-                methodInfos = new HashSet<>(methods.length);
-                validMethods.put(clsName, methodInfos);
-
-                for (Method m : methods) {
-                    methodInfos.add(m.getName() + m.getSignature());
-                }
+        if (!jdkIndex.containsClass(clsName)) {
+            if (isJavaXExternal(clsName)) {
+                return true;
             }
-        }
 
-        if (methodInfos == null) {
+            bugReporter.reportBug(new BugInstance(this, BugType.SJVU_SUSPICIOUS_JDK_VERSION_USE.name(), HIGH_PRIORITY).addClass(this).addMethod(this)
+                    .addSourceLine(this).addClass(clsName));
             return true;
         }
-        String wantedMethod = getNameConstantOperand() + getSigConstantOperand();
-        if (methodInfos.contains(wantedMethod)) {
+
+        if (!clsName.startsWith("java/")) {
             return true;
-        } else if (Values.SLASHED_JAVA_LANG_OBJECT.equals(clsName)) {
-            return false;
-        } else {
-            return isValid(validMethods, superNames.get(clsName));
         }
+
+        String methodName = getNameConstantOperand();
+        String signature = getSigConstantOperand();
+        String checkedClsName = clsName;
+        while (!jdkIndex.declaresMethod(checkedClsName, methodName, signature)) {
+            if (Values.SLASHED_JAVA_LANG_OBJECT.equals(checkedClsName)) {
+                return false;
+            }
+            checkedClsName = jdkIndex.getSuperclassName(checkedClsName);
+            if (checkedClsName == null) {
+                return true;
+            }
+        }
+        return true;
     }
 
     /**
@@ -283,8 +261,7 @@ public class SuspiciousJDKVersionUse extends BytecodeScanningDetector {
 
         int lastSlashPos = className.lastIndexOf('/');
         String packageName = className.substring(0, lastSlashPos);
-        ZipEntry ze = jdkZip.getEntry(packageName);
-        if (ze != null) {
+        if (jdkIndex.containsPackage(packageName)) {
             return false;
         }
 
@@ -369,12 +346,28 @@ public class SuspiciousJDKVersionUse extends BytecodeScanningDetector {
         return null;
     }
 
+    /**
+     * returns the rt.jar of the JDK named by the jdkhome property for this version, or for JDK 9 and later, the home directory of the JDK, whose runtime
+     * image is indexed in place of the rt.jar
+     *
+     * @param requestedVersion
+     *            the class file major version
+     * @return the rt.jar or JDK home directory to index, or null if none is specified
+     */
     private static File getRTJarFromProperty(Integer requestedVersion) {
-        String jdkHome = System.getProperty(SJVU_JDKHOME + '.' + HUMAN_VERSIONS.get(requestedVersion));
+        Integer humanVersion = HUMAN_VERSIONS.get(requestedVersion);
+        if ((humanVersion == null) && (requestedVersion.intValue() > Constants.MAJOR_1_8)) {
+            humanVersion = Integer.valueOf(requestedVersion.intValue() - MODULAR_VERSION_OFFSET);
+        }
+        String jdkHome = System.getProperty(SJVU_JDKHOME + '.' + humanVersion);
         if (jdkHome == null) {
             return null;
         }
 
+        if (new File(jdkHome, "lib/modules").isFile()) {
+            return new File(jdkHome);
+        }
+
         File rtJar = new File(jdkHome, "lib/rt.jar");
         if (rtJar.exists()) {
             return rtJar;
@@ -32,7 +32,11 @@ import org.apache.bcel.classfile.LocalVariableTable;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.ToString;
@@ -49,6 +53,9 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * however the code continues on, looking for more matches. It is possible the code is looking for the last match, but if this we case, a reverse iterator might
  * be more effective.
  */
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(opcodes = Constants.GOTO)
 public class SuspiciousLoopSearch extends BytecodeScanningDetector {
 
     enum State {
@@ -80,6 +87,10 @@ public class SuspiciousLoopSearch extends BytecodeScanningDetector {
      */
     @Override
     public void visitClassContext(ClassContext classContext) {
+        if (!PrescreenIndex.shouldVisit(this, classContext)) {
+            return;
+        }
+
         try {
             ifBlocks = new ArrayList<>();
             loadedRegs = new HashMap<>();
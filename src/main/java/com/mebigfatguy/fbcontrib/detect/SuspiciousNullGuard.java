@@ -25,6 +25,8 @@ import java.util.Map;
 import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 
@@ -41,6 +43,8 @@ import edu.umd.cs.findbugs.ba.XField;
  * field or variable. It seems that perhaps the guard should check if the field or variable is null.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class SuspiciousNullGuard extends BytecodeScanningDetector {
 
     private final BugReporter bugReporter;
@@ -22,7 +22,9 @@ import java.util.List;
 import java.util.Set;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableList;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
@@ -31,6 +33,8 @@ import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
 import edu.umd.cs.findbugs.BytecodeScanningDetector;
 
+@ParallelSafe
+@IncrementalSafe
 public class SuspiciousShadedClassUse extends BytecodeScanningDetector {
 
     private static final String SSCU_EXCEPTION_PACKAGES = "fb-contrib.sscu.exceptions";
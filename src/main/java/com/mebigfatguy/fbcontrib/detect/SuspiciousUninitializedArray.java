@@ -28,6 +28,9 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
@@ -47,6 +50,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * the work of populated the array, it seems odd that this would be the case.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class SuspiciousUninitializedArray extends BytecodeScanningDetector {
 
     private static JavaClass THREAD_LOCAL_CLASS;
@@ -62,6 +67,7 @@ public class SuspiciousUninitializedArray extends BytecodeScanningDetector {
 
     private final BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private String returnArraySig;
     private BitSet uninitializedRegs;
 
@@ -114,7 +120,7 @@ public class SuspiciousUninitializedArray extends BytecodeScanningDetector {
         }
         if (INITIAL_VALUE.equals(m.getName())) {
             try {
-                if ((THREAD_LOCAL_CLASS == null) || getClassContext().getJavaClass().instanceOf(THREAD_LOCAL_CLASS)) {
+                if ((THREAD_LOCAL_CLASS == null) || ClassHierarchyCache.instanceOf(getClassContext().getJavaClass(), THREAD_LOCAL_CLASS)) {
                     return;
                 }
             } catch (ClassNotFoundException e) {
@@ -302,9 +308,9 @@ public class SuspiciousUninitializedArray extends BytecodeScanningDetector {
         } finally
 
         {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if (stack.getStackDepth() > 0) {
                 OpcodeStack.Item item = stack.getStackItem(0);
                 item.setUserValue(userValue);
@@ -18,6 +18,7 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
+import java.util.BitSet;
 import java.util.Set;
 
 import org.apache.bcel.Constants;
@@ -25,6 +26,9 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.SharedOpcodeStack;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 
 import edu.umd.cs.findbugs.BugInstance;
@@ -37,14 +41,19 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for calls to the wait method on mutexes defined in the
  * java.util.concurrent package where it is likely that await was intended.
  */
+@ParallelSafe
+@IncrementalSafe
 public class SuspiciousWaitOnConcurrentObject extends BytecodeScanningDetector {
     private static final Set<String> concurrentAwaitClasses = UnmodifiableSet.create(
         "java.util.concurrent.CountDownLatch",
         "java.util.concurrent.CyclicBarrier"
     );
 
+    /** the opcodes before which the detector looks at the items on the stack */
+    private static final BitSet STACK_ITEM_OPCODES = SharedOpcodeStack.subscribe(INVOKEVIRTUAL);
+
     private BugReporter bugReporter;
-    private OpcodeStack stack;
+    private SharedOpcodeStack stack;
 
     /**
      * constructs a SWCO detector given the reporter to report bugs on
@@ -68,7 +77,7 @@ public class SuspiciousWaitOnConcurrentObject extends BytecodeScanningDetector {
             JavaClass cls = classContext.getJavaClass();
             int major = cls.getMajor();
             if (major >= Constants.MAJOR_1_5) {
-                stack = new OpcodeStack();
+                stack = new SharedOpcodeStack(STACK_ITEM_OPCODES);
                 super.visitClassContext(classContext);
             }
         } finally {
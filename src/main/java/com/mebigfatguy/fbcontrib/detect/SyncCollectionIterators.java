@@ -28,7 +28,9 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.ConstantFieldref;
 import org.apache.bcel.classfile.ConstantNameAndType;
 
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -45,6 +47,8 @@ import edu.umd.cs.findbugs.ba.XField;
  * Collections.synchronizedXXX, an assumption is made that this collection must be multithreaded safe. However, iterator access is used, which is explicitly
  * unsafe. When iterators are to be used, synchronization should be done manually.
  */
+@ParallelSafe
+@IncrementalSafe
 public class SyncCollectionIterators extends BytecodeScanningDetector {
     private static final Set<String> synchCollectionNames = UnmodifiableSet.create("synchronizedSet", "synchronizedMap", "synchronizedList",
             "synchronizedSortedSet", "synchronizedSortedMap");
@@ -18,32 +18,31 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
+import java.util.BitSet;
+
 import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.SharedOpcodeStack;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
 import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
-import edu.umd.cs.findbugs.BytecodeScanningDetector;
 import edu.umd.cs.findbugs.OpcodeStack;
-import edu.umd.cs.findbugs.ba.ClassContext;
 
 /**
  * looks for methods that make a recursive call to itself as the last statement in the method. This tail recursion could be converted into a simple loop which
  * would improve the performance and stack requirements.
  */
-public class TailRecursion extends BytecodeScanningDetector {
+@ParallelSafe
+@IncrementalSafe
+public class TailRecursion extends AbstractRuleDetector {
     public static final int TAILRECURSIONFUDGE = 6;
 
-    private BugReporter bugReporter;
-    private OpcodeStack stack;
-    private int trPCPos;
-    private boolean possibleTailRecursion;
-    private boolean isStatic;
-
     /**
      * constructs a TR detector given the reporter to report bugs on
      *
@@ -51,86 +50,86 @@ public class TailRecursion extends BytecodeScanningDetector {
      *            the sync of bug reports
      */
     public TailRecursion(BugReporter bugReporter) {
-        this.bugReporter = bugReporter;
+        super(new Rule(bugReporter));
     }
 
     /**
-     * implements the visitor to create and clear the stack
-     *
-     * @param classContext
-     *            the context object of the currently parsed class
+     * looks for a method calling itself, on the same instance, as close to its end as its last statement can be
      */
-    @Override
-    public void visitClassContext(ClassContext classContext) {
-        try {
-            stack = new OpcodeStack();
-            super.visitClassContext(classContext);
-        } finally {
-            stack = null;
+    static class Rule extends OpcodeRule {
+        /** the opcodes before which the rule looks at the items on the stack */
+        private static final BitSet STACK_ITEM_OPCODES = SharedOpcodeStack.subscribe(INVOKEVIRTUAL);
+
+        private int trPCPos;
+        private boolean possibleTailRecursion;
+        private boolean isStatic;
+
+        Rule(BugReporter bugReporter) {
+            super(bugReporter);
         }
-    }
 
-    /**
-     * implements the visitor to figure the pc where the method call must occur depending on whether the method returns a value, or not.
-     *
-     * @param obj
-     *            the context object of the currently parsed method
-     */
-    @Override
-    public void visitMethod(Method obj) {
-        Code c = obj.getCode();
-        if (c != null) {
-            byte[] opcodes = c.getCode();
-            if (opcodes != null) {
-                trPCPos = opcodes.length - 1;
-                if (!obj.getSignature().endsWith(Values.SIG_VOID)) {
-                    trPCPos -= 1;
-                }
-                trPCPos -= TAILRECURSIONFUDGE;
-                possibleTailRecursion = true;
-                isStatic = obj.isStatic();
-                stack.resetForMethodEntry(this);
-                super.visitMethod(obj);
-            }
+        @Override
+        protected BitSet getStackItemOpcodes() {
+            return STACK_ITEM_OPCODES;
         }
-    }
 
-    /**
-     * implements the visitor to find methods that employ tail recursion
-     *
-     * @param seen
-     *            the opcode of the currently parsed instruction
-     */
-    @Override
-    public void sawOpcode(int seen) {
-        try {
-            stack.precomputation(this);
+        /**
+         * implements the rule to figure the pc where the method call must occur depending on whether the method returns a value, or not.
+         *
+         * @param obj
+         *            the context object of the currently parsed code block
+         * @return whether the method has bytecode
+         */
+        @Override
+        protected boolean startCode(Code obj) {
+            byte[] opcodes = obj.getCode();
+            if (opcodes == null) {
+                return false;
+            }
+
+            Method m = scanner.getMethod();
+            trPCPos = opcodes.length - 1;
+            if (!m.getSignature().endsWith(Values.SIG_VOID)) {
+                trPCPos -= 1;
+            }
+            trPCPos -= TAILRECURSIONFUDGE;
+            possibleTailRecursion = true;
+            isStatic = m.isStatic();
+            return true;
+        }
 
+        /**
+         * implements the rule to find methods that employ tail recursion
+         *
+         * @param seen
+         *            the opcode of the currently parsed instruction
+         */
+        @Override
+        protected void sawOpcode(int seen) {
             if (seen == INVOKEVIRTUAL) {
                 checkForTailRecursion();
             }
-        } finally {
-            stack.sawOpcode(this, seen);
         }
-    }
 
-    private void checkForTailRecursion() {
-        boolean isRecursion = getMethodName().equals(getNameConstantOperand()) && getMethodSig().equals(getSigConstantOperand())
-                && getClassName().equals(getClassConstantOperand());
+        private void checkForTailRecursion() {
+            String methodSig = scanner.getMethodSig();
+            boolean isRecursion = scanner.getMethodName().equals(scanner.getNameConstantOperand()) && methodSig.equals(scanner.getSigConstantOperand())
+                    && scanner.getClassName().equals(scanner.getClassConstantOperand());
 
-        if (isRecursion && !isStatic) {
-            int numParms = SignatureUtils.getNumParameters(getMethodSig());
-            if (stack.getStackDepth() > numParms) {
-                OpcodeStack.Item itm = stack.getStackItem(numParms);
-                isRecursion = (itm.getRegisterNumber() == 0);
+            if (isRecursion && !isStatic) {
+                int numParms = SignatureUtils.getNumParameters(methodSig);
+                if (stack.getStackDepth() > numParms) {
+                    OpcodeStack.Item itm = stack.getStackItem(numParms);
+                    isRecursion = (itm.getRegisterNumber() == 0);
+                }
             }
-        }
 
-        if (isRecursion && possibleTailRecursion && (getPC() >= trPCPos)) {
-            bugReporter.reportBug(new BugInstance(this, BugType.TR_TAIL_RECURSION.name(), NORMAL_PRIORITY).addClass(this).addMethod(this).addSourceLine(this));
-        } else {
-            possibleTailRecursion = false;
+            if (isRecursion && possibleTailRecursion && (scanner.getPC() >= trPCPos)) {
+                bugReporter.reportBug(new BugInstance(scanner, BugType.TR_TAIL_RECURSION.name(), NORMAL_PRIORITY).addClass(scanner).addMethod(scanner)
+                        .addSourceLine(scanner));
+            } else {
+                possibleTailRecursion = false;
+            }
         }
     }
-
 }
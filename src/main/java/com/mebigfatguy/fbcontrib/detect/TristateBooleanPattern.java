@@ -18,11 +18,16 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
+import java.util.BitSet;
+
 import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.Method;
 import org.apache.bcel.generic.Type;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.SharedOpcodeStack;
 import com.mebigfatguy.fbcontrib.utils.StopOpcodeParsingException;
 
 import edu.umd.cs.findbugs.BugInstance;
@@ -35,9 +40,14 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * looks for methods that are defined to return Boolean, but return null. This thus allows three return values, Boolean.FALSE, Boolean.TRUE and null. If three
  * values intended, it would be more clear to just create an enumeration with three values and return that type.
  */
+@ParallelSafe
+@IncrementalSafe
 public class TristateBooleanPattern extends BytecodeScanningDetector {
+    /** the opcodes before which the detector looks at the items on the stack */
+    private static final BitSet STACK_ITEM_OPCODES = SharedOpcodeStack.subscribe(ARETURN);
+
     private BugReporter bugReporter;
-    private OpcodeStack stack;
+    private SharedOpcodeStack stack;
 
     /**
      * constructs a TBP detector given the reporter to report bugs on
@@ -58,7 +68,7 @@ public class TristateBooleanPattern extends BytecodeScanningDetector {
     @Override
     public void visitClassContext(ClassContext classContext) {
         try {
-            stack = new OpcodeStack();
+            stack = new SharedOpcodeStack(STACK_ITEM_OPCODES);
             super.visitClassContext(classContext);
         } finally {
             stack = null;
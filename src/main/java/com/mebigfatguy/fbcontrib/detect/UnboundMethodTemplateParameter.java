@@ -29,6 +29,8 @@ import org.apache.bcel.classfile.Method;
 import org.apache.bcel.classfile.Signature;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -42,6 +44,8 @@ import edu.umd.cs.findbugs.visitclass.PreorderVisitor;
  * Looks for methods that declare method level template parameter(s) that are not bound to any of the method's parameters, and thus is not adding any
  * validation/type safety to the method, and is just confusing.
  */
+@ParallelSafe
+@IncrementalSafe
 public class UnboundMethodTemplateParameter extends PreorderVisitor implements Detector {
 
     private static final Pattern TEMPLATED_SIGNATURE = Pattern.compile("(\\<[^\\>]+\\>)(.+)");
@@ -34,6 +34,9 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
@@ -52,6 +55,8 @@ import edu.umd.cs.findbugs.classfile.analysis.AnnotationValue;
 
 /** looks for odd uses of the Assert class of the JUnit and TestNG framework */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class UnitTestAssertionOddities extends BytecodeScanningDetector {
     private enum State {
         SAW_NOTHING, SAW_IF_ICMPNE, SAW_IF_NE, SAW_IF_ICMPEQ, SAW_ICONST_1, SAW_GOTO, SAW_ICONST_0, SAW_EQUALS
@@ -87,6 +92,7 @@ public class UnitTestAssertionOddities extends BytecodeScanningDetector {
     private JavaClass testAnnotationClass;
     private JavaClass testNGAnnotationClass;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private boolean isTestCaseDerived;
     private boolean isAnnotationCapable;
     private String clsName;
@@ -135,7 +141,7 @@ public class UnitTestAssertionOddities extends BytecodeScanningDetector {
         try {
             JavaClass cls = classContext.getJavaClass();
             clsName = cls.getClassName().replace('.', '/');
-            isTestCaseDerived = (testCaseClass != null) && cls.instanceOf(testCaseClass);
+            isTestCaseDerived = (testCaseClass != null) && ClassHierarchyCache.instanceOf(cls, testCaseClass);
             isAnnotationCapable = (cls.getMajor() >= 5) && ((testAnnotationClass != null) || (testNGAnnotationClass != null));
             if (isTestCaseDerived || isAnnotationCapable) {
                 stack = new OpcodeStack();
@@ -383,9 +389,9 @@ public class UnitTestAssertionOddities extends BytecodeScanningDetector {
             }
 
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if ((userValue != null) && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item item = stack.getStackItem(0);
                 item.setUserValue(userValue);
@@ -18,68 +18,369 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
+import com.mebigfatguy.fbcontrib.collect.Statistics;
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
 import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
-import edu.umd.cs.findbugs.Detector;
+import edu.umd.cs.findbugs.SourceLineAnnotation;
+import edu.umd.cs.findbugs.ba.AnalysisContext;
 import edu.umd.cs.findbugs.ba.ClassContext;
-import edu.umd.cs.findbugs.visitclass.PreorderVisitor;
 
 /**
- * looks for methods that are bigger than 8000 bytes, as these methods are ignored by the jit for compilation, causing them to always be interpreted.
+ * looks for methods that are bigger than 8000 bytes, as these methods are ignored by the jit for compilation, causing them to always be interpreted. It also
+ * looks for calls made in loops that the jit won't inline, either because the called method is just over the inlining size limits, or because the methods
+ * inlined into the caller, along with what they call in turn, exceed the size the jit allows for one compilation. The limits default to those of the hotspot
+ * flags of the same names, and may be changed with the fb-contrib.ujm system properties.
  */
-public class Unjitable extends PreorderVisitor implements Detector {
-
-    private static final int UNJITABLE_CODE_LENGTH = 8000;
-
-    private BugReporter bugReporter;
-
-    public Unjitable(BugReporter bugReporter) {
-        this.bugReporter = bugReporter;
-    }
+@ParallelSafe
+@IncrementalSafe
+public class Unjitable extends AbstractRuleDetector {
 
     /**
-     * implements the visitor to accept the class for visiting
+     * constructs a UJM detector given the reporter to report bugs on
      *
-     * @param classContext
-     *            the context object of the currently parsed class
+     * @param bugReporter
+     *            the sync of bug reports
      */
-    @Override
-    public void visitClassContext(ClassContext classContext) {
-        JavaClass cls = classContext.getJavaClass();
-        cls.accept(this);
+    public Unjitable(BugReporter bugReporter) {
+        super(new Rule(bugReporter));
     }
 
     /**
-     * implements the visitor to look at the size of the method. static initializer are ignored as these will only be executed once anyway.
-     *
-     * @param obj
-     *            the context object of the currently parsed method
+     * reports methods too big to be jitted, and collects the sizes of the methods of a class and the calls they make, to report the calls in loops that won't
+     * be inlined once the class is parsed
      */
-    @Override
-    public void visitCode(Code obj) {
+    static class Rule extends OpcodeRule {
+
+        private static final int UNJITABLE_CODE_LENGTH = 8000;
+
+        private static final String UJM_MAX_INLINE_SIZE = "fb-contrib.ujm.maxinlinesize";
+        private static final String UJM_FREQ_INLINE_SIZE = "fb-contrib.ujm.freqinlinesize";
+        private static final String UJM_MAX_INLINE_LEVEL = "fb-contrib.ujm.maxinlinelevel";
+        private static final String UJM_DESIRED_METHOD_LIMIT = "fb-contrib.ujm.desiredmethodlimit";
+        private static final String UJM_INLINE_SLACK = "fb-contrib.ujm.inlineslack";
+
+        private final int maxInlineSize;
+        private final int freqInlineSize;
+        private final int maxInlineLevel;
+        private final int desiredMethodLimit;
+        private final int inlineSlackPercent;
+        private final Map<String, MethodCalls> methodCalls = new HashMap<>();
+        private final List<LoopLocation> loops = new ArrayList<>();
+        private String clsName;
+        private MethodCalls curMethodCalls;
+
+        Rule(BugReporter bugReporter) {
+            super(bugReporter);
+            maxInlineSize = Integer.getInteger(UJM_MAX_INLINE_SIZE, 35).intValue();
+            freqInlineSize = Integer.getInteger(UJM_FREQ_INLINE_SIZE, 325).intValue();
+            maxInlineLevel = Integer.getInteger(UJM_MAX_INLINE_LEVEL, 9).intValue();
+            desiredMethodLimit = Integer.getInteger(UJM_DESIRED_METHOD_LIMIT, 8000).intValue();
+            inlineSlackPercent = Integer.getInteger(UJM_INLINE_SLACK, 20).intValue();
+        }
+
+        /**
+         * implements the rule to clear the calls collected for the previous class
+         *
+         * @param classContext
+         *            the context object of the currently parsed class
+         * @return true, as all classes are looked at
+         */
+        @Override
+        protected boolean startClass(ClassContext classContext) {
+            clsName = classContext.getJavaClass().getClassName().replace('.', '/');
+            methodCalls.clear();
+            curMethodCalls = null;
+            return true;
+        }
+
+        /**
+         * implements the rule to report the calls in loops that won't be inlined, now that the calls of all the methods they may inline are known
+         *
+         * @param classContext
+         *            the context object of the parsed class
+         */
+        @Override
+        protected void endClass(ClassContext classContext) {
+            JavaClass cls = classContext.getJavaClass();
+            for (MethodCalls calls : methodCalls.values()) {
+                reportUninlinedCalls(cls, calls);
+            }
+            methodCalls.clear();
+        }
+
+        /**
+         * implements the rule to look at the size of the method, and to collect the calls it makes in loops. static initializer are ignored as these will
+         * only be executed once anyway.
+         *
+         * @param obj
+         *            the context object of the currently parsed code block
+         * @return whether the method is looked at
+         */
+        @Override
+        protected boolean startCode(Code obj) {
+            Method m = scanner.getMethod();
+            if ((m.isStatic() && Values.STATIC_INITIALIZER.equals(m.getName())) || m.getName().contains("enum constant")) { // a findbugs thing!!
+                return false;
+            }
 
-        Method m = getMethod();
-        if ((!m.isStatic() || !Values.STATIC_INITIALIZER.equals(m.getName())) && (!m.getName().contains("enum constant"))) { // a findbugs thing!!
             byte[] code = obj.getCode();
             if (code.length >= UNJITABLE_CODE_LENGTH) {
-                bugReporter.reportBug(new BugInstance(this, BugType.UJM_UNJITABLE_METHOD.name(), NORMAL_PRIORITY).addClass(this).addMethod(this)
+                bugReporter.reportBug(new BugInstance(scanner, BugType.UJM_UNJITABLE_METHOD.name(), NORMAL_PRIORITY).addClass(scanner).addMethod(scanner)
                         .addString("Code Bytes: " + code.length));
             }
+
+            curMethodCalls = new MethodCalls(m, code.length);
+            loops.clear();
+            return true;
+        }
+
+        /**
+         * implements the rule to mark the calls made in loops, and keep the calls of the method
+         *
+         * @param obj
+         *            the context object of the parsed code block
+         */
+        @Override
+        protected void endCode(Code obj) {
+            for (CallSite site : curMethodCalls.calls) {
+                for (LoopLocation loop : loops) {
+                    if (loop.isInLoop(site.pc)) {
+                        site.inLoop = true;
+                        break;
+                    }
+                }
+            }
+            methodCalls.put(curMethodCalls.method.getName() + curMethodCalls.method.getSignature(), curMethodCalls);
+            curMethodCalls = null;
+        }
+
+        /**
+         * implements the rule to collect the calls made by the method, and the extent of its loops
+         *
+         * @param seen
+         *            the opcode of the currently parsed instruction
+         */
+        @Override
+        protected void sawOpcode(int seen) {
+            if ((seen == INVOKEVIRTUAL) || (seen == INVOKESPECIAL) || (seen == INVOKESTATIC)) {
+                curMethodCalls.calls.add(new CallSite(scanner.getPC(), scanner.getClassConstantOperand(), scanner.getNameConstantOperand(),
+                        scanner.getSigConstantOperand(), seen == INVOKESTATIC));
+            } else if (OpcodeUtils.isBranch(seen) && (seen != TABLESWITCH) && (seen != LOOKUPSWITCH)) {
+                int branchTarget = scanner.getBranchTarget();
+                int pc = scanner.getPC();
+                if (branchTarget < pc) {
+                    loops.add(new LoopLocation(branchTarget, pc));
+                }
+            }
+        }
+
+        /**
+         * reports the calls in loops of a method that the jit won't inline, either because the called method is just over an inlining size limit, or because
+         * inlining it, along with the calls it makes, takes the caller over the size allowed for one compilation. Size limits are only reported for methods of
+         * the application, as only those can be restructured.
+         *
+         * @param cls
+         *            the currently parsed class
+         * @param calls
+         *            the size and calls of one method of the class
+         */
+        private void reportUninlinedCalls(JavaClass cls, MethodCalls calls) {
+            int inlinedBytes = calls.numBytes;
+            for (CallSite site : calls.calls) {
+                if (!site.inLoop || calls.isCallTo(clsName, site)) {
+                    continue;
+                }
+
+                int calleeBytes = getCalleeBytes(site);
+                if (calleeBytes == 0) {
+                    continue;
+                }
+
+                boolean canRestructure = AnalysisContext.currentAnalysisContext().isApplicationClass(site.clsName.replace('/', '.'));
+                if (calleeBytes > freqInlineSize) {
+                    if (canRestructure && isJustOver(calleeBytes, freqInlineSize)) {
+                        reportUninlinedCall(cls, calls, site, NORMAL_PRIORITY, "Callee Bytes: " + calleeBytes + ", FreqInlineSize: " + freqInlineSize);
+                    }
+                    continue;
+                }
+
+                if (inlinedBytes <= desiredMethodLimit) {
+                    Set<String> inlinedMethods = new HashSet<>();
+                    inlinedMethods.add(calls.method.getName() + calls.method.getSignature());
+                    inlinedBytes += getInlinedBytes(site, calleeBytes, 1, inlinedMethods);
+                    if (inlinedBytes > desiredMethodLimit) {
+                        reportUninlinedCall(cls, calls, site, NORMAL_PRIORITY,
+                                "Inlined Bytes: " + inlinedBytes + ", DesiredMethodLimit: " + desiredMethodLimit);
+                        continue;
+                    }
+                }
+
+                if (canRestructure && isJustOver(calleeBytes, maxInlineSize)) {
+                    reportUninlinedCall(cls, calls, site, LOW_PRIORITY, "Callee Bytes: " + calleeBytes + ", MaxInlineSize: " + maxInlineSize);
+                }
+            }
+        }
+
+        /**
+         * returns the number of bytes inlined for a call, being the size of the called method and, if it is in this class, the sizes of the methods it calls
+         * that are small enough to be inlined in turn, down to the maximum inlining depth. The calls of methods of other classes aren't known, and so aren't
+         * counted.
+         *
+         * @param site
+         *            the call being inlined
+         * @param calleeBytes
+         *            the bytecode size of the called method
+         * @param depth
+         *            the inlining depth of the call
+         * @param inlinedMethods
+         *            the methods of this class already inlined on this chain, so as not to follow recursion
+         * @return the number of bytes inlined
+         */
+        private int getInlinedBytes(CallSite site, int calleeBytes, int depth, Set<String> inlinedMethods) {
+            int inlinedBytes = calleeBytes;
+            if ((depth >= maxInlineLevel) || !site.clsName.equals(clsName)) {
+                return inlinedBytes;
+            }
+
+            String calleeKey = site.methodName + site.signature;
+            MethodCalls calleeCalls = methodCalls.get(calleeKey);
+            if ((calleeCalls == null) || !inlinedMethods.add(calleeKey)) {
+                return inlinedBytes;
+            }
+
+            for (CallSite calleeSite : calleeCalls.calls) {
+                int bytes = getCalleeBytes(calleeSite);
+                if ((bytes > 0) && (bytes <= freqInlineSize)) {
+                    inlinedBytes += getInlinedBytes(calleeSite, bytes, depth + 1, inlinedMethods);
+                }
+            }
+            inlinedMethods.remove(calleeKey);
+            return inlinedBytes;
+        }
+
+        /**
+         * returns the bytecode size of the method called at a call site, from the methods of this class if it is one of them, or from the first pass statistics
+         *
+         * @param site
+         *            the call of the method
+         * @return the bytecode size, or 0 if it isn't known
+         */
+        private int getCalleeBytes(CallSite site) {
+            if (site.clsName.equals(clsName)) {
+                MethodCalls calleeCalls = methodCalls.get(site.methodName + site.signature);
+                if (calleeCalls != null) {
+                    return calleeCalls.numBytes;
+                }
+            }
+            return Statistics.getStatistics().getMethodStatistics(site.clsName, site.methodName, site.signature).getNumCodeBytes();
+        }
+
+        /**
+         * returns whether a method size is over an inlining limit by no more than the slack percentage, so that a small restructuring would allow it to be
+         * inlined
+         *
+         * @param bytes
+         *            the size of the method
+         * @param limit
+         *            the inlining limit
+         * @return whether the method is just over the limit
+         */
+        private boolean isJustOver(int bytes, int limit) {
+            return (bytes > limit) && ((bytes * 100L) <= (limit * (100L + inlineSlackPercent)));
+        }
+
+        private void reportUninlinedCall(JavaClass cls, MethodCalls calls, CallSite site, int priority, String reason) {
+            bugReporter.reportBug(new BugInstance(scanner, BugType.UJM_UNINLINED_CALL_IN_LOOP.name(), priority).addClass(cls).addMethod(cls, calls.method)
+                    .addCalledMethod(site.clsName.replace('/', '.'), site.methodName, site.signature, site.isStatic)
+                    .addSourceLine(SourceLineAnnotation.fromVisitedInstruction(scanner.getClassContext(), calls.method, site.pc)).addString(reason));
+        }
+    }
+
+    /**
+     * holds the bytecode size of a method of the class, and the calls it makes
+     */
+    private static class MethodCalls {
+        final Method method;
+        final int numBytes;
+        final List<CallSite> calls = new ArrayList<>();
+
+        MethodCalls(Method method, int numBytes) {
+            this.method = method;
+            this.numBytes = numBytes;
+        }
+
+        boolean isCallTo(String clsName, CallSite site) {
+            return site.clsName.equals(clsName) && site.methodName.equals(method.getName()) && site.signature.equals(method.getSignature());
+        }
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
+        }
+    }
+
+    /**
+     * holds a call made by a method, and whether it is made in a loop
+     */
+    private static class CallSite {
+        final int pc;
+        final String clsName;
+        final String methodName;
+        final String signature;
+        final boolean isStatic;
+        boolean inLoop;
+
+        CallSite(int pc, String clsName, String methodName, String signature, boolean isStatic) {
+            this.pc = pc;
+            this.clsName = clsName;
+            this.methodName = methodName;
+            this.signature = signature;
+            this.isStatic = isStatic;
+        }
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
         }
     }
 
     /**
-     * overrides the visitor, but not used.
+     * holds the start and end position of a loop
      */
-    @Override
-    public void report() {
-        // bugs are reported in visitCode
+    private static class LoopLocation {
+        private final int startPC;
+        private final int endPC;
+
+        LoopLocation(int start, int end) {
+            startPC = start;
+            endPC = end;
+        }
+
+        boolean isInLoop(int pc) {
+            return (pc >= startPC) && (pc <= endPC);
+        }
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
+        }
     }
 }
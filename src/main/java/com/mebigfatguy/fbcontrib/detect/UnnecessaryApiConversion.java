@@ -18,6 +18,7 @@
  */
 package com.mebigfatguy.fbcontrib.detect;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,6 +26,8 @@ import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 
 import edu.umd.cs.findbugs.BugInstance;
 import edu.umd.cs.findbugs.BugReporter;
@@ -37,16 +40,20 @@ import edu.umd.cs.findbugs.ba.XMethod;
  * looks for code that appears to be using two forms of similar apis, an older one, and a new one. It finds code that creates newer api objects by first
  * instantiating older api objects, and converting them into the new form. It is simpler just to create the new object directly.
  */
+@ParallelSafe
+@IncrementalSafe
 public class UnnecessaryApiConversion extends BytecodeScanningDetector {
 
-    private static Map<FQMethod, LegacyInfo> conversions = new HashMap<>();
+    private static final Map<FQMethod, LegacyInfo> conversions;
 
     static {
-        conversions.put(new FQMethod("java/util/Date", "toInstant", "()Ljava/time/Instant;"),
+        Map<FQMethod, LegacyInfo> cnv = new HashMap<>();
+        cnv.put(new FQMethod("java/util/Date", "toInstant", "()Ljava/time/Instant;"),
                 new LegacyInfo("<init>", BugType.UAC_UNNECESSARY_API_CONVERSION_DATE_TO_INSTANT));
-        conversions.put(new FQMethod("java/io/File", "toPath", "()Ljava/nio/file/Path;"),
+        cnv.put(new FQMethod("java/io/File", "toPath", "()Ljava/nio/file/Path;"),
                 new LegacyInfo("<init>", BugType.UAC_UNNECESSARY_API_CONVERSION_FILE_TO_PATH));
 
+        conversions = Collections.<FQMethod, LegacyInfo> unmodifiableMap(cnv);
     }
 
     private BugReporter bugReporter;
@@ -26,6 +26,10 @@ import org.apache.bcel.classfile.CodeException;
 
 import com.mebigfatguy.fbcontrib.utils.AttributesUtils;
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -42,9 +46,13 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * an exception, this test is unnecessary and represents a misunderstanding as to how the jvm works.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(opcodes = { Constants.NEW, Constants.ANEWARRAY, Constants.MULTIANEWARRAY })
 public class UnnecessaryNewNullCheck extends BytecodeScanningDetector {
     private final BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private BitSet allocationRegs;
     private BitSet transitionPoints;
 
@@ -54,6 +62,10 @@ public class UnnecessaryNewNullCheck extends BytecodeScanningDetector {
 
     @Override
     public void visitClassContext(ClassContext classContext) {
+        if (!PrescreenIndex.shouldVisit(this, classContext)) {
+            return;
+        }
+
         try {
             stack = new OpcodeStack();
             allocationRegs = new BitSet();
@@ -184,9 +196,9 @@ public class UnnecessaryNewNullCheck extends BytecodeScanningDetector {
                 break;
             }
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
 
             if (stack.getStackDepth() > 0) {
                 OpcodeStack.Item item = stack.getStackItem(0);
@@ -25,6 +25,8 @@ import org.apache.bcel.classfile.CodeException;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -40,6 +42,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * Looks for methods that store the return result in a local variable, and then immediately returns that local variable.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class UnnecessaryStoreBeforeReturn extends BytecodeScanningDetector {
     enum State {
         SEEN_NOTHING, SEEN_STORE, SEEN_LOAD
@@ -106,6 +110,7 @@ public class UnnecessaryStoreBeforeReturn extends BytecodeScanningDetector {
     private BitSet branchTargets;
     private BitSet catchTargets;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private State state;
     private int storeReg;
 
@@ -212,9 +217,9 @@ public class UnnecessaryStoreBeforeReturn extends BytecodeScanningDetector {
             lhsReg = processBinOp(seen);
 
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if ((lhsReg > -1) && (stack.getStackDepth() >= 1)) {
                 OpcodeStack.Item item = stack.getStackItem(0);
                 item.setUserValue(Integer.valueOf(lhsReg));
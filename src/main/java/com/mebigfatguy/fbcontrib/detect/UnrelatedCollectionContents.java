@@ -30,6 +30,8 @@ import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.FQField;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
@@ -48,6 +50,8 @@ import edu.umd.cs.findbugs.ba.XField;
  * brittle code, relying either on positional correspondence for type, or a reliance on instanceof to determine type. A better design usually can be had by
  * creating a separate class, which defines the different types required, and add an instance of that class to the collection, or array.
  */
+@ParallelSafe
+@IncrementalSafe
 public class UnrelatedCollectionContents extends BytecodeScanningDetector {
     private static final Set<String> COLLECTION_CLASSES = UnmodifiableSet.create(Values.SLASHED_JAVA_UTIL_COLLECTION, Values.SLASHED_JAVA_UTIL_LIST,
             Values.SLASHED_JAVA_UTIL_MAP, Values.SLASHED_JAVA_UTIL_SET, "java/util/SortedMap", "java/util/SortedSet");
@@ -30,6 +30,8 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -42,6 +44,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
 /**
  * looks for methods that return Object, and who's code body returns two or more different types of objects that are unrelated (other than by Object).
  */
+@ParallelSafe
+@IncrementalSafe
 public class UnrelatedReturnValues extends BytecodeScanningDetector {
     private final BugReporter bugReporter;
     private OpcodeStack stack;
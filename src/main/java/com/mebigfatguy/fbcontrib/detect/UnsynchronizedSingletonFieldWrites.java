@@ -31,7 +31,9 @@ import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.CollectionUtils;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.UnmodifiableSet;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -44,6 +46,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
 /**
  * looks for field writes to objects that are non singletons, where the write is not synchronized
  */
+@ParallelSafe
+@IncrementalSafe
 public class UnsynchronizedSingletonFieldWrites extends BytecodeScanningDetector {
 
     private static final Set<String> SPRING_CLASS_ANNOTATIONS = UnmodifiableSet.create(
@@ -26,6 +26,9 @@ import org.apache.bcel.classfile.Code;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
@@ -44,8 +47,11 @@ import edu.umd.cs.findbugs.ba.XField;
  * Arrays.asList(array), and use that as the source to addAll.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class UseAddAll extends AbstractCollectionScanningDetector {
 
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     /** register/field to alias register/field */
     private Map<Comparable<?>, Comparable<?>> userValues;
     /** alias register to loop info */
@@ -233,9 +239,9 @@ public class UseAddAll extends AbstractCollectionScanningDetector {
         } catch (ClassNotFoundException cnfe) {
             bugReporter.reportMissingClass(cnfe);
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if (sawAlias) {
                 if (stack.getStackDepth() > 0) {
                     OpcodeStack.Item itm = stack.getStackItem(0);
@@ -280,7 +286,7 @@ public class UseAddAll extends AbstractCollectionScanningDetector {
         }
 
         JavaClass cls = item.getJavaClass();
-        if ((cls != null) && cls.implementationOf(collectionClass)) {
+        if ((cls != null) && ClassHierarchyCache.implementationOf(cls, collectionClass)) {
             return field.getName();
         }
 
@@ -29,6 +29,10 @@ import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.ToString;
@@ -46,6 +50,9 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * instead. It is more performant for the method to handle a single character than a String.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(opcodes = { Constants.LDC, Constants.LDC_W })
 public class UseCharacterParameterizedMethod extends BytecodeScanningDetector {
 
     private final static Map<FQMethod, Object> characterMethods;
@@ -104,6 +111,10 @@ public class UseCharacterParameterizedMethod extends BytecodeScanningDetector {
      */
     @Override
     public void visitClassContext(final ClassContext context) {
+        if (!PrescreenIndex.shouldVisit(this, context)) {
+            return;
+        }
+
         try {
             stack = new OpcodeStack();
             super.visitClassContext(context);
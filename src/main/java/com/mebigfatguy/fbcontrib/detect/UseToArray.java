@@ -24,6 +24,8 @@ import java.util.Map;
 import org.apache.bcel.classfile.Code;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.RegisterUtils;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
@@ -39,8 +41,11 @@ import edu.umd.cs.findbugs.OpcodeStack.CustomUserValue;
  * simpler and cleaner to use mycollection.toArray(new type[mycollection.size()].
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
 public class UseToArray extends AbstractCollectionScanningDetector {
 
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
     private Map<Integer, Object> userValues;
 
     /**
@@ -160,9 +165,9 @@ public class UseToArray extends AbstractCollectionScanningDetector {
         } catch (ClassNotFoundException cnfe) {
             bugReporter.reportMissingClass(cnfe);
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if (sawAlias) {
                 if (stack.getStackDepth() > 0) {
                     OpcodeStack.Item itm = stack.getStackItem(0);
@@ -28,8 +28,11 @@ import org.apache.bcel.classfile.CodeException;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
 import com.mebigfatguy.fbcontrib.utils.CollectionUtils;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
 import com.mebigfatguy.fbcontrib.utils.OpcodeUtils;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -43,6 +46,8 @@ import edu.umd.cs.findbugs.ba.ClassContext;
 /**
  * looks for try/finally blocks that manage resources, without using try-with-resources
  */
+@ParallelSafe
+@IncrementalSafe
 public class UseTryWithResources extends BytecodeScanningDetector {
 
     enum State {
@@ -176,7 +181,7 @@ public class UseTryWithResources extends BytecodeScanningDetector {
 
         if ((bugPC >= 0) && ((seen == INVOKEVIRTUAL) || (seen == INVOKEINTERFACE)) && "addSuppressed".equals(getNameConstantOperand())
                 && SignatureBuilder.SIG_THROWABLE_TO_VOID.equals(getSigConstantOperand())
-                && Repository.lookupClass(getClassConstantOperand()).instanceOf(throwableClass)) {
+                && ClassHierarchyCache.instanceOf(Repository.lookupClass(getClassConstantOperand()), throwableClass)) {
             closePC = -1;
             bugPC = -1;
             suppressedPC = getPC();
@@ -198,7 +203,7 @@ public class UseTryWithResources extends BytecodeScanningDetector {
     private void sawOpcodeAfterLoad(int seen, int pc) throws ClassNotFoundException {
         if (((seen == INVOKEVIRTUAL) || (seen == INVOKEINTERFACE)) && "close".equals(getNameConstantOperand())
                 && SignatureBuilder.SIG_VOID_TO_VOID.equals(getSigConstantOperand())
-                && Repository.lookupClass(getClassConstantOperand()).implementationOf(autoCloseableClass)) {
+                && ClassHierarchyCache.implementationOf(Repository.lookupClass(getClassConstantOperand()), autoCloseableClass)) {
             TryBlock tb = findEnclosingFinally(pc);
             if ((tb != null) && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item itm = stack.getStackItem(0);
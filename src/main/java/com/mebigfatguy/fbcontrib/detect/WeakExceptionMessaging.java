@@ -30,6 +30,11 @@ import org.apache.bcel.classfile.JavaClass;
 import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.ClassHierarchyCache;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+import com.mebigfatguy.fbcontrib.utils.Prescreen;
+import com.mebigfatguy.fbcontrib.utils.PrescreenIndex;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.TernaryPatcher;
@@ -48,6 +53,9 @@ import edu.umd.cs.findbugs.ba.ClassContext;
  * so it may be difficult to determine how this exception occurred without showing context.
  */
 @CustomUserValue
+@ParallelSafe
+@IncrementalSafe
+@Prescreen(opcodes = Constants.ATHROW)
 public class WeakExceptionMessaging extends BytecodeScanningDetector {
 
     private static JavaClass exceptionClass;
@@ -63,6 +71,7 @@ public class WeakExceptionMessaging extends BytecodeScanningDetector {
 
     private final BugReporter bugReporter;
     private OpcodeStack stack;
+    private final TernaryPatcher ternaryPatcher = new TernaryPatcher();
 
     /**
      * constructs a WEM detector given the reporter to report bugs on
@@ -82,6 +91,10 @@ public class WeakExceptionMessaging extends BytecodeScanningDetector {
      */
     @Override
     public void visitClassContext(ClassContext classContext) {
+        if (!PrescreenIndex.shouldVisit(this, classContext)) {
+            return;
+        }
+
         try {
             if (exceptionClass != null) {
                 stack = new OpcodeStack();
@@ -148,7 +161,7 @@ public class WeakExceptionMessaging extends BytecodeScanningDetector {
                     return;
                 }
                 JavaClass exCls = Repository.lookupClass(clsName);
-                if (!exCls.instanceOf(exceptionClass)) {
+                if (!ClassHierarchyCache.instanceOf(exCls, exceptionClass)) {
                     return;
                 }
                 String sig = getSigConstantOperand();
@@ -173,9 +186,9 @@ public class WeakExceptionMessaging extends BytecodeScanningDetector {
         } catch (ClassNotFoundException cnfe) {
             bugReporter.reportMissingClass(cnfe);
         } finally {
-            TernaryPatcher.pre(stack, seen);
+            ternaryPatcher.pre(stack, seen);
             stack.sawOpcode(this, seen);
-            TernaryPatcher.post(stack, seen);
+            ternaryPatcher.post(stack, seen);
             if ((sawConstant || allConstantStrings) && (stack.getStackDepth() > 0)) {
                 OpcodeStack.Item item = stack.getStackItem(0);
                 item.setUserValue(Boolean.TRUE);
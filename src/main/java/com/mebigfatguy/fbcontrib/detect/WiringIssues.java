@@ -27,6 +27,8 @@ import org.apache.bcel.classfile.Field;
 import org.apache.bcel.classfile.JavaClass;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.ToString;
 import com.mebigfatguy.fbcontrib.utils.Values;
 
@@ -43,6 +45,8 @@ import edu.umd.cs.findbugs.visitclass.PreorderVisitor;
  * <li>Injecting the same bean twice into the same class hierarchy, even with different field names</li>
  * </ul>
  */
+@ParallelSafe
+@IncrementalSafe
 public class WiringIssues extends PreorderVisitor implements Detector {
 
     private static final String SPRING_AUTOWIRED = "Lorg/springframework/beans/factory/annotation/Autowired;";
@@ -56,6 +56,8 @@ import org.apache.bcel.classfile.Method;
 
 import com.mebigfatguy.fbcontrib.utils.BugType;
 import com.mebigfatguy.fbcontrib.utils.FQMethod;
+import com.mebigfatguy.fbcontrib.utils.IncrementalSafe;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
 import com.mebigfatguy.fbcontrib.utils.SignatureBuilder;
 import com.mebigfatguy.fbcontrib.utils.SignatureUtils;
 import com.mebigfatguy.fbcontrib.utils.Values;
@@ -71,6 +73,8 @@ import edu.umd.cs.findbugs.OpcodeStack.CustomUserValue;
  */
 @CustomUserValue
 @SuppressWarnings({ "PMD.ReplaceHashtableWithMap", "PMD.ReplaceVectorWithList" })
+@ParallelSafe
+@IncrementalSafe
 public class WriteOnlyCollection extends MissingMethodsDetector {
 
     private static final Set<String> collectionClasses;
@@ -0,0 +1,104 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.umd.cs.findbugs.ba.AnalysisContext;
+
+/**
+ * a bounded map for caching what is learned about classes during an analysis, to be held in a static field and shared by detectors. It is safe to use from
+ * any thread, is emptied when it reaches its maximum size, and is dropped when a new analysis context is started, as the same class names may then name other
+ * classes.
+ *
+ * @param <K>
+ *            the key type of the map
+ * @param <V>
+ *            the value type of the map
+ */
+public final class AnalysisScopedMap<K, V> {
+
+    private final int maxSize;
+    private volatile Scope<K, V> scope = new Scope<>(null);
+
+    /**
+     * creates a map that holds at most a given number of entries
+     *
+     * @param maxSize
+     *            the number of entries after which the map is emptied
+     */
+    public AnalysisScopedMap(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * returns the value cached for a key in the current analysis
+     *
+     * @param key
+     *            the key to look up
+     * @return the value, or null if it is not cached
+     */
+    public V get(K key) {
+        return getMap().get(key);
+    }
+
+    /**
+     * caches a value for a key in the current analysis
+     *
+     * @param key
+     *            the key to cache the value for
+     * @param value
+     *            the value to cache
+     */
+    public void put(K key, V value) {
+        Map<K, V> map = getMap();
+        if (map.size() >= maxSize) {
+            map.clear();
+        }
+        map.put(key, value);
+    }
+
+    private Map<K, V> getMap() {
+        AnalysisContext context = AnalysisContext.currentAnalysisContext();
+        Scope<K, V> s = scope;
+        if (s.context != context) {
+            s = new Scope<>(context);
+            scope = s;
+        }
+        return s.map;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.build(this);
+    }
+
+    /**
+     * the entries cached in one analysis
+     */
+    private static class Scope<K, V> {
+        final AnalysisContext context;
+        final Map<K, V> map = new ConcurrentHashMap<>();
+
+        Scope(AnalysisContext context) {
+            this.context = context;
+        }
+    }
+}
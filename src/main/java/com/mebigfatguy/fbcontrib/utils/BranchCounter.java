@@ -0,0 +1,257 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.util.BitSet;
+
+import org.apache.bcel.Constants;
+import org.apache.bcel.classfile.Code;
+import org.apache.bcel.classfile.CodeException;
+import org.apache.bcel.classfile.ConstantFieldref;
+import org.apache.bcel.classfile.ConstantNameAndType;
+import org.apache.bcel.classfile.ConstantPool;
+import org.apache.bcel.classfile.Method;
+
+/**
+ * counts the branches of a method, for its cyclomatic complexity, with one scan of its code bytes rather than by building its control flow graph. The count
+ * follows the non fall thru edges of the findbugs CFG: one for entering the method, one for each conditional branch, goto, jsr and ret, one for each run of
+ * switch cases going to different targets, one for each distinct exception handler, and one for leaving by an exception, if an instruction may throw one.
+ * As with the CFG, assertions are taken to be enabled, so the check of whether they are disabled is not a branch, and reading fields of this, or of the outer
+ * this of an inner class, is taken not to throw. A finally block is counted as often as the compiler copies it, as the CFG holds each copy.
+ */
+public final class BranchCounter {
+
+    /**
+     * private to reinforce the helper status of the class
+     */
+    private BranchCounter() {
+    }
+
+    /**
+     * counts the branches of a method
+     *
+     * @param method
+     *            the method whose code to scan
+     * @return the number of branches, or 0 if the method has no code
+     */
+    public static int countBranches(Method method) {
+        Code code = method.getCode();
+        byte[] bytes = (code == null) ? null : code.getCode();
+        if (bytes == null) {
+            return 0;
+        }
+
+        ConstantPool pool = method.getConstantPool();
+        boolean isStatic = method.isStatic();
+        int branches = 1;
+        boolean mayThrow = false;
+        int prevOpcode = -1;
+        boolean prevPushesThis = false;
+        boolean prevPrevPushesThis = false;
+        boolean prevChecksAssertions = false;
+        int pc = 0;
+        while (pc < bytes.length) {
+            int opcode = CodeByteUtils.getbyte(bytes, pc);
+            boolean pushesThis = !isStatic && (opcode == Constants.ALOAD_0);
+            boolean checksAssertions = false;
+            switch (opcode) {
+                case Constants.IFNE:
+                    if (!prevChecksAssertions) {
+                        branches++;
+                    }
+                break;
+
+                case Constants.IFEQ:
+                case Constants.IFLT:
+                case Constants.IFGE:
+                case Constants.IFGT:
+                case Constants.IFLE:
+                case Constants.IF_ICMPEQ:
+                case Constants.IF_ICMPNE:
+                case Constants.IF_ICMPLT:
+                case Constants.IF_ICMPGE:
+                case Constants.IF_ICMPGT:
+                case Constants.IF_ICMPLE:
+                case Constants.IF_ACMPEQ:
+                case Constants.IF_ACMPNE:
+                case Constants.IFNULL:
+                case Constants.IFNONNULL:
+                case Constants.GOTO:
+                case Constants.GOTO_W:
+                case Constants.JSR:
+                case Constants.JSR_W:
+                case Constants.RET:
+                    branches++;
+                break;
+
+                case Constants.TABLESWITCH: {
+                    int base = (pc + 4) & ~3;
+                    int low = CodeByteUtils.getint(bytes, base + 4);
+                    int high = CodeByteUtils.getint(bytes, base + 8);
+                    branches += countSwitchTargets(bytes, base + 12, (high - low) + 1, 4, CodeByteUtils.getint(bytes, base));
+                }
+                break;
+
+                case Constants.LOOKUPSWITCH: {
+                    int base = (pc + 4) & ~3;
+                    int npairs = CodeByteUtils.getint(bytes, base + 4);
+                    branches += countSwitchTargets(bytes, base + 12, npairs, 8, CodeByteUtils.getint(bytes, base));
+                }
+                break;
+
+                case Constants.GETSTATIC:
+                    checksAssertions = "$assertionsDisabled".equals(getFieldName(pool, bytes, pc));
+                break;
+
+                case Constants.GETFIELD:
+                    // as with findbugs, fields of this, or of outer this, are assumed not to throw
+                    mayThrow |= !prevPushesThis;
+                    pushesThis = !isStatic && getFieldName(pool, bytes, pc).startsWith("this$");
+                break;
+
+                case Constants.PUTFIELD:
+                    mayThrow |= !isSimplePush(prevOpcode) || !prevPrevPushesThis;
+                break;
+
+                case Constants.DUP:
+                    pushesThis = prevPushesThis;
+                break;
+
+                default:
+                    mayThrow |= mayThrow(opcode);
+                break;
+            }
+            prevOpcode = opcode;
+            prevPrevPushesThis = prevPushesThis;
+            prevPushesThis = pushesThis;
+            prevChecksAssertions = checksAssertions;
+            pc += CodeByteUtils.getInstructionLength(bytes, pc);
+        }
+
+        CodeException[] handlers = code.getExceptionTable();
+        if (handlers != null) {
+            BitSet handlerPCs = new BitSet();
+            for (CodeException handler : handlers) {
+                handlerPCs.set(handler.getHandlerPC());
+            }
+            branches += handlerPCs.cardinality();
+        }
+
+        if (mayThrow) {
+            branches++;
+        }
+
+        return branches;
+    }
+
+    /**
+     * counts the targets of a switch, where consecutive cases going to the same target are counted once
+     *
+     * @param bytes
+     *            the code bytes
+     * @param offset
+     *            the offset of the first case's jump offset
+     * @param numCases
+     *            the number of cases, not counting the default
+     * @param caseSize
+     *            the number of bytes between the jump offsets of cases
+     * @param defaultOffset
+     *            the jump offset of the default
+     * @return the number of targets
+     */
+    private static int countSwitchTargets(byte[] bytes, int offset, int numCases, int caseSize, int defaultOffset) {
+        int targets = 0;
+        int lastTarget = Integer.MIN_VALUE;
+        for (int i = 0; i < numCases; i++) {
+            int target = CodeByteUtils.getint(bytes, offset + (i * caseSize));
+            if (target != lastTarget) {
+                targets++;
+            }
+            lastTarget = target;
+        }
+        if (defaultOffset != lastTarget) {
+            targets++;
+        }
+        return targets;
+    }
+
+    /**
+     * returns the name of the field accessed by the field instruction at a pc
+     */
+    private static String getFieldName(ConstantPool pool, byte[] bytes, int pc) {
+        ConstantFieldref field = (ConstantFieldref) pool.getConstant(0x0000FFFF & CodeByteUtils.getshort(bytes, pc + 1));
+        ConstantNameAndType nameAndType = (ConstantNameAndType) pool.getConstant(field.getNameAndTypeIndex());
+        return nameAndType.getName(pool);
+    }
+
+    /**
+     * returns whether an opcode pushes one value without popping any, so that the instruction before it pushed the object of a following PUTFIELD
+     */
+    private static boolean isSimplePush(int opcode) {
+        if ((opcode >= Constants.ACONST_NULL) && (opcode <= Constants.ALOAD_3)) {
+            return true;
+        }
+        return opcode == Constants.GETSTATIC;
+    }
+
+    /**
+     * returns whether an instruction may throw an exception, the way the findbugs CFG builder sees it, which ignores what can only be thrown by class
+     * loading, such as by NEW and static field access
+     */
+    private static boolean mayThrow(int opcode) {
+        switch (opcode) {
+            case Constants.INVOKEVIRTUAL:
+            case Constants.INVOKESPECIAL:
+            case Constants.INVOKESTATIC:
+            case Constants.INVOKEINTERFACE:
+            case Constants.INVOKEDYNAMIC:
+            case Constants.ATHROW:
+            case Constants.NEWARRAY:
+            case Constants.ANEWARRAY:
+            case Constants.MULTIANEWARRAY:
+            case Constants.IALOAD:
+            case Constants.LALOAD:
+            case Constants.FALOAD:
+            case Constants.DALOAD:
+            case Constants.AALOAD:
+            case Constants.BALOAD:
+            case Constants.CALOAD:
+            case Constants.SALOAD:
+            case Constants.IASTORE:
+            case Constants.LASTORE:
+            case Constants.FASTORE:
+            case Constants.DASTORE:
+            case Constants.AASTORE:
+            case Constants.BASTORE:
+            case Constants.CASTORE:
+            case Constants.SASTORE:
+            case Constants.ARRAYLENGTH:
+            case Constants.IDIV:
+            case Constants.IREM:
+            case Constants.LDIV:
+            case Constants.LREM:
+            case Constants.CHECKCAST:
+            case Constants.MONITORENTER:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+import edu.umd.cs.findbugs.DetectorFactory;
+
+/**
+ * an object stream for writing bugs, that drops their detector factories, as they aren't serializable. Bugs read back from it are thus without one, as are
+ * those read from a saved bug collection.
+ */
+public class BugOutputStream extends ObjectOutputStream {
+
+    /**
+     * creates a stream that writes bugs to another stream
+     *
+     * @param out
+     *            the stream to write the serialized bugs to
+     *
+     * @throws IOException
+     *             if the stream header can't be written
+     */
+    public BugOutputStream(OutputStream out) throws IOException {
+        super(out);
+        enableReplaceObject(true);
+    }
+
+    @Override
+    protected Object replaceObject(Object obj) throws IOException {
+        return (obj instanceof DetectorFactory) ? null : obj;
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import edu.umd.cs.findbugs.BugInstance;
+
+/**
+ * holds the bugs that a detector finds, but can only decide to report once all classes have been seen, keyed by whatever the detector decides them by. Bugs
+ * that become final should be reported right away, and state that only matters for one class should be dropped when that class is done; this is for what
+ * can't be. Up to a maximum number of bugs are held in memory, after which further bugs are written to a temporary file, and only their offset in it is
+ * kept, so that a project wide detector doesn't hold the annotations of every candidate until report time. The maximum is given by the system property
+ * {@value #MAX_IN_MEMORY_PROPERTY}, and defaults to {@value #DEFAULT_MAX_IN_MEMORY}.
+ * <p>
+ * Bugs read back from the file have no detector factory, as with those read from a saved bug collection. A spool is used by one detector instance, and isn't
+ * safe to share between threads.
+ *
+ * @param <K>
+ *            the type of the keys of the bugs
+ */
+public final class BugSpool<K> implements Closeable {
+
+    public static final String MAX_IN_MEMORY_PROPERTY = "fb-contrib.bugspool.max";
+    public static final int DEFAULT_MAX_IN_MEMORY = 1000;
+
+    private final int maxInMemory;
+    private final Map<K, BugInstance> heldBugs = new HashMap<>();
+    private final Map<K, Long> spilledBugs = new HashMap<>();
+    private Path spillPath;
+    private RandomAccessFile spillFile;
+    private boolean canSpill = true;
+
+    /**
+     * creates a spool that holds as many bugs in memory as the system property {@value #MAX_IN_MEMORY_PROPERTY} says
+     */
+    public BugSpool() {
+        this(Integer.getInteger(MAX_IN_MEMORY_PROPERTY, DEFAULT_MAX_IN_MEMORY).intValue());
+    }
+
+    /**
+     * creates a spool that holds a given number of bugs in memory
+     *
+     * @param maxInMemory
+     *            the number of bugs after which further bugs are written to disk
+     */
+    public BugSpool(int maxInMemory) {
+        this.maxInMemory = maxInMemory;
+    }
+
+    /**
+     * adds a bug to the spool, replacing any bug already held for the key
+     *
+     * @param key
+     *            the key of the bug
+     * @param bug
+     *            the bug to hold until it is decided upon
+     */
+    public void put(K key, BugInstance bug) {
+        if (heldBugs.containsKey(key) || (spilledBugs.remove(key) == null) && (heldBugs.size() < maxInMemory)) {
+            heldBugs.put(key, bug);
+            return;
+        }
+
+        if (canSpill) {
+            try {
+                spilledBugs.put(key, Long.valueOf(spill(bug)));
+                return;
+            } catch (IOException e) {
+                // the disk is out of reach, so hold the bugs in memory as if there were no spool
+                canSpill = false;
+            }
+        }
+        heldBugs.put(key, bug);
+    }
+
+    /**
+     * returns whether a bug is held for a key
+     *
+     * @param key
+     *            the key to look for
+     * @return whether the spool has a bug for the key
+     */
+    public boolean containsKey(K key) {
+        return heldBugs.containsKey(key) || spilledBugs.containsKey(key);
+    }
+
+    /**
+     * returns the bug held for a key, reading it back from disk if it was spilled
+     *
+     * @param key
+     *            the key of the bug
+     * @return the bug, or null if there is none, or it can't be read back
+     */
+    public BugInstance get(K key) {
+        BugInstance bug = heldBugs.get(key);
+        if (bug != null) {
+            return bug;
+        }
+
+        Long offset = spilledBugs.get(key);
+        if (offset == null) {
+            return null;
+        }
+
+        try {
+            return unspill(offset.longValue());
+        } catch (IOException | ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * returns the number of bugs held in the spool, in memory or on disk
+     *
+     * @return the number of bugs
+     */
+    public int size() {
+        return heldBugs.size() + spilledBugs.size();
+    }
+
+    /**
+     * drops all bugs, and deletes the spill file, if there is one. The spool may be used again afterwards.
+     */
+    public void clear() {
+        heldBugs.clear();
+        spilledBugs.clear();
+        canSpill = true;
+        if (spillFile != null) {
+            try {
+                spillFile.close();
+                Files.deleteIfExists(spillPath);
+            } catch (IOException e) {
+                // the file was created to be deleted on exit
+            } finally {
+                spillFile = null;
+                spillPath = null;
+            }
+        }
+    }
+
+    /**
+     * drops all bugs, the same as {@link #clear}
+     */
+    @Override
+    public void close() {
+        clear();
+    }
+
+    /**
+     * writes a bug to the end of the spill file, creating it if need be
+     *
+     * @param bug
+     *            the bug to write
+     * @return the offset the bug was written at
+     *
+     * @throws IOException
+     *             if the bug can't be written
+     */
+    private long spill(BugInstance bug) throws IOException {
+        if (spillFile == null) {
+            spillPath = Files.createTempFile("fb-contrib-bugs-", ".tmp");
+            spillPath.toFile().deleteOnExit();
+            spillFile = new RandomAccessFile(spillPath.toFile(), "rw");
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new BugOutputStream(baos)) {
+            oos.writeObject(bug);
+        }
+
+        long offset = spillFile.length();
+        spillFile.seek(offset);
+        spillFile.writeInt(baos.size());
+        spillFile.write(baos.toByteArray());
+        return offset;
+    }
+
+    /**
+     * reads a bug back from the spill file
+     *
+     * @param offset
+     *            the offset the bug was written at
+     * @return the bug
+     *
+     * @throws IOException
+     *             if the bug can't be read
+     * @throws ClassNotFoundException
+     *             if the bug holds classes that can't be found
+     */
+    private BugInstance unspill(long offset) throws IOException, ClassNotFoundException {
+        spillFile.seek(offset);
+        byte[] bytes = new byte[spillFile.readInt()];
+        spillFile.readFully(bytes);
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (BugInstance) ois.readObject();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString.build(this);
+    }
+}
@@ -144,6 +144,7 @@ public enum BugType {
 	LSYC_LOCAL_SYNCHRONIZED_COLLECTION,
 
 	MAC_MANUAL_ARRAY_COPY,
+	MCS_MEGAMORPHIC_CALL_SITE_IN_LOOP,
 	MDM_BIGDECIMAL_EQUALS,
 	MDM_INETADDRESS_GETLOCALHOST,
 	MDM_LOCK_ISLOCKED,
@@ -283,6 +284,7 @@ public enum BugType {
 	UCC_UNRELATED_COLLECTION_CONTENTS,
 	UCPM_USE_CHARACTER_PARAMETERIZED_METHOD,
 	UEC_USE_ENUM_COLLECTIONS,
+    UJM_UNINLINED_CALL_IN_LOOP,
     UJM_UNJITABLE_METHOD,
     UMTP_UNBOUND_METHOD_TEMPLATE_PARAMETER,
 	UNNC_UNNECESSARY_NEW_NULL_CHECK,
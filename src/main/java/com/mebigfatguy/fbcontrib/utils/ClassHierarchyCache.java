@@ -0,0 +1,158 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.bcel.Repository;
+import org.apache.bcel.classfile.JavaClass;
+
+/**
+ * answers the subtype questions of JavaClass.instanceOf and JavaClass.implementationOf from a cache of the names of all supertypes of each class, so that a
+ * class's hierarchy is walked once per analysis, rather than once per question. The cache is shared by all detectors, is safe to use from any thread, holds
+ * at most {@link #MAX_CLASSES} classes, and is dropped when a new analysis context is started. Classes whose hierarchy can't be fully loaded are not cached,
+ * and are answered by BCEL as before, as its walk may find the supertype before reaching the missing class.
+ */
+public final class ClassHierarchyCache {
+
+    private static final int MAX_CLASSES = 50000;
+
+    private static final AnalysisScopedMap<String, Set<String>> SUPERTYPES = new AnalysisScopedMap<>(MAX_CLASSES);
+
+    /**
+     * private to reinforce the helper status of the class
+     */
+    private ClassHierarchyCache() {
+    }
+
+    /**
+     * the cached equivalent of cls.instanceOf(superCls)
+     *
+     * @param cls
+     *            the class to check
+     * @param superCls
+     *            the class or interface that cls may derive from
+     * @return whether cls is, extends or implements superCls
+     *
+     * @throws ClassNotFoundException
+     *             if the hierarchy of cls can't be loaded
+     */
+    public static boolean instanceOf(JavaClass cls, JavaClass superCls) throws ClassNotFoundException {
+        Set<String> supertypes = getSupertypes(cls);
+        if (supertypes == null) {
+            return cls.instanceOf(superCls);
+        }
+        return supertypes.contains(superCls.getClassName());
+    }
+
+    /**
+     * the cached equivalent of cls.implementationOf(inf)
+     *
+     * @param cls
+     *            the class to check
+     * @param inf
+     *            the interface that cls may implement
+     * @return whether cls is or implements inf
+     *
+     * @throws ClassNotFoundException
+     *             if the hierarchy of cls can't be loaded
+     * @throws IllegalArgumentException
+     *             if inf is not an interface
+     */
+    public static boolean implementationOf(JavaClass cls, JavaClass inf) throws ClassNotFoundException {
+        if (!inf.isInterface()) {
+            throw new IllegalArgumentException(inf.getClassName() + " is no interface");
+        }
+        Set<String> supertypes = getSupertypes(cls);
+        if (supertypes == null) {
+            return cls.implementationOf(inf);
+        }
+        return supertypes.contains(inf.getClassName());
+    }
+
+    /**
+     * determines whether a class is, extends or implements another class or interface, given their names, only looking up the class if its hierarchy isn't
+     * cached yet
+     *
+     * @param clsName
+     *            the dotted or slashed name of the class to check
+     * @param superName
+     *            the dotted or slashed name of the class or interface that cls may derive from
+     * @return whether clsName is a subtype of superName
+     *
+     * @throws ClassNotFoundException
+     *             if the class, or its hierarchy, can't be loaded
+     */
+    public static boolean instanceOf(String clsName, String superName) throws ClassNotFoundException {
+        String dottedClsName = clsName.replace('/', '.');
+        String dottedSuperName = superName.replace('/', '.');
+        Set<String> supertypes = SUPERTYPES.get(dottedClsName);
+        if (supertypes == null) {
+            JavaClass cls = Repository.lookupClass(dottedClsName);
+            supertypes = getSupertypes(cls);
+            if (supertypes == null) {
+                return cls.instanceOf(Repository.lookupClass(dottedSuperName));
+            }
+        }
+        return supertypes.contains(dottedSuperName);
+    }
+
+    /**
+     * returns the names of the class and all its superclasses and interfaces, computing and caching them if needed
+     *
+     * @param cls
+     *            the class whose supertypes are wanted
+     * @return the supertype names, or null if some of the hierarchy couldn't be loaded
+     */
+    private static Set<String> getSupertypes(JavaClass cls) {
+        String clsName = cls.getClassName();
+        Set<String> supertypes = SUPERTYPES.get(clsName);
+        if (supertypes != null) {
+            return supertypes;
+        }
+
+        try {
+            supertypes = new HashSet<>();
+            supertypes.add(clsName);
+
+            JavaClass superCls = cls.getSuperClass();
+            if (superCls != null) {
+                Set<String> superClsTypes = getSupertypes(superCls);
+                if (superClsTypes == null) {
+                    return null;
+                }
+                supertypes.addAll(superClsTypes);
+            }
+
+            for (JavaClass inf : cls.getInterfaces()) {
+                Set<String> infTypes = getSupertypes(inf);
+                if (infTypes == null) {
+                    return null;
+                }
+                supertypes.addAll(infTypes);
+            }
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+
+        SUPERTYPES.put(clsName, supertypes);
+        return supertypes;
+    }
+}
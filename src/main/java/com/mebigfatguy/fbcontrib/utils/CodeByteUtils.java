@@ -18,6 +18,8 @@
  */
 package com.mebigfatguy.fbcontrib.utils;
 
+import org.apache.bcel.Constants;
+
 /**
  * a collection of static methods for working with retrieving arbitrary code
  * bytes in a code byte array
@@ -53,4 +55,50 @@ public final class CodeByteUtils {
     public static int getshort(byte[] bytes, int offset) {
         return (short) ((0x0000FFFF & (bytes[offset] << 8)) | (0x00FF & bytes[offset + 1]));
     }
+
+    /**
+     * returns the code int at a specific offset
+     *
+     * @param bytes
+     *            the code bytes
+     * @param offset
+     *            the offset into the code
+     * @return the int
+     */
+    public static int getint(byte[] bytes, int offset) {
+        return ((0x00FF & bytes[offset]) << 24) | ((0x00FF & bytes[offset + 1]) << 16) | ((0x00FF & bytes[offset + 2]) << 8) | (0x00FF & bytes[offset + 3]);
+    }
+
+    /**
+     * returns the length of the instruction at a specific offset, including its operands, and the padding and tables of switches
+     *
+     * @param bytes
+     *            the code bytes
+     * @param offset
+     *            the offset of the instruction's opcode
+     * @return the number of bytes the instruction takes
+     */
+    public static int getInstructionLength(byte[] bytes, int offset) {
+        int opcode = getbyte(bytes, offset);
+        switch (opcode) {
+            case Constants.TABLESWITCH: {
+                int base = (offset + 4) & ~3;
+                int low = getint(bytes, base + 4);
+                int high = getint(bytes, base + 8);
+                return (base + 12 + ((high - low + 1) * 4)) - offset;
+            }
+
+            case Constants.LOOKUPSWITCH: {
+                int base = (offset + 4) & ~3;
+                int npairs = getint(bytes, base + 4);
+                return (base + 8 + (npairs * 8)) - offset;
+            }
+
+            case Constants.WIDE:
+                return (getbyte(bytes, offset + 1) == Constants.IINC) ? 6 : 4;
+
+            default:
+                return 1 + Math.max(0, Constants.NO_OF_OPERANDS[opcode]);
+        }
+    }
 }
@@ -21,28 +21,11 @@ package com.mebigfatguy.fbcontrib.utils;
 import java.util.Collection;
 import java.util.Map;
 
-import org.apache.bcel.Repository;
-import org.apache.bcel.classfile.JavaClass;
-
 /**
  * a collection of static methods for determining if a class belongs to one or more collection types.
  */
 public final class CollectionUtils {
 
-    private static JavaClass LIST_CLASS = null;
-    private static JavaClass SET_CLASS = null;
-    private static JavaClass MAP_CLASS = null;
-
-    static {
-        try {
-            LIST_CLASS = Repository.lookupClass(Values.SLASHED_JAVA_UTIL_LIST);
-            SET_CLASS = Repository.lookupClass(Values.SLASHED_JAVA_UTIL_SET);
-            MAP_CLASS = Repository.lookupClass(Values.SLASHED_JAVA_UTIL_MAP);
-        } catch (ClassNotFoundException cnfe) {
-            // no bugReporter at present, so nothing to do
-        }
-    }
-
     /**
      * private to reinforce the helper status of the class
      */
@@ -60,8 +43,8 @@ public final class CollectionUtils {
      *             if the cls parameter can't be found
      */
     public static boolean isListSetMap(String clsName) throws ClassNotFoundException {
-        JavaClass cls = Repository.lookupClass(clsName);
-        return (cls.implementationOf(LIST_CLASS) || cls.implementationOf(SET_CLASS) || cls.implementationOf(MAP_CLASS));
+        return ClassHierarchyCache.instanceOf(clsName, Values.SLASHED_JAVA_UTIL_LIST) || ClassHierarchyCache.instanceOf(clsName, Values.SLASHED_JAVA_UTIL_SET)
+                || ClassHierarchyCache.instanceOf(clsName, Values.SLASHED_JAVA_UTIL_MAP);
     }
 
     public static boolean isEmpty(Collection<?> c) {
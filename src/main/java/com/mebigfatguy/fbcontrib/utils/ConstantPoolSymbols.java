@@ -0,0 +1,150 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import org.apache.bcel.Constants;
+import org.apache.bcel.classfile.Constant;
+import org.apache.bcel.classfile.ConstantCP;
+import org.apache.bcel.classfile.ConstantClass;
+import org.apache.bcel.classfile.ConstantFieldref;
+import org.apache.bcel.classfile.ConstantNameAndType;
+import org.apache.bcel.classfile.ConstantPool;
+
+import edu.umd.cs.findbugs.visitclass.DismantleBytecode;
+
+/**
+ * maps the class, method and field entries of one class's constant pool to their {@link SymbolTable} ids, looking up each entry once, so that a detector
+ * can get the class, method or field an instruction refers to without building strings. It is meant to be held by a detector for the class it is visiting,
+ * and is not to be shared between threads.
+ */
+public final class ConstantPoolSymbols {
+
+    private final ConstantPool pool;
+    private final int[] classIds;
+    private final Object[] members;
+
+    /**
+     * creates the symbols of a constant pool, which are looked up as they are asked for
+     *
+     * @param pool
+     *            the constant pool of the class
+     */
+    public ConstantPoolSymbols(ConstantPool pool) {
+        this.pool = pool;
+        classIds = new int[pool.getLength()];
+        members = new Object[pool.getLength()];
+    }
+
+    /**
+     * returns the constant pool index that the current instruction of a visitor refers to, for instructions that take a two byte constant pool index, such
+     * as field accesses, invocations, new and checkcast
+     *
+     * @param dbc
+     *            the visitor whose current instruction is wanted
+     * @return the constant pool index of the operand
+     */
+    public static int getOperandIndex(DismantleBytecode dbc) {
+        int pc = dbc.getPC();
+        return (dbc.getCodeByte(pc + 1) << 8) | dbc.getCodeByte(pc + 2);
+    }
+
+    /**
+     * returns the id of the dotted name of a class entry, or of the class of a field or method entry
+     *
+     * @param index
+     *            the constant pool index of the entry
+     * @return the class id
+     *
+     * @throws IllegalArgumentException
+     *             if the entry is neither a class nor a field or method
+     */
+    public int getClassId(int index) {
+        int id = classIds[index];
+        if (id == 0) {
+            Constant c = pool.getConstant(index);
+            if (c instanceof ConstantCP) {
+                c = pool.getConstant(((ConstantCP) c).getClassIndex());
+            }
+            if (!(c instanceof ConstantClass)) {
+                throw new IllegalArgumentException("Constant " + index + " is not a class or member reference");
+            }
+            // ids are stored plus one, so that 0 means not looked up yet
+            id = SymbolTable.classIdOf(((ConstantClass) c).getBytes(pool)) + 1;
+            classIds[index] = id;
+        }
+        return id - 1;
+    }
+
+    /**
+     * returns the method that a method or interface method entry refers to
+     *
+     * @param index
+     *            the constant pool index of the entry
+     * @return the method
+     *
+     * @throws IllegalArgumentException
+     *             if the entry is not a method
+     */
+    public FQMethodId getMethod(int index) {
+        Object member = members[index];
+        if (member == null) {
+            Constant c = pool.getConstant(index);
+            if ((c.getTag() != Constants.CONSTANT_Methodref) && (c.getTag() != Constants.CONSTANT_InterfaceMethodref)) {
+                throw new IllegalArgumentException("Constant " + index + " is not a method reference");
+            }
+            ConstantNameAndType nat = getNameAndType((ConstantCP) c);
+            member = new FQMethodId(getClassId(index), SymbolTable.idOf(nat.getName(pool)), SymbolTable.idOf(nat.getSignature(pool)));
+            members[index] = member;
+        }
+        return (FQMethodId) member;
+    }
+
+    /**
+     * returns the field that a field entry refers to
+     *
+     * @param index
+     *            the constant pool index of the entry
+     * @return the field
+     *
+     * @throws IllegalArgumentException
+     *             if the entry is not a field
+     */
+    public FQFieldId getField(int index) {
+        Object member = members[index];
+        if (member == null) {
+            Constant c = pool.getConstant(index);
+            if (!(c instanceof ConstantFieldref)) {
+                throw new IllegalArgumentException("Constant " + index + " is not a field reference");
+            }
+            ConstantNameAndType nat = getNameAndType((ConstantCP) c);
+            member = new FQFieldId(getClassId(index), SymbolTable.idOf(nat.getName(pool)), SymbolTable.idOf(nat.getSignature(pool)));
+            members[index] = member;
+        }
+        return (FQFieldId) member;
+    }
+
+    private ConstantNameAndType getNameAndType(ConstantCP c) {
+        return (ConstantNameAndType) pool.getConstant(c.getNameAndTypeIndex(), Constants.CONSTANT_NameAndType);
+    }
+
+    @Override
+    public String toString() {
+        return ToString.build(this);
+    }
+}
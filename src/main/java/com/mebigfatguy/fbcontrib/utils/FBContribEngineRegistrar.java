@@ -0,0 +1,41 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import com.mebigfatguy.fbcontrib.collect.IncrementalAnalysis;
+import com.mebigfatguy.fbcontrib.debug.DetectorProfiler;
+
+import edu.umd.cs.findbugs.classfile.IAnalysisCache;
+import edu.umd.cs.findbugs.classfile.IAnalysisEngineRegistrar;
+
+/**
+ * registers the analysis engines of fb-contrib with the analysis cache. It is named by the EngineRegistrar element of findbugs.xml. As FindBugs runs it
+ * before it creates the detectors, it also installs the {@link DetectorProfiler} when profiling, and the {@link IncrementalAnalysis} when analyzing
+ * incrementally, in that order, so that the profile shows what the gated detectors still cost.
+ */
+public class FBContribEngineRegistrar implements IAnalysisEngineRegistrar {
+
+    @Override
+    public void registerAnalysisEngines(IAnalysisCache analysisCache) {
+        new OpcodeStackSnapshots.Engine().registerWith(analysisCache);
+        new PrescreenIndex.Engine().registerWith(analysisCache);
+        DetectorProfiler.install();
+        IncrementalAnalysis.install();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+/**
+ * the {@link SymbolTable} id based equivalent of {@link FQField}, which is cheaper to hash and compare, and to build from a {@link ConstantPoolSymbols}
+ */
+public final class FQFieldId {
+    private final int classId;
+    private final int fieldNameId;
+    private final int signatureId;
+
+    public FQFieldId(int classId, int fieldNameId, int signatureId) {
+        this.classId = classId;
+        this.fieldNameId = fieldNameId;
+        this.signatureId = signatureId;
+    }
+
+    public FQFieldId(String className, String fieldName, String signature) {
+        this(SymbolTable.classIdOf(className), SymbolTable.idOf(fieldName), SymbolTable.idOf(signature));
+    }
+
+    public int getClassId() {
+        return classId;
+    }
+
+    public int getFieldNameId() {
+        return fieldNameId;
+    }
+
+    public int getSignatureId() {
+        return signatureId;
+    }
+
+    /**
+     * returns the dotted name of the class of the field
+     */
+    public String getClassName() {
+        return SymbolTable.symbolOf(classId);
+    }
+
+    public String getFieldName() {
+        return SymbolTable.symbolOf(fieldNameId);
+    }
+
+    public String getSignature() {
+        return SymbolTable.symbolOf(signatureId);
+    }
+
+    public FQField toFQField() {
+        return new FQField(getClassName().replace('.', '/'), getFieldName(), getSignature());
+    }
+
+    @Override
+    public int hashCode() {
+        return (((classId * 31) + fieldNameId) * 31) + signatureId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof FQFieldId)) {
+            return false;
+        }
+
+        FQFieldId that = (FQFieldId) o;
+
+        return (classId == that.classId) && (fieldNameId == that.fieldNameId) && (signatureId == that.signatureId);
+    }
+
+    @Override
+    public String toString() {
+        return getClassName() + '.' + getFieldName() + ':' + getSignature();
+    }
+}
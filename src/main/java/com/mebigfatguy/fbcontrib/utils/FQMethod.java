@@ -48,6 +48,9 @@ public final class FQMethod {
         return signature;
     }
 
+    /**
+     * note that Statistics probes for FQMethod keys with a reusable key that must compute the same hash code.
+     */
     @Override
     public int hashCode() {
         return className.hashCode() ^ methodName.hashCode() ^ signature.hashCode();
@@ -0,0 +1,90 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+/**
+ * the {@link SymbolTable} id based equivalent of {@link FQMethod}, which is cheaper to hash and compare, and to build from a {@link ConstantPoolSymbols}
+ */
+public final class FQMethodId {
+    private final int classId;
+    private final int methodNameId;
+    private final int signatureId;
+
+    public FQMethodId(int classId, int methodNameId, int signatureId) {
+        this.classId = classId;
+        this.methodNameId = methodNameId;
+        this.signatureId = signatureId;
+    }
+
+    public FQMethodId(String className, String methodName, String signature) {
+        this(SymbolTable.classIdOf(className), SymbolTable.idOf(methodName), SymbolTable.idOf(signature));
+    }
+
+    public int getClassId() {
+        return classId;
+    }
+
+    public int getMethodNameId() {
+        return methodNameId;
+    }
+
+    public int getSignatureId() {
+        return signatureId;
+    }
+
+    /**
+     * returns the dotted name of the class of the method
+     */
+    public String getClassName() {
+        return SymbolTable.symbolOf(classId);
+    }
+
+    public String getMethodName() {
+        return SymbolTable.symbolOf(methodNameId);
+    }
+
+    public String getSignature() {
+        return SymbolTable.symbolOf(signatureId);
+    }
+
+    public FQMethod toFQMethod() {
+        return new FQMethod(getClassName().replace('.', '/'), getMethodName(), getSignature());
+    }
+
+    @Override
+    public int hashCode() {
+        return (((classId * 31) + methodNameId) * 31) + signatureId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof FQMethodId)) {
+            return false;
+        }
+
+        FQMethodId that = (FQMethodId) o;
+
+        return (classId == that.classId) && (methodNameId == that.methodNameId) && (signatureId == that.signatureId);
+    }
+
+    @Override
+    public String toString() {
+        return toFQMethod().toFQMethodSignature();
+    }
+}
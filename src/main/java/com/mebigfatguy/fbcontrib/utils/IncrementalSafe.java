@@ -0,0 +1,40 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * marks a {@link ParallelSafe} detector whose findings in a class may be cached by incremental analysis, and replayed while neither the class nor the classes
+ * it depends on change. A detector is marked only if what it reports on a class follows from
+ * <ul>
+ * <li>the class itself, the classes named in its constant pool and in the descriptors of the fields and methods it declares or uses</li>
+ * <li>the superclasses and interfaces of all these, and the first pass statistics of the methods they declare</li>
+ * <li>the fb-contrib system properties</li>
+ * </ul>
+ * Detectors that learn from the rest of the program, such as the subclasses or implementors of a type, statistics that are derived from other methods, source
+ * files, or other jars, aren't marked, and are run over every class of an incremental analysis.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface IncrementalSafe {
+}
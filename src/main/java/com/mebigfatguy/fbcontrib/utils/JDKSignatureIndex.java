@@ -0,0 +1,547 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.ProviderNotFoundException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.bcel.Constants;
+import org.apache.bcel.classfile.ClassParser;
+import org.apache.bcel.classfile.JavaClass;
+import org.apache.bcel.classfile.Method;
+
+import edu.umd.cs.findbugs.internalAnnotations.SlashedClassName;
+
+/**
+ * a read only index of the classes, packages and non private methods of one JDK, used to answer whether an api exists in that JDK without parsing its class
+ * files. The index is built once from the rt.jar of JDKs through 8, or from the runtime image (lib/modules) of later JDKs, and stored in the index directory,
+ * from which it is memory mapped by later runs. Indices are shared by all detectors in the JVM, and are safe for concurrent use.
+ * <p>
+ * The index file holds a header, then a table of classes sorted by name, each with its super class and the range of its methods in the method table, then a
+ * sorted table of packages, then the method table, where each class's methods are sorted by name and signature, followed by the string data. All strings are
+ * latin1, with a leading length, so that lookups can compare them in place.
+ */
+public final class JDKSignatureIndex {
+
+    public static final String SJVU_INDEX_DIR = "fb-contrib.sjvu.indexdir";
+
+    private static final int MAGIC = 0xFBC0519D;
+    /** bump whenever the layout, or what is indexed, changes, so that old index files are rebuilt */
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int CLASS_ENTRY_SIZE = 16;
+    private static final int NO_SUPER_CLASS = -1;
+    private static final String CLASS_SUFFIX = ".class";
+
+    private static final ConcurrentMap<File, JDKSignatureIndex> indices = new ConcurrentHashMap<>();
+    /** the JDKs that could not be indexed in this analysis, so that the build isn't attempted again for every class */
+    private static final AnalysisScopedMap<File, IOException> failures = new AnalysisScopedMap<>(16);
+
+    private final ByteBuffer buffer;
+    private final int numClasses;
+    private final int numPackages;
+    private final int packageTableOffset;
+    private final int methodTableOffset;
+
+    private JDKSignatureIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if ((buffer.getInt(0) != MAGIC) || (buffer.getInt(4) != FORMAT_VERSION)) {
+            throw new IOException("Unrecognized JDK signature index");
+        }
+
+        numClasses = buffer.getInt(8);
+        numPackages = buffer.getInt(12);
+        packageTableOffset = HEADER_SIZE + (numClasses * CLASS_ENTRY_SIZE);
+        methodTableOffset = packageTableOffset + (numPackages * 4);
+    }
+
+    /**
+     * returns the index for a JDK, building and storing it if this JDK has not been indexed before
+     *
+     * @param jdkSource
+     *            either the rt.jar of the JDK, or the home directory of a JDK that has a runtime image
+     * @return the index of that JDK
+     *
+     * @throws IOException
+     *             if the JDK can't be read, or the index can't be built, now or earlier in this analysis
+     */
+    public static JDKSignatureIndex getIndex(File jdkSource) throws IOException {
+        File source = jdkSource.getCanonicalFile();
+        JDKSignatureIndex index = indices.get(source);
+        if (index != null) {
+            return index;
+        }
+
+        synchronized (indices) {
+            index = indices.get(source);
+            if (index == null) {
+                IOException failure = failures.get(source);
+                if (failure != null) {
+                    throw new IOException("Unable to index " + source + " earlier in this analysis", failure);
+                }
+                try {
+                    index = loadOrBuild(source);
+                } catch (IOException e) {
+                    failures.put(source, e);
+                    throw e;
+                }
+                indices.put(source, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * returns whether the class exists in this JDK
+     *
+     * @param clsName
+     *            the slashed class name
+     * @return whether the class exists
+     */
+    public boolean containsClass(@SlashedClassName String clsName) {
+        return findClass(clsName) >= 0;
+    }
+
+    /**
+     * returns whether the package exists in this JDK
+     *
+     * @param packageName
+     *            the slashed package name, without a trailing slash
+     * @return whether any class is declared in this package, or in one of its sub packages
+     */
+    public boolean containsPackage(String packageName) {
+        int lo = 0;
+        int hi = numPackages - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compare(buffer.getInt(packageTableOffset + (mid * 4)), packageName, "");
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * returns the super class of a class in this JDK
+     *
+     * @param clsName
+     *            the slashed class name
+     * @return the slashed name of the super class, or null if the class doesn't exist or has no super class
+     */
+    public String getSuperclassName(@SlashedClassName String clsName) {
+        int clsIndex = findClass(clsName);
+        if (clsIndex < 0) {
+            return null;
+        }
+
+        int superOffset = buffer.getInt(HEADER_SIZE + (clsIndex * CLASS_ENTRY_SIZE) + 4);
+        if (superOffset == NO_SUPER_CLASS) {
+            return null;
+        }
+
+        int len = buffer.getShort(superOffset) & 0xFFFF;
+        char[] chars = new char[len];
+        for (int i = 0; i < len; i++) {
+            chars[i] = (char) (buffer.get(superOffset + 2 + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * returns whether a class of this JDK declares a non private method, not including methods it inherits
+     *
+     * @param clsName
+     *            the slashed class name
+     * @param methodName
+     *            the name of the method
+     * @param signature
+     *            the signature of the method
+     * @return whether the method is declared by that class
+     */
+    public boolean declaresMethod(@SlashedClassName String clsName, String methodName, String signature) {
+        int clsIndex = findClass(clsName);
+        if (clsIndex < 0) {
+            return false;
+        }
+
+        int entryOffset = HEADER_SIZE + (clsIndex * CLASS_ENTRY_SIZE);
+        int lo = buffer.getInt(entryOffset + 8);
+        int hi = (lo + buffer.getInt(entryOffset + 12)) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compare(buffer.getInt(methodTableOffset + (mid * 4)), methodName, signature);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int findClass(String clsName) {
+        int lo = 0;
+        int hi = numClasses - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compare(buffer.getInt(HEADER_SIZE + (mid * CLASS_ENTRY_SIZE)), clsName, "");
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * compares the string stored at the offset with the concatenation of two strings, without building that concatenation
+     *
+     * @return less than, equal to, or greater than zero, as the stored string sorts before, equal to or after the concatenation
+     */
+    private int compare(int offset, String first, String second) {
+        int len = buffer.getShort(offset) & 0xFFFF;
+        int firstLen = first.length();
+        int wantedLen = firstLen + second.length();
+        int minLen = Math.min(len, wantedLen);
+        for (int i = 0; i < minLen; i++) {
+            int stored = buffer.get(offset + 2 + i) & 0xFF;
+            int wanted = i < firstLen ? first.charAt(i) : second.charAt(i - firstLen);
+            if (stored != wanted) {
+                return stored - wanted;
+            }
+        }
+        return len - wantedLen;
+    }
+
+    private static JDKSignatureIndex loadOrBuild(File source) throws IOException {
+        Path indexFile = getIndexFile(source);
+        if (!Files.exists(indexFile)) {
+            buildIndex(source, indexFile);
+        }
+
+        try {
+            return new JDKSignatureIndex(map(indexFile));
+        } catch (IOException e) {
+            // a stale or damaged index, so build it again
+            buildIndex(source, indexFile);
+            return new JDKSignatureIndex(map(indexFile));
+        }
+    }
+
+    private static ByteBuffer map(Path indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * returns the file that holds the index for this JDK, which is named for the location, size and time stamp of the JDK's class container, so that an
+     * updated JDK is indexed again
+     */
+    private static Path getIndexFile(File source) throws IOException {
+        File container = source.isDirectory() ? getRuntimeImage(source) : source;
+        String key = container.getPath() + '|' + container.length() + '|' + container.lastModified() + '|' + FORMAT_VERSION;
+
+        StringBuilder name = new StringBuilder("jdk-");
+        try {
+            for (byte b : MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8))) {
+                name.append(Character.forDigit((b >> 4) & 0x0F, 16)).append(Character.forDigit(b & 0x0F, 16));
+            }
+        } catch (NoSuchAlgorithmException e) {
+            name.append(Integer.toHexString(key.hashCode()));
+        }
+        name.append(".idx");
+
+        String indexDir = System.getProperty(SJVU_INDEX_DIR);
+        Path dir = indexDir == null ? Paths.get(System.getProperty("java.io.tmpdir"), "fb-contrib") : Paths.get(indexDir);
+        return dir.resolve(name.toString());
+    }
+
+    private static File getRuntimeImage(File jdkHome) {
+        return new File(jdkHome, "lib/modules");
+    }
+
+    private static void buildIndex(File source, Path indexFile) throws IOException {
+        SortedMap<String, IndexedClass> classes = new TreeMap<>();
+        if (source.isDirectory()) {
+            collectFromRuntimeImage(source, classes);
+        } else {
+            collectFromJar(source, classes);
+        }
+        writeIndex(classes, indexFile);
+    }
+
+    private static void collectFromJar(File jar, Map<String, IndexedClass> classes) throws IOException {
+        try (ZipFile zip = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String entryName = entry.getName();
+                if (entryName.endsWith(CLASS_SUFFIX)) {
+                    try (InputStream is = new BufferedInputStream(zip.getInputStream(entry))) {
+                        addClass(new ClassParser(is, entryName).parse(), classes);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * reads the classes of a JDK 9 or later runtime image, which requires that the analysis itself is running on JDK 9 or later
+     */
+    private static void collectFromRuntimeImage(File jdkHome, Map<String, IndexedClass> classes) throws IOException {
+        if (!getRuntimeImage(jdkHome).isFile()) {
+            throw new IOException("No rt.jar or runtime image found in " + jdkHome);
+        }
+
+        // the jrt provider of the running JVM is used if it has one, or otherwise the one that the JDK ships in lib/jrt-fs.jar, as the JDK 8 runtime has none
+        URI jrtUri = URI.create("jrt:/");
+        Map<String, String> env = Collections.singletonMap("java.home", jdkHome.getPath());
+        FileSystem jrt;
+        try {
+            jrt = FileSystems.newFileSystem(jrtUri, env);
+        } catch (ProviderNotFoundException e) {
+            File jrtFsJar = new File(jdkHome, "lib/jrt-fs.jar");
+            if (!jrtFsJar.isFile()) {
+                throw new IOException("Unable to read runtime image of " + jdkHome, e);
+            }
+            try (URLClassLoader loader = new URLClassLoader(new URL[] { jrtFsJar.toURI().toURL() });
+                    FileSystem jrtFromJar = FileSystems.newFileSystem(jrtUri, env, loader)) {
+                collectFromModules(jrtFromJar, classes);
+            }
+            return;
+        }
+
+        try (FileSystem fs = jrt) {
+            collectFromModules(fs, classes);
+        }
+    }
+
+    private static void collectFromModules(FileSystem jrt, Map<String, IndexedClass> classes) throws IOException {
+        try (DirectoryStream<Path> modules = Files.newDirectoryStream(jrt.getPath("/modules"))) {
+            for (Path module : modules) {
+                List<Path> classFiles = new ArrayList<>();
+                collectClassFiles(module, classFiles);
+                for (Path classFile : classFiles) {
+                    String entryName = module.relativize(classFile).toString();
+                    if (!"module-info.class".equals(entryName)) {
+                        try (InputStream is = new BufferedInputStream(Files.newInputStream(classFile))) {
+                            addClass(new ClassParser(is, entryName).parse(), classes);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void collectClassFiles(Path dir, List<Path> classFiles) throws IOException {
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(dir)) {
+            for (Path child : children) {
+                if (Files.isDirectory(child)) {
+                    collectClassFiles(child, classFiles);
+                } else if (child.toString().endsWith(CLASS_SUFFIX)) {
+                    classFiles.add(child);
+                }
+            }
+        }
+    }
+
+    private static void addClass(JavaClass cls, Map<String, IndexedClass> classes) {
+        String clsName = cls.getClassName().replace('.', '/');
+        if (!isLatin1(clsName)) {
+            return;
+        }
+
+        IndexedClass indexedClass = new IndexedClass();
+        if (!Values.SLASHED_JAVA_LANG_OBJECT.equals(clsName)) {
+            indexedClass.superName = cls.getSuperclassName().replace('.', '/');
+        }
+        for (Method m : cls.getMethods()) {
+            if ((m.getAccessFlags() & Constants.ACC_PRIVATE) == 0) {
+                String nameAndSig = m.getName() + m.getSignature();
+                if (isLatin1(nameAndSig)) {
+                    indexedClass.methods.add(nameAndSig);
+                }
+            }
+        }
+        classes.put(clsName, indexedClass);
+    }
+
+    private static boolean isLatin1(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeIndex(SortedMap<String, IndexedClass> classes, Path indexFile) throws IOException {
+        SortedSet<String> packages = new TreeSet<>();
+        int numMethods = 0;
+        for (Map.Entry<String, IndexedClass> entry : classes.entrySet()) {
+            String clsName = entry.getKey();
+            int slashPos = clsName.lastIndexOf('/');
+            while (slashPos > 0) {
+                clsName = clsName.substring(0, slashPos);
+                packages.add(clsName);
+                slashPos = clsName.lastIndexOf('/');
+            }
+            numMethods += entry.getValue().methods.size();
+        }
+
+        int stringsOffset = HEADER_SIZE + (classes.size() * CLASS_ENTRY_SIZE) + (packages.size() * 4) + (numMethods * 4);
+        StringTable strings = new StringTable(stringsOffset);
+
+        Files.createDirectories(indexFile.getParent());
+        Path tmpFile = Files.createTempFile(indexFile.getParent(), "jdk-", ".tmp");
+        try {
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                dos.writeInt(MAGIC);
+                dos.writeInt(FORMAT_VERSION);
+                dos.writeInt(classes.size());
+                dos.writeInt(packages.size());
+                dos.writeInt(numMethods);
+                dos.writeInt(stringsOffset);
+
+                int firstMethod = 0;
+                for (Map.Entry<String, IndexedClass> entry : classes.entrySet()) {
+                    IndexedClass indexedClass = entry.getValue();
+                    dos.writeInt(strings.offsetOf(entry.getKey()));
+                    dos.writeInt(indexedClass.superName == null ? NO_SUPER_CLASS : strings.offsetOf(indexedClass.superName));
+                    dos.writeInt(firstMethod);
+                    dos.writeInt(indexedClass.methods.size());
+                    firstMethod += indexedClass.methods.size();
+                }
+
+                for (String packageName : packages) {
+                    dos.writeInt(strings.offsetOf(packageName));
+                }
+
+                for (IndexedClass indexedClass : classes.values()) {
+                    for (String method : indexedClass.methods) {
+                        dos.writeInt(strings.offsetOf(method));
+                    }
+                }
+
+                for (String s : strings.strings) {
+                    dos.writeShort(s.length());
+                    dos.write(s.getBytes(StandardCharsets.ISO_8859_1));
+                }
+            }
+
+            Files.move(tmpFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString.build(this);
+    }
+
+    /**
+     * the super class and methods of a class, as collected while building the index
+     */
+    static class IndexedClass {
+        String superName;
+        Set<String> methods = new TreeSet<>();
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
+        }
+    }
+
+    /**
+     * assigns each distinct string its offset in the string data of the index, in the order they are first used
+     */
+    static class StringTable {
+        private final Map<String, Integer> offsets = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+        private int nextOffset;
+
+        StringTable(int stringsOffset) {
+            nextOffset = stringsOffset;
+        }
+
+        int offsetOf(String s) {
+            Integer offset = offsets.get(s);
+            if (offset == null) {
+                offset = Integer.valueOf(nextOffset);
+                offsets.put(s, offset);
+                strings.add(s);
+                nextOffset += 2 + s.length();
+            }
+            return offset.intValue();
+        }
+
+        @Override
+        public String toString() {
+            return ToString.build(this);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.util.BitSet;
+
+import org.apache.bcel.classfile.Code;
+import org.apache.bcel.classfile.JavaClass;
+import org.apache.bcel.classfile.Method;
+
+import edu.umd.cs.findbugs.OpcodeStack;
+import edu.umd.cs.findbugs.classfile.CheckedAnalysisException;
+import edu.umd.cs.findbugs.classfile.IAnalysisCache;
+import edu.umd.cs.findbugs.classfile.IMethodAnalysisEngine;
+import edu.umd.cs.findbugs.classfile.MethodDescriptor;
+import edu.umd.cs.findbugs.visitclass.DismantleBytecode;
+
+/**
+ * the state of the OpcodeStack before the instructions of a method, as seen by a detector after calling precomputation. The snapshots are computed once per
+ * method by {@link Engine}, and cached by the analysis cache along with the rest of the class's analysis, so that all detectors that only read the stack can
+ * share one symbolic execution of the method, thru {@link SharedOpcodeStack}. The depth of the stack is recorded before every instruction, but the items are
+ * only copied before the instructions whose opcodes a detector has subscribed to, with {@link #subscribe(BitSet)}, as detectors only look at the items of a
+ * few kinds of instructions, mostly invocations. The items held are copies, and must not be modified.
+ */
+public final class OpcodeStackSnapshots {
+
+    private static final OpcodeStack.Item[] EMPTY_STACK = new OpcodeStack.Item[0];
+
+    /** the opcodes before which any detector has asked to see the stack items */
+    private static final BitSet SUBSCRIBED_OPCODES = new BitSet();
+
+    private final BitSet recordedOpcodes;
+    private final int[] depthByPC;
+    private final OpcodeStack.Item[][] itemsByPC;
+
+    private OpcodeStackSnapshots(BitSet recordedOpcodes, int[] depthByPC, OpcodeStack.Item[][] itemsByPC) {
+        this.recordedOpcodes = recordedOpcodes;
+        this.depthByPC = depthByPC;
+        this.itemsByPC = itemsByPC;
+    }
+
+    /**
+     * asks for the stack items to be recorded before the instructions with the given opcodes, in the snapshots computed from now on. Detectors subscribe
+     * when they are loaded, before the snapshots of the classes they visit are computed.
+     *
+     * @param opcodes
+     *            the opcodes of the instructions at which the subscriber looks at the stack items
+     */
+    public static void subscribe(BitSet opcodes) {
+        synchronized (SUBSCRIBED_OPCODES) {
+            SUBSCRIBED_OPCODES.or(opcodes);
+        }
+    }
+
+    /**
+     * returns whether the stack items were recorded before the instructions with an opcode
+     *
+     * @param opcode
+     *            the opcode of an instruction
+     * @return whether the items can be read before such instructions
+     */
+    public boolean hasStackItems(int opcode) {
+        return recordedOpcodes.get(opcode);
+    }
+
+    /**
+     * returns the depth of the stack before the instruction at a pc
+     *
+     * @param pc
+     *            the pc of an instruction of the method
+     * @return the number of items on the stack, or 0 if the pc is not that of an instruction
+     */
+    public int getStackDepth(int pc) {
+        if ((pc < 0) || (pc >= depthByPC.length)) {
+            return 0;
+        }
+        return depthByPC[pc];
+    }
+
+    /**
+     * returns the stack items before the instruction at a pc, with the top of the stack at index 0. They are only there if the instruction's opcode is one
+     * that {@link #hasStackItems(int)} says was recorded.
+     *
+     * @param pc
+     *            the pc of an instruction of the method
+     * @return the items on the stack, or an empty array if the pc is not that of an instruction, or the items weren't recorded
+     */
+    public OpcodeStack.Item[] getStackItems(int pc) {
+        if ((pc < 0) || (pc >= itemsByPC.length)) {
+            return EMPTY_STACK;
+        }
+        OpcodeStack.Item[] items = itemsByPC[pc];
+        return (items == null) ? EMPTY_STACK : items;
+    }
+
+    /**
+     * symbolically executes a method with an OpcodeStack, recording the stack items before the instructions with the opcodes subscribed to so far
+     *
+     * @param cls
+     *            the class that declares the method
+     * @param method
+     *            the method to execute
+     * @return the snapshots of the method's stack
+     */
+    public static OpcodeStackSnapshots compute(JavaClass cls, Method method) {
+        BitSet opcodes;
+        synchronized (SUBSCRIBED_OPCODES) {
+            opcodes = (BitSet) SUBSCRIBED_OPCODES.clone();
+        }
+        return compute(cls, method, opcodes);
+    }
+
+    /**
+     * symbolically executes a method with an OpcodeStack, recording the stack items before the instructions with the given opcodes
+     *
+     * @param cls
+     *            the class that declares the method
+     * @param method
+     *            the method to execute
+     * @param opcodes
+     *            the opcodes of the instructions before which to record the items
+     * @return the snapshots of the method's stack
+     */
+    public static OpcodeStackSnapshots compute(JavaClass cls, Method method, BitSet opcodes) {
+        Code code = method.getCode();
+        if (code == null) {
+            return new OpcodeStackSnapshots(opcodes, new int[0], new OpcodeStack.Item[0][]);
+        }
+
+        Recorder recorder = new Recorder(code.getCode().length, opcodes);
+        recorder.setupVisitorForClass(cls);
+        recorder.doVisitMethod(method);
+        return new OpcodeStackSnapshots(opcodes, recorder.depthByPC, recorder.itemsByPC);
+    }
+
+    @Override
+    public String toString() {
+        return ToString.build(this);
+    }
+
+    /**
+     * the method analysis engine that computes the snapshots for the analysis cache. It is registered by {@link FBContribEngineRegistrar}.
+     */
+    public static class Engine implements IMethodAnalysisEngine<OpcodeStackSnapshots> {
+
+        @Override
+        public OpcodeStackSnapshots analyze(IAnalysisCache analysisCache, MethodDescriptor descriptor) throws CheckedAnalysisException {
+            JavaClass cls = analysisCache.getClassAnalysis(JavaClass.class, descriptor.getClassDescriptor());
+            Method method = analysisCache.getMethodAnalysis(Method.class, descriptor);
+            return compute(cls, method);
+        }
+
+        @Override
+        public void registerWith(IAnalysisCache analysisCache) {
+            analysisCache.registerMethodAnalysisEngine(OpcodeStackSnapshots.class, this);
+        }
+    }
+
+    /**
+     * drives an OpcodeStack over a method exactly the way a detector does, noting the depth of the stack after each precomputation, and copying the stack
+     * before the instructions with the recorded opcodes
+     */
+    static class Recorder extends DismantleBytecode {
+
+        private final OpcodeStack stack = new OpcodeStack();
+        private final BitSet opcodes;
+        final int[] depthByPC;
+        final OpcodeStack.Item[][] itemsByPC;
+
+        Recorder(int codeLength, BitSet opcodes) {
+            this.opcodes = opcodes;
+            depthByPC = new int[codeLength];
+            itemsByPC = new OpcodeStack.Item[codeLength][];
+        }
+
+        @Override
+        public void visitCode(Code obj) {
+            stack.resetForMethodEntry(this);
+            super.visitCode(obj);
+        }
+
+        @Override
+        public void sawOpcode(int seen) {
+            try {
+                stack.precomputation(this);
+
+                int depth = stack.getStackDepth();
+                depthByPC[getPC()] = depth;
+                if ((depth > 0) && opcodes.get(seen)) {
+                    OpcodeStack.Item[] items = new OpcodeStack.Item[depth];
+                    for (int i = 0; i < depth; i++) {
+                        items[i] = new OpcodeStack.Item(stack.getStackItem(i));
+                    }
+                    itemsByPC[getPC()] = items;
+                }
+            } finally {
+                stack.sawOpcode(this, seen);
+            }
+        }
+    }
+}
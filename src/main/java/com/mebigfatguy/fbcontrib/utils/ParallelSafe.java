@@ -0,0 +1,41 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * marks a detector whose second pass may be run over the classes of an analysis on several threads at once, with one instance of the detector per thread,
+ * each visiting its own share of the classes in no particular order. A detector is marked only if
+ * <ul>
+ * <li>its static fields are written only by its static initializer, and hold values that are immutable, or are only read after initialization, or are safe
+ * for concurrent use, like the shared caches of this package</li>
+ * <li>it reports all its bugs while visiting a class, so that report() does nothing</li>
+ * <li>it carries nothing from one class to the next, other than caches whose contents don't depend on the order in which classes are visited</li>
+ * <li>the shared state it uses, such as Statistics, is only read in the second pass, or is safe for concurrent use</li>
+ * </ul>
+ * Detectors that aren't marked must be run on one thread, visiting every class with one instance, as FindBugs does.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ParallelSafe {
+}
@@ -0,0 +1,187 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * the parameters and return type of a method signature, parsed once and shared. Signatures are parsed by {@link #of(String)}, which serves them from a cache
+ * that is safe to use from any thread, and is emptied when it holds {@link #MAX_CACHED_SIGNATURES} signatures. As signatures don't depend on the classes
+ * analyzed, the cache is kept across analyses.
+ */
+public final class ParsedSignature {
+
+    private static final int MAX_CACHED_SIGNATURES = 20000;
+    private static final String ECLIPSE_WEIRD_SIG_CHARS = "!+";
+    private static final int[] NO_SLOTS = new int[0];
+
+    private static final Map<String, ParsedSignature> CACHE = new ConcurrentHashMap<>();
+
+    private final List<String> parameterSignatures;
+    private final int[] parameterSlots;
+    private final int numParameterSlots;
+    private final String returnSignature;
+
+    /**
+     * returns the parsed form of a method signature
+     *
+     * @param methodSignature
+     *            the signature of the method
+     * @return the parsed signature
+     */
+    public static ParsedSignature of(String methodSignature) {
+        ParsedSignature parsed = CACHE.get(methodSignature);
+        if (parsed == null) {
+            parsed = new ParsedSignature(methodSignature);
+            if (CACHE.size() >= MAX_CACHED_SIGNATURES) {
+                CACHE.clear();
+            }
+            CACHE.put(methodSignature, parsed);
+        }
+        return parsed;
+    }
+
+    private ParsedSignature(String methodSignature) {
+        int start = methodSignature.indexOf('(') + 1;
+        int limit = methodSignature.lastIndexOf(')');
+
+        List<String> parmSignatures = new ArrayList<>();
+        int sigStart = start;
+        for (int i = start; i < limit; i++) {
+            if (!methodSignature.startsWith(Values.SIG_ARRAY_PREFIX, i)) {
+                if (methodSignature.startsWith(Values.SIG_QUALIFIED_CLASS_PREFIX, i)) {
+                    int semiPos = methodSignature.indexOf(Values.SIG_QUALIFIED_CLASS_SUFFIX_CHAR, i + 1);
+                    if (semiPos < 0) {
+                        throw new IllegalArgumentException("Unterminated class in signature " + methodSignature);
+                    }
+                    parmSignatures.add(methodSignature.substring(sigStart, semiPos + 1));
+                    i = semiPos;
+                } else if (!isWonkyEclipseSignature(methodSignature, i)) {
+                    parmSignatures.add(methodSignature.substring(sigStart, i + 1));
+                }
+                sigStart = i + 1;
+            }
+        }
+
+        if (parmSignatures.isEmpty()) {
+            parameterSignatures = Collections.emptyList();
+            parameterSlots = NO_SLOTS;
+        } else {
+            parameterSignatures = Collections.unmodifiableList(parmSignatures);
+            parameterSlots = new int[parmSignatures.size()];
+        }
+
+        int slot = 0;
+        for (int p = 0; p < parameterSlots.length; p++) {
+            parameterSlots[p] = slot;
+            slot += SignatureUtils.getSignatureSize(parmSignatures.get(p));
+        }
+        numParameterSlots = slot;
+
+        int parenPos = methodSignature.indexOf(')');
+        returnSignature = (parenPos < 0) ? "?" : methodSignature.substring(parenPos + 1);
+    }
+
+    public int getNumParameters() {
+        return parameterSignatures.size();
+    }
+
+    /**
+     * returns the signatures of the parameters
+     *
+     * @return an unmodifiable list of the parameter signatures
+     */
+    public List<String> getParameterSignatures() {
+        return parameterSignatures;
+    }
+
+    /**
+     * returns the register slot of a parameter
+     *
+     * @param parm
+     *            the index of the parameter
+     * @param methodIsStatic
+     *            whether the method is static, which puts the first parameter in slot 0 rather than 1
+     * @return the slot of the parameter
+     */
+    public int getParameterSlot(int parm, boolean methodIsStatic) {
+        return parameterSlots[parm] + (methodIsStatic ? 0 : 1);
+    }
+
+    /**
+     * returns the number of register slots taken by the parameters, not counting this
+     *
+     * @return the number of parameter slots
+     */
+    public int getNumParameterSlots() {
+        return numParameterSlots;
+    }
+
+    /**
+     * returns a map of the register slot of each parameter to its signature
+     *
+     * @param methodIsStatic
+     *            whether the method is static, which puts the first parameter in slot 0 rather than 1
+     * @return a new map of slot to parameter signature, in parameter order
+     */
+    public Map<Integer, String> getParameterSlotAndSignatures(boolean methodIsStatic) {
+        if (parameterSlots.length == 0) {
+            return Collections.emptyMap();
+        }
+
+        Map<Integer, String> slotIndexToParms = new LinkedHashMap<>();
+        for (int p = 0; p < parameterSlots.length; p++) {
+            slotIndexToParms.put(Integer.valueOf(getParameterSlot(p, methodIsStatic)), parameterSignatures.get(p));
+        }
+        return slotIndexToParms;
+    }
+
+    /**
+     * returns the signature of the return type
+     *
+     * @return the return signature, or ? if the signature was bogus
+     */
+    public String getReturnSignature() {
+        return returnSignature;
+    }
+
+    /**
+     * Eclipse makes weird class signatures.
+     *
+     * @param sig
+     *            the signature in type table
+     * @param startIndex
+     *            the index into the signature where the wonkyness begins
+     *
+     * @return if this signature has eclipse meta chars
+     */
+    private static boolean isWonkyEclipseSignature(String sig, int startIndex) {
+        return (sig.length() > startIndex) && (ECLIPSE_WEIRD_SIG_CHARS.indexOf(sig.charAt(startIndex)) >= 0);
+    }
+
+    @Override
+    public String toString() {
+        return ToString.build(this);
+    }
+}
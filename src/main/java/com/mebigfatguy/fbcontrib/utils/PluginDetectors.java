@@ -0,0 +1,167 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.Predicate;
+
+import com.mebigfatguy.fbcontrib.collect.IncrementalAnalysis;
+import com.mebigfatguy.fbcontrib.debug.DetectorProfiler;
+
+import edu.umd.cs.findbugs.BugInstance;
+import edu.umd.cs.findbugs.BugReporter;
+import edu.umd.cs.findbugs.Detector;
+import edu.umd.cs.findbugs.Detector2;
+import edu.umd.cs.findbugs.DetectorFactory;
+import edu.umd.cs.findbugs.DetectorFactoryCollection;
+import edu.umd.cs.findbugs.Plugin;
+
+/**
+ * lets the instances of the fb-contrib detectors that FindBugs creates be intercepted, as {@link DetectorProfiler} and {@link IncrementalAnalysis} do to
+ * wrap them, and lets the bugs the intercepted detectors report be passed thru a reporter that the interceptor may filter or record them with.
+ */
+public final class PluginDetectors {
+
+    public static final String PLUGIN_ID = "com.mebigfatguy.fbcontrib";
+
+    /**
+     * private to reinforce the helper status of the class
+     */
+    private PluginDetectors() {
+    }
+
+    /**
+     * returns the fb-contrib plugin, as loaded by FindBugs
+     *
+     * @return the plugin, or null if it isn't loaded
+     */
+    public static Plugin getPlugin() {
+        return DetectorFactoryCollection.instance().getPluginById(PLUGIN_ID);
+    }
+
+    /**
+     * replaces the factories of the plugin's reporting detectors with factories that create each detector thru an
+     * interceptor, which may wrap or replace it. FindBugs2 creates its detectors, with createDetector2, from the factories of the plugin that it builds its
+     * execution plan from, so this must be done before that, as it is when the analysis engines are registered. A factory is only replaced once for each
+     * class of interceptor, so that this may be done again for a later analysis.
+     *
+     * @param interceptor
+     *            the interceptor that creates the detectors
+     */
+    public static void interceptDetectors(DetectorInterceptor interceptor) {
+        Plugin plugin = getPlugin();
+        if (plugin == null) {
+            return;
+        }
+
+        // findbugs hands out the plugin's own list of factories, which is the only way to reach the factories it builds its execution plan from
+        ListIterator<DetectorFactory> it = ((List<DetectorFactory>) plugin.getDetectorFactories()).listIterator();
+        while (it.hasNext()) {
+            DetectorFactory factory = it.next();
+            if (factory.isReportingDetector() && factory.isDetectorClassSubtypeOf(Detector.class) && !isInterceptedBy(factory, interceptor)) {
+                try {
+                    it.set(new InterceptingDetectorFactory(factory, interceptor));
+                } catch (ClassNotFoundException e) {
+                    // a factory whose class can't be found creates no detectors anyway
+                }
+            }
+        }
+    }
+
+    private static boolean isInterceptedBy(DetectorFactory factory, DetectorInterceptor interceptor) {
+        for (DetectorFactory f = factory; f instanceof InterceptingDetectorFactory; f = ((InterceptingDetectorFactory) f).factory) {
+            if (((InterceptingDetectorFactory) f).interceptor.getClass() == interceptor.getClass()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * creates a bug reporter that passes the bugs accepted by a filter, and everything else, such as missing classes and errors, to a real reporter
+     *
+     * @param bugReporter
+     *            the real reporter
+     * @param bugFilter
+     *            the filter that is shown each bug, and accepts those to pass on
+     * @return the forwarding reporter
+     */
+    public static BugReporter createForwardingReporter(final BugReporter bugReporter, final Predicate<BugInstance> bugFilter) {
+        return (BugReporter) Proxy.newProxyInstance(BugReporter.class.getClassLoader(), new Class<?>[] { BugReporter.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("reportBug".equals(method.getName()) && !bugFilter.test((BugInstance) args[0])) {
+                    return null;
+                }
+                try {
+                    return method.invoke(bugReporter, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+    }
+
+    /**
+     * creates the detectors that FindBugs asks the factories replaced by {@link PluginDetectors#interceptDetectors} for
+     */
+    public interface DetectorInterceptor {
+
+        /**
+         * creates the detector that FindBugs runs for a factory
+         *
+         * @param factory
+         *            the factory that was replaced, which still creates the detector as FindBugs would have
+         * @param bugReporter
+         *            the reporter FindBugs hands to the detector
+         * @return the detector to run
+         */
+        Detector2 create(DetectorFactory factory, BugReporter bugReporter);
+    }
+
+    /**
+     * a factory that describes the detector of the factory it replaces in every way, but creates the detector thru an interceptor
+     */
+    static class InterceptingDetectorFactory extends DetectorFactory {
+        final DetectorFactory factory;
+        final DetectorInterceptor interceptor;
+
+        @SuppressWarnings("deprecation")
+        InterceptingDetectorFactory(DetectorFactory factory, DetectorInterceptor interceptor) throws ClassNotFoundException {
+            super(factory.getPlugin(), factory.getFullName(), Class.forName(factory.getFullName(), false, factory.getPlugin().getClassLoader()),
+                    factory.isDefaultEnabled(), factory.getSpeed(), factory.getReportedBugPatternCodes(), "");
+            this.factory = factory;
+            this.interceptor = interceptor;
+            setPositionSpecifiedInPluginDescriptor(factory.getPositionSpecifiedInPluginDescriptor());
+            setPriorityAdjustment(factory.getPriorityAdjustment());
+            setHidden(factory.isHidden());
+            setDetailHTML(factory.getDetailHTML());
+        }
+
+        @Override
+        public Detector2 createDetector2(BugReporter bugReporter) {
+            return interceptor.create(factory, bugReporter);
+        }
+    }
+}
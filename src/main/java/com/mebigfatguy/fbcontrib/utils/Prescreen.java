@@ -0,0 +1,55 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * declares what a class must contain for a detector to find anything in it, so that the detector can skip the class without parsing it. Each of opcodes,
+ * classes and methods that is given must be matched by at least one of its entries, where an opcode is matched if some method of the class uses it, a class
+ * is matched if the constant pool of the class names it, and a method is matched if the class calls a method by that name. The triggers are necessary
+ * conditions only, a detector still prescreens each method as it needs.
+ * <p>
+ * The detector checks the triggers with {@link PrescreenIndex#shouldVisit} at the start of visitClassContext, before it creates its OpcodeStack, as FindBugs
+ * hands every class to every detector, and offers no hook to skip a detector for a class. A detector may only be marked if it reports nothing, and records
+ * nothing for report(), for a class that doesn't match. Only detectors with opcode triggers that every finding needs are marked, most others look for
+ * patterns that have no such necessary trigger.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Prescreen {
+
+    /**
+     * @return the opcodes, one of which some method of the class must use
+     */
+    int[] opcodes() default {};
+
+    /**
+     * @return the slashed names of the classes, one of which the class must refer to
+     */
+    String[] classes() default {};
+
+    /**
+     * @return the names of the methods, one of which the class must call
+     */
+    String[] methods() default {};
+}
@@ -0,0 +1,181 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.bcel.classfile.Constant;
+import org.apache.bcel.classfile.ConstantCP;
+import org.apache.bcel.classfile.ConstantClass;
+import org.apache.bcel.classfile.ConstantInterfaceMethodref;
+import org.apache.bcel.classfile.ConstantMethodref;
+import org.apache.bcel.classfile.ConstantNameAndType;
+import org.apache.bcel.classfile.ConstantPool;
+import org.apache.bcel.classfile.JavaClass;
+import org.apache.bcel.classfile.Method;
+
+import edu.umd.cs.findbugs.ba.AnalysisContext;
+import edu.umd.cs.findbugs.ba.ClassContext;
+import edu.umd.cs.findbugs.classfile.CheckedAnalysisException;
+import edu.umd.cs.findbugs.classfile.ClassDescriptor;
+import edu.umd.cs.findbugs.classfile.Global;
+import edu.umd.cs.findbugs.classfile.IAnalysisCache;
+import edu.umd.cs.findbugs.classfile.IClassAnalysisEngine;
+
+/**
+ * the opcodes used by the methods of a class, and the classes and method names its constant pool refers to, against which the {@link Prescreen} triggers of
+ * detectors are matched. It is computed once per class, and cached in the analysis cache, so all the detectors that prescreen a class share it.
+ */
+public final class PrescreenIndex {
+
+    private final BitSet opcodes;
+    private final Set<String> classes;
+    private final Set<String> methods;
+
+    PrescreenIndex(BitSet opcodes, Set<String> classes, Set<String> methods) {
+        this.opcodes = opcodes;
+        this.classes = classes;
+        this.methods = methods;
+    }
+
+    /**
+     * returns whether a detector may find anything in a class, according to its {@link Prescreen} triggers. Detectors that aren't marked are always visited.
+     *
+     * @param detector
+     *            the detector that is about to visit the class
+     * @param classContext
+     *            the context object of the class
+     * @return whether the detector should visit the class
+     */
+    public static boolean shouldVisit(Object detector, ClassContext classContext) {
+        Prescreen prescreen = detector.getClass().getAnnotation(Prescreen.class);
+        if (prescreen == null) {
+            return true;
+        }
+
+        return getIndex(classContext).matches(prescreen);
+    }
+
+    /**
+     * returns whether the class matches the triggers of a detector
+     *
+     * @param prescreen
+     *            the triggers of the detector
+     * @return whether every trigger given is matched
+     */
+    public boolean matches(Prescreen prescreen) {
+        int[] triggerOpcodes = prescreen.opcodes();
+        if (triggerOpcodes.length > 0) {
+            boolean found = false;
+            for (int opcode : triggerOpcodes) {
+                if (opcodes.get(opcode)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+
+        return containsAny(classes, prescreen.classes()) && containsAny(methods, prescreen.methods());
+    }
+
+    private static boolean containsAny(Set<String> symbols, String[] triggers) {
+        if (triggers.length == 0) {
+            return true;
+        }
+        for (String trigger : triggers) {
+            if (symbols.contains(trigger)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * builds the index of a class
+     *
+     * @param classContext
+     *            the context object of the class
+     * @return the index of the class
+     */
+    public static PrescreenIndex compute(ClassContext classContext) {
+        JavaClass cls = classContext.getJavaClass();
+
+        BitSet opcodes = new BitSet();
+        for (Method method : cls.getMethods()) {
+            BitSet bytecodeSet = classContext.getBytecodeSet(method);
+            if (bytecodeSet != null) {
+                opcodes.or(bytecodeSet);
+            }
+        }
+
+        Set<String> classes = new HashSet<>();
+        Set<String> methods = new HashSet<>();
+        ConstantPool pool = cls.getConstantPool();
+        for (Constant c : pool.getConstantPool()) {
+            if (c instanceof ConstantClass) {
+                classes.add(((ConstantClass) c).getBytes(pool));
+            } else if ((c instanceof ConstantMethodref) || (c instanceof ConstantInterfaceMethodref)) {
+                ConstantNameAndType nameAndType = (ConstantNameAndType) pool.getConstant(((ConstantCP) c).getNameAndTypeIndex());
+                methods.add(nameAndType.getName(pool));
+            }
+        }
+
+        return new PrescreenIndex(opcodes, classes, methods);
+    }
+
+    private static PrescreenIndex getIndex(ClassContext classContext) {
+        try {
+            return Global.getAnalysisCache().getClassAnalysis(PrescreenIndex.class, classContext.getClassDescriptor());
+        } catch (CheckedAnalysisException e) {
+            AnalysisContext.logError("Unable to get the prescreen index of " + classContext.getJavaClass().getClassName(), e);
+            return compute(classContext);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString.build(this);
+    }
+
+    /**
+     * the class analysis engine that computes the index for the analysis cache. It is registered by {@link FBContribEngineRegistrar}.
+     */
+    public static class Engine implements IClassAnalysisEngine<PrescreenIndex> {
+
+        @Override
+        public PrescreenIndex analyze(IAnalysisCache analysisCache, ClassDescriptor descriptor) throws CheckedAnalysisException {
+            return compute(analysisCache.getClassAnalysis(ClassContext.class, descriptor));
+        }
+
+        @Override
+        public void registerWith(IAnalysisCache analysisCache) {
+            analysisCache.registerClassAnalysisEngine(PrescreenIndex.class, this);
+        }
+
+        @Override
+        public boolean canRecompute() {
+            return true;
+        }
+    }
+}
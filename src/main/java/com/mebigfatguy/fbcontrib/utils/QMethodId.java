@@ -0,0 +1,77 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+/**
+ * the {@link SymbolTable} id based equivalent of {@link QMethod}, which is cheaper to hash and compare
+ */
+public final class QMethodId {
+    private final int methodNameId;
+    private final int signatureId;
+
+    public QMethodId(int methodNameId, int signatureId) {
+        this.methodNameId = methodNameId;
+        this.signatureId = signatureId;
+    }
+
+    public QMethodId(String methodName, String signature) {
+        this(SymbolTable.idOf(methodName), SymbolTable.idOf(signature));
+    }
+
+    public int getMethodNameId() {
+        return methodNameId;
+    }
+
+    public int getSignatureId() {
+        return signatureId;
+    }
+
+    public String getMethodName() {
+        return SymbolTable.symbolOf(methodNameId);
+    }
+
+    public String getSignature() {
+        return SymbolTable.symbolOf(signatureId);
+    }
+
+    public QMethod toQMethod() {
+        return new QMethod(getMethodName(), getSignature());
+    }
+
+    @Override
+    public int hashCode() {
+        return (methodNameId * 31) + signatureId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof QMethodId)) {
+            return false;
+        }
+
+        QMethodId that = (QMethodId) o;
+
+        return (methodNameId == that.methodNameId) && (signatureId == that.signatureId);
+    }
+
+    @Override
+    public String toString() {
+        return toQMethod().toString();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.util.BitSet;
+
+import edu.umd.cs.findbugs.OpcodeStack;
+import edu.umd.cs.findbugs.ba.AnalysisContext;
+import edu.umd.cs.findbugs.classfile.CheckedAnalysisException;
+import edu.umd.cs.findbugs.classfile.Global;
+import edu.umd.cs.findbugs.visitclass.DismantleBytecode;
+
+/**
+ * a read only stand in for OpcodeStack, for detectors that only look at the stack, and never set user values on its items. Rather than symbolically executing
+ * the method itself, it reads the stack from the {@link OpcodeStackSnapshots} of the method, which are computed once, and shared by all detectors that use this
+ * class. It follows the OpcodeStack protocol, so a detector switches over by only changing the type of its stack: resetForMethodEntry in visitCode, then
+ * precomputation before, and sawOpcode after, looking at the stack in sawOpcode. The stack may only be looked at between precomputation and sawOpcode, and
+ * the items returned must not be modified. The depth of the stack can be read before any instruction, but its items only before the instructions whose
+ * opcodes the detector subscribed to with {@link #subscribe(int...)}.
+ */
+public final class SharedOpcodeStack {
+
+    private static final String STACK_ERROR_SIGNATURE = "Lfindbugs/OpcodeStackError;";
+
+    private final BitSet itemOpcodes;
+    private DismantleBytecode visitor;
+    private OpcodeStackSnapshots snapshots;
+    private int depth;
+    private OpcodeStack.Item[] items;
+
+    /**
+     * creates a stack that can show its items before the instructions with the given opcodes
+     *
+     * @param itemOpcodes
+     *            the opcodes returned by {@link #subscribe(int...)}
+     */
+    public SharedOpcodeStack(BitSet itemOpcodes) {
+        this.itemOpcodes = itemOpcodes;
+        OpcodeStackSnapshots.subscribe(itemOpcodes);
+    }
+
+    /**
+     * asks for the stack items to be recorded before the instructions with the given opcodes. It is to be called when the detector class is loaded, to
+     * initialize a static field, so that the opcodes are known before any snapshot is computed.
+     *
+     * @param opcodes
+     *            the opcodes of the instructions at which the detector looks at the stack items
+     * @return the opcodes, to create the detector's stacks with
+     */
+    public static BitSet subscribe(int... opcodes) {
+        BitSet itemOpcodes = new BitSet();
+        for (int opcode : opcodes) {
+            itemOpcodes.set(opcode);
+        }
+        OpcodeStackSnapshots.subscribe(itemOpcodes);
+        return itemOpcodes;
+    }
+
+    /**
+     * prepares to read the stack of the method the visitor is about to parse. The snapshots of the method are fetched on the first precomputation, so that
+     * methods that are reset for, but not parsed, cost nothing.
+     *
+     * @param dbc
+     *            the detector that is parsing the method
+     */
+    public void resetForMethodEntry(DismantleBytecode dbc) {
+        visitor = dbc;
+        snapshots = null;
+        depth = 0;
+        items = null;
+    }
+
+    /**
+     * moves the stack to the state before the instruction the visitor is currently at
+     *
+     * @param dbc
+     *            the detector that is parsing the method
+     */
+    public void precomputation(DismantleBytecode dbc) {
+        if ((snapshots == null) || (dbc != visitor)) {
+            visitor = dbc;
+            snapshots = getSnapshots(dbc);
+        }
+
+        int pc = dbc.getPC();
+        depth = snapshots.getStackDepth(pc);
+        items = null;
+        int opcode = dbc.getOpcode();
+        if (itemOpcodes.get(opcode)) {
+            if (!snapshots.hasStackItems(opcode)) {
+                // the shared snapshots were computed before this detector subscribed, so it records its own for the rest of the method
+                snapshots = OpcodeStackSnapshots.compute(dbc.getThisClass(), dbc.getMethod(), itemOpcodes);
+            }
+            items = snapshots.getStackItems(pc);
+        }
+    }
+
+    /**
+     * does nothing, as the state after each instruction is already known. It is kept so that detectors follow the same protocol as with an OpcodeStack.
+     *
+     * @param dbc
+     *            the detector that is parsing the method
+     * @param seen
+     *            the opcode that was seen
+     */
+    public void sawOpcode(DismantleBytecode dbc, int seen) {
+        // the snapshot of the next instruction is picked up by its precomputation
+    }
+
+    /**
+     * returns the number of items on the stack
+     *
+     * @return the stack depth
+     */
+    public int getStackDepth() {
+        return depth;
+    }
+
+    /**
+     * returns an item on the stack, where 0 is the top of the stack. Items can only be read before the instructions with the subscribed opcodes.
+     *
+     * @param stackOffset
+     *            the offset from the top of the stack
+     * @return the item, which must not be modified
+     */
+    public OpcodeStack.Item getStackItem(int stackOffset) {
+        if (items == null) {
+            AnalysisContext.logError("Can't get stack items before opcode " + visitor.getOpcode() + ", which wasn't subscribed to, @ "
+                    + visitor.getFullyQualifiedMethodName() + ':' + visitor.getPC());
+            return new OpcodeStack.Item(STACK_ERROR_SIGNATURE);
+        }
+        if ((stackOffset < 0) || (stackOffset >= items.length)) {
+            AnalysisContext.logError("Can't get stack offset " + stackOffset + " from " + items.length + " items @ " + visitor.getFullyQualifiedMethodName()
+                    + ':' + visitor.getPC());
+            return new OpcodeStack.Item(STACK_ERROR_SIGNATURE);
+        }
+        return items[stackOffset];
+    }
+
+    private static OpcodeStackSnapshots getSnapshots(DismantleBytecode dbc) {
+        try {
+            return Global.getAnalysisCache().getMethodAnalysis(OpcodeStackSnapshots.class, dbc.getMethodDescriptor());
+        } catch (CheckedAnalysisException e) {
+            AnalysisContext.logError("Unable to get the opcode stack snapshots of " + dbc.getFullyQualifiedMethodName(), e);
+            return OpcodeStackSnapshots.compute(dbc.getThisClass(), dbc.getMethod());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToString.build(this);
+    }
+}
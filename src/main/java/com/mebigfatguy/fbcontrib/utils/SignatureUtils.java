@@ -18,10 +18,7 @@
  */
 package com.mebigfatguy.fbcontrib.utils;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -49,7 +46,6 @@ public final class SignatureUtils {
 
     private static final Pattern CLASS_COMPONENT_DELIMITER = Pattern.compile("\\$");
     private static final Pattern ANONYMOUS_COMPONENT = Pattern.compile("^[1-9][0-9]{0,9}$");
-    private static final String ECLIPSE_WEIRD_SIG_CHARS = "!+";
 
     /**
      * private to reinforce the helper status of the class
@@ -187,38 +183,7 @@ public final class SignatureUtils {
      * @return a map of parameter types (expect empty slots when doubles/longs are used
      */
     public static Map<Integer, String> getParameterSlotAndSignatures(boolean methodIsStatic, String methodSignature) {
-
-        int start = methodSignature.indexOf('(') + 1;
-        int limit = methodSignature.lastIndexOf(')');
-
-        if ((limit - start) == 0) {
-            return Collections.emptyMap();
-        }
-
-        Map<Integer, String> slotIndexToParms = new LinkedHashMap<>();
-        int slot = methodIsStatic ? 0 : 1;
-        int sigStart = start;
-        for (int i = start; i < limit; i++) {
-            if (!methodSignature.startsWith(Values.SIG_ARRAY_PREFIX, i)) {
-                String parmSignature = null;
-                if (methodSignature.startsWith(Values.SIG_QUALIFIED_CLASS_PREFIX, i)) {
-                    int semiPos = methodSignature.indexOf(Values.SIG_QUALIFIED_CLASS_SUFFIX_CHAR, i + 1);
-                    parmSignature = methodSignature.substring(sigStart, semiPos + 1);
-                    slotIndexToParms.put(Integer.valueOf(slot), parmSignature);
-                    i = semiPos;
-                } else if (isWonkyEclipseSignature(methodSignature, i)) {
-                    sigStart++;
-                    continue;
-                } else {
-                    parmSignature = methodSignature.substring(sigStart, i + 1);
-                    slotIndexToParms.put(Integer.valueOf(slot), parmSignature);
-                }
-                sigStart = i + 1;
-                slot += getSignatureSize(parmSignature);
-            }
-        }
-
-        return slotIndexToParms;
+        return ParsedSignature.of(methodSignature).getParameterSlotAndSignatures(methodIsStatic);
     }
 
     /**
@@ -226,33 +191,10 @@ public final class SignatureUtils {
      *
      * @param methodSignature
      *            the signature of the method to parse
-     * @return a list of parameter signatures
+     * @return an unmodifiable list of parameter signatures
      */
     public static List<String> getParameterSignatures(String methodSignature) {
-
-        int start = methodSignature.indexOf('(') + 1;
-        int limit = methodSignature.lastIndexOf(')');
-
-        if ((limit - start) == 0) {
-            return Collections.emptyList();
-        }
-
-        List<String> parmSignatures = new ArrayList<>();
-        int sigStart = start;
-        for (int i = start; i < limit; i++) {
-            if (!methodSignature.startsWith(Values.SIG_ARRAY_PREFIX, i)) {
-                if (methodSignature.startsWith(Values.SIG_QUALIFIED_CLASS_PREFIX, i)) {
-                    int semiPos = methodSignature.indexOf(Values.SIG_QUALIFIED_CLASS_SUFFIX_CHAR, i + 1);
-                    parmSignatures.add(methodSignature.substring(sigStart, semiPos + 1));
-                    i = semiPos;
-                } else if (!isWonkyEclipseSignature(methodSignature, i)) {
-                    parmSignatures.add(methodSignature.substring(sigStart, i + 1));
-                }
-                sigStart = i + 1;
-            }
-        }
-
-        return parmSignatures;
+        return ParsedSignature.of(methodSignature).getParameterSignatures();
     }
 
     /**
@@ -265,12 +207,7 @@ public final class SignatureUtils {
      *
      */
     public static String getReturnSignature(String methodSig) {
-        int parenPos = methodSig.indexOf(')');
-        if (parenPos < 0) {
-            return "?";
-        }
-
-        return methodSig.substring(parenPos + 1);
+        return ParsedSignature.of(methodSig).getReturnSignature();
     }
 
     /**
@@ -281,26 +218,7 @@ public final class SignatureUtils {
      * @return the number of parameters
      */
     public static int getNumParameters(String methodSignature) {
-        int start = methodSignature.indexOf('(') + 1;
-        int limit = methodSignature.lastIndexOf(')');
-
-        if ((limit - start) == 0) {
-            return 0;
-        }
-
-        int numParms = 0;
-        for (int i = start; i < limit; i++) {
-            if (!methodSignature.startsWith(Values.SIG_ARRAY_PREFIX, i)) {
-                if (methodSignature.startsWith(Values.SIG_QUALIFIED_CLASS_PREFIX, i)) {
-                    i = methodSignature.indexOf(Values.SIG_QUALIFIED_CLASS_SUFFIX_CHAR, i + 1);
-                } else if (isWonkyEclipseSignature(methodSignature, i)) {
-                    continue;
-                }
-                numParms++;
-            }
-        }
-
-        return numParms;
+        return ParsedSignature.of(methodSignature).getNumParameters();
     }
 
     /**
@@ -311,14 +229,7 @@ public final class SignatureUtils {
      * @return the first available register slot
      */
     public static int getFirstRegisterSlot(Method m) {
-        Type[] parms = m.getArgumentTypes();
-
-        int first = m.isStatic() ? 0 : 1;
-        for (Type t : parms) {
-            first += getSignatureSize(t.getSignature());
-        }
-
-        return first;
+        return (m.isStatic() ? 0 : 1) + ParsedSignature.of(m.getSignature()).getNumParameterSlots();
     }
 
     public static boolean compareGenericSignature(String genericSignature, String regularSignature) {
@@ -443,18 +354,4 @@ public final class SignatureUtils {
                 || Values.SLASHED_JAVA_UTIL_UUID.equals(className);
     }
 
-    /**
-     * Eclipse makes weird class signatures.
-     *
-     * @param sig
-     *            the signature in type table
-     * @param startIndex
-     *            the index into the signature where the wonkyness begins
-     *
-     * @return if this signature has eclipse meta chars
-     */
-    private static boolean isWonkyEclipseSignature(String sig, int startIndex) {
-        return (sig.length() > startIndex) && (ECLIPSE_WEIRD_SIG_CHARS.indexOf(sig.charAt(startIndex)) >= 0);
-    }
-
 }
@@ -0,0 +1,286 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.umd.cs.findbugs.ba.AnalysisContext;
+import edu.umd.cs.findbugs.ba.SourceFile;
+import edu.umd.cs.findbugs.ba.SourceFinder;
+
+/**
+ * gives access to the lines of a source file, without holding the file's text. Only the offsets at which each line starts and ends are kept, and a line is
+ * read and decoded when it is asked for. Lines of a plain file are read with a positional read of their byte range, on a channel that is only open for the
+ * read, so that no file is held open or locked while it is cached. Sources found in an archive can't be read that way, so their bytes are kept in a small
+ * cache, bounded by {@link #MAX_ARCHIVED_BYTES}, and are read again from the archive when they have been dropped. Lines are split as BufferedReader.readLine
+ * does, and decoded as UTF-8. The indexes are shared by all detectors, hold at most {@link #MAX_FILES} files, and are dropped when a new analysis context is
+ * started.
+ */
+public final class SourceLineIndex {
+
+    private static final int MAX_FILES = 2000;
+    private static final int MAX_ARCHIVED_BYTES = 4 * 1024 * 1024;
+
+    private static final SourceLineIndex MISSING = new SourceLineIndex(null, null, null, new int[0], new int[0]);
+
+    private static final AnalysisScopedMap<String, SourceLineIndex> INDEXES = new AnalysisScopedMap<>(MAX_FILES);
+
+    /** the bytes of the sources read from archives, least recently used first */
+    private static final Map<SourceLineIndex, byte[]> ARCHIVED_CONTENTS = new LinkedHashMap<>(16, 0.75f, true);
+    private static int archivedBytes;
+
+    private final Path file;
+    private final String packageName;
+    private final String fileName;
+    private final int[] lineStarts;
+    private final int[] lineEnds;
+
+    private SourceLineIndex(Path file, String packageName, String fileName, int[] lineStarts, int[] lineEnds) {
+        this.file = file;
+        this.packageName = packageName;
+        this.fileName = fileName;
+        this.lineStarts = lineStarts;
+        this.lineEnds = lineEnds;
+    }
+
+    /**
+     * creates an index of the lines of a plain file, which are read from the file when they are asked for
+     *
+     * @param file
+     *            the source file
+     * @return the index of the file's lines
+     *
+     * @throws IOException
+     *             if the file can't be read
+     */
+    static SourceLineIndex forFile(Path file) throws IOException {
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(file))) {
+            return index(is, file, null, null, null);
+        }
+    }
+
+    /**
+     * returns the line index of a source file, as found by the source finder of the current analysis, building it the first time it is asked for
+     *
+     * @param packageName
+     *            the dotted name of the package of the class
+     * @param fileName
+     *            the name of the source file, without its directory
+     * @return the index of the file's lines, or null if the source file can't be found or read
+     */
+    public static SourceLineIndex forSource(String packageName, String fileName) {
+        String key = packageName + '/' + fileName;
+        SourceLineIndex index = INDEXES.get(key);
+        if (index == null) {
+            try {
+                SourceFile sourceFile = findSourceFile(packageName, fileName);
+                File plainFile = new File(sourceFile.getFullFileName());
+                if (plainFile.isFile()) {
+                    index = forFile(plainFile.toPath());
+                } else {
+                    try (InputStream is = sourceFile.getInputStream()) {
+                        ByteArrayOutputStream contents = new ByteArrayOutputStream();
+                        index = index(is, null, packageName, fileName, contents);
+                        cacheArchivedContents(index, contents.toByteArray());
+                    }
+                }
+            } catch (IOException e) {
+                index = MISSING;
+            }
+            INDEXES.put(key, index);
+        }
+
+        return (index == MISSING) ? null : index;
+    }
+
+    /**
+     * returns the number of lines in the file
+     *
+     * @return the number of lines
+     */
+    public int getNumLines() {
+        return lineStarts.length;
+    }
+
+    /**
+     * reads and decodes a line of the file, without its line terminator
+     *
+     * @param line
+     *            the zero based line number
+     * @return the text of the line, or null if the file can no longer be read
+     */
+    public String getLine(int line) {
+        int start = lineStarts[line];
+        byte[] bytes = new byte[lineEnds[line] - start];
+        try {
+            if (file != null) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                    while (buffer.hasRemaining()) {
+                        if (channel.read(buffer, start + buffer.position()) < 0) {
+                            return null;
+                        }
+                    }
+                }
+            } else {
+                byte[] contents = getArchivedContents();
+                if (contents.length < (start + bytes.length)) {
+                    return null;
+                }
+                System.arraycopy(contents, start, bytes, 0, bytes.length);
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * finds the offsets of the lines of a source, as BufferedReader.readLine splits them, reading it once from start to end
+     *
+     * @param is
+     *            the stream of the source's bytes
+     * @param file
+     *            the plain file the lines are read from later, or null if the source is in an archive
+     * @param packageName
+     *            the dotted name of the package of an archived source, to find it again
+     * @param fileName
+     *            the file name of an archived source, to find it again
+     * @param contents
+     *            a stream to copy the bytes to, or null
+     * @return the index of the source's lines
+     *
+     * @throws IOException
+     *             if the source can't be read
+     */
+    private static SourceLineIndex index(InputStream is, Path file, String packageName, String fileName, ByteArrayOutputStream contents)
+            throws IOException {
+        int[] starts = new int[64];
+        int[] ends = new int[64];
+        int numLines = 0;
+        int start = 0;
+        int pos = 0;
+        boolean afterCR = false;
+        int b;
+        while ((b = is.read()) >= 0) {
+            if (contents != null) {
+                contents.write(b);
+            }
+            if ((b == '\n') && afterCR) {
+                // the second half of a \r\n terminator
+                start = pos + 1;
+            } else if ((b == '\n') || (b == '\r')) {
+                if (numLines == starts.length) {
+                    starts = Arrays.copyOf(starts, numLines * 2);
+                    ends = Arrays.copyOf(ends, numLines * 2);
+                }
+                starts[numLines] = start;
+                ends[numLines] = pos;
+                numLines++;
+                start = pos + 1;
+            }
+            afterCR = b == '\r';
+            pos++;
+        }
+
+        if (start < pos) {
+            if (numLines == starts.length) {
+                starts = Arrays.copyOf(starts, numLines + 1);
+                ends = Arrays.copyOf(ends, numLines + 1);
+            }
+            starts[numLines] = start;
+            ends[numLines] = pos;
+            numLines++;
+        }
+
+        return new SourceLineIndex(file, packageName, fileName, Arrays.copyOf(starts, numLines), Arrays.copyOf(ends, numLines));
+    }
+
+    private static SourceFile findSourceFile(String packageName, String fileName) throws IOException {
+        SourceFinder sourceFinder = AnalysisContext.currentAnalysisContext().getSourceFinder();
+        return sourceFinder.findSourceFile(packageName, fileName);
+    }
+
+    /**
+     * returns the bytes of a source found in an archive, reading them again from the archive if they have been dropped from the cache
+     *
+     * @return the bytes of the source
+     *
+     * @throws IOException
+     *             if the source can no longer be read
+     */
+    private byte[] getArchivedContents() throws IOException {
+        synchronized (ARCHIVED_CONTENTS) {
+            byte[] contents = ARCHIVED_CONTENTS.get(this);
+            if (contents != null) {
+                return contents;
+            }
+        }
+
+        try (InputStream is = findSourceFile(packageName, fileName).getInputStream()) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int len;
+            while ((len = is.read(buffer)) >= 0) {
+                baos.write(buffer, 0, len);
+            }
+            byte[] contents = baos.toByteArray();
+            cacheArchivedContents(this, contents);
+            return contents;
+        }
+    }
+
+    /**
+     * caches the bytes of a source found in an archive, dropping the least recently used sources to stay within {@link #MAX_ARCHIVED_BYTES}. A source that
+     * is larger than that isn't cached at all, and is read again for each line.
+     */
+    private static void cacheArchivedContents(SourceLineIndex index, byte[] contents) {
+        if (contents.length > MAX_ARCHIVED_BYTES) {
+            return;
+        }
+
+        synchronized (ARCHIVED_CONTENTS) {
+            byte[] old = ARCHIVED_CONTENTS.put(index, contents);
+            if (old != null) {
+                archivedBytes -= old.length;
+            }
+            archivedBytes += contents.length;
+
+            Iterator<byte[]> it = ARCHIVED_CONTENTS.values().iterator();
+            while (archivedBytes > MAX_ARCHIVED_BYTES) {
+                archivedBytes -= it.next().length;
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.umd.cs.findbugs.ba.AnalysisContext;
+
+/**
+ * interns the class, member and signature names seen by detectors, giving each distinct name a small int id, so that detectors can key their maps with ids,
+ * or with the id based {@link FQMethodId}, {@link QMethodId} and {@link FQFieldId}, rather than with strings concatenated for each lookup. Class names are
+ * interned in their dotted form. The table is shared by all detectors and is safe to use from any thread. Like {@link AnalysisScopedMap}, the table belongs
+ * to the current analysis context, and is dropped when a new one is started, so that the names of one analysis aren't held for the life of the plugin. Ids
+ * are thus only valid for the analysis that they were given out in, and must not be held in static fields, only in detectors or in analysis scoped caches.
+ */
+public final class SymbolTable {
+
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private static volatile Scope scope = new Scope(null);
+
+    /**
+     * private to reinforce the helper status of the class
+     */
+    private SymbolTable() {
+    }
+
+    /**
+     * returns the id of a symbol, assigning it the next id if it hasn't been seen before in this analysis
+     *
+     * @param symbol
+     *            the name to intern
+     * @return the id of the symbol
+     */
+    public static int idOf(String symbol) {
+        Scope s = getScope();
+        Integer id = s.ids.get(symbol);
+        if (id != null) {
+            return id.intValue();
+        }
+
+        synchronized (s) {
+            id = s.ids.get(symbol);
+            if (id != null) {
+                return id.intValue();
+            }
+
+            String[] symbols = s.symbols;
+            if (s.numSymbols == symbols.length) {
+                symbols = Arrays.copyOf(symbols, symbols.length * 2);
+            }
+            symbols[s.numSymbols] = symbol;
+            s.symbols = symbols;
+            s.ids.put(symbol, Integer.valueOf(s.numSymbols));
+            return s.numSymbols++;
+        }
+    }
+
+    /**
+     * returns the id of a class name, which is interned in its dotted form
+     *
+     * @param className
+     *            the dotted or slashed class name
+     * @return the id of the dotted class name
+     */
+    public static int classIdOf(String className) {
+        return idOf(className.replace('/', '.'));
+    }
+
+    /**
+     * returns the symbol that was given an id in this analysis
+     *
+     * @param id
+     *            the id returned by {@link #idOf(String)} or {@link #classIdOf(String)}
+     * @return the symbol
+     *
+     * @throws IllegalArgumentException
+     *             if no symbol was given the id
+     */
+    public static String symbolOf(int id) {
+        String[] s = getScope().symbols;
+        String symbol = ((id >= 0) && (id < s.length)) ? s[id] : null;
+        if (symbol == null) {
+            throw new IllegalArgumentException("No symbol has id " + id);
+        }
+        return symbol;
+    }
+
+    /**
+     * returns the symbols of the current analysis context, starting a new table if the context has changed. Unlike a cache, the table mustn't be replaced
+     * twice for one context, as ids would then be lost, so the switch is synchronized.
+     */
+    private static Scope getScope() {
+        AnalysisContext context = AnalysisContext.currentAnalysisContext();
+        Scope s = scope;
+        if (s.context != context) {
+            synchronized (SymbolTable.class) {
+                s = scope;
+                if (s.context != context) {
+                    s = new Scope(context);
+                    scope = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    /**
+     * the symbols interned in one analysis
+     */
+    private static class Scope {
+        final AnalysisContext context;
+        final Map<String, Integer> ids = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+        volatile String[] symbols = new String[INITIAL_CAPACITY];
+        int numSymbols;
+
+        Scope(AnalysisContext context) {
+            this.context = context;
+        }
+    }
+}
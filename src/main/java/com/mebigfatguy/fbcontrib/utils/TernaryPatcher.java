@@ -36,14 +36,15 @@ import edu.umd.cs.findbugs.OpcodeStack;
  * should be left alone. This is currently not happening in findbugs. So this
  * class saves off user values across a GOTO involved with a ternary and
  * restores them appropriately.
+ *
+ * Each detector owns its own patcher, as the saved values are only valid for
+ * the stack of the method that detector is currently parsing, and so detectors
+ * can be run concurrently.
  */
 public final class TernaryPatcher {
 
-    private static List<Object> userValues = new ArrayList<Object>();
-    private static boolean sawGOTO = false;
-
-    private TernaryPatcher() {
-    }
+    private final List<Object> userValues = new ArrayList<>();
+    private boolean sawGOTO = false;
 
     /**
      * called before the execution of the parent OpcodeStack.sawOpcode() to save
@@ -54,7 +55,7 @@ public final class TernaryPatcher {
      * @param opcode
      *            the opcode currently seen
      */
-    public static void pre(OpcodeStack stack, int opcode) {
+    public void pre(OpcodeStack stack, int opcode) {
         if (sawGOTO) {
             return;
         }
@@ -81,7 +82,7 @@ public final class TernaryPatcher {
      * @param opcode
      *            the opcode currently seen
      */
-    public static void post(OpcodeStack stack, int opcode) {
+    public void post(OpcodeStack stack, int opcode) {
         if (!sawGOTO || (opcode == Constants.GOTO) || (opcode == Constants.GOTO_W)) {
             return;
         }
@@ -96,4 +97,9 @@ public final class TernaryPatcher {
         userValues.clear();
         sawGOTO = false;
     }
+
+    @Override
+    public String toString() {
+        return ToString.build(this);
+    }
 }
@@ -0,0 +1,161 @@
+package ex;
+
+import java.util.List;
+
+@SuppressWarnings("all")
+public class MCS_Sample {
+
+    interface Shape {
+        double area();
+
+        String name();
+    }
+
+    static class Circle implements Shape {
+        double r;
+
+        @Override
+        public double area() {
+            return Math.PI * r * r;
+        }
+
+        @Override
+        public String name() {
+            return "circle";
+        }
+    }
+
+    static class Square implements Shape {
+        double s;
+
+        @Override
+        public double area() {
+            return s * s;
+        }
+
+        @Override
+        public String name() {
+            return "square";
+        }
+    }
+
+    static class Triangle implements Shape {
+        double b, h;
+
+        @Override
+        public double area() {
+            return (b * h) / 2;
+        }
+
+        @Override
+        public String name() {
+            return "triangle";
+        }
+    }
+
+    interface Codec {
+        int encode(int value);
+    }
+
+    static class PlainCodec implements Codec {
+        @Override
+        public int encode(int value) {
+            return value;
+        }
+    }
+
+    static class XorCodec implements Codec {
+        @Override
+        public int encode(int value) {
+            return value ^ 0x5A5A5A5A;
+        }
+    }
+
+    interface Counter {
+        int next();
+    }
+
+    static class SimpleCounter implements Counter {
+        int count;
+
+        @Override
+        public int next() {
+            return ++count;
+        }
+    }
+
+    interface Sorter {
+        void sort(int[] values);
+    }
+
+    static class InsertionSorter implements Sorter {
+        @Override
+        public void sort(int[] values) {
+        }
+    }
+
+    static class CheckedInsertionSorter extends InsertionSorter {
+    }
+
+    static class MergeSorter implements Sorter {
+        @Override
+        public void sort(int[] values) {
+        }
+    }
+
+    abstract static class Handler {
+        abstract void handle(int value);
+    }
+
+    static class BaseHandler extends Handler {
+        @Override
+        void handle(int value) {
+        }
+    }
+
+    static class LoggingHandler extends BaseHandler {
+    }
+
+    static class AuditHandler extends BaseHandler {
+    }
+
+    public double megamorphicInLoop(List<Shape> shapes) {
+        double total = 0;
+        for (Shape shape : shapes) {
+            total += shape.area();
+        }
+        return total;
+    }
+
+    public int bimorphicInLoop(Codec codec, int[] values) {
+        int sum = 0;
+        for (int value : values) {
+            sum += codec.encode(value);
+        }
+        return sum;
+    }
+
+    public int fpMonomorphicInLoop(Counter counter, int times) {
+        int last = 0;
+        for (int i = 0; i < times; i++) {
+            last = counter.next();
+        }
+        return last;
+    }
+
+    public void megamorphicByInheritedInLoop(List<Sorter> sorters, int[] values) {
+        for (Sorter sorter : sorters) {
+            sorter.sort(values);
+        }
+    }
+
+    public void fpOneImplementationInLoop(List<Handler> handlers) {
+        for (Handler handler : handlers) {
+            handler.handle(0);
+        }
+    }
+
+    public String fpMegamorphicOutsideLoop(Shape shape) {
+        return shape.name();
+    }
+}
@@ -0,0 +1,87 @@
+package ex;
+
+import java.util.List;
+
+@SuppressWarnings("all")
+public class UJM_Sample {
+
+    private int total;
+
+    public void uninlinedSmallCallInLoop(List<String> values) {
+        for (String value : values) {
+            addLength(value);
+        }
+    }
+
+    public void uninlinedHotCallInLoop(int[] values) {
+        for (int value : values) {
+            accumulate(value);
+        }
+    }
+
+    public void fpInlinedCallInLoop(List<String> values) {
+        for (String value : values) {
+            add(value.length());
+        }
+    }
+
+    public void fpCallOutsideLoop(int value) {
+        accumulate(value);
+    }
+
+    private void add(int value) {
+        total += value;
+    }
+
+    private void addLength(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("null value");
+        }
+        if (value.isEmpty()) {
+            return;
+        }
+        total += value.length();
+    }
+
+    private void accumulate(int value) {
+        if (value < 0) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Negative value: ").append(value).append(" when total was ").append(total);
+            sb.append(" and the value ").append(value).append(" is not allowed ").append(total);
+            sb.append(" negative values ").append(value).append(" must be filtered ").append(total);
+            throw new IllegalArgumentException(sb.toString());
+        }
+        switch (value % 8) {
+            case 0:
+                total += value;
+            break;
+            case 1:
+                total -= value;
+            break;
+            case 2:
+                total *= value;
+            break;
+            case 3:
+                total /= value;
+            break;
+            case 4:
+                total += value * 2;
+            break;
+            case 5:
+                total -= value * 2;
+            break;
+            case 6:
+                total += value * value;
+            break;
+            default:
+                total ^= value;
+            break;
+        }
+        if (total > 1000000) {
+            total = total % 1000 + value % 1000 + (total >> 4) + (value << 2) + (total & 0xFF) + (value | 3) + (total ^ value);
+        }
+        if (total < -1000000) {
+            total = -(total % 1000) + value % 1000 - (total >> 4) - (value << 2) - (total & 0xFF) - (value | 3) - (total ^ value);
+        }
+    }
+}
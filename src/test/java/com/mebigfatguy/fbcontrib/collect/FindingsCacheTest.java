@@ -0,0 +1,159 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.collect;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.mebigfatguy.fbcontrib.detect.AnalysisHarness;
+
+import edu.umd.cs.findbugs.BugInstance;
+import edu.umd.cs.findbugs.Priorities;
+import edu.umd.cs.findbugs.ba.ClassContext;
+
+public class FindingsCacheTest {
+
+    private static final String CONFIGURATION = "7.0.3";
+    private static final String DETECTOR = "UnitTest";
+    private static final String BUG_TYPE = "UT_TEST_BUG";
+    private static final String USER_CLASS = "incr.User";
+
+    private Path workDir;
+    private Path classesDir;
+    private Path cacheFile;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("findings");
+        classesDir = Files.createDirectories(workDir.resolve("classes"));
+        cacheFile = workDir.resolve("findings.cache");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        for (Path p : Files.walk(workDir).sorted(Collections.reverseOrder()).toArray(Path[]::new)) {
+            Files.delete(p);
+        }
+    }
+
+    @Test
+    public void shouldReplayFindingsOfUnchangedClass() throws Exception {
+        compile(1);
+        assertNull(analyze(CONFIGURATION, true), "a class is found in an empty cache");
+
+        List<BugInstance> bugs = analyze(CONFIGURATION, false);
+        assertNotNull(bugs, "the findings of an unchanged class are not replayed");
+        assertEquals(bugs.size(), 1);
+        assertEquals(bugs.get(0).getType(), BUG_TYPE);
+        assertEquals(bugs.get(0).getPrimaryClass().getClassName(), USER_CLASS);
+    }
+
+    @Test
+    public void shouldDropFindingsWhenDependencyChanges() throws Exception {
+        compile(1);
+        assertNull(analyze(CONFIGURATION, true));
+
+        compile(2);
+        assertNull(analyze(CONFIGURATION, false), "the findings are replayed although a class the class uses has changed");
+    }
+
+    @Test
+    public void shouldDropFindingsWhenConfigurationChanges() throws Exception {
+        compile(1);
+        assertNull(analyze(CONFIGURATION, true));
+
+        assertNull(analyze(CONFIGURATION + ",fb-contrib.cc.limit=10", false), "the findings are replayed although the configuration has changed");
+    }
+
+    @Test
+    public void shouldOnlyReplayFindingsOfTheSameDetector() throws Exception {
+        compile(1);
+        assertNull(analyze(CONFIGURATION, true));
+
+        try (AnalysisHarness harness = AnalysisHarness.open(classesDir.toFile())) {
+            FindingsCache cache = new FindingsCache(cacheFile, CONFIGURATION);
+            cache.load();
+            assertNull(cache.getFindings(getUserContext(harness), DETECTOR + "2"));
+        }
+    }
+
+    /**
+     * runs one analysis of the compiled classes with a cache, looking up the findings of the user class, and optionally recording a bug for it and saving
+     * the cache
+     *
+     * @return the cached findings of the user class
+     */
+    private List<BugInstance> analyze(String configuration, boolean record) throws Exception {
+        try (AnalysisHarness harness = AnalysisHarness.open(classesDir.toFile())) {
+            FindingsCache cache = new FindingsCache(cacheFile, configuration);
+            cache.load();
+            ClassContext userContext = getUserContext(harness);
+            List<BugInstance> bugs = cache.getFindings(userContext, DETECTOR);
+            if (record) {
+                BugInstance bug = new BugInstance(BUG_TYPE, Priorities.NORMAL_PRIORITY).addClass(USER_CLASS);
+                cache.putFindings(userContext, DETECTOR, Collections.singletonList(bug));
+                cache.save();
+                assertTrue(Files.exists(cacheFile));
+            }
+            return bugs;
+        }
+    }
+
+    private static ClassContext getUserContext(AnalysisHarness harness) {
+        for (ClassContext classContext : harness.getClassContexts()) {
+            if (USER_CLASS.equals(classContext.getJavaClass().getClassName())) {
+                return classContext;
+            }
+        }
+        throw new AssertionError(USER_CLASS + " was not analyzed");
+    }
+
+    /**
+     * compiles a class, and a class it uses whose method returns a given value, so that a new value changes the dependency of the first class
+     */
+    private void compile(int value) throws IOException {
+        Path srcDir = Files.createDirectories(workDir.resolve("src/incr"));
+        Path dep = srcDir.resolve("Dep.java");
+        Path user = srcDir.resolve("User.java");
+        Files.write(dep, ("package incr;\npublic class Dep {\n    public int value() {\n        return " + value + ";\n    }\n}\n").getBytes(StandardCharsets.UTF_8));
+        Files.write(user, "package incr;\npublic class User {\n    public int use(Dep dep) {\n        return dep.value();\n    }\n}\n".getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int rc = compiler.run(null, null, null, "-d", classesDir.toString(), dep.toString(), user.toString());
+        assertEquals(rc, 0, "the test classes don't compile");
+        assertTrue(new File(classesDir.toFile(), "incr/User.class").isFile());
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.detect;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.bcel.Repository;
+import org.apache.bcel.util.SyntheticRepository;
+
+import com.mebigfatguy.fbcontrib.collect.CollectMethodsReturningImmutableCollections;
+import com.mebigfatguy.fbcontrib.collect.CollectStatistics;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+
+import edu.umd.cs.findbugs.AbstractBugReporter;
+import edu.umd.cs.findbugs.AnalysisError;
+import edu.umd.cs.findbugs.BugCollection;
+import edu.umd.cs.findbugs.BugInstance;
+import edu.umd.cs.findbugs.BugRanker;
+import edu.umd.cs.findbugs.BugReporter;
+import edu.umd.cs.findbugs.DelegatingBugReporter;
+import edu.umd.cs.findbugs.Detector;
+import edu.umd.cs.findbugs.DetectorFactoryCollection;
+import edu.umd.cs.findbugs.FindBugs;
+import edu.umd.cs.findbugs.FindBugs2;
+import edu.umd.cs.findbugs.NoOpFindBugsProgress;
+import edu.umd.cs.findbugs.Plugin;
+import edu.umd.cs.findbugs.Priorities;
+import edu.umd.cs.findbugs.Project;
+import edu.umd.cs.findbugs.ba.AnalysisContext;
+import edu.umd.cs.findbugs.ba.ClassContext;
+import edu.umd.cs.findbugs.ba.XClass;
+import edu.umd.cs.findbugs.ba.ch.Subtypes2;
+import edu.umd.cs.findbugs.classfile.ClassDescriptor;
+import edu.umd.cs.findbugs.classfile.Global;
+import edu.umd.cs.findbugs.classfile.IAnalysisCache;
+import edu.umd.cs.findbugs.classfile.IClassFactory;
+import edu.umd.cs.findbugs.classfile.IClassPath;
+import edu.umd.cs.findbugs.classfile.IClassPathBuilder;
+import edu.umd.cs.findbugs.classfile.impl.ClassFactory;
+
+/**
+ * a minimal FindBugs engine for benchmarking and testing detectors. It sets up the analysis cache and context for a directory of classes on the current
+ * thread, the way FindBugs2 does, runs the first pass collectors over them, and then hands out class contexts, so that a benchmark can drive a single
+ * detector one class at a time, or run a detector over all classes on one or several threads. Expects to be run from the project directory after
+ * test-compile, as the findbugs home and the plugin are taken from target.
+ */
+public final class AnalysisHarness implements AutoCloseable {
+
+    private static final String FINDBUGS_HOME = "target/findbugs-3.0.1.jar";
+    private static final String PLUGIN_DIR = "target/classes/main";
+
+    private final CountingBugReporter bugReporter;
+    private final BugReporter parallelBugReporter;
+    private final IClassPath classPath;
+    private final IAnalysisCache sharedAnalysisCache;
+    private final AnalysisContext analysisContext;
+    private final List<ClassContext> classContexts = new ArrayList<>();
+
+    private AnalysisHarness(File corpusDir) throws Exception {
+        // must be set before findbugs loads its core plugin, as the plugin's own findbugs.xml comes first on the class path
+        FindBugs.setHome(FINDBUGS_HOME);
+        bugReporter = new CountingBugReporter();
+        parallelBugReporter = new SynchronizedBugReporter(bugReporter);
+        if (Plugin.getByPluginId("com.mebigfatguy.fbcontrib") == null) {
+            Plugin.addCustomPlugin(new File(PLUGIN_DIR).toURI());
+        }
+
+        IClassFactory factory = ClassFactory.instance();
+        classPath = factory.createClassPath();
+        // as in FindBugs2, the analysis cache is needed while building the class path
+        IAnalysisCache analysisCache = factory.createAnalysisCache(classPath, bugReporter);
+        FindBugs2.registerBuiltInAnalysisEngines(analysisCache);
+        FindBugs2.registerPluginAnalysisEngines(DetectorFactoryCollection.instance(), analysisCache);
+        Global.setAnalysisCacheForCurrentThread(analysisCache);
+
+        IClassPathBuilder builder = factory.createClassPathBuilder(bugReporter);
+        builder.addCodeBase(factory.createFilesystemCodeBaseLocator(corpusDir.getPath()), true);
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (new File(entry).exists()) {
+                builder.addCodeBase(factory.createFilesystemCodeBaseLocator(entry), false);
+            }
+        }
+        builder.scanNestedArchives(false);
+        builder.build(classPath, new NoOpFindBugsProgress());
+
+        List<ClassDescriptor> appClasses = builder.getAppClassList();
+        FindBugs2.createAnalysisContext(new Project(), appClasses, null);
+        analysisContext = AnalysisContext.currentAnalysisContext();
+        sharedAnalysisCache = new SynchronizedAnalysisCache(analysisCache);
+        // as in FindBugs2, bugs are only reported in classes that subtypes2 knows to be application classes
+        Subtypes2 subtypes2 = analysisContext.getSubtypes2();
+        for (ClassDescriptor classDescriptor : appClasses) {
+            subtypes2.addApplicationClass(analysisCache.getClassAnalysis(XClass.class, classDescriptor));
+            classContexts.add(analysisCache.getClassAnalysis(ClassContext.class, classDescriptor));
+        }
+
+        runDetector(new CollectStatistics(bugReporter));
+        runDetector(new CollectMethodsReturningImmutableCollections(bugReporter));
+    }
+
+    /**
+     * sets up the analysis of all classes in a directory, and runs the first pass collectors over them
+     *
+     * @param corpusDir
+     *            the root directory of the classes to analyze
+     * @return the harness holding the analysis
+     *
+     * @throws Exception
+     *             if the classes can't be read or the analysis context can't be created
+     */
+    public static AnalysisHarness open(File corpusDir) throws Exception {
+        return new AnalysisHarness(corpusDir);
+    }
+
+    /**
+     * creates a second pass detector of this plugin, reporting to a reporter that only counts the bugs
+     *
+     * @param detectorClassName
+     *            the fully qualified name of the detector
+     * @return the detector
+     *
+     * @throws Exception
+     *             if the detector can't be instantiated
+     */
+    public Detector createDetector(String detectorClassName) throws Exception {
+        return createDetector(detectorClassName, bugReporter);
+    }
+
+    private static Detector createDetector(String detectorClassName, BugReporter reporter) throws Exception {
+        return (Detector) Class.forName(detectorClassName).getConstructor(BugReporter.class).newInstance(reporter);
+    }
+
+    /**
+     * returns the class contexts of all classes of the corpus
+     *
+     * @return the class contexts, in the order the class path builder found them
+     */
+    public ClassContext[] getClassContexts() {
+        return classContexts.toArray(new ClassContext[classContexts.size()]);
+    }
+
+    /**
+     * returns the number of bugs reported since the harness was opened
+     *
+     * @return the bug count
+     */
+    int getBugCount() {
+        return bugReporter.bugCount;
+    }
+
+    /**
+     * runs a parallel safe second pass detector over all classes on the threads of a fork join pool, with one instance of the detector per thread, and then
+     * lets each instance report. Access to the analysis cache is serialized, as findbugs' is not thread safe, so this checks the contract of
+     * {@link ParallelSafe} and shows how much of a detector's work could be spread over threads, rather than being a parallel findbugs engine.
+     *
+     * @param detectorClassName
+     *            the fully qualified name of the detector
+     * @param pool
+     *            the pool whose threads visit the classes
+     *
+     * @throws Exception
+     *             if the detector isn't parallel safe, or can't be instantiated
+     */
+    void runInParallel(String detectorClassName, ForkJoinPool pool) throws Exception {
+        runInParallel(detectorClassName, pool, parallelBugReporter);
+    }
+
+    /**
+     * runs a second pass detector over all classes on the current thread, with one instance of the detector, and then lets it report, as FindBugs does
+     *
+     * @param detectorClassName
+     *            the fully qualified name of the detector
+     * @param reporter
+     *            the reporter the detector reports its bugs to
+     *
+     * @throws Exception
+     *             if the detector can't be instantiated
+     */
+    void runSerially(String detectorClassName, BugReporter reporter) throws Exception {
+        runDetector(createDetector(detectorClassName, reporter));
+    }
+
+    /**
+     * runs a parallel safe second pass detector over all classes on the threads of a fork join pool, as {@link #runInParallel(String, ForkJoinPool)} does,
+     * reporting to the given reporter, which must be safe to call from several threads
+     *
+     * @param detectorClassName
+     *            the fully qualified name of the detector
+     * @param pool
+     *            the pool whose threads visit the classes
+     * @param reporter
+     *            the reporter the detector instances report their bugs to
+     *
+     * @throws Exception
+     *             if the detector isn't parallel safe, or can't be instantiated
+     */
+    void runInParallel(String detectorClassName, ForkJoinPool pool, BugReporter reporter) throws Exception {
+        if (!Class.forName(detectorClassName).isAnnotationPresent(ParallelSafe.class)) {
+            throw new IllegalArgumentException(detectorClassName + " is not marked as ParallelSafe");
+        }
+
+        Queue<Detector> detectors = new ConcurrentLinkedQueue<>();
+        ThreadLocal<Detector> threadDetector = new ThreadLocal<Detector>() {
+            @Override
+            protected Detector initialValue() {
+                try {
+                    Detector detector = createDetector(detectorClassName, reporter);
+                    detectors.add(detector);
+                    return detector;
+                } catch (Exception e) {
+                    throw new IllegalStateException("Failed to create " + detectorClassName, e);
+                }
+            }
+        };
+
+        pool.invoke(new VisitClasses(threadDetector, 0, classContexts.size()));
+        for (Detector detector : detectors) {
+            detector.report();
+        }
+    }
+
+    /**
+     * has a detector visit one class, logging rather than throwing the exceptions it throws, as FindBugs2 does, so that one broken detector doesn't end the
+     * run
+     *
+     * @param detector
+     *            the detector to run
+     * @param classContext
+     *            the class to visit
+     */
+    static void visitClass(Detector detector, ClassContext classContext) {
+        try {
+            detector.visitClassContext(classContext);
+        } catch (RuntimeException e) {
+            AnalysisContext.logError("Exception analyzing " + classContext.getJavaClass().getClassName() + " using " + detector.getClass().getName(), e);
+        }
+    }
+
+    private void runDetector(Detector detector) {
+        for (ClassContext classContext : classContexts) {
+            visitClass(detector, classContext);
+        }
+        detector.report();
+    }
+
+    @Override
+    public void close() {
+        AnalysisContext.removeCurrentAnalysisContext();
+        Global.removeAnalysisCacheForCurrentThread();
+        classPath.close();
+        // the analysis context points bcel at the analysis cache, which is gone now
+        Repository.setRepository(SyntheticRepository.getInstance());
+    }
+
+    /**
+     * visits a range of the classes, splitting it in half until it is small enough to be visited by one thread
+     */
+    private class VisitClasses extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int MAX_CLASSES_PER_TASK = 4;
+
+        private final transient ThreadLocal<Detector> threadDetector;
+        private final int start;
+        private final int end;
+
+        VisitClasses(ThreadLocal<Detector> threadDetector, int start, int end) {
+            this.threadDetector = threadDetector;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if ((end - start) > MAX_CLASSES_PER_TASK) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new VisitClasses(threadDetector, start, mid), new VisitClasses(threadDetector, mid, end));
+                return;
+            }
+
+            // the analysis cache and context are thread locals, so they have to be installed on each pool thread
+            Global.setAnalysisCacheForCurrentThread(sharedAnalysisCache);
+            AnalysisContext.setCurrentAnalysisContext(analysisContext);
+            Detector detector = threadDetector.get();
+            for (int i = start; i < end; i++) {
+                visitClass(detector, classContexts.get(i));
+            }
+        }
+    }
+
+    /**
+     * a bug reporter that serializes the bugs reported from several threads, as the ranking and filtering of AbstractBugReporter is not thread safe
+     */
+    static class SynchronizedBugReporter extends DelegatingBugReporter {
+
+        SynchronizedBugReporter(BugReporter delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public synchronized void reportBug(BugInstance bugInstance) {
+            super.reportBug(bugInstance);
+        }
+    }
+
+    /**
+     * a bug reporter that only counts the bugs it is given, so that reporting does not grow the heap over a long benchmark
+     */
+    static class CountingBugReporter extends AbstractBugReporter {
+        int bugCount;
+
+        CountingBugReporter() {
+            setPriorityThreshold(Priorities.LOW_PRIORITY);
+            setRankThreshold(BugRanker.VISIBLE_RANK_MAX);
+        }
+
+        @Override
+        protected void doReportBug(BugInstance bugInstance) {
+            bugCount++;
+        }
+
+        @Override
+        public void reportAnalysisError(AnalysisError error) {
+            // errors are not part of what is measured
+        }
+
+        @Override
+        public void reportMissingClass(String string) {
+            // missing classes are not part of what is measured
+        }
+
+        @Override
+        public void finish() {
+            // nothing is buffered
+        }
+
+        @Override
+        public BugCollection getBugCollection() {
+            return null;
+        }
+
+        @Override
+        public void observeClass(ClassDescriptor classDescriptor) {
+            // classes are not tracked
+        }
+    }
+}
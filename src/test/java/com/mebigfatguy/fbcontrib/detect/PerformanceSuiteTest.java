@@ -0,0 +1,96 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.detect;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.mebigfatguy.fbcontrib.detect.TernaryPatcherDetectorsTest.RecordingBugReporter;
+
+/**
+ * runs the PerformanceSuite over the sample classes, and checks that it reports the same bugs as the detectors whose rules it runs do, when each is run on its
+ * own.
+ */
+public class PerformanceSuiteTest {
+
+    private static final String SAMPLES_DIR = "target/test-classes/ex";
+    private static final String DISABLED_RULES = "fb-contrib.performance.disabled";
+    private static final List<String> SUITE_DETECTORS = Arrays.asList("DubiousListCollection", "DubiousSetOfCollections", "DateComparison", "ManualArrayCopy",
+            "MegamorphicCallSite", "NeedlessInstanceRetrieval", "SQLInLoop", "StaticArrayCreatedInMethod", "TailRecursion", "Unjitable");
+
+    private AnalysisHarness harness;
+
+    @BeforeClass
+    public void openHarness() throws Exception {
+        harness = AnalysisHarness.open(new File(SAMPLES_DIR));
+    }
+
+    @AfterClass
+    public void closeHarness() {
+        harness.close();
+    }
+
+    @Test
+    public void shouldReportTheBugsOfItsDetectors() throws Exception {
+        List<String> detectorBugs = runDetectors(SUITE_DETECTORS);
+        assertFalse(detectorBugs.isEmpty(), "the samples no longer show any bugs of the suite's detectors");
+        assertEquals(runSuite(""), detectorBugs);
+    }
+
+    @Test
+    public void shouldLeaveOutDisabledDetectors() throws Exception {
+        List<String> enabled = new ArrayList<>(SUITE_DETECTORS);
+        enabled.remove("TailRecursion");
+        enabled.remove("Unjitable");
+        assertEquals(runSuite("TailRecursion, Unjitable"), runDetectors(enabled));
+    }
+
+    private List<String> runDetectors(List<String> detectors) throws Exception {
+        RecordingBugReporter reporter = new RecordingBugReporter();
+        for (String detector : detectors) {
+            harness.runSerially(PerformanceSuiteTest.class.getPackage().getName() + '.' + detector, reporter);
+        }
+        return reporter.getBugs();
+    }
+
+    private List<String> runSuite(String disabled) throws Exception {
+        String oldDisabled = System.getProperty(DISABLED_RULES);
+        try {
+            System.setProperty(DISABLED_RULES, disabled);
+            RecordingBugReporter reporter = new RecordingBugReporter();
+            harness.runSerially(PerformanceSuite.class.getName(), reporter);
+            return reporter.getBugs();
+        } finally {
+            if (oldDisabled == null) {
+                System.clearProperty(DISABLED_RULES);
+            } else {
+                System.setProperty(DISABLED_RULES, oldDisabled);
+            }
+        }
+    }
+}
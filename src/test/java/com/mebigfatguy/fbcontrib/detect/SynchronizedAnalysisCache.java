@@ -0,0 +1,137 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.detect;
+
+import java.util.Map;
+
+import edu.umd.cs.findbugs.classfile.CheckedAnalysisException;
+import edu.umd.cs.findbugs.classfile.ClassDescriptor;
+import edu.umd.cs.findbugs.classfile.IAnalysisCache;
+import edu.umd.cs.findbugs.classfile.IClassAnalysisEngine;
+import edu.umd.cs.findbugs.classfile.IClassPath;
+import edu.umd.cs.findbugs.classfile.IDatabaseFactory;
+import edu.umd.cs.findbugs.classfile.IErrorLogger;
+import edu.umd.cs.findbugs.classfile.IMethodAnalysisEngine;
+import edu.umd.cs.findbugs.classfile.MethodDescriptor;
+import edu.umd.cs.findbugs.log.Profiler;
+
+/**
+ * an analysis cache that serializes all access to the analysis cache it wraps. The findbugs analysis cache is written to be used from one thread, so this is
+ * what lets the analysis harness hand the same cache to several threads. It doesn't make the analyses themselves thread safe, it only keeps the cache's own
+ * maps consistent.
+ */
+final class SynchronizedAnalysisCache implements IAnalysisCache {
+
+    private final IAnalysisCache delegate;
+
+    /**
+     * wraps an analysis cache
+     *
+     * @param delegate
+     *            the cache to serialize access to
+     */
+    SynchronizedAnalysisCache(IAnalysisCache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized <E> void registerClassAnalysisEngine(Class<E> analysisResultType, IClassAnalysisEngine<E> classAnalysisEngine) {
+        delegate.registerClassAnalysisEngine(analysisResultType, classAnalysisEngine);
+    }
+
+    @Override
+    public synchronized <E> void registerMethodAnalysisEngine(Class<E> analysisResultType, IMethodAnalysisEngine<E> methodAnalysisEngine) {
+        delegate.registerMethodAnalysisEngine(analysisResultType, methodAnalysisEngine);
+    }
+
+    @Override
+    public synchronized <E> E getClassAnalysis(Class<E> analysisClass, ClassDescriptor classDescriptor) throws CheckedAnalysisException {
+        return delegate.getClassAnalysis(analysisClass, classDescriptor);
+    }
+
+    @Override
+    public synchronized <E> E probeClassAnalysis(Class<E> analysisClass, ClassDescriptor classDescriptor) {
+        return delegate.probeClassAnalysis(analysisClass, classDescriptor);
+    }
+
+    @Override
+    public synchronized <E> E getMethodAnalysis(Class<E> analysisClass, MethodDescriptor methodDescriptor) throws CheckedAnalysisException {
+        return delegate.getMethodAnalysis(analysisClass, methodDescriptor);
+    }
+
+    @Override
+    public synchronized <E> void eagerlyPutMethodAnalysis(Class<E> analysisClass, MethodDescriptor methodDescriptor, E analysisObject) {
+        delegate.eagerlyPutMethodAnalysis(analysisClass, methodDescriptor, analysisObject);
+    }
+
+    @Override
+    public synchronized void purgeMethodAnalyses(MethodDescriptor methodDescriptor) {
+        delegate.purgeMethodAnalyses(methodDescriptor);
+    }
+
+    @Override
+    public synchronized void purgeAllMethodAnalysis() {
+        delegate.purgeAllMethodAnalysis();
+    }
+
+    @Override
+    public synchronized void purgeClassAnalysis(Class<?> analysisClass) {
+        delegate.purgeClassAnalysis(analysisClass);
+    }
+
+    @Override
+    public synchronized <E> void registerDatabaseFactory(Class<E> databaseClass, IDatabaseFactory<E> databaseFactory) {
+        delegate.registerDatabaseFactory(databaseClass, databaseFactory);
+    }
+
+    @Override
+    public synchronized <E> E getDatabase(Class<E> databaseClass) {
+        return delegate.getDatabase(databaseClass);
+    }
+
+    @Override
+    public synchronized <E> E getOptionalDatabase(Class<E> databaseClass) {
+        return delegate.getOptionalDatabase(databaseClass);
+    }
+
+    @Override
+    public synchronized <E> void eagerlyPutDatabase(Class<E> databaseClass, E database) {
+        delegate.eagerlyPutDatabase(databaseClass, database);
+    }
+
+    @Override
+    public synchronized IClassPath getClassPath() {
+        return delegate.getClassPath();
+    }
+
+    @Override
+    public synchronized IErrorLogger getErrorLogger() {
+        return delegate.getErrorLogger();
+    }
+
+    @Override
+    public synchronized Map<?, ?> getAnalysisLocals() {
+        return delegate.getAnalysisLocals();
+    }
+
+    @Override
+    public synchronized Profiler getProfiler() {
+        return delegate.getProfiler();
+    }
+}
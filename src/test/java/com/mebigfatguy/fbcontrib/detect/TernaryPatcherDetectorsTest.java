@@ -0,0 +1,123 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.detect;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.bcel.Repository;
+import org.apache.bcel.classfile.Constant;
+import org.apache.bcel.classfile.ConstantClass;
+import org.apache.bcel.classfile.ConstantPool;
+import org.apache.bcel.classfile.JavaClass;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.mebigfatguy.fbcontrib.utils.AbstractDetectorTest;
+import com.mebigfatguy.fbcontrib.utils.ParallelSafe;
+
+import edu.umd.cs.findbugs.BugInstance;
+
+/**
+ * runs each parallel safe detector that patches its stack with a TernaryPatcher over the sample classes, once on one thread and then a few times on several,
+ * and checks that every run reports the same bugs, as they might not if the patchers of the threads shared their user values.
+ */
+public class TernaryPatcherDetectorsTest extends AbstractDetectorTest {
+
+    private static final String SAMPLES_DIR = "target/test-classes/ex";
+    private static final String TERNARY_PATCHER = "com/mebigfatguy/fbcontrib/utils/TernaryPatcher";
+    private static final int NUM_THREADS = 4;
+    private static final int NUM_ROUNDS = 3;
+
+    private AnalysisHarness harness;
+    private ForkJoinPool pool;
+
+    @BeforeClass
+    public void openHarness() throws Exception {
+        harness = AnalysisHarness.open(new File(SAMPLES_DIR));
+        pool = new ForkJoinPool(NUM_THREADS);
+    }
+
+    @AfterClass
+    public void closeHarness() {
+        pool.shutdownNow();
+        harness.close();
+    }
+
+    @Test(dataProvider = "detectors")
+    public void shouldReportTheSameBugsOnSeveralThreads(String detector) throws Exception {
+        Class<?> detectorClass = getDetectorClass(detector);
+        if (!detectorClass.isAnnotationPresent(ParallelSafe.class) || !usesTernaryPatcher(detectorClass)) {
+            return;
+        }
+
+        RecordingBugReporter serialReporter = new RecordingBugReporter();
+        harness.runSerially(detectorClass.getName(), serialReporter);
+        for (int round = 0; round < NUM_ROUNDS; round++) {
+            RecordingBugReporter parallelReporter = new RecordingBugReporter();
+            harness.runInParallel(detectorClass.getName(), pool, new AnalysisHarness.SynchronizedBugReporter(parallelReporter));
+            assertEquals(parallelReporter.getBugs(), serialReporter.getBugs(), detector + " reports different bugs when run on several threads");
+        }
+    }
+
+    @Test
+    public void shouldFindDetectorsUsingTernaryPatcher() throws ClassNotFoundException {
+        assertTrue(usesTernaryPatcher(getDetectorClass("UseToArray")), "the detectors are no longer found by their use of TernaryPatcher");
+    }
+
+    private static boolean usesTernaryPatcher(Class<?> detectorClass) throws ClassNotFoundException {
+        for (Class<?> c = detectorClass; c.getName().startsWith("com.mebigfatguy.fbcontrib."); c = c.getSuperclass()) {
+            JavaClass cls = Repository.lookupClass(c.getName());
+            ConstantPool pool = cls.getConstantPool();
+            for (Constant constant : pool.getConstantPool()) {
+                if ((constant instanceof ConstantClass) && TERNARY_PATCHER.equals(((ConstantClass) constant).getBytes(pool))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * a bug reporter that keeps a description of each bug, so that the bugs of two runs can be compared regardless of the order they were reported in
+     */
+    static class RecordingBugReporter extends AnalysisHarness.CountingBugReporter {
+        private final List<String> bugs = new ArrayList<>();
+
+        @Override
+        protected void doReportBug(BugInstance bugInstance) {
+            super.doReportBug(bugInstance);
+            bugs.add(bugInstance.getType() + ' ' + bugInstance.getPriority() + ' ' + bugInstance.getInstanceKey() + ' '
+                    + bugInstance.getPrimarySourceLineAnnotation());
+        }
+
+        List<String> getBugs() {
+            List<String> sortedBugs = new ArrayList<>(bugs);
+            Collections.sort(sortedBugs);
+            return sortedBugs;
+        }
+    }
+}
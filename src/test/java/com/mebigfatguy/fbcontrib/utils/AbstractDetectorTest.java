@@ -0,0 +1,73 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+
+import edu.umd.cs.findbugs.FindBugs;
+
+/**
+ * the shared setup of the tests that check every detector registered in etc/findbugs.xml, which are handed the short name of each detector of the detect
+ * package by the <code>detectors</code> data provider.
+ */
+public abstract class AbstractDetectorTest {
+
+    protected static final String DETECT_PACKAGE = "com.mebigfatguy.fbcontrib.detect.";
+    private static final Pattern DETECTOR = Pattern.compile("<Detector class=\"" + Pattern.quote(DETECT_PACKAGE) + "(\\w+)\"");
+
+    @BeforeClass
+    public void setUpClass() {
+        FindBugs.setHome("target/findbugs-3.0.1.jar");
+    }
+
+    @DataProvider(name = "detectors")
+    public Object[][] detectors() throws IOException {
+        String findbugsXml = new String(Files.readAllBytes(Paths.get("etc/findbugs.xml")), StandardCharsets.UTF_8);
+        List<Object[]> detectors = new ArrayList<>();
+        Matcher m = DETECTOR.matcher(findbugsXml);
+        while (m.find()) {
+            detectors.add(new Object[] { m.group(1) });
+        }
+        return detectors.toArray(new Object[detectors.size()][]);
+    }
+
+    /**
+     * returns the class of a detector
+     *
+     * @param detector
+     *            the short name of the detector, as handed out by the data provider
+     * @return the detector class
+     *
+     * @throws ClassNotFoundException
+     *             if the detector isn't on the classpath
+     */
+    protected static Class<?> getDetectorClass(String detector) throws ClassNotFoundException {
+        return Class.forName(DETECT_PACKAGE + detector);
+    }
+}
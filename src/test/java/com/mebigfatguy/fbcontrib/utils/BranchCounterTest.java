@@ -0,0 +1,168 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import static org.testng.Assert.assertEquals;
+
+import org.apache.bcel.Repository;
+import org.apache.bcel.classfile.JavaClass;
+import org.apache.bcel.classfile.Method;
+import org.testng.annotations.Test;
+
+/**
+ * the expected counts are those of the non fall thru edges of the findbugs CFG, which the count follows, except where noted
+ */
+public class BranchCounterTest {
+
+    @Test
+    public void shouldCountStructuredBranches() throws ClassNotFoundException {
+        assertEquals(countBranches(Shapes.class, "straight"), 1);
+        assertEquals(countBranches(Shapes.class, "ifElse"), 2);
+        assertEquals(countBranches(Shapes.class, "loop"), 3);
+        assertEquals(countBranches(Shapes.class, "call"), 2);
+    }
+
+    @Test
+    public void shouldCountSwitchTargetsOnce() throws ClassNotFoundException {
+        assertEquals(countBranches(Shapes.class, "fallThruSwitch"), 4);
+    }
+
+    @Test
+    public void shouldCountExceptionHandlers() throws ClassNotFoundException {
+        assertEquals(countBranches(Shapes.class, "tryCatch"), 3);
+        assertEquals(countBranches(Shapes.class, "tryFinally"), 3);
+        assertEquals(countBranches(Shapes.class, "tryCatchFinally"), 4);
+    }
+
+    @Test
+    public void shouldCountAssertionsAsEnabled() throws ClassNotFoundException {
+        assertEquals(countBranches(Shapes.class, "asserted"), 3);
+    }
+
+    @Test
+    public void shouldNotCountReadsOfOuterThisAsThrowing() throws ClassNotFoundException {
+        assertEquals(countBranches(Shapes.Inner.class, "outerField"), 1);
+    }
+
+    @Test
+    public void shouldCountEachCopyOfFinallyBlocks() throws ClassNotFoundException {
+        // the CFG has no edge into the handler, as the guarded store can't throw, and so counts 3
+        assertEquals(countBranches(Shapes.class, "finallyWithoutThrow"), 6);
+    }
+
+    private static int countBranches(Class<?> cls, String methodName) throws ClassNotFoundException {
+        JavaClass javaClass = Repository.lookupClass(cls);
+        for (Method m : javaClass.getMethods()) {
+            if (methodName.equals(m.getName())) {
+                return BranchCounter.countBranches(m);
+            }
+        }
+        throw new AssertionError(methodName + " not found in " + cls.getName());
+    }
+
+    @SuppressWarnings("all")
+    static class Shapes {
+        int field;
+
+        class Inner {
+            int outerField() {
+                return field;
+            }
+        }
+
+        static int straight(int a) {
+            return a + 1;
+        }
+
+        static int ifElse(int a) {
+            if (a > 0) {
+                return 1;
+            } else {
+                return 2;
+            }
+        }
+
+        static int loop(int a) {
+            int sum = 0;
+            for (int i = 0; i < a; i++) {
+                sum += i;
+            }
+            return sum;
+        }
+
+        static int call(String s) {
+            return s.length();
+        }
+
+        static int fallThruSwitch(int a) {
+            switch (a) {
+                case 1:
+                    return 10;
+                case 2:
+                case 3:
+                    return 20;
+                default:
+                    return 0;
+            }
+        }
+
+        static int tryCatch(String s) {
+            try {
+                return Integer.parseInt(s);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        static int tryFinally(String s) {
+            try {
+                return Integer.parseInt(s);
+            } finally {
+                System.out.println();
+            }
+        }
+
+        static int tryCatchFinally(String s) {
+            try {
+                return Integer.parseInt(s);
+            } catch (NumberFormatException e) {
+                return 0;
+            } finally {
+                System.out.println();
+            }
+        }
+
+        static int asserted(int a) {
+            assert a > 0;
+            return a;
+        }
+
+        int finallyWithoutThrow(boolean b) {
+            int i = 0;
+            try {
+                field = 1;
+            } finally {
+                if (b) {
+                    i = 2;
+                }
+            }
+            return i;
+        }
+    }
+}
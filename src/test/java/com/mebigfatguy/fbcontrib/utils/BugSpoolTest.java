@@ -0,0 +1,90 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import edu.umd.cs.findbugs.BugInstance;
+import edu.umd.cs.findbugs.Priorities;
+
+public class BugSpoolTest {
+
+    private static BugInstance bug(String clsName) {
+        return new BugInstance(BugType.NSE_NON_SYMMETRIC_EQUALS.name(), Priorities.NORMAL_PRIORITY).addClass(clsName).addString(clsName);
+    }
+
+    @Test
+    public void shouldHoldBugsInMemory() {
+        try (BugSpool<String> spool = new BugSpool<>(10)) {
+            BugInstance a = bug("a.A");
+            spool.put("a", a);
+            assertSame(spool.get("a"), a);
+            assertTrue(spool.containsKey("a"));
+            assertFalse(spool.containsKey("b"));
+            assertNull(spool.get("b"));
+        }
+    }
+
+    @Test
+    public void shouldReadSpilledBugsBack() {
+        try (BugSpool<String> spool = new BugSpool<>(1)) {
+            BugInstance a = bug("a.A");
+            BugInstance b = bug("b.B");
+            BugInstance c = bug("c.C");
+            spool.put("a", a);
+            spool.put("b", b);
+            spool.put("c", c);
+            assertEquals(spool.size(), 3);
+            assertSame(spool.get("a"), a);
+            assertEquals(spool.get("b"), b);
+            assertEquals(spool.get("c"), c);
+            assertEquals(spool.get("c").getPrimaryClass().getClassName(), "c.C");
+        }
+    }
+
+    @Test
+    public void shouldReplaceSpilledBugs() {
+        try (BugSpool<String> spool = new BugSpool<>(0)) {
+            spool.put("a", bug("a.A"));
+            BugInstance a2 = bug("a2.A2");
+            spool.put("a", a2);
+            assertEquals(spool.size(), 1);
+            assertEquals(spool.get("a"), a2);
+        }
+    }
+
+    @Test
+    public void shouldBeReusableAfterClear() {
+        try (BugSpool<String> spool = new BugSpool<>(0)) {
+            spool.put("a", bug("a.A"));
+            spool.clear();
+            assertEquals(spool.size(), 0);
+            assertNull(spool.get("a"));
+            BugInstance b = bug("b.B");
+            spool.put("b", b);
+            assertEquals(spool.get("b"), b);
+        }
+    }
+}
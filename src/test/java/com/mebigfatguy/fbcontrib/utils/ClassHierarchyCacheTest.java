@@ -0,0 +1,86 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.apache.bcel.Repository;
+import org.apache.bcel.classfile.JavaClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import edu.umd.cs.findbugs.FindBugs;
+
+public class ClassHierarchyCacheTest {
+
+    private static final String[] CLASSES = { "java.lang.Object", "java.lang.String", "java.lang.Comparable", "java.lang.CharSequence",
+            "java.lang.RuntimeException", "java.lang.Exception", "java.lang.Throwable", "java.lang.IllegalStateException", "java.io.IOException",
+            "java.util.Collection", "java.util.List", "java.util.Set", "java.util.Map", "java.util.ArrayList", "java.util.LinkedList", "java.util.Deque",
+            "java.util.HashMap", "java.util.LinkedHashMap", "java.util.Properties", "java.util.Hashtable", "java.util.TreeSet", "java.util.SortedSet",
+            "java.lang.Iterable", "java.io.Serializable", "java.lang.Cloneable", "java.lang.AutoCloseable", "java.io.Closeable", "java.io.Reader",
+            "java.io.BufferedReader" };
+
+    @BeforeClass
+    public void setUpClass() {
+        FindBugs.setHome("target/findbugs-3.0.1.jar");
+    }
+
+    @DataProvider(name = "classes")
+    public Object[][] classes() {
+        Object[][] data = new Object[CLASSES.length][];
+        for (int i = 0; i < CLASSES.length; i++) {
+            data[i] = new Object[] { CLASSES[i] };
+        }
+        return data;
+    }
+
+    @Test(dataProvider = "classes")
+    public void shouldAgreeWithBCEL(String clsName) throws ClassNotFoundException {
+        JavaClass cls = Repository.lookupClass(clsName);
+        for (String superName : CLASSES) {
+            JavaClass superCls = Repository.lookupClass(superName);
+            assertEquals(ClassHierarchyCache.instanceOf(cls, superCls), cls.instanceOf(superCls), clsName + " instanceOf " + superName);
+            assertEquals(ClassHierarchyCache.instanceOf(clsName.replace('.', '/'), superName), cls.instanceOf(superCls), clsName + " instanceOf " + superName);
+            if (superCls.isInterface()) {
+                assertEquals(ClassHierarchyCache.implementationOf(cls, superCls), cls.implementationOf(superCls), clsName + " implementationOf " + superName);
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindIndirectSupertypes() throws ClassNotFoundException {
+        assertTrue(ClassHierarchyCache.instanceOf("java.util.LinkedHashMap", "java.util.Map"));
+        assertTrue(ClassHierarchyCache.instanceOf("java.io.BufferedReader", "java.lang.AutoCloseable"));
+        assertTrue(ClassHierarchyCache.instanceOf("java.util.Deque", "java.lang.Iterable"));
+        assertFalse(ClassHierarchyCache.instanceOf("java.util.Properties", "java.util.List"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectClassesAsInterfaces() throws ClassNotFoundException {
+        ClassHierarchyCache.implementationOf(Repository.lookupClass("java.util.ArrayList"), Repository.lookupClass("java.util.AbstractList"));
+    }
+
+    @Test(expectedExceptions = ClassNotFoundException.class)
+    public void shouldReportMissingClasses() throws ClassNotFoundException {
+        ClassHierarchyCache.instanceOf("does.not.Exist", "java.lang.Object");
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.bcel.Constants;
+import org.apache.bcel.Repository;
+import org.apache.bcel.classfile.Code;
+import org.apache.bcel.classfile.JavaClass;
+import org.apache.bcel.classfile.Method;
+import org.testng.annotations.Test;
+
+import com.mebigfatguy.fbcontrib.detect.OpcodeRule;
+
+/**
+ * checks what can be checked of the {@link ParallelSafe} contract on the bytecode and static state of the detectors, and that every second pass detector is
+ * either marked, or is listed here with the reason it isn't. Likewise, every parallel safe detector must be marked {@link IncrementalSafe}, or be listed with
+ * the reason it isn't, and only parallel safe detectors may be.
+ */
+public class ParallelSafeTest extends AbstractDetectorTest {
+
+    private static final Map<String, String> SERIAL_DETECTORS = new HashMap<>();
+
+    static {
+        SERIAL_DETECTORS.put("FindClassCircularDependencies", "builds the class dependency graph of all classes, and reports in report()");
+        SERIAL_DETECTORS.put("InconsistentKeyNameCasing", "collects the key names used by all classes, and reports in report()");
+        SERIAL_DETECTORS.put("NonSymmetricEquals", "pairs up the equals methods of all classes, and reports in report()");
+        SERIAL_DETECTORS.put("OverlyPermissiveMethod", "records the access of callers in the shared MethodInfos, and reports in report()");
+        SERIAL_DETECTORS.put("SillynessPotPourri", "reports a class without toString once per analysis, at the first call site seen");
+    }
+
+    private static final Map<String, String> NON_INCREMENTAL_DETECTORS = new HashMap<>();
+
+    static {
+        NON_INCREMENTAL_DETECTORS.put("FinalParameters", "reads the source files, which may change without the class files changing");
+        NON_INCREMENTAL_DETECTORS.put("MegamorphicCallSite", "counts the implementors of a method across all the application classes");
+        NON_INCREMENTAL_DETECTORS.put("ModifyingUnmodifiableCollection", "reads immutability statistics derived from the methods a callee calls in turn");
+        NON_INCREMENTAL_DETECTORS.put("PerformanceSuite", "runs the rule of MegamorphicCallSite");
+        NON_INCREMENTAL_DETECTORS.put("SuspiciousJDKVersionUse", "reads the classes of the targeted JDK from its jars");
+    }
+
+    @Test(dataProvider = "detectors")
+    public void shouldBeClassified(String detector) throws ClassNotFoundException {
+        boolean parallelSafe = getDetectorClass(detector).isAnnotationPresent(ParallelSafe.class);
+        assertTrue(parallelSafe ^ SERIAL_DETECTORS.containsKey(detector), detector + " must either be marked ParallelSafe or be listed as serial, not both");
+    }
+
+    @Test(dataProvider = "detectors")
+    public void shouldBeClassifiedForIncrementalAnalysis(String detector) throws ClassNotFoundException {
+        Class<?> detectorClass = getDetectorClass(detector);
+        boolean incrementalSafe = detectorClass.isAnnotationPresent(IncrementalSafe.class);
+        if (!detectorClass.isAnnotationPresent(ParallelSafe.class)) {
+            assertFalse(incrementalSafe, detector + " is marked IncrementalSafe without being ParallelSafe");
+            return;
+        }
+        assertTrue(incrementalSafe ^ NON_INCREMENTAL_DETECTORS.containsKey(detector),
+                detector + " must either be marked IncrementalSafe or be listed as non incremental, not both");
+    }
+
+    @Test(dataProvider = "detectors")
+    public void shouldKeepParallelSafeContract(String detector) throws Exception {
+        Class<?> detectorClass = getDetectorClass(detector);
+        if (!detectorClass.isAnnotationPresent(ParallelSafe.class)) {
+            return;
+        }
+
+        for (Class<?> c = detectorClass; c.getName().startsWith("com.mebigfatguy.fbcontrib."); c = c.getSuperclass()) {
+            checkParallelSafeContract(c);
+            // rule detectors hold their logic in a nested rule, which is also run by PerformanceSuite
+            for (Class<?> nested : c.getDeclaredClasses()) {
+                if (OpcodeRule.class.isAssignableFrom(nested)) {
+                    checkParallelSafeContract(nested);
+                }
+            }
+        }
+    }
+
+    private static void checkParallelSafeContract(Class<?> c) throws Exception {
+        JavaClass cls = Repository.lookupClass(c.getName());
+        for (Method method : cls.getMethods()) {
+            Code code = method.getCode();
+            if (code == null) {
+                continue;
+            }
+            if ("report".equals(method.getName()) && "()V".equals(method.getSignature())) {
+                assertEquals(code.getCode().length, 1, c.getName() + " reports in report()");
+            }
+            if (!Values.STATIC_INITIALIZER.equals(method.getName())) {
+                assertFalse(writesStaticField(code.getCode()), c.getName() + '.' + method.getName() + " writes a static field");
+            }
+        }
+
+        for (Field f : c.getDeclaredFields()) {
+            if (Modifier.isStatic(f.getModifiers())) {
+                f.setAccessible(true);
+                Object value = f.get(null);
+                if (((value instanceof Collection) || (value instanceof Map)) && !isUnmodifiable(value)) {
+                    fail(c.getName() + '.' + f.getName() + " holds a modifiable " + value.getClass().getName());
+                }
+            }
+        }
+    }
+
+    private static boolean writesStaticField(byte[] bytes) {
+        int pc = 0;
+        while (pc < bytes.length) {
+            if (CodeByteUtils.getbyte(bytes, pc) == Constants.PUTSTATIC) {
+                return true;
+            }
+            pc += CodeByteUtils.getInstructionLength(bytes, pc);
+        }
+        return false;
+    }
+
+    private static boolean isUnmodifiable(Object value) {
+        String clsName = value.getClass().getName();
+        return clsName.startsWith("java.util.Collections$Unmodifiable") || clsName.startsWith("java.util.Collections$Empty")
+                || clsName.startsWith("java.util.Collections$Singleton") || clsName.startsWith("java.util.concurrent.");
+    }
+}
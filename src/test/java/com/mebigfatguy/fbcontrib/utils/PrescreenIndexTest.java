@@ -0,0 +1,114 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.bcel.Constants;
+import org.apache.bcel.Repository;
+import org.apache.bcel.classfile.ConstantCP;
+import org.apache.bcel.classfile.ConstantNameAndType;
+import org.apache.bcel.classfile.ConstantPool;
+import org.apache.bcel.classfile.JavaClass;
+import org.apache.bcel.classfile.Method;
+import org.testng.annotations.Test;
+
+public class PrescreenIndexTest extends AbstractDetectorTest {
+
+    @Test(dataProvider = "detectors")
+    public void shouldCheckTriggersBeforeVisiting(String detector) throws ClassNotFoundException {
+        if (!getDetectorClass(detector).isAnnotationPresent(Prescreen.class)) {
+            return;
+        }
+
+        // rule detectors check the triggers in the visitClassContext of their base class
+        JavaClass cls = null;
+        Method visitClassContext = null;
+        Class<?> c = getDetectorClass(detector);
+        while ((visitClassContext == null) && c.getName().startsWith("com.mebigfatguy.fbcontrib.")) {
+            cls = Repository.lookupClass(c.getName());
+            for (Method m : cls.getMethods()) {
+                if ("visitClassContext".equals(m.getName())) {
+                    visitClassContext = m;
+                }
+            }
+            c = c.getSuperclass();
+        }
+        assertNotNull(visitClassContext, detector + " is marked Prescreen, but doesn't override visitClassContext");
+        assertTrue(callsShouldVisit(visitClassContext.getCode().getCode(), cls.getConstantPool()), detector + " doesn't check its Prescreen triggers");
+    }
+
+    @Test
+    public void shouldMatchAnyOpcode() {
+        BitSet opcodes = new BitSet();
+        opcodes.set(Constants.CHECKCAST);
+        PrescreenIndex index = new PrescreenIndex(opcodes, new HashSet<String>(), new HashSet<String>());
+
+        assertTrue(index.matches(Casts.class.getAnnotation(Prescreen.class)));
+        assertFalse(index.matches(Synchronizes.class.getAnnotation(Prescreen.class)));
+    }
+
+    @Test
+    public void shouldMatchClassesAndMethods() {
+        Set<String> classes = new HashSet<>();
+        classes.add("java/sql/Statement");
+        Set<String> methods = new HashSet<>();
+        methods.add("close");
+
+        PrescreenIndex index = new PrescreenIndex(new BitSet(), classes, methods);
+        assertFalse(index.matches(Queries.class.getAnnotation(Prescreen.class)));
+
+        methods.add("executeQuery");
+        assertTrue(index.matches(Queries.class.getAnnotation(Prescreen.class)));
+    }
+
+    private static boolean callsShouldVisit(byte[] bytes, ConstantPool pool) {
+        int pc = 0;
+        while (pc < bytes.length) {
+            if (CodeByteUtils.getbyte(bytes, pc) == Constants.INVOKESTATIC) {
+                ConstantCP ref = (ConstantCP) pool.getConstant(CodeByteUtils.getshort(bytes, pc + 1));
+                ConstantNameAndType nameAndType = (ConstantNameAndType) pool.getConstant(ref.getNameAndTypeIndex());
+                if ("com/mebigfatguy/fbcontrib/utils/PrescreenIndex".equals(ref.getClass(pool).replace('.', '/'))
+                        && "shouldVisit".equals(nameAndType.getName(pool))) {
+                    return true;
+                }
+            }
+            pc += CodeByteUtils.getInstructionLength(bytes, pc);
+        }
+        return false;
+    }
+
+    @Prescreen(opcodes = Constants.CHECKCAST)
+    static class Casts {
+    }
+
+    @Prescreen(opcodes = { Constants.MONITORENTER, Constants.MONITOREXIT })
+    static class Synchronizes {
+    }
+
+    @Prescreen(classes = { "java/sql/Statement", "java/sql/PreparedStatement" }, methods = "executeQuery")
+    static class Queries {
+    }
+}
@@ -19,6 +19,7 @@
 package com.mebigfatguy.fbcontrib.utils;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -97,6 +98,28 @@ public class SignatureUtilsTest {
         assertEquals(SignatureUtils.getNumParameters("add(ILjava/lang/Object;)Ljava/lang/Object;"), 2);
     }
 
+    @Test
+    public void shouldGetSlotsOfWideParameters() {
+        ParsedSignature parsed = ParsedSignature.of("(JI[DD)V");
+        assertEquals(parsed.getParameterSignatures(), Arrays.asList("J", "I", "[D", "D"));
+        assertEquals(parsed.getParameterSlot(1, true), 2);
+        assertEquals(parsed.getParameterSlot(3, false), 5);
+        assertEquals(parsed.getNumParameterSlots(), 6);
+        assertEquals(parsed.getReturnSignature(), "V");
+    }
+
+    @Test
+    public void shouldShareParsedSignatures() {
+        String sig = "(Ljava/lang/String;I)Ljava/util/List;";
+        assertSame(ParsedSignature.of(new String(sig)), ParsedSignature.of(sig));
+    }
+
+    @Test
+    public void shouldHandleBogusMethodSignatures() {
+        assertEquals(SignatureUtils.getNumParameters("I"), 0);
+        assertEquals(SignatureUtils.getReturnSignature("I"), "?");
+    }
+
     @Test
     public void shouldIgnoreEclipseParameterSignatures() {
         assertEquals(SignatureUtils.getParameterSignatures("wonky(!Ljava/lang/Object;++)Ljava/lang/Object;"), Arrays.asList("Ljava/lang/Object;"));
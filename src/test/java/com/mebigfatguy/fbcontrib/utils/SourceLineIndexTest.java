@@ -0,0 +1,96 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class SourceLineIndexTest {
+
+    @DataProvider(name = "sources")
+    public Object[][] sources() {
+        return new Object[][] { { "" }, { "one" }, { "one\n" }, { "one\ntwo" }, { "one\r\ntwo\r\n" }, { "one\rtwo\r" }, { "\n\n\n" }, { "\r\n\r\n" },
+                { "a\r\r\nb\n\rc" }, { "public void m(final int i) {\n    return;\n}\n" }, { "// café über 中文\nclass A {}\n" } };
+    }
+
+    @Test(dataProvider = "sources")
+    public void shouldSplitLikeBufferedReader(String source) throws IOException {
+        List<String> expected = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new StringReader(source))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                expected.add(line);
+            }
+        }
+
+        SourceLineIndex index = indexOf(source);
+        List<String> actual = new ArrayList<>();
+        for (int i = 0; i < index.getNumLines(); i++) {
+            actual.add(index.getLine(i));
+        }
+
+        assertEquals(actual, expected);
+    }
+
+    @Test
+    public void shouldGrowPastInitialCapacity() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("line ").append(i).append('\n');
+        }
+
+        SourceLineIndex index = indexOf(sb.toString());
+        assertEquals(index.getNumLines(), 1000);
+        assertEquals(index.getLine(0), "line 0");
+        assertEquals(index.getLine(999), "line 999");
+    }
+
+    @Test
+    public void shouldNotReadDeletedFile() throws IOException {
+        Path file = Files.createTempFile("source", ".java");
+        Files.write(file, "one\ntwo\n".getBytes(StandardCharsets.UTF_8));
+        SourceLineIndex index = SourceLineIndex.forFile(file);
+        Files.delete(file);
+
+        assertEquals(index.getNumLines(), 2);
+        assertNull(index.getLine(1));
+    }
+
+    private static SourceLineIndex indexOf(String source) throws IOException {
+        Path file = Files.createTempFile("source", ".java");
+        try {
+            Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+            return SourceLineIndex.forFile(file);
+        } finally {
+            file.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import org.apache.bcel.Repository;
+import org.apache.bcel.classfile.Constant;
+import org.apache.bcel.classfile.ConstantCP;
+import org.apache.bcel.classfile.ConstantFieldref;
+import org.apache.bcel.classfile.ConstantNameAndType;
+import org.apache.bcel.classfile.ConstantPool;
+import org.apache.bcel.classfile.JavaClass;
+import org.testng.annotations.Test;
+
+import edu.umd.cs.findbugs.Project;
+import edu.umd.cs.findbugs.ba.AnalysisContext;
+
+public class SymbolTableTest {
+
+    @Test
+    public void shouldInternSymbols() {
+        int id = SymbolTable.idOf("toString");
+        assertEquals(SymbolTable.idOf(new String("toString")), id);
+        assertEquals(SymbolTable.symbolOf(id), "toString");
+        assertNotEquals(SymbolTable.idOf("hashCode"), id);
+    }
+
+    @Test
+    public void shouldInternDottedClassNames() {
+        int id = SymbolTable.classIdOf("java/util/List");
+        assertEquals(SymbolTable.classIdOf("java.util.List"), id);
+        assertEquals(SymbolTable.symbolOf(id), "java.util.List");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectUnknownIds() {
+        SymbolTable.symbolOf(Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void shouldDropSymbolsOfPreviousAnalysis() {
+        AnalysisContext.setCurrentAnalysisContext(new AnalysisContext(new Project()));
+        try {
+            int id = SymbolTable.idOf("onlyInFirstAnalysis");
+            assertEquals(SymbolTable.symbolOf(id), "onlyInFirstAnalysis");
+
+            AnalysisContext.setCurrentAnalysisContext(new AnalysisContext(new Project()));
+            assertEquals(SymbolTable.idOf("inSecondAnalysis"), 0);
+            assertEquals(SymbolTable.symbolOf(0), "inSecondAnalysis");
+            assertNotEquals(SymbolTable.idOf("onlyInFirstAnalysis"), id);
+        } finally {
+            AnalysisContext.removeCurrentAnalysisContext();
+        }
+    }
+
+    @Test
+    public void shouldCompareIdsLikeNames() {
+        FQMethodId method = new FQMethodId("java/util/List", "size", "()I");
+        assertEquals(new FQMethodId("java.util.List", "size", "()I"), method);
+        assertEquals(new FQMethodId("java.util.List", "size", "()I").hashCode(), method.hashCode());
+        assertNotEquals(new FQMethodId("java.util.Set", "size", "()I"), method);
+        assertEquals(method.toFQMethod(), new FQMethod("java/util/List", "size", "()I"));
+        assertEquals(method.toString(), "java/util/List.size()I");
+
+        assertEquals(new QMethodId("size", "()I"), new QMethodId(method.getMethodNameId(), method.getSignatureId()));
+        assertEquals(new QMethodId("size", "()I").toString(), new QMethod("size", "()I").toString());
+
+        assertEquals(new FQFieldId("java/lang/System", "out", "Ljava/io/PrintStream;").toFQField(),
+                new FQField("java/lang/System", "out", "Ljava/io/PrintStream;"));
+    }
+
+    @Test
+    public void shouldResolveConstantPoolMembers() throws ClassNotFoundException {
+        JavaClass cls = Repository.lookupClass("java.util.ArrayList");
+        ConstantPool pool = cls.getConstantPool();
+        ConstantPoolSymbols symbols = new ConstantPoolSymbols(pool);
+
+        int numMembers = 0;
+        for (int i = 1; i < pool.getLength(); i++) {
+            Constant c = pool.getConstant(i);
+            if (!(c instanceof ConstantCP)) {
+                continue;
+            }
+
+            ConstantCP cp = (ConstantCP) c;
+            ConstantNameAndType nat = (ConstantNameAndType) pool.getConstant(cp.getNameAndTypeIndex());
+            String className = cp.getClass(pool);
+            assertEquals(SymbolTable.symbolOf(symbols.getClassId(i)), className);
+            if (c instanceof ConstantFieldref) {
+                FQFieldId field = symbols.getField(i);
+                assertEquals(field, new FQFieldId(className, nat.getName(pool), nat.getSignature(pool)));
+                assertSame(symbols.getField(i), field);
+            } else {
+                FQMethodId method = symbols.getMethod(i);
+                assertEquals(method, new FQMethodId(className, nat.getName(pool), nat.getSignature(pool)));
+                assertSame(symbols.getMethod(i), method);
+            }
+            numMembers++;
+        }
+        assertTrue(numMembers > 0);
+    }
+}
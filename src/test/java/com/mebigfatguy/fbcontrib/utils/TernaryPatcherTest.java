@@ -0,0 +1,103 @@
+/*
+ * fb-contrib - Auxiliary detectors for Java programs
+ * Copyright (C) 2005-2017 Dave Brosius
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.mebigfatguy.fbcontrib.utils;
+
+import static org.apache.bcel.Constants.ALOAD;
+import static org.apache.bcel.Constants.GOTO;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import edu.umd.cs.findbugs.FindBugs;
+import edu.umd.cs.findbugs.OpcodeStack;
+import edu.umd.cs.findbugs.Project;
+import edu.umd.cs.findbugs.ba.AnalysisContext;
+
+public class TernaryPatcherTest {
+
+    @BeforeClass
+    public void setUpClass() {
+        FindBugs.setHome("target/findbugs-3.0.1.jar");
+        // an opcode stack reads its settings from the current analysis context
+        AnalysisContext.setCurrentAnalysisContext(new AnalysisContext(new Project()));
+    }
+
+    @AfterClass
+    public void tearDownClass() {
+        AnalysisContext.removeCurrentAnalysisContext();
+    }
+
+    @Test
+    public void shouldRestoreUserValuesStrippedByGoto() {
+        TernaryPatcher patcher = new TernaryPatcher();
+        FixedStack stack = new FixedStack("a", "b");
+        OpcodeStack opcodeStack = stack;
+
+        patcher.pre(opcodeStack, GOTO);
+        stack.stripUserValues();
+        patcher.post(opcodeStack, GOTO);
+        assertNull(opcodeStack.getStackItem(0).getUserValue());
+
+        patcher.pre(opcodeStack, ALOAD);
+        patcher.post(opcodeStack, ALOAD);
+        assertEquals(opcodeStack.getStackItem(0).getUserValue(), "a");
+        assertEquals(opcodeStack.getStackItem(1).getUserValue(), "b");
+    }
+
+    /**
+     * a fixed set of stack items, each holding a user value, standing in for the stack of a method being parsed. Multithreaded use of the patcher is tested
+     * by running the detectors that use it over the samples, in TernaryPatcherDetectorsTest.
+     */
+    static class FixedStack extends OpcodeStack {
+        private final OpcodeStack.Item[] items;
+
+        FixedStack(String... userValues) {
+            items = new OpcodeStack.Item[userValues.length];
+            for (int i = 0; i < userValues.length; i++) {
+                items[i] = new OpcodeStack.Item(Values.SIG_JAVA_LANG_OBJECT);
+            }
+            setUserValues(userValues);
+        }
+
+        @Override
+        public int getStackDepth() {
+            return items.length;
+        }
+
+        @Override
+        public OpcodeStack.Item getStackItem(int stackOffset) {
+            return items[stackOffset];
+        }
+
+        void setUserValues(String... userValues) {
+            for (int i = 0; i < items.length; i++) {
+                items[i].setUserValue(userValues[i]);
+            }
+        }
+
+        void stripUserValues() {
+            for (OpcodeStack.Item item : items) {
+                item.setUserValue(null);
+            }
+        }
+    }
+}